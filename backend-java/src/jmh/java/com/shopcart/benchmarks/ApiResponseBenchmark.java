@@ -0,0 +1,55 @@
+package com.shopcart.benchmarks;
+
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.shopcart.models.Product;
+import com.shopcart.utils.ApiResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization of model lists into API responses, as returned by the list endpoints
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=warn")
+public class ApiResponseBenchmark {
+
+    @Param({"1", "25", "100"})
+    private int size;
+
+    private List<Product> products;
+
+    @Setup
+    public void setUp() {
+        products = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            products.add(Fixtures.product("p-" + i));
+        }
+    }
+
+    @Benchmark
+    public APIGatewayProxyResponseEvent successWithProducts() {
+        return ApiResponse.success(products);
+    }
+
+    @Benchmark
+    public APIGatewayProxyResponseEvent notFound() {
+        return ApiResponse.notFound("Product with ID p-0 not found");
+    }
+}
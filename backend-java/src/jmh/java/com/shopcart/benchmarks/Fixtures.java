@@ -0,0 +1,64 @@
+package com.shopcart.benchmarks;
+
+import com.shopcart.models.Cart;
+import com.shopcart.models.CartItem;
+import com.shopcart.models.Product;
+
+/**
+ * Sample data shared by the benchmarks
+ */
+final class Fixtures {
+    static final String CART_ID = "cart-1";
+    static final String CUSTOMER_ID = "customer-1";
+    static final String PRODUCT_ID = "p-0";
+    static final String TIMESTAMP = "2024-01-01T00:00:00Z";
+
+    static final String ADD_CART_ITEM_BODY = "{\"productId\":\"" + PRODUCT_ID + "\",\"quantity\":2}";
+    static final String CREATE_ORDER_BODY = createOrderBody(CART_ID);
+
+    private Fixtures() {
+    }
+
+    static String createOrderBody(String cartId) {
+        return "{\"cartId\":\"" + cartId + "\",\"customerId\":\"" + CUSTOMER_ID + "\","
+                + "\"shippingAddress\":\"1 Main Street, Springfield\",\"paymentMethod\":\"CREDIT_CARD\"}";
+    }
+
+    static Product product(String productId) {
+        Product product = new Product();
+        product.setProductId(productId);
+        product.setName("Product " + productId);
+        product.setDescription("A product used for benchmarking, with a description of typical length.");
+        product.setPrice(19.99);
+        product.setStock(1_000_000_000);
+        product.setImageUrl("https://example.com/images/" + productId + ".png");
+        product.setCategoryId("category-1");
+        product.setCreatedAt(TIMESTAMP);
+        product.setUpdatedAt(TIMESTAMP);
+        return product;
+    }
+
+    static Cart cart(String cartId, int lines, int quantity) {
+        Cart cart = new Cart();
+        cart.setCartId(cartId);
+        cart.setCustomerId(CUSTOMER_ID);
+        cart.setTotalItems(lines * quantity);
+        cart.setTotalPrice(lines * quantity * 19.99);
+        cart.setCreatedAt(TIMESTAMP);
+        cart.setUpdatedAt(TIMESTAMP);
+        return cart;
+    }
+
+    static CartItem cartItem(String cartId, String productId, int quantity) {
+        CartItem item = new CartItem();
+        item.setCartId(cartId);
+        item.setProductId(productId);
+        item.setName("Product " + productId);
+        item.setPrice(19.99);
+        item.setQuantity(quantity);
+        item.setTotalPrice(quantity * 19.99);
+        item.setCreatedAt(TIMESTAMP);
+        item.setUpdatedAt(TIMESTAMP);
+        return item;
+    }
+}
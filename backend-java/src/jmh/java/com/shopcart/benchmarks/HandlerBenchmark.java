@@ -0,0 +1,149 @@
+package com.shopcart.benchmarks;
+
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.shopcart.handlers.cart.AddCartItemHandler;
+import com.shopcart.handlers.orders.CreateOrderHandler;
+import com.shopcart.handlers.products.GetProductHandler;
+import com.shopcart.utils.DynamoDBUtil;
+import com.shopcart.utils.InMemoryStorage;
+import com.shopcart.utils.TableRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Full handler invocations: request parsing, every storage call and response serialization.
+ * With {@code storage=sdk} the calls go through the real SDK client to {@link InProcessDynamoDb};
+ * with {@code storage=memory} they go to {@link InMemoryStorage}, leaving only the handler logic.
+ * The table variables must be set, e.g. {@code PRODUCTS_TABLE=Products}; see README.
+ * {@code getProduct} measures a {@code ProductCache} hit unless run with
+ * {@code PRODUCT_CACHE_TTL_SECONDS=0}, which measures the storage read instead.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=warn")
+public class HandlerBenchmark {
+    private static final int ORDER_LINES = 3;
+    private static final int ORDER_CARTS = 2000;
+    private static final String ADD_CART_ID = "cart-add";
+    private static final AtomicInteger cartSequence = new AtomicInteger();
+
+    @Param({"sdk", "memory"})
+    public String storage;
+
+    private final GetProductHandler getProductHandler = new GetProductHandler();
+    private final AddCartItemHandler addCartItemHandler = new AddCartItemHandler();
+    private final CreateOrderHandler createOrderHandler = new CreateOrderHandler();
+
+    @Setup
+    public void setUp() {
+        Map<String, Class<?>> configured = TableRegistry.configuredTables();
+        if (configured.size() < 7) {
+            throw new IllegalStateException("Set PRODUCTS_TABLE, CARTS_TABLE, CART_ITEMS_TABLE, ORDERS_TABLE, "
+                    + "ORDER_ITEMS_TABLE, CUSTOMERS_TABLE and CATEGORIES_TABLE to run the handler benchmarks");
+        }
+
+        if ("memory".equals(storage)) {
+            DynamoDBUtil.useStorage(new InMemoryStorage());
+        } else {
+            InProcessDynamoDb store = new InProcessDynamoDb();
+            configured.forEach(store::createTable);
+            DynamoDBUtil.reconnect(store.client());
+        }
+
+        for (int i = 0; i < ORDER_LINES; i++) {
+            DynamoDBUtil.putItem(System.getenv("PRODUCTS_TABLE"), Fixtures.product("p-" + i));
+        }
+    }
+
+    /**
+     * Reset the cart that addCartItem adds to, so its line does not keep growing across iterations
+     */
+    @Setup(Level.Iteration)
+    public void resetAddCart() {
+        putCart(ADD_CART_ID, 1);
+    }
+
+    /**
+     * A pool of filled carts, one per order placed in an iteration, since placing an order
+     * empties its cart. Refilling per iteration keeps the setup out of the timed calls.
+     */
+    @State(Scope.Thread)
+    public static class FilledCarts {
+        private final String[] orderBodies = new String[ORDER_CARTS];
+        private int next;
+
+        /**
+         * Fill a fresh pool of carts
+         * @param benchmark Taken so the store is set up before the first refill
+         */
+        @Setup(Level.Iteration)
+        public void fill(HandlerBenchmark benchmark) {
+            for (int i = 0; i < ORDER_CARTS; i++) {
+                String cartId = "cart-order-" + cartSequence.incrementAndGet();
+                putCart(cartId, ORDER_LINES);
+                orderBodies[i] = Fixtures.createOrderBody(cartId);
+            }
+            next = 0;
+        }
+
+        String nextOrderBody() {
+            return orderBodies[next++];
+        }
+    }
+
+    private static void putCart(String cartId, int lines) {
+        DynamoDBUtil.putItem(System.getenv("CARTS_TABLE"), Fixtures.cart(cartId, lines, 1));
+        for (int i = 0; i < lines; i++) {
+            DynamoDBUtil.putItem(System.getenv("CART_ITEMS_TABLE"), Fixtures.cartItem(cartId, "p-" + i, 1));
+        }
+    }
+
+    @Benchmark
+    public APIGatewayProxyResponseEvent getProduct() {
+        return getProductHandler.handleRequest(new APIGatewayProxyRequestEvent()
+                .withHttpMethod("GET")
+                .withPathParameters(Map.of("productId", Fixtures.PRODUCT_ID)), null);
+    }
+
+    @Benchmark
+    public APIGatewayProxyResponseEvent addCartItem() {
+        return addCartItemHandler.handleRequest(new APIGatewayProxyRequestEvent()
+                .withHttpMethod("POST")
+                .withPathParameters(Map.of("cartId", ADD_CART_ID))
+                .withBody(Fixtures.ADD_CART_ITEM_BODY), null);
+    }
+
+    /**
+     * Place one order per pooled cart; each measured iteration is a batch of {@code ORDER_CARTS}
+     * orders, so the pool never runs dry and the score is still the time per order
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 5, batchSize = ORDER_CARTS)
+    @Measurement(iterations = 10, batchSize = ORDER_CARTS)
+    @OperationsPerInvocation(ORDER_CARTS)
+    public APIGatewayProxyResponseEvent createOrder(FilledCarts carts) {
+        return createOrderHandler.handleRequest(new APIGatewayProxyRequestEvent()
+                .withHttpMethod("POST")
+                .withBody(carts.nextOrderBody()), null);
+    }
+}
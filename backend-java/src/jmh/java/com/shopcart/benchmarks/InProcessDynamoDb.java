@@ -0,0 +1,347 @@
+package com.shopcart.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.shopcart.utils.TableRegistry;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.enhanced.dynamodb.TableMetadata;
+import software.amazon.awssdk.http.AbortableInputStream;
+import software.amazon.awssdk.http.ExecutableHttpRequest;
+import software.amazon.awssdk.http.HttpExecuteRequest;
+import software.amazon.awssdk.http.HttpExecuteResponse;
+import software.amazon.awssdk.http.SdkHttpClient;
+import software.amazon.awssdk.http.SdkHttpResponse;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process stand-in for DynamoDB, plugged in as the SDK's HTTP transport.
+ * Requests are fully marshalled, signed and unmarshalled by the real client, so a benchmark
+ * measures everything but the network. Items are kept per table in memory. Update and key
+ * condition expressions are evaluated for the forms the handlers use ({@code SET a = b},
+ * {@code SET a = a - b}, {@code ADD}, {@code REMOVE} and key equality); condition expressions
+ * are not evaluated, so every write succeeds.
+ */
+public class InProcessDynamoDb implements SdkHttpClient {
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final String TARGET_PREFIX = "DynamoDB_20120810.";
+
+    private final Map<String, Table> tables = new ConcurrentHashMap<>();
+
+    /**
+     * Build a DynamoDB client that talks to this store
+     * @return The client
+     */
+    public DynamoDbClient client() {
+        return DynamoDbClient.builder()
+                .httpClient(this)
+                .endpointOverride(URI.create("http://localhost:8000"))
+                .region(Region.US_EAST_1)
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("bench", "bench")))
+                .build();
+    }
+
+    /**
+     * Create a table with the key schema of a model class
+     * @param tableName The table name
+     * @param modelClass The model class
+     */
+    public void createTable(String tableName, Class<?> modelClass) {
+        TableMetadata metadata = TableRegistry.schema(modelClass).tableMetadata();
+        tables.put(tableName, new Table(metadata.primaryPartitionKey(), metadata.primarySortKey().orElse(null)));
+    }
+
+    @Override
+    public ExecutableHttpRequest prepareRequest(HttpExecuteRequest request) {
+        return new ExecutableHttpRequest() {
+            @Override
+            public HttpExecuteResponse call() throws IOException {
+                String target = request.httpRequest().firstMatchingHeader("X-Amz-Target").orElse("");
+                JsonNode body;
+                try (InputStream in = request.contentStreamProvider().orElseThrow().newStream()) {
+                    body = objectMapper.readTree(in);
+                }
+                try {
+                    return respond(200, execute(target.substring(TARGET_PREFIX.length()), body));
+                } catch (IllegalArgumentException e) {
+                    ObjectNode error = objectMapper.createObjectNode()
+                            .put("__type", "com.amazon.coral.validate#ValidationException")
+                            .put("message", e.getMessage());
+                    return respond(400, error);
+                }
+            }
+
+            @Override
+            public void abort() {
+            }
+        };
+    }
+
+    @Override
+    public void close() {
+    }
+
+    private static HttpExecuteResponse respond(int statusCode, JsonNode body) throws IOException {
+        byte[] bytes = objectMapper.writeValueAsBytes(body);
+        return HttpExecuteResponse.builder()
+                .response(SdkHttpResponse.builder()
+                        .statusCode(statusCode)
+                        .putHeader("Content-Type", "application/x-amz-json-1.0")
+                        .putHeader("Content-Length", Integer.toString(bytes.length))
+                        .build())
+                .responseBody(AbortableInputStream.create(new ByteArrayInputStream(bytes)))
+                .build();
+    }
+
+    private JsonNode execute(String operation, JsonNode request) {
+        ObjectNode response = objectMapper.createObjectNode();
+        switch (operation) {
+            case "GetItem": {
+                ObjectNode item = table(request).items.get(table(request).key(request.get("Key")));
+                if (item != null) {
+                    response.set("Item", item.deepCopy());
+                }
+                return response;
+            }
+            case "PutItem":
+                put(request.get("TableName").asText(), request.get("Item"));
+                return response;
+            case "DeleteItem": {
+                ObjectNode old = table(request).items.remove(table(request).key(request.get("Key")));
+                if (old != null && "ALL_OLD".equals(request.path("ReturnValues").asText())) {
+                    response.set("Attributes", old);
+                }
+                return response;
+            }
+            case "UpdateItem": {
+                ObjectNode item = update(request);
+                if ("ALL_NEW".equals(request.path("ReturnValues").asText())) {
+                    response.set("Attributes", item.deepCopy());
+                }
+                return response;
+            }
+            case "Query":
+                return items(response, query(request), request.path("Limit").asInt(Integer.MAX_VALUE));
+            case "Scan": {
+                // Every item lives in segment 0
+                List<ObjectNode> items = request.path("Segment").asInt(0) == 0
+                        ? new ArrayList<>(table(request).items.values()) : List.of();
+                return items(response, items, request.path("Limit").asInt(Integer.MAX_VALUE));
+            }
+            case "BatchGetItem": {
+                ObjectNode responses = response.putObject("Responses");
+                request.get("RequestItems").fields().forEachRemaining(entry -> {
+                    Table table = table(entry.getKey());
+                    ArrayNode found = responses.putArray(entry.getKey());
+                    for (JsonNode key : entry.getValue().get("Keys")) {
+                        ObjectNode item = table.items.get(table.key(key));
+                        if (item != null) {
+                            found.add(item.deepCopy());
+                        }
+                    }
+                });
+                response.putObject("UnprocessedKeys");
+                return response;
+            }
+            case "BatchWriteItem":
+                request.get("RequestItems").fields().forEachRemaining(entry -> {
+                    for (JsonNode write : entry.getValue()) {
+                        if (write.has("PutRequest")) {
+                            put(entry.getKey(), write.get("PutRequest").get("Item"));
+                        } else {
+                            Table table = table(entry.getKey());
+                            table.items.remove(table.key(write.get("DeleteRequest").get("Key")));
+                        }
+                    }
+                });
+                response.putObject("UnprocessedItems");
+                return response;
+            case "TransactWriteItems":
+                for (JsonNode action : request.get("TransactItems")) {
+                    if (action.has("Put")) {
+                        put(action.get("Put").get("TableName").asText(), action.get("Put").get("Item"));
+                    } else if (action.has("Update")) {
+                        update(action.get("Update"));
+                    } else if (action.has("Delete")) {
+                        Table table = table(action.get("Delete"));
+                        table.items.remove(table.key(action.get("Delete").get("Key")));
+                    }
+                }
+                return response;
+            default:
+                throw new IllegalArgumentException("Unsupported operation " + operation);
+        }
+    }
+
+    private static JsonNode items(ObjectNode response, List<ObjectNode> items, int limit) {
+        ArrayNode array = response.putArray("Items");
+        for (int i = 0; i < items.size() && i < limit; i++) {
+            array.add(items.get(i).deepCopy());
+        }
+        response.put("Count", array.size());
+        response.put("ScannedCount", array.size());
+        return response;
+    }
+
+    private void put(String tableName, JsonNode item) {
+        Table table = table(tableName);
+        table.items.put(table.key(item), (ObjectNode) item.deepCopy());
+    }
+
+    private ObjectNode update(JsonNode request) {
+        Table table = table(request);
+        JsonNode key = request.get("Key");
+        ObjectNode item = table.items.computeIfAbsent(table.key(key), k -> (ObjectNode) key.deepCopy());
+        Expressions expressions = new Expressions(request);
+
+        String section = null;
+        for (String clause : splitClauses(request.get("UpdateExpression").asText())) {
+            String[] words = clause.split("\\s+", 2);
+            switch (words[0].toUpperCase()) {
+                case "SET", "ADD", "REMOVE" -> {
+                    section = words[0].toUpperCase();
+                    clause = words[1];
+                }
+                default -> {
+                }
+            }
+            if ("SET".equals(section)) {
+                String[] assignment = clause.split("=", 2);
+                item.set(expressions.name(assignment[0]), expressions.value(item, assignment[1]));
+            } else if ("ADD".equals(section)) {
+                String[] operands = clause.trim().split("\\s+");
+                String name = expressions.name(operands[0]);
+                item.set(name, number(number(item.get(name)).add(number(expressions.operand(item, operands[1])))));
+            } else if ("REMOVE".equals(section)) {
+                item.remove(expressions.name(clause));
+            }
+        }
+        return item;
+    }
+
+    private List<ObjectNode> query(JsonNode request) {
+        Expressions expressions = new Expressions(request);
+        Map<String, JsonNode> conditions = new LinkedHashMap<>();
+        for (String condition : request.get("KeyConditionExpression").asText().split("(?i)\\s+AND\\s+")) {
+            String[] equality = condition.split("=", 2);
+            conditions.put(expressions.name(equality[0]), expressions.operand(null, equality[1]));
+        }
+
+        List<ObjectNode> matches = new ArrayList<>();
+        for (ObjectNode item : table(request).items.values()) {
+            boolean match = true;
+            for (Map.Entry<String, JsonNode> condition : conditions.entrySet()) {
+                match &= condition.getValue().equals(item.get(condition.getKey()));
+            }
+            if (match) {
+                matches.add(item);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Split an update expression into its comma separated clauses, keeping the action keyword
+     * at the start of the first clause of each action
+     */
+    private static List<String> splitClauses(String expression) {
+        List<String> clauses = new ArrayList<>();
+        for (String part : expression.split("(?i)(?=\\b(SET|ADD|REMOVE)\\s)")) {
+            for (String clause : part.split(",")) {
+                if (!clause.isBlank()) {
+                    clauses.add(clause.trim());
+                }
+            }
+        }
+        return clauses;
+    }
+
+    private Table table(JsonNode request) {
+        return table(request.get("TableName").asText());
+    }
+
+    private Table table(String tableName) {
+        Table table = tables.get(tableName);
+        if (table == null) {
+            throw new IllegalArgumentException("Requested resource not found: Table: " + tableName + " not found");
+        }
+        return table;
+    }
+
+    private static BigDecimal number(JsonNode value) {
+        return value == null || !value.has("N") ? BigDecimal.ZERO : new BigDecimal(value.get("N").asText());
+    }
+
+    private static JsonNode number(BigDecimal value) {
+        return objectMapper.createObjectNode().put("N", value.stripTrailingZeros().toPlainString());
+    }
+
+    private static final class Table {
+        final String partitionKey;
+        final String sortKey;
+        final Map<String, ObjectNode> items = new ConcurrentHashMap<>();
+
+        Table(String partitionKey, String sortKey) {
+            this.partitionKey = partitionKey;
+            this.sortKey = sortKey;
+        }
+
+        String key(JsonNode item) {
+            return sortKey == null ? String.valueOf(item.get(partitionKey))
+                    : item.get(partitionKey) + "|" + item.get(sortKey);
+        }
+    }
+
+    /**
+     * Resolves the attribute names and values of one request's expressions
+     */
+    private static final class Expressions {
+        private final JsonNode names;
+        private final JsonNode values;
+
+        Expressions(JsonNode request) {
+            this.names = request.path("ExpressionAttributeNames");
+            this.values = request.path("ExpressionAttributeValues");
+        }
+
+        String name(String token) {
+            String trimmed = token.trim();
+            return trimmed.startsWith("#") ? names.get(trimmed).asText() : trimmed;
+        }
+
+        JsonNode operand(ObjectNode item, String token) {
+            String trimmed = token.trim();
+            if (trimmed.startsWith(":")) {
+                return values.get(trimmed);
+            }
+            return item != null ? item.get(name(trimmed)) : null;
+        }
+
+        JsonNode value(ObjectNode item, String expression) {
+            String trimmed = expression.trim();
+            Iterator<String> tokens = List.of(trimmed.split("\\s+")).iterator();
+            JsonNode result = operand(item, tokens.next());
+            while (tokens.hasNext()) {
+                String operator = tokens.next();
+                BigDecimal right = number(operand(item, tokens.next()));
+                result = number("-".equals(operator) ? number(result).subtract(right) : number(result).add(right));
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.shopcart.benchmarks;
+
+import com.shopcart.requests.AddCartItemRequest;
+import com.shopcart.requests.CreateOrderRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request body parsing as done by the cart and order handlers
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=warn")
+public class RequestParsingBenchmark {
+    @Benchmark
+    public AddCartItemRequest addCartItemBody() {
+        // As in AddCartItemHandler
+        return AddCartItemRequest.parse(Fixtures.ADD_CART_ITEM_BODY);
+    }
+
+    @Benchmark
+    public CreateOrderRequest createOrderBody() {
+        // As in CreateOrderHandler
+        return CreateOrderRequest.parse(Fixtures.CREATE_ORDER_BODY);
+    }
+}
@@ -0,0 +1,59 @@
+package com.shopcart.benchmarks;
+
+import com.shopcart.models.Product;
+import com.shopcart.utils.TableRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Table schema and table handle resolution, as done by every DynamoDBUtil call,
+ * against building the table handle on every call
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=warn")
+public class TableResolutionBenchmark {
+
+    private DynamoDbEnhancedClient enhancedClient;
+    private TableRegistry registry;
+
+    @Setup
+    public void setUp() {
+        enhancedClient = DynamoDbEnhancedClient.builder()
+                .dynamoDbClient(new InProcessDynamoDb().client())
+                .build();
+        registry = new TableRegistry(enhancedClient);
+        registry.table("Products", Product.class);
+    }
+
+    @Benchmark
+    public TableSchema<Product> cachedSchema() {
+        return TableRegistry.schema(Product.class);
+    }
+
+    @Benchmark
+    public DynamoDbTable<Product> cachedTable() {
+        return registry.table("Products", Product.class);
+    }
+
+    @Benchmark
+    public DynamoDbTable<Product> tablePerCall() {
+        return enhancedClient.table("Products", TableSchema.fromBean(Product.class));
+    }
+}
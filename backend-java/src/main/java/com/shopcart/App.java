@@ -0,0 +1,122 @@
+package com.shopcart;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.shopcart.handlers.cart.AddCartItemHandler;
+import com.shopcart.handlers.cart.ClearCartHandler;
+import com.shopcart.handlers.cart.CreateCartHandler;
+import com.shopcart.handlers.cart.DeleteCartItemHandler;
+import com.shopcart.handlers.cart.GetCartByCustomerHandler;
+import com.shopcart.handlers.cart.GetCartHandler;
+import com.shopcart.handlers.cart.UpdateCartItemHandler;
+import com.shopcart.handlers.categories.CreateCategoryHandler;
+import com.shopcart.handlers.categories.DeleteCategoryHandler;
+import com.shopcart.handlers.categories.GetCategoryHandler;
+import com.shopcart.handlers.categories.UpdateCategoryHandler;
+import com.shopcart.handlers.customers.CreateCustomerHandler;
+import com.shopcart.handlers.customers.DeleteCustomerHandler;
+import com.shopcart.handlers.customers.GetCustomerHandler;
+import com.shopcart.handlers.customers.LoginHandler;
+import com.shopcart.handlers.customers.UpdateCustomerHandler;
+import com.shopcart.handlers.orders.CreateOrderHandler;
+import com.shopcart.handlers.orders.DeleteOrderHandler;
+import com.shopcart.handlers.orders.GetOrderHandler;
+import com.shopcart.handlers.orders.UpdateOrderStatusHandler;
+import com.shopcart.handlers.products.CreateProductHandler;
+import com.shopcart.handlers.products.DeleteProductHandler;
+import com.shopcart.handlers.products.GetProductHandler;
+import com.shopcart.handlers.products.UpdateProductHandler;
+import com.shopcart.utils.Priming;
+import com.shopcart.utils.Router;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.function.Supplier;
+
+/**
+ * Lambda function handler serving the whole API from one function.
+ * Requests are routed by HTTP method and resource path to the same handlers that are
+ * deployed as separate functions, so every route shares one warm container, one set of
+ * DynamoDB clients and one cache. The route table mirrors the API events in
+ * infrastructure/template.yaml.
+ */
+public class App implements RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> {
+    private static final Logger logger = LoggerFactory.getLogger(App.class);
+    private static final Router router = routes();
+
+    static {
+        Priming.register();
+    }
+
+    /**
+     * Build the route table
+     * @return The router
+     */
+    static Router routes() {
+        Supplier<RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent>> getCustomer = Router.lazy(GetCustomerHandler::new);
+        Supplier<RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent>> getProduct = Router.lazy(GetProductHandler::new);
+        Supplier<RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent>> getCategory = Router.lazy(GetCategoryHandler::new);
+        Supplier<RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent>> getOrder = Router.lazy(GetOrderHandler::new);
+
+        return new Router()
+                // Customers
+                .add("GET", "/customers", getCustomer)
+                .add("GET", "/customers/{customerId}", getCustomer)
+                .add("POST", "/customers", Router.lazy(CreateCustomerHandler::new))
+                .add("PUT", "/customers/{customerId}", Router.lazy(UpdateCustomerHandler::new))
+                .add("DELETE", "/customers/{customerId}", Router.lazy(DeleteCustomerHandler::new))
+                .add("POST", "/login", Router.lazy(LoginHandler::new))
+                // Products
+                .add("GET", "/products", getProduct)
+                .add("GET", "/products/{productId}", getProduct)
+                .add("GET", "/categories/{categoryId}/products", getProduct)
+                .add("POST", "/products", Router.lazy(CreateProductHandler::new))
+                .add("PUT", "/products/{productId}", Router.lazy(UpdateProductHandler::new))
+                .add("DELETE", "/products/{productId}", Router.lazy(DeleteProductHandler::new))
+                // Categories
+                .add("GET", "/categories", getCategory)
+                .add("GET", "/categories/{categoryId}", getCategory)
+                .add("POST", "/categories", Router.lazy(CreateCategoryHandler::new))
+                .add("PUT", "/categories/{categoryId}", Router.lazy(UpdateCategoryHandler::new))
+                .add("DELETE", "/categories/{categoryId}", Router.lazy(DeleteCategoryHandler::new))
+                // Carts
+                .add("GET", "/carts/{cartId}", Router.lazy(GetCartHandler::new))
+                .add("GET", "/customers/{customerId}/cart", Router.lazy(GetCartByCustomerHandler::new))
+                .add("POST", "/carts", Router.lazy(CreateCartHandler::new))
+                .add("POST", "/carts/{cartId}/items", Router.lazy(AddCartItemHandler::new))
+                .add("PUT", "/carts/{cartId}/items/{productId}", Router.lazy(UpdateCartItemHandler::new))
+                .add("DELETE", "/carts/{cartId}/items/{productId}", Router.lazy(DeleteCartItemHandler::new))
+                .add("POST", "/carts/{cartId}/clear", Router.lazy(ClearCartHandler::new))
+                // Orders
+                .add("GET", "/orders", getOrder)
+                .add("GET", "/orders/{orderId}", getOrder)
+                .add("GET", "/customers/{customerId}/orders", getOrder)
+                .add("POST", "/orders", Router.lazy(CreateOrderHandler::new))
+                .add("PUT", "/orders/{orderId}/status", Router.lazy(UpdateOrderStatusHandler::new))
+                .add("DELETE", "/orders/{orderId}", Router.lazy(DeleteOrderHandler::new));
+    }
+
+    /**
+     * Handle the Lambda function request
+     * @param input The API Gateway request event
+     * @param context The Lambda context
+     * @return The API Gateway response event
+     */
+    @Override
+    public APIGatewayProxyResponseEvent handleRequest(APIGatewayProxyRequestEvent input, Context context) {
+        logger.info("Routing {} {}", input.getHttpMethod(), input.getPath());
+        return router.route(input, context);
+    }
+
+    /**
+     * Run the API as a standalone HTTP server, see {@link Server}
+     * @param args Unused
+     * @throws IOException If the port cannot be bound
+     */
+    public static void main(String[] args) throws IOException {
+        Server.main(args);
+    }
+}
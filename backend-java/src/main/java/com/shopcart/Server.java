@@ -0,0 +1,213 @@
+package com.shopcart;
+
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.shopcart.utils.ApiResponse;
+import com.shopcart.utils.Router;
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Standalone HTTP server serving the API outside Lambda.
+ * Each request is adapted into the API Gateway proxy event the handlers expect and routed
+ * through the same {@link Router} as {@link App}; the handler's response event is written
+ * back as the HTTP response. Every request runs on its own virtual thread, so the blocking
+ * DynamoDB calls in the handlers park the virtual thread instead of holding a platform thread.
+ */
+public class Server {
+    private static final Logger logger = LoggerFactory.getLogger(Server.class);
+
+    static final String PORT = "PORT";
+    private static final int DEFAULT_PORT = 8080;
+    private static final int SHUTDOWN_GRACE_SECONDS = 5;
+
+    private final Router router;
+    private final HttpServer httpServer;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * Create a server for the given routes
+     * @param router The router to dispatch requests with
+     * @param port The port to listen on, or 0 for any free port
+     * @throws IOException If the port cannot be bound
+     */
+    public Server(Router router, int port) throws IOException {
+        this.router = router;
+        this.httpServer = HttpServer.create(new InetSocketAddress(port), 0);
+        this.httpServer.createContext("/", this::handle);
+        this.httpServer.setExecutor(executor);
+    }
+
+    /**
+     * Start accepting requests
+     */
+    public void start() {
+        httpServer.start();
+        logger.info("Listening on port {}", port());
+    }
+
+    /**
+     * Stop accepting requests, and wait briefly for the requests in flight to complete
+     */
+    public void stop() {
+        httpServer.stop(SHUTDOWN_GRACE_SECONDS);
+        executor.close();
+        logger.info("Stopped");
+    }
+
+    /**
+     * Get the port the server listens on
+     * @return The port
+     */
+    public int port() {
+        return httpServer.getAddress().getPort();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            APIGatewayProxyResponseEvent response;
+            try {
+                // No handler reads the Lambda context, so none is passed outside Lambda
+                response = router.route(toRequestEvent(exchange), null);
+            } catch (RuntimeException e) {
+                logger.error("Error handling {} {}: {}", exchange.getRequestMethod(),
+                        exchange.getRequestURI(), e.getMessage(), e);
+                response = ApiResponse.serverError(e.getMessage());
+            }
+            writeResponse(exchange, response);
+        }
+    }
+
+    /**
+     * Adapt an HTTP request into an API Gateway proxy event
+     * @param exchange The HTTP exchange
+     * @return The request event
+     * @throws IOException If the request body cannot be read
+     */
+    static APIGatewayProxyRequestEvent toRequestEvent(HttpExchange exchange) throws IOException {
+        URI uri = exchange.getRequestURI();
+
+        Map<String, String> headers = new HashMap<>();
+        Map<String, List<String>> multiValueHeaders = new HashMap<>();
+        for (Map.Entry<String, List<String>> header : exchange.getRequestHeaders().entrySet()) {
+            List<String> values = header.getValue();
+            if (!values.isEmpty()) {
+                headers.put(header.getKey(), values.get(values.size() - 1));
+                multiValueHeaders.put(header.getKey(), new ArrayList<>(values));
+            }
+        }
+
+        Map<String, List<String>> multiValueQuery = parseQuery(uri.getRawQuery());
+        Map<String, String> query = null;
+        if (multiValueQuery != null) {
+            query = new HashMap<>();
+            for (Map.Entry<String, List<String>> parameter : multiValueQuery.entrySet()) {
+                query.put(parameter.getKey(), parameter.getValue().get(parameter.getValue().size() - 1));
+            }
+        }
+
+        String body;
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] bytes = in.readAllBytes();
+            body = bytes.length > 0 ? new String(bytes, StandardCharsets.UTF_8) : null;
+        }
+
+        APIGatewayProxyRequestEvent.ProxyRequestContext requestContext = new APIGatewayProxyRequestEvent.ProxyRequestContext()
+                .withRequestId(UUID.randomUUID().toString())
+                .withHttpMethod(exchange.getRequestMethod())
+                .withPath(uri.getRawPath())
+                .withProtocol(exchange.getProtocol())
+                .withRequestTimeEpoch(System.currentTimeMillis());
+
+        return new APIGatewayProxyRequestEvent()
+                .withHttpMethod(exchange.getRequestMethod())
+                .withPath(uri.getRawPath())
+                .withResource(uri.getRawPath())
+                .withHeaders(headers)
+                .withMultiValueHeaders(multiValueHeaders)
+                .withQueryStringParameters(query)
+                .withMultiValueQueryStringParameters(multiValueQuery)
+                .withRequestContext(requestContext)
+                .withBody(body)
+                .withIsBase64Encoded(false);
+    }
+
+    /**
+     * Parse a raw query string the way API Gateway presents it
+     * @param rawQuery The raw query string
+     * @return The decoded parameters, or null if there are none
+     */
+    static Map<String, List<String>> parseQuery(String rawQuery) {
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return null;
+        }
+        Map<String, List<String>> parameters = new HashMap<>();
+        for (String pair : rawQuery.split("&")) {
+            if (pair.isEmpty()) {
+                continue;
+            }
+            int separator = pair.indexOf('=');
+            String name = URLDecoder.decode(separator >= 0 ? pair.substring(0, separator) : pair, StandardCharsets.UTF_8);
+            String value = separator >= 0 ? URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8) : "";
+            parameters.computeIfAbsent(name, key -> new ArrayList<>()).add(value);
+        }
+        return parameters.isEmpty() ? null : parameters;
+    }
+
+    private static void writeResponse(HttpExchange exchange, APIGatewayProxyResponseEvent response) throws IOException {
+        Headers responseHeaders = exchange.getResponseHeaders();
+        if (response.getHeaders() != null) {
+            response.getHeaders().forEach(responseHeaders::set);
+        }
+        if (response.getMultiValueHeaders() != null) {
+            response.getMultiValueHeaders().forEach(responseHeaders::put);
+        }
+
+        int statusCode = response.getStatusCode() != null ? response.getStatusCode() : 200;
+        String body = response.getBody();
+        byte[] bytes = body == null ? new byte[0]
+                : Boolean.TRUE.equals(response.getIsBase64Encoded()) ? Base64.getDecoder().decode(body)
+                : body.getBytes(StandardCharsets.UTF_8);
+
+        if (bytes.length == 0 || statusCode == 204 || statusCode == 304 || "HEAD".equals(exchange.getRequestMethod())) {
+            exchange.sendResponseHeaders(statusCode, -1);
+            return;
+        }
+        exchange.sendResponseHeaders(statusCode, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Run the API as a long-lived server. The port is taken from {@code PORT}, default 8080,
+     * and the tables from the same environment variables as the Lambda functions.
+     * @param args Unused
+     * @throws IOException If the port cannot be bound
+     */
+    public static void main(String[] args) throws IOException {
+        String port = System.getenv(PORT);
+        Server server = new Server(App.routes(), port != null && !port.isEmpty() ? Integer.parseInt(port) : DEFAULT_PORT);
+        Runtime.getRuntime().addShutdownHook(new Thread(server::stop));
+        server.start();
+    }
+}
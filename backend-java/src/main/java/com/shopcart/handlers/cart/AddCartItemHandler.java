@@ -94,12 +94,17 @@ import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.RequestHandler;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.shopcart.models.Cart;
 import com.shopcart.models.CartItem;
 import com.shopcart.models.Product;
+import com.shopcart.requests.InvalidRequestException;
+import com.shopcart.requests.AddCartItemRequest;
 import com.shopcart.utils.ApiResponse;
+import com.shopcart.utils.Backoff;
+import com.shopcart.utils.CartTotals;
 import com.shopcart.utils.DynamoDBUtil;
+import com.shopcart.utils.JsonCodec;
+import com.shopcart.utils.Priming;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -113,10 +118,16 @@ import java.util.Map;
  */
 public class AddCartItemHandler implements RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> {
     private static final Logger logger = LoggerFactory.getLogger(AddCartItemHandler.class);
-    private static final ObjectMapper objectMapper = new ObjectMapper();
     private static final String CARTS_TABLE = System.getenv("CARTS_TABLE");
     private static final String CART_ITEMS_TABLE = System.getenv("CART_ITEMS_TABLE");
     private static final String PRODUCTS_TABLE = System.getenv("PRODUCTS_TABLE");
+    private static final List<String> PRODUCT_ATTRIBUTES = List.of(
+        "productId", "name", "price", "imageUrl", "stock");
+
+    static {
+        JsonCodec.warmUp();
+        Priming.register();
+    }
 
     /**
      * Handle the Lambda function request
@@ -133,8 +144,7 @@ public class AddCartItemHandler implements RequestHandler<APIGatewayProxyRequest
             Map<String, String> pathParameters = input.getPathParameters();
             if (pathParameters == null || !pathParameters.containsKey("cartId")) {
                 logger.error("Cart ID is required");
-                Map<String, Object> response = ApiResponse.badRequest("Cart ID is required");
-                return convertToApiGatewayResponse(response);
+                return ApiResponse.badRequest("Cart ID is required");
             }
             
             String cartId = pathParameters.get("cartId");
@@ -143,135 +153,115 @@ public class AddCartItemHandler implements RequestHandler<APIGatewayProxyRequest
             String requestBody = input.getBody();
             if (requestBody == null || requestBody.isEmpty()) {
                 logger.error("Request body is empty");
-                Map<String, Object> response = ApiResponse.badRequest("Request body is required");
-                return convertToApiGatewayResponse(response);
-            }
-            
-            Map<String, Object> requestMap = objectMapper.readValue(requestBody, Map.class);
-            String productId = (String) requestMap.get("productId");
-            Integer quantity = (Integer) requestMap.get("quantity");
-            
-            if (productId == null || productId.isEmpty()) {
-                logger.error("Product ID is required");
-                Map<String, Object> response = ApiResponse.badRequest("Product ID is required");
-                return convertToApiGatewayResponse(response);
+                return ApiResponse.badRequest("Request body is required");
             }
             
-            if (quantity == null || quantity <= 0) {
-                logger.error("Quantity must be greater than 0");
-                Map<String, Object> response = ApiResponse.badRequest("Quantity must be greater than 0");
-                return convertToApiGatewayResponse(response);
+            AddCartItemRequest request;
+            try {
+                request = AddCartItemRequest.parse(requestBody);
+            } catch (InvalidRequestException e) {
+                logger.error("Invalid request: {}", e.getMessage());
+                return ApiResponse.badRequest(e.getMessage());
             }
+            String productId = request.productId();
+            int quantity = request.quantity();
             
-            // Get the cart from DynamoDB
-            logger.info("Getting cart with ID: {}", cartId);
-            Cart cart = DynamoDBUtil.getItem(CARTS_TABLE, "cartId", cartId, Cart.class);
-            
-            if (cart == null) {
+            // Check that the cart exists before doing any work; its totals are read after the commit
+            logger.info("Checking that cart {} exists", cartId);
+            if (!DynamoDBUtil.itemExists(CARTS_TABLE, "cartId", cartId, Cart.class)) {
                 logger.error("Cart with ID {} not found", cartId);
-                Map<String, Object> response = ApiResponse.notFound("Cart with ID " + cartId + " not found");
-                return convertToApiGatewayResponse(response);
+                return ApiResponse.notFound("Cart with ID " + cartId + " not found");
             }
             
             // Get the product from DynamoDB
             logger.info("Getting product with ID: {}", productId);
-            Product product = DynamoDBUtil.getItem(PRODUCTS_TABLE, "productId", productId, Product.class);
+            Product product = DynamoDBUtil.getPartialItem(
+                PRODUCTS_TABLE, "productId", productId, Product.class, PRODUCT_ATTRIBUTES).orElse(null);
             
             if (product == null) {
                 logger.error("Product with ID {} not found", productId);
-                Map<String, Object> response = ApiResponse.notFound("Product with ID " + productId + " not found");
-                return convertToApiGatewayResponse(response);
+                return ApiResponse.notFound("Product with ID " + productId + " not found");
             }
             
             // Check if the product is in stock
             if (product.getStock() < quantity) {
                 logger.error("Product {} is out of stock. Available: {}, Requested: {}", 
                            productId, product.getStock(), quantity);
-                Map<String, Object> response = ApiResponse.badRequest(
+                return ApiResponse.badRequest(
                     "Product is out of stock. Available: " + product.getStock() + ", Requested: " + quantity);
-                return convertToApiGatewayResponse(response);
             }
             
-            // Check if the item already exists in the cart
-            logger.info("Checking if product {} already exists in cart {}", productId, cartId);
-            CartItem existingItem = DynamoDBUtil.getItem(
-                CART_ITEMS_TABLE, "cartId", cartId, "productId", productId, CartItem.class);
-            
             String timestamp = Instant.now().toString();
+            CartItem existingItem;
             CartItem cartItem;
+            int attempt = 0;
             
-            if (existingItem != null) {
-                // Update the existing item
-                logger.info("Updating existing cart item: {}", existingItem);
-                existingItem.setQuantity(existingItem.getQuantity() + quantity);
-                existingItem.setTotalPrice(existingItem.getPrice() * existingItem.getQuantity());
-                existingItem.setUpdatedAt(timestamp);
-                cartItem = existingItem;
-            } else {
-                // Create a new cart item
+            // Save the cart item and its totals, retrying if the same line is changed concurrently
+            while (true) {
+                // Check if the item already exists in the cart
+                logger.info("Checking if product {} already exists in cart {}", productId, cartId);
+                existingItem = DynamoDBUtil.getItemConsistent(
+                    CART_ITEMS_TABLE, "cartId", cartId, "productId", productId, CartItem.class);
+                
                 cartItem = new CartItem();
                 cartItem.setCartId(cartId);
                 cartItem.setProductId(productId);
-                cartItem.setName(product.getName());
-                cartItem.setPrice(product.getPrice());
-                cartItem.setQuantity(quantity);
-                cartItem.setImageUrl(product.getImageUrl());
-                cartItem.setTotalPrice(product.getPrice() * quantity);
-                cartItem.setCreatedAt(timestamp);
                 cartItem.setUpdatedAt(timestamp);
+                
+                if (existingItem != null) {
+                    // Update the existing item
+                    logger.info("Updating existing cart item: {}", existingItem);
+                    cartItem.setName(existingItem.getName());
+                    cartItem.setPrice(existingItem.getPrice());
+                    cartItem.setImageUrl(existingItem.getImageUrl());
+                    cartItem.setQuantity(existingItem.getQuantity() + quantity);
+                    cartItem.setTotalPrice(existingItem.getPrice() * cartItem.getQuantity());
+                    cartItem.setCreatedAt(existingItem.getCreatedAt());
+                } else {
+                    // Create a new cart item
+                    cartItem.setName(product.getName());
+                    cartItem.setPrice(product.getPrice());
+                    cartItem.setQuantity(quantity);
+                    cartItem.setImageUrl(product.getImageUrl());
+                    cartItem.setTotalPrice(product.getPrice() * quantity);
+                    cartItem.setCreatedAt(timestamp);
+                }
+                
+                logger.info("Saving cart item: {}", cartItem);
+                CartTotals.Outcome outcome = CartTotals.commit(
+                    CARTS_TABLE, CART_ITEMS_TABLE, existingItem, cartItem, timestamp);
+                if (outcome == CartTotals.Outcome.COMMITTED) {
+                    break;
+                }
+                if (outcome == CartTotals.Outcome.CART_NOT_FOUND) {
+                    logger.error("Cart with ID {} not found", cartId);
+                    return ApiResponse.notFound("Cart with ID " + cartId + " not found");
+                }
+                if (++attempt > Backoff.MAX_RETRIES) {
+                    logger.error("Cart item with cart ID {} and product ID {} kept changing", cartId, productId);
+                    return ApiResponse.conflict("Cart item was modified concurrently, please retry");
+                }
+                Backoff.sleep(attempt);
             }
             
-            // Save the cart item to DynamoDB
-            logger.info("Saving cart item: {}", cartItem);
-            DynamoDBUtil.putItem(CART_ITEMS_TABLE, cartItem);
-            
-            // Update the cart totals
-            logger.info("Updating cart totals");
-            List<CartItem> cartItems = DynamoDBUtil.queryItemsByIndex(
-                CART_ITEMS_TABLE, "CartIndex", "cartId", cartId, CartItem.class);
-            
-            double totalPrice = 0.0;
-            int totalItems = 0;
-            
-            for (CartItem item : cartItems) {
-                totalPrice += item.getTotalPrice();
-                totalItems += item.getQuantity();
+            // Read the committed totals, which also include concurrent changes to other lines
+            Cart cart = DynamoDBUtil.getItemConsistent(CARTS_TABLE, "cartId", cartId, Cart.class);
+            if (cart == null) {
+                logger.error("Cart with ID {} not found", cartId);
+                return ApiResponse.notFound("Cart with ID " + cartId + " not found");
             }
             
-            cart.setTotalPrice(totalPrice);
-            cart.setTotalItems(totalItems);
-            cart.setUpdatedAt(timestamp);
-            
-            // Save the updated cart to DynamoDB
-            logger.info("Saving updated cart: {}", cart);
-            DynamoDBUtil.updateItem(CARTS_TABLE, cart);
-            
-            // Return the updated cart and items
+            // Return the updated cart and the changed item
             Map<String, Object> cartData = new HashMap<>();
             cartData.put("cart", cart);
-            cartData.put("items", cartItems);
+            cartData.put("item", cartItem);
             
-            Map<String, Object> response = ApiResponse.success(cartData);
-            return convertToApiGatewayResponse(response);
+            return ApiResponse.success(cartData);
         } catch (Exception e) {
             logger.error("Error adding item to cart: {}", e.getMessage(), e);
-            Map<String, Object> response = ApiResponse.serverError(e.getMessage());
-            return convertToApiGatewayResponse(response);
+            return ApiResponse.serverError(e.getMessage());
         }
     }
-    
-    /**
-     * Convert the API response to an API Gateway response event
-     * @param response The API response
-     * @return The API Gateway response event
-     */
-    private APIGatewayProxyResponseEvent convertToApiGatewayResponse(Map<String, Object> response) {
-        APIGatewayProxyResponseEvent apiGatewayResponse = new APIGatewayProxyResponseEvent();
-        apiGatewayResponse.setStatusCode((Integer) response.get("statusCode"));
-        apiGatewayResponse.setHeaders((Map<String, String>) response.get("headers"));
-        apiGatewayResponse.setBody((String) response.get("body"));
-        return apiGatewayResponse;
-    }
 }
 
 
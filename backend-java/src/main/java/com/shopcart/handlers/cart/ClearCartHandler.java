@@ -119,11 +119,13 @@ import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.RequestHandler;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.shopcart.models.Cart;
 import com.shopcart.models.CartItem;
 import com.shopcart.utils.ApiResponse;
+import com.shopcart.utils.BatchWriteReport;
 import com.shopcart.utils.DynamoDBUtil;
+import com.shopcart.utils.JsonCodec;
+import com.shopcart.utils.Priming;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import software.amazon.awssdk.enhanced.dynamodb.Key;
@@ -140,10 +142,14 @@ import java.util.stream.Collectors;
  */
 public class ClearCartHandler implements RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> {
     private static final Logger logger = LoggerFactory.getLogger(ClearCartHandler.class);
-    private static final ObjectMapper objectMapper = new ObjectMapper();
     private static final String CARTS_TABLE = System.getenv("CARTS_TABLE");
     private static final String CART_ITEMS_TABLE = System.getenv("CART_ITEMS_TABLE");
 
+    static {
+        JsonCodec.warmUp();
+        Priming.register();
+    }
+
     /**
      * Handle the Lambda function request
      * @param input The API Gateway request event
@@ -159,8 +165,7 @@ public class ClearCartHandler implements RequestHandler<APIGatewayProxyRequestEv
             Map<String, String> pathParameters = input.getPathParameters();
             if (pathParameters == null || !pathParameters.containsKey("cartId")) {
                 logger.error("Cart ID is required");
-                Map<String, Object> response = ApiResponse.badRequest("Cart ID is required");
-                return convertToApiGatewayResponse(response);
+                return ApiResponse.badRequest("Cart ID is required");
             }
             
             String cartId = pathParameters.get("cartId");
@@ -171,8 +176,7 @@ public class ClearCartHandler implements RequestHandler<APIGatewayProxyRequestEv
             
             if (cart == null) {
                 logger.error("Cart with ID {} not found", cartId);
-                Map<String, Object> response = ApiResponse.notFound("Cart with ID " + cartId + " not found");
-                return convertToApiGatewayResponse(response);
+                return ApiResponse.notFound("Cart with ID " + cartId + " not found");
             }
             
             // Get all cart items
@@ -190,7 +194,13 @@ public class ClearCartHandler implements RequestHandler<APIGatewayProxyRequestEv
                         .build())
                     .collect(Collectors.toList());
                 
-                DynamoDBUtil.batchDeleteItems(CART_ITEMS_TABLE, keys, CartItem.class);
+                BatchWriteReport report = DynamoDBUtil.batchDeleteItems(CART_ITEMS_TABLE, keys, CartItem.class);
+                if (!report.isComplete()) {
+                    logger.error("Failed to delete {} of {} cart items from cart {}",
+                               report.getFailedKeys().size(), keys.size(), cartId);
+                    return ApiResponse.serverError(
+                        "Failed to delete " + report.getFailedKeys().size() + " cart items");
+                }
             }
             
             // Update the cart totals
@@ -207,27 +217,12 @@ public class ClearCartHandler implements RequestHandler<APIGatewayProxyRequestEv
             cartData.put("cart", cart);
             cartData.put("items", new ArrayList<>());
             
-            Map<String, Object> response = ApiResponse.success(cartData);
-            return convertToApiGatewayResponse(response);
+            return ApiResponse.success(cartData);
         } catch (Exception e) {
             logger.error("Error clearing cart: {}", e.getMessage(), e);
-            Map<String, Object> response = ApiResponse.serverError(e.getMessage());
-            return convertToApiGatewayResponse(response);
+            return ApiResponse.serverError(e.getMessage());
         }
     }
-    
-    /**
-     * Convert the API response to an API Gateway response event
-     * @param response The API response
-     * @return The API Gateway response event
-     */
-    private APIGatewayProxyResponseEvent convertToApiGatewayResponse(Map<String, Object> response) {
-        APIGatewayProxyResponseEvent apiGatewayResponse = new APIGatewayProxyResponseEvent();
-        apiGatewayResponse.setStatusCode((Integer) response.get("statusCode"));
-        apiGatewayResponse.setHeaders((Map<String, String>) response.get("headers"));
-        apiGatewayResponse.setBody((String) response.get("body"));
-        return apiGatewayResponse;
-    }
 }
 
 
@@ -87,10 +87,12 @@ import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.RequestHandler;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.shopcart.models.Cart;
 import com.shopcart.utils.ApiResponse;
 import com.shopcart.utils.DynamoDBUtil;
+import com.shopcart.utils.JsonCodec;
+import com.shopcart.utils.NegativeCache;
+import com.shopcart.utils.Priming;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -105,9 +107,13 @@ import java.util.UUID;
  */
 public class CreateCartHandler implements RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> {
     private static final Logger logger = LoggerFactory.getLogger(CreateCartHandler.class);
-    private static final ObjectMapper objectMapper = new ObjectMapper();
     private static final String CARTS_TABLE = System.getenv("CARTS_TABLE");
 
+    static {
+        JsonCodec.warmUp();
+        Priming.register();
+    }
+
     /**
      * Handle the Lambda function request
      * @param input The API Gateway request event
@@ -123,17 +129,15 @@ public class CreateCartHandler implements RequestHandler<APIGatewayProxyRequestE
             String requestBody = input.getBody();
             if (requestBody == null || requestBody.isEmpty()) {
                 logger.error("Request body is empty");
-                Map<String, Object> response = ApiResponse.badRequest("Request body is required");
-                return convertToApiGatewayResponse(response);
+                return ApiResponse.badRequest("Request body is required");
             }
             
-            Map<String, String> requestMap = objectMapper.readValue(requestBody, Map.class);
+            Map<String, String> requestMap = JsonCodec.read(requestBody, Map.class);
             String customerId = requestMap.get("customerId");
             
             if (customerId == null || customerId.isEmpty()) {
                 logger.error("Customer ID is required");
-                Map<String, Object> response = ApiResponse.badRequest("Customer ID is required");
-                return convertToApiGatewayResponse(response);
+                return ApiResponse.badRequest("Customer ID is required");
             }
             
             // Check if the customer already has a cart
@@ -143,8 +147,7 @@ public class CreateCartHandler implements RequestHandler<APIGatewayProxyRequestE
             
             if (!existingCarts.isEmpty()) {
                 logger.info("Customer {} already has a cart: {}", customerId, existingCarts.get(0));
-                Map<String, Object> response = ApiResponse.success(existingCarts.get(0));
-                return convertToApiGatewayResponse(response);
+                return ApiResponse.success(existingCarts.get(0));
             }
             
             // Create a new cart
@@ -162,33 +165,19 @@ public class CreateCartHandler implements RequestHandler<APIGatewayProxyRequestE
             // Save the cart to DynamoDB
             logger.info("Creating cart: {}", cart);
             DynamoDBUtil.putItem(CARTS_TABLE, cart);
+            NegativeCache.forget(CARTS_TABLE, cartId);
             
             // Return the created cart
             Map<String, Object> cartData = new HashMap<>();
             cartData.put("cart", cart);
             cartData.put("items", new java.util.ArrayList<>());
             
-            Map<String, Object> response = ApiResponse.created(cartData);
-            return convertToApiGatewayResponse(response);
+            return ApiResponse.created(cartData);
         } catch (Exception e) {
             logger.error("Error creating cart: {}", e.getMessage(), e);
-            Map<String, Object> response = ApiResponse.serverError(e.getMessage());
-            return convertToApiGatewayResponse(response);
+            return ApiResponse.serverError(e.getMessage());
         }
     }
-    
-    /**
-     * Convert the API response to an API Gateway response event
-     * @param response The API response
-     * @return The API Gateway response event
-     */
-    private APIGatewayProxyResponseEvent convertToApiGatewayResponse(Map<String, Object> response) {
-        APIGatewayProxyResponseEvent apiGatewayResponse = new APIGatewayProxyResponseEvent();
-        apiGatewayResponse.setStatusCode((Integer) response.get("statusCode"));
-        apiGatewayResponse.setHeaders((Map<String, String>) response.get("headers"));
-        apiGatewayResponse.setBody((String) response.get("body"));
-        return apiGatewayResponse;
-    }
 }
 
 
@@ -114,17 +114,19 @@ import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.RequestHandler;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.shopcart.models.Cart;
 import com.shopcart.models.CartItem;
 import com.shopcart.utils.ApiResponse;
+import com.shopcart.utils.Backoff;
+import com.shopcart.utils.CartTotals;
 import com.shopcart.utils.DynamoDBUtil;
+import com.shopcart.utils.JsonCodec;
+import com.shopcart.utils.Priming;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.Instant;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 /**
@@ -132,10 +134,14 @@ import java.util.Map;
  */
 public class DeleteCartItemHandler implements RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> {
     private static final Logger logger = LoggerFactory.getLogger(DeleteCartItemHandler.class);
-    private static final ObjectMapper objectMapper = new ObjectMapper();
     private static final String CARTS_TABLE = System.getenv("CARTS_TABLE");
     private static final String CART_ITEMS_TABLE = System.getenv("CART_ITEMS_TABLE");
 
+    static {
+        JsonCodec.warmUp();
+        Priming.register();
+    }
+
     /**
      * Handle the Lambda function request
      * @param input The API Gateway request event
@@ -151,87 +157,69 @@ public class DeleteCartItemHandler implements RequestHandler<APIGatewayProxyRequ
             Map<String, String> pathParameters = input.getPathParameters();
             if (pathParameters == null || !pathParameters.containsKey("cartId") || !pathParameters.containsKey("productId")) {
                 logger.error("Cart ID and Product ID are required");
-                Map<String, Object> response = ApiResponse.badRequest("Cart ID and Product ID are required");
-                return convertToApiGatewayResponse(response);
+                return ApiResponse.badRequest("Cart ID and Product ID are required");
             }
             
             String cartId = pathParameters.get("cartId");
             String productId = pathParameters.get("productId");
             
-            // Get the cart from DynamoDB
-            logger.info("Getting cart with ID: {}", cartId);
-            Cart cart = DynamoDBUtil.getItem(CARTS_TABLE, "cartId", cartId, Cart.class);
-            
-            if (cart == null) {
+            // Check that the cart exists before doing any work; its totals are read after the commit
+            logger.info("Checking that cart {} exists", cartId);
+            if (!DynamoDBUtil.itemExists(CARTS_TABLE, "cartId", cartId, Cart.class)) {
                 logger.error("Cart with ID {} not found", cartId);
-                Map<String, Object> response = ApiResponse.notFound("Cart with ID " + cartId + " not found");
-                return convertToApiGatewayResponse(response);
+                return ApiResponse.notFound("Cart with ID " + cartId + " not found");
             }
             
-            // Get the cart item from DynamoDB
-            logger.info("Getting cart item with cart ID: {} and product ID: {}", cartId, productId);
-            CartItem cartItem = DynamoDBUtil.getItem(
-                CART_ITEMS_TABLE, "cartId", cartId, "productId", productId, CartItem.class);
+            String timestamp = Instant.now().toString();
+            CartItem existingItem;
+            int attempt = 0;
             
-            if (cartItem == null) {
-                logger.error("Cart item with cart ID {} and product ID {} not found", cartId, productId);
-                Map<String, Object> response = ApiResponse.notFound(
-                    "Cart item with cart ID " + cartId + " and product ID " + productId + " not found");
-                return convertToApiGatewayResponse(response);
+            // Delete the cart item and subtract it from the totals, retrying if the line is changed concurrently
+            while (true) {
+                logger.info("Getting cart item with cart ID: {} and product ID: {}", cartId, productId);
+                existingItem = DynamoDBUtil.getItemConsistent(
+                    CART_ITEMS_TABLE, "cartId", cartId, "productId", productId, CartItem.class);
+                
+                if (existingItem == null) {
+                    logger.error("Cart item with cart ID {} and product ID {} not found", cartId, productId);
+                    return ApiResponse.notFound(
+                        "Cart item with cart ID " + cartId + " and product ID " + productId + " not found");
+                }
+                
+                logger.info("Deleting cart item with cart ID: {} and product ID: {}", cartId, productId);
+                CartTotals.Outcome outcome = CartTotals.commit(
+                    CARTS_TABLE, CART_ITEMS_TABLE, existingItem, null, timestamp);
+                if (outcome == CartTotals.Outcome.COMMITTED) {
+                    break;
+                }
+                if (outcome == CartTotals.Outcome.CART_NOT_FOUND) {
+                    logger.error("Cart with ID {} not found", cartId);
+                    return ApiResponse.notFound("Cart with ID " + cartId + " not found");
+                }
+                if (++attempt > Backoff.MAX_RETRIES) {
+                    logger.error("Cart item with cart ID {} and product ID {} kept changing", cartId, productId);
+                    return ApiResponse.conflict("Cart item was modified concurrently, please retry");
+                }
+                Backoff.sleep(attempt);
             }
             
-            // Delete the cart item from DynamoDB
-            logger.info("Deleting cart item with cart ID: {} and product ID: {}", cartId, productId);
-            DynamoDBUtil.deleteItem(
-                CART_ITEMS_TABLE, "cartId", cartId, "productId", productId, CartItem.class);
-            
-            // Update the cart totals
-            logger.info("Updating cart totals");
-            List<CartItem> cartItems = DynamoDBUtil.queryItemsByIndex(
-                CART_ITEMS_TABLE, "CartIndex", "cartId", cartId, CartItem.class);
-            
-            double totalPrice = 0.0;
-            int totalItems = 0;
-            
-            for (CartItem item : cartItems) {
-                totalPrice += item.getTotalPrice();
-                totalItems += item.getQuantity();
+            // Read the committed totals, which also include concurrent changes to other lines
+            Cart cart = DynamoDBUtil.getItemConsistent(CARTS_TABLE, "cartId", cartId, Cart.class);
+            if (cart == null) {
+                logger.error("Cart with ID {} not found", cartId);
+                return ApiResponse.notFound("Cart with ID " + cartId + " not found");
             }
             
-            cart.setTotalPrice(totalPrice);
-            cart.setTotalItems(totalItems);
-            cart.setUpdatedAt(Instant.now().toString());
-            
-            // Save the updated cart to DynamoDB
-            logger.info("Saving updated cart: {}", cart);
-            DynamoDBUtil.updateItem(CARTS_TABLE, cart);
-            
-            // Return the updated cart and items
+            // Return the updated cart
             Map<String, Object> cartData = new HashMap<>();
             cartData.put("cart", cart);
-            cartData.put("items", cartItems);
             
-            Map<String, Object> response = ApiResponse.success(cartData);
-            return convertToApiGatewayResponse(response);
+            return ApiResponse.success(cartData);
         } catch (Exception e) {
             logger.error("Error deleting cart item: {}", e.getMessage(), e);
-            Map<String, Object> response = ApiResponse.serverError(e.getMessage());
-            return convertToApiGatewayResponse(response);
+            return ApiResponse.serverError(e.getMessage());
         }
     }
-    
-    /**
-     * Convert the API response to an API Gateway response event
-     * @param response The API response
-     * @return The API Gateway response event
-     */
-    private APIGatewayProxyResponseEvent convertToApiGatewayResponse(Map<String, Object> response) {
-        APIGatewayProxyResponseEvent apiGatewayResponse = new APIGatewayProxyResponseEvent();
-        apiGatewayResponse.setStatusCode((Integer) response.get("statusCode"));
-        apiGatewayResponse.setHeaders((Map<String, String>) response.get("headers"));
-        apiGatewayResponse.setBody((String) response.get("body"));
-        return apiGatewayResponse;
-    }
 }
 
 
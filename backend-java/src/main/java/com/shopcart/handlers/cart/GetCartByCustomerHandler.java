@@ -78,11 +78,13 @@ import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.RequestHandler;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.shopcart.models.Cart;
 import com.shopcart.models.CartItem;
 import com.shopcart.utils.ApiResponse;
 import com.shopcart.utils.DynamoDBUtil;
+import com.shopcart.utils.EntityTag;
+import com.shopcart.utils.JsonCodec;
+import com.shopcart.utils.Priming;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -95,10 +97,14 @@ import java.util.Map;
  */
 public class GetCartByCustomerHandler implements RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> {
     private static final Logger logger = LoggerFactory.getLogger(GetCartByCustomerHandler.class);
-    private static final ObjectMapper objectMapper = new ObjectMapper();
     private static final String CARTS_TABLE = System.getenv("CARTS_TABLE");
     private static final String CART_ITEMS_TABLE = System.getenv("CART_ITEMS_TABLE");
 
+    static {
+        JsonCodec.warmUp();
+        Priming.register();
+    }
+
     /**
      * Handle the Lambda function request
      * @param input The API Gateway request event
@@ -114,8 +120,7 @@ public class GetCartByCustomerHandler implements RequestHandler<APIGatewayProxyR
             Map<String, String> pathParameters = input.getPathParameters();
             if (pathParameters == null || !pathParameters.containsKey("customerId")) {
                 logger.error("Customer ID is required");
-                Map<String, Object> response = ApiResponse.badRequest("Customer ID is required");
-                return convertToApiGatewayResponse(response);
+                return ApiResponse.badRequest("Customer ID is required");
             }
             
             String customerId = pathParameters.get("customerId");
@@ -127,8 +132,7 @@ public class GetCartByCustomerHandler implements RequestHandler<APIGatewayProxyR
             
             if (carts.isEmpty()) {
                 logger.info("No cart found for customer ID {}", customerId);
-                Map<String, Object> response = ApiResponse.notFound("No cart found for customer ID " + customerId);
-                return convertToApiGatewayResponse(response);
+                return ApiResponse.notFound("No cart found for customer ID " + customerId);
             }
             
             // Get the most recent cart (assuming there's only one active cart per customer)
@@ -145,27 +149,14 @@ public class GetCartByCustomerHandler implements RequestHandler<APIGatewayProxyR
             cartData.put("items", cartItems);
             
             logger.info("Found cart: {} with {} items", cart, cartItems.size());
-            Map<String, Object> response = ApiResponse.success(cartData);
-            return convertToApiGatewayResponse(response);
+            return ApiResponse.successIfModified(input, cartData, EntityTag.forResource()
+                .add(cart.getCartId(), cart.getUpdatedAt())
+                .addAll(cartItems, CartItem::getProductId, CartItem::getUpdatedAt));
         } catch (Exception e) {
             logger.error("Error getting cart by customer ID: {}", e.getMessage(), e);
-            Map<String, Object> response = ApiResponse.serverError(e.getMessage());
-            return convertToApiGatewayResponse(response);
+            return ApiResponse.serverError(e.getMessage());
         }
     }
-    
-    /**
-     * Convert the API response to an API Gateway response event
-     * @param response The API response
-     * @return The API Gateway response event
-     */
-    private APIGatewayProxyResponseEvent convertToApiGatewayResponse(Map<String, Object> response) {
-        APIGatewayProxyResponseEvent apiGatewayResponse = new APIGatewayProxyResponseEvent();
-        apiGatewayResponse.setStatusCode((Integer) response.get("statusCode"));
-        apiGatewayResponse.setHeaders((Map<String, String>) response.get("headers"));
-        apiGatewayResponse.setBody((String) response.get("body"));
-        return apiGatewayResponse;
-    }
 }
 
 
@@ -69,27 +69,37 @@ import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.RequestHandler;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.shopcart.models.Cart;
 import com.shopcart.models.CartItem;
 import com.shopcart.utils.ApiResponse;
-import com.shopcart.utils.DynamoDBUtil;
+import com.shopcart.utils.DynamoDBAsyncUtil;
+import com.shopcart.utils.EntityTag;
+import com.shopcart.utils.JsonCodec;
+import com.shopcart.utils.NegativeCache;
+import com.shopcart.utils.Priming;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Lambda function handler for getting a cart
  */
 public class GetCartHandler implements RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> {
     private static final Logger logger = LoggerFactory.getLogger(GetCartHandler.class);
-    private static final ObjectMapper objectMapper = new ObjectMapper();
     private static final String CARTS_TABLE = System.getenv("CARTS_TABLE");
     private static final String CART_ITEMS_TABLE = System.getenv("CART_ITEMS_TABLE");
 
+    static {
+        // Resolve table schemas and handles during init rather than on the first request
+        DynamoDBAsyncUtil.warmUp();
+        JsonCodec.warmUp();
+        Priming.register();
+    }
+
     /**
      * Handle the Lambda function request
      * @param input The API Gateway request event
@@ -105,26 +115,32 @@ public class GetCartHandler implements RequestHandler<APIGatewayProxyRequestEven
             Map<String, String> pathParameters = input.getPathParameters();
             if (pathParameters == null || !pathParameters.containsKey("cartId")) {
                 logger.error("Cart ID is required");
-                Map<String, Object> response = ApiResponse.badRequest("Cart ID is required");
-                return convertToApiGatewayResponse(response);
+                return ApiResponse.badRequest("Cart ID is required");
             }
             
             String cartId = pathParameters.get("cartId");
             
-            // Get the cart from DynamoDB
-            logger.info("Getting cart with ID: {}", cartId);
-            Cart cart = DynamoDBUtil.getItem(CARTS_TABLE, "cartId", cartId, Cart.class);
+            // Skip the read for IDs that were recently found missing
+            if (NegativeCache.isMissing(CARTS_TABLE, cartId)) {
+                logger.info("Cart with ID {} not found (cached miss)", cartId);
+                return ApiResponse.notFound("Cart with ID " + cartId + " not found");
+            }
+            
+            long missGeneration = NegativeCache.generation();
+            // Get the cart and its items from DynamoDB concurrently
+            logger.info("Getting cart and cart items for cart ID: {}", cartId);
+            CompletableFuture<Cart> cartFuture = DynamoDBAsyncUtil.getItem(CARTS_TABLE, "cartId", cartId, Cart.class);
+            CompletableFuture<List<CartItem>> cartItemsFuture = DynamoDBAsyncUtil.queryItemsByIndex(
+                CART_ITEMS_TABLE, "CartIndex", "cartId", cartId, CartItem.class);
             
+            Cart cart = DynamoDBAsyncUtil.join(cartFuture);
             if (cart == null) {
                 logger.info("Cart with ID {} not found", cartId);
-                Map<String, Object> response = ApiResponse.notFound("Cart with ID " + cartId + " not found");
-                return convertToApiGatewayResponse(response);
+                NegativeCache.remember(CARTS_TABLE, cartId, missGeneration);
+                return ApiResponse.notFound("Cart with ID " + cartId + " not found");
             }
             
-            // Get the cart items
-            logger.info("Getting cart items for cart ID: {}", cartId);
-            List<CartItem> cartItems = DynamoDBUtil.queryItemsByIndex(
-                CART_ITEMS_TABLE, "CartIndex", "cartId", cartId, CartItem.class);
+            List<CartItem> cartItems = DynamoDBAsyncUtil.join(cartItemsFuture);
             
             // Create a response with the cart and its items
             Map<String, Object> cartData = new HashMap<>();
@@ -132,27 +148,14 @@ public class GetCartHandler implements RequestHandler<APIGatewayProxyRequestEven
             cartData.put("items", cartItems);
             
             logger.info("Found cart: {} with {} items", cart, cartItems.size());
-            Map<String, Object> response = ApiResponse.success(cartData);
-            return convertToApiGatewayResponse(response);
+            return ApiResponse.successIfModified(input, cartData, EntityTag.forResource()
+                .add(cart.getCartId(), cart.getUpdatedAt())
+                .addAll(cartItems, CartItem::getProductId, CartItem::getUpdatedAt));
         } catch (Exception e) {
             logger.error("Error getting cart: {}", e.getMessage(), e);
-            Map<String, Object> response = ApiResponse.serverError(e.getMessage());
-            return convertToApiGatewayResponse(response);
+            return ApiResponse.serverError(e.getMessage());
         }
     }
-    
-    /**
-     * Convert the API response to an API Gateway response event
-     * @param response The API response
-     * @return The API Gateway response event
-     */
-    private APIGatewayProxyResponseEvent convertToApiGatewayResponse(Map<String, Object> response) {
-        APIGatewayProxyResponseEvent apiGatewayResponse = new APIGatewayProxyResponseEvent();
-        apiGatewayResponse.setStatusCode((Integer) response.get("statusCode"));
-        apiGatewayResponse.setHeaders((Map<String, String>) response.get("headers"));
-        apiGatewayResponse.setBody((String) response.get("body"));
-        return apiGatewayResponse;
-    }
 }
 
 
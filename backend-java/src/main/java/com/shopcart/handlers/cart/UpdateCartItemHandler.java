@@ -103,17 +103,21 @@ import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.RequestHandler;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.shopcart.models.Cart;
 import com.shopcart.models.CartItem;
+import com.shopcart.requests.InvalidRequestException;
+import com.shopcart.requests.UpdateCartItemRequest;
 import com.shopcart.utils.ApiResponse;
+import com.shopcart.utils.Backoff;
+import com.shopcart.utils.CartTotals;
 import com.shopcart.utils.DynamoDBUtil;
+import com.shopcart.utils.JsonCodec;
+import com.shopcart.utils.Priming;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.Instant;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 /**
@@ -121,10 +125,14 @@ import java.util.Map;
  */
 public class UpdateCartItemHandler implements RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> {
     private static final Logger logger = LoggerFactory.getLogger(UpdateCartItemHandler.class);
-    private static final ObjectMapper objectMapper = new ObjectMapper();
     private static final String CARTS_TABLE = System.getenv("CARTS_TABLE");
     private static final String CART_ITEMS_TABLE = System.getenv("CART_ITEMS_TABLE");
 
+    static {
+        JsonCodec.warmUp();
+        Priming.register();
+    }
+
     /**
      * Handle the Lambda function request
      * @param input The API Gateway request event
@@ -140,8 +148,7 @@ public class UpdateCartItemHandler implements RequestHandler<APIGatewayProxyRequ
             Map<String, String> pathParameters = input.getPathParameters();
             if (pathParameters == null || !pathParameters.containsKey("cartId") || !pathParameters.containsKey("productId")) {
                 logger.error("Cart ID and Product ID are required");
-                Map<String, Object> response = ApiResponse.badRequest("Cart ID and Product ID are required");
-                return convertToApiGatewayResponse(response);
+                return ApiResponse.badRequest("Cart ID and Product ID are required");
             }
             
             String cartId = pathParameters.get("cartId");
@@ -151,105 +158,96 @@ public class UpdateCartItemHandler implements RequestHandler<APIGatewayProxyRequ
             String requestBody = input.getBody();
             if (requestBody == null || requestBody.isEmpty()) {
                 logger.error("Request body is empty");
-                Map<String, Object> response = ApiResponse.badRequest("Request body is required");
-                return convertToApiGatewayResponse(response);
+                return ApiResponse.badRequest("Request body is required");
             }
             
-            Map<String, Object> requestMap = objectMapper.readValue(requestBody, Map.class);
-            Integer quantity = (Integer) requestMap.get("quantity");
-            
-            if (quantity == null || quantity < 0) {
-                logger.error("Quantity must be greater than or equal to 0");
-                Map<String, Object> response = ApiResponse.badRequest("Quantity must be greater than or equal to 0");
-                return convertToApiGatewayResponse(response);
+            UpdateCartItemRequest request;
+            try {
+                request = UpdateCartItemRequest.parse(requestBody);
+            } catch (InvalidRequestException e) {
+                logger.error("Invalid request: {}", e.getMessage());
+                return ApiResponse.badRequest(e.getMessage());
             }
+            int quantity = request.quantity();
             
-            // Get the cart from DynamoDB
-            logger.info("Getting cart with ID: {}", cartId);
-            Cart cart = DynamoDBUtil.getItem(CARTS_TABLE, "cartId", cartId, Cart.class);
-            
-            if (cart == null) {
+            // Check that the cart exists before doing any work; its totals are read after the commit
+            logger.info("Checking that cart {} exists", cartId);
+            if (!DynamoDBUtil.itemExists(CARTS_TABLE, "cartId", cartId, Cart.class)) {
                 logger.error("Cart with ID {} not found", cartId);
-                Map<String, Object> response = ApiResponse.notFound("Cart with ID " + cartId + " not found");
-                return convertToApiGatewayResponse(response);
+                return ApiResponse.notFound("Cart with ID " + cartId + " not found");
             }
             
-            // Get the cart item from DynamoDB
-            logger.info("Getting cart item with cart ID: {} and product ID: {}", cartId, productId);
-            CartItem cartItem = DynamoDBUtil.getItem(
-                CART_ITEMS_TABLE, "cartId", cartId, "productId", productId, CartItem.class);
+            String timestamp = Instant.now().toString();
+            CartItem existingItem;
+            CartItem cartItem;
+            int attempt = 0;
             
-            if (cartItem == null) {
-                logger.error("Cart item with cart ID {} and product ID {} not found", cartId, productId);
-                Map<String, Object> response = ApiResponse.notFound(
-                    "Cart item with cart ID " + cartId + " and product ID " + productId + " not found");
-                return convertToApiGatewayResponse(response);
-            }
-            
-            // If quantity is 0, remove the item from the cart
-            if (quantity == 0) {
-                logger.info("Removing cart item with cart ID: {} and product ID: {}", cartId, productId);
-                DynamoDBUtil.deleteItem(
+            // Save the cart item and its totals, retrying if the same line is changed concurrently
+            while (true) {
+                // Get the cart item from DynamoDB
+                logger.info("Getting cart item with cart ID: {} and product ID: {}", cartId, productId);
+                existingItem = DynamoDBUtil.getItemConsistent(
                     CART_ITEMS_TABLE, "cartId", cartId, "productId", productId, CartItem.class);
-            } else {
-                // Update the cart item
-                logger.info("Updating cart item: {}", cartItem);
-                cartItem.setQuantity(quantity);
-                cartItem.setTotalPrice(cartItem.getPrice() * quantity);
-                cartItem.setUpdatedAt(Instant.now().toString());
                 
-                // Save the updated cart item to DynamoDB
-                logger.info("Saving updated cart item: {}", cartItem);
-                DynamoDBUtil.updateItem(CART_ITEMS_TABLE, cartItem);
+                if (existingItem == null) {
+                    logger.error("Cart item with cart ID {} and product ID {} not found", cartId, productId);
+                    return ApiResponse.notFound(
+                        "Cart item with cart ID " + cartId + " and product ID " + productId + " not found");
+                }
+                
+                // If quantity is 0, remove the item from the cart
+                if (quantity == 0) {
+                    logger.info("Removing cart item with cart ID: {} and product ID: {}", cartId, productId);
+                    cartItem = null;
+                } else {
+                    // Update the cart item
+                    logger.info("Updating cart item: {}", existingItem);
+                    cartItem = new CartItem();
+                    cartItem.setCartId(cartId);
+                    cartItem.setProductId(productId);
+                    cartItem.setName(existingItem.getName());
+                    cartItem.setPrice(existingItem.getPrice());
+                    cartItem.setImageUrl(existingItem.getImageUrl());
+                    cartItem.setQuantity(quantity);
+                    cartItem.setTotalPrice(existingItem.getPrice() * quantity);
+                    cartItem.setCreatedAt(existingItem.getCreatedAt());
+                    cartItem.setUpdatedAt(timestamp);
+                }
+                
+                CartTotals.Outcome outcome = CartTotals.commit(
+                    CARTS_TABLE, CART_ITEMS_TABLE, existingItem, cartItem, timestamp);
+                if (outcome == CartTotals.Outcome.COMMITTED) {
+                    break;
+                }
+                if (outcome == CartTotals.Outcome.CART_NOT_FOUND) {
+                    logger.error("Cart with ID {} not found", cartId);
+                    return ApiResponse.notFound("Cart with ID " + cartId + " not found");
+                }
+                if (++attempt > Backoff.MAX_RETRIES) {
+                    logger.error("Cart item with cart ID {} and product ID {} kept changing", cartId, productId);
+                    return ApiResponse.conflict("Cart item was modified concurrently, please retry");
+                }
+                Backoff.sleep(attempt);
             }
             
-            // Update the cart totals
-            logger.info("Updating cart totals");
-            List<CartItem> cartItems = DynamoDBUtil.queryItemsByIndex(
-                CART_ITEMS_TABLE, "CartIndex", "cartId", cartId, CartItem.class);
-            
-            double totalPrice = 0.0;
-            int totalItems = 0;
-            
-            for (CartItem item : cartItems) {
-                totalPrice += item.getTotalPrice();
-                totalItems += item.getQuantity();
+            // Read the committed totals, which also include concurrent changes to other lines
+            Cart cart = DynamoDBUtil.getItemConsistent(CARTS_TABLE, "cartId", cartId, Cart.class);
+            if (cart == null) {
+                logger.error("Cart with ID {} not found", cartId);
+                return ApiResponse.notFound("Cart with ID " + cartId + " not found");
             }
             
-            cart.setTotalPrice(totalPrice);
-            cart.setTotalItems(totalItems);
-            cart.setUpdatedAt(Instant.now().toString());
-            
-            // Save the updated cart to DynamoDB
-            logger.info("Saving updated cart: {}", cart);
-            DynamoDBUtil.updateItem(CARTS_TABLE, cart);
-            
-            // Return the updated cart and items
+            // Return the updated cart and the changed item
             Map<String, Object> cartData = new HashMap<>();
             cartData.put("cart", cart);
-            cartData.put("items", cartItems);
+            cartData.put("item", cartItem);
             
-            Map<String, Object> response = ApiResponse.success(cartData);
-            return convertToApiGatewayResponse(response);
+            return ApiResponse.success(cartData);
         } catch (Exception e) {
             logger.error("Error updating cart item: {}", e.getMessage(), e);
-            Map<String, Object> response = ApiResponse.serverError(e.getMessage());
-            return convertToApiGatewayResponse(response);
+            return ApiResponse.serverError(e.getMessage());
         }
     }
-    
-    /**
-     * Convert the API response to an API Gateway response event
-     * @param response The API response
-     * @return The API Gateway response event
-     */
-    private APIGatewayProxyResponseEvent convertToApiGatewayResponse(Map<String, Object> response) {
-        APIGatewayProxyResponseEvent apiGatewayResponse = new APIGatewayProxyResponseEvent();
-        apiGatewayResponse.setStatusCode((Integer) response.get("statusCode"));
-        apiGatewayResponse.setHeaders((Map<String, String>) response.get("headers"));
-        apiGatewayResponse.setBody((String) response.get("body"));
-        return apiGatewayResponse;
-    }
 }
 
 
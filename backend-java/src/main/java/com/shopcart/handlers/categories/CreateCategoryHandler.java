@@ -50,15 +50,16 @@ import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.RequestHandler;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.shopcart.models.Category;
 import com.shopcart.utils.ApiResponse;
+import com.shopcart.utils.CategorySnapshot;
 import com.shopcart.utils.DynamoDBUtil;
+import com.shopcart.utils.JsonCodec;
+import com.shopcart.utils.Priming;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.Instant;
-import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -66,9 +67,13 @@ import java.util.UUID;
  */
 public class CreateCategoryHandler implements RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> {
     private static final Logger logger = LoggerFactory.getLogger(CreateCategoryHandler.class);
-    private static final ObjectMapper objectMapper = new ObjectMapper();
     private static final String CATEGORIES_TABLE = System.getenv("CATEGORIES_TABLE");
 
+    static {
+        JsonCodec.warmUp();
+        Priming.register();
+    }
+
     /**
      * Handle the Lambda function request
      * @param input The API Gateway request event
@@ -84,17 +89,15 @@ public class CreateCategoryHandler implements RequestHandler<APIGatewayProxyRequ
             String requestBody = input.getBody();
             if (requestBody == null || requestBody.isEmpty()) {
                 logger.error("Request body is empty");
-                Map<String, Object> response = ApiResponse.badRequest("Request body is required");
-                return convertToApiGatewayResponse(response);
+                return ApiResponse.badRequest("Request body is required");
             }
             
-            Category category = objectMapper.readValue(requestBody, Category.class);
+            Category category = JsonCodec.read(requestBody, Category.class);
             
             // Validate required fields
             if (category.getName() == null || category.getName().isEmpty()) {
                 logger.error("Category name is required");
-                Map<String, Object> response = ApiResponse.badRequest("Category name is required");
-                return convertToApiGatewayResponse(response);
+                return ApiResponse.badRequest("Category name is required");
             }
             
             // Generate category ID and timestamps
@@ -117,29 +120,15 @@ public class CreateCategoryHandler implements RequestHandler<APIGatewayProxyRequ
             // Save the category to DynamoDB
             logger.info("Creating category: {}", category);
             DynamoDBUtil.putItem(CATEGORIES_TABLE, category);
+            CategorySnapshot.invalidate();
             
             // Return the created category
-            Map<String, Object> response = ApiResponse.created(category);
-            return convertToApiGatewayResponse(response);
+            return ApiResponse.created(category);
         } catch (Exception e) {
             logger.error("Error creating category: {}", e.getMessage(), e);
-            Map<String, Object> response = ApiResponse.serverError(e.getMessage());
-            return convertToApiGatewayResponse(response);
+            return ApiResponse.serverError(e.getMessage());
         }
     }
-    
-    /**
-     * Convert the API response to an API Gateway response event
-     * @param response The API response
-     * @return The API Gateway response event
-     */
-    private APIGatewayProxyResponseEvent convertToApiGatewayResponse(Map<String, Object> response) {
-        APIGatewayProxyResponseEvent apiGatewayResponse = new APIGatewayProxyResponseEvent();
-        apiGatewayResponse.setStatusCode((Integer) response.get("statusCode"));
-        apiGatewayResponse.setHeaders((Map<String, String>) response.get("headers"));
-        apiGatewayResponse.setBody((String) response.get("body"));
-        return apiGatewayResponse;
-    }
 }
 
 
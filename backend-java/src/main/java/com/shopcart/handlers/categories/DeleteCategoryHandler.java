@@ -68,7 +68,9 @@ import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
 import com.shopcart.models.Category;
 import com.shopcart.utils.ApiResponse;
+import com.shopcart.utils.CategorySnapshot;
 import com.shopcart.utils.DynamoDBUtil;
+import com.shopcart.utils.Priming;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -81,6 +83,10 @@ public class DeleteCategoryHandler implements RequestHandler<APIGatewayProxyRequ
     private static final Logger logger = LoggerFactory.getLogger(DeleteCategoryHandler.class);
     private static final String CATEGORIES_TABLE = System.getenv("CATEGORIES_TABLE");
 
+    static {
+        Priming.register();
+    }
+
     /**
      * Handle the Lambda function request
      * @param input The API Gateway request event
@@ -96,46 +102,27 @@ public class DeleteCategoryHandler implements RequestHandler<APIGatewayProxyRequ
             Map<String, String> pathParameters = input.getPathParameters();
             if (pathParameters == null || !pathParameters.containsKey("categoryId")) {
                 logger.error("Category ID is required");
-                Map<String, Object> response = ApiResponse.badRequest("Category ID is required");
-                return convertToApiGatewayResponse(response);
+                return ApiResponse.badRequest("Category ID is required");
             }
             
             String categoryId = pathParameters.get("categoryId");
             
-            // Check if the category exists
-            Category existingCategory = DynamoDBUtil.getItem(CATEGORIES_TABLE, "categoryId", categoryId, Category.class);
-            if (existingCategory == null) {
+            // Delete the category from DynamoDB if it exists
+            logger.info("Deleting category with ID: {}", categoryId);
+            Category deletedCategory = DynamoDBUtil.deleteItemIfExists(CATEGORIES_TABLE, "categoryId", categoryId, Category.class);
+            CategorySnapshot.invalidate();
+            if (deletedCategory == null) {
                 logger.error("Category with ID {} not found", categoryId);
-                Map<String, Object> response = ApiResponse.notFound("Category with ID " + categoryId + " not found");
-                return convertToApiGatewayResponse(response);
+                return ApiResponse.notFound("Category with ID " + categoryId + " not found");
             }
             
-            // Delete the category from DynamoDB
-            logger.info("Deleting category with ID: {}", categoryId);
-            DynamoDBUtil.deleteItem(CATEGORIES_TABLE, "categoryId", categoryId, Category.class);
-            
             // Return a success response
-            Map<String, Object> response = ApiResponse.noContent();
-            return convertToApiGatewayResponse(response);
+            return ApiResponse.noContent();
         } catch (Exception e) {
             logger.error("Error deleting category: {}", e.getMessage(), e);
-            Map<String, Object> response = ApiResponse.serverError(e.getMessage());
-            return convertToApiGatewayResponse(response);
+            return ApiResponse.serverError(e.getMessage());
         }
     }
-    
-    /**
-     * Convert the API response to an API Gateway response event
-     * @param response The API response
-     * @return The API Gateway response event
-     */
-    private APIGatewayProxyResponseEvent convertToApiGatewayResponse(Map<String, Object> response) {
-        APIGatewayProxyResponseEvent apiGatewayResponse = new APIGatewayProxyResponseEvent();
-        apiGatewayResponse.setStatusCode((Integer) response.get("statusCode"));
-        apiGatewayResponse.setHeaders((Map<String, String>) response.get("headers"));
-        apiGatewayResponse.setBody((String) response.get("body"));
-        return apiGatewayResponse;
-    }
 }
 
 
@@ -45,10 +45,12 @@ import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.RequestHandler;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.shopcart.models.Category;
 import com.shopcart.utils.ApiResponse;
-import com.shopcart.utils.DynamoDBUtil;
+import com.shopcart.utils.CategorySnapshot;
+import com.shopcart.utils.EntityTag;
+import com.shopcart.utils.JsonCodec;
+import com.shopcart.utils.Priming;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -60,9 +62,13 @@ import java.util.Map;
  */
 public class GetCategoryHandler implements RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> {
     private static final Logger logger = LoggerFactory.getLogger(GetCategoryHandler.class);
-    private static final ObjectMapper objectMapper = new ObjectMapper();
     private static final String CATEGORIES_TABLE = System.getenv("CATEGORIES_TABLE");
 
+    static {
+        JsonCodec.warmUp();
+        Priming.register();
+    }
+
     /**
      * Handle the Lambda function request
      * @param input The API Gateway request event
@@ -80,45 +86,30 @@ public class GetCategoryHandler implements RequestHandler<APIGatewayProxyRequest
             // If categoryId is provided, get a specific category
             if (categoryId != null && !categoryId.isEmpty()) {
                 logger.info("Getting category with ID: {}", categoryId);
-                Category category = DynamoDBUtil.getItem(CATEGORIES_TABLE, "categoryId", categoryId, Category.class);
+                Category category = CategorySnapshot.get(CATEGORIES_TABLE, categoryId);
                 
                 if (category == null) {
                     logger.info("Category with ID {} not found", categoryId);
-                    Map<String, Object> response = ApiResponse.notFound("Category with ID " + categoryId + " not found");
-                    return convertToApiGatewayResponse(response);
+                    return ApiResponse.notFound("Category with ID " + categoryId + " not found");
                 }
                 
                 logger.info("Found category: {}", category);
-                Map<String, Object> response = ApiResponse.success(category);
-                return convertToApiGatewayResponse(response);
+                return ApiResponse.successIfModified(input, category,
+                    EntityTag.forResource().add(category.getCategoryId(), category.getUpdatedAt()));
             }
             
             // Otherwise, get all categories
             logger.info("Getting all categories");
-            List<Category> categories = DynamoDBUtil.scanItems(CATEGORIES_TABLE, Category.class);
+            List<Category> categories = CategorySnapshot.all(CATEGORIES_TABLE);
             logger.info("Found {} categories", categories.size());
             
-            Map<String, Object> response = ApiResponse.success(categories);
-            return convertToApiGatewayResponse(response);
+            return ApiResponse.successIfModified(input, categories,
+                EntityTag.forCollection().addAll(categories, Category::getCategoryId, Category::getUpdatedAt));
         } catch (Exception e) {
             logger.error("Error getting category(ies): {}", e.getMessage(), e);
-            Map<String, Object> response = ApiResponse.serverError(e.getMessage());
-            return convertToApiGatewayResponse(response);
+            return ApiResponse.serverError(e.getMessage());
         }
     }
-    
-    /**
-     * Convert the API response to an API Gateway response event
-     * @param response The API response
-     * @return The API Gateway response event
-     */
-    private APIGatewayProxyResponseEvent convertToApiGatewayResponse(Map<String, Object> response) {
-        APIGatewayProxyResponseEvent apiGatewayResponse = new APIGatewayProxyResponseEvent();
-        apiGatewayResponse.setStatusCode((Integer) response.get("statusCode"));
-        apiGatewayResponse.setHeaders((Map<String, String>) response.get("headers"));
-        apiGatewayResponse.setBody((String) response.get("body"));
-        return apiGatewayResponse;
-    }
 }
 
 
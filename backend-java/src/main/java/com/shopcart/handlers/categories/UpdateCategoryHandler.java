@@ -55,10 +55,12 @@ import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.RequestHandler;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.shopcart.models.Category;
 import com.shopcart.utils.ApiResponse;
+import com.shopcart.utils.CategorySnapshot;
 import com.shopcart.utils.DynamoDBUtil;
+import com.shopcart.utils.JsonCodec;
+import com.shopcart.utils.Priming;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -70,9 +72,13 @@ import java.util.Map;
  */
 public class UpdateCategoryHandler implements RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> {
     private static final Logger logger = LoggerFactory.getLogger(UpdateCategoryHandler.class);
-    private static final ObjectMapper objectMapper = new ObjectMapper();
     private static final String CATEGORIES_TABLE = System.getenv("CATEGORIES_TABLE");
 
+    static {
+        JsonCodec.warmUp();
+        Priming.register();
+    }
+
     /**
      * Handle the Lambda function request
      * @param input The API Gateway request event
@@ -88,8 +94,7 @@ public class UpdateCategoryHandler implements RequestHandler<APIGatewayProxyRequ
             Map<String, String> pathParameters = input.getPathParameters();
             if (pathParameters == null || !pathParameters.containsKey("categoryId")) {
                 logger.error("Category ID is required");
-                Map<String, Object> response = ApiResponse.badRequest("Category ID is required");
-                return convertToApiGatewayResponse(response);
+                return ApiResponse.badRequest("Category ID is required");
             }
             
             String categoryId = pathParameters.get("categoryId");
@@ -98,62 +103,35 @@ public class UpdateCategoryHandler implements RequestHandler<APIGatewayProxyRequ
             String requestBody = input.getBody();
             if (requestBody == null || requestBody.isEmpty()) {
                 logger.error("Request body is empty");
-                Map<String, Object> response = ApiResponse.badRequest("Request body is required");
-                return convertToApiGatewayResponse(response);
+                return ApiResponse.badRequest("Request body is required");
             }
             
-            Category updatedCategory = objectMapper.readValue(requestBody, Category.class);
+            Category updatedCategory = JsonCodec.read(requestBody, Category.class);
             
-            // Get the existing category
-            Category existingCategory = DynamoDBUtil.getItem(CATEGORIES_TABLE, "categoryId", categoryId, Category.class);
+            // Only the fields present in the request are written; the rest keep their stored values
+            Category changes = new Category();
+            changes.setCategoryId(categoryId);
+            changes.setName(updatedCategory.getName());
+            changes.setDescription(updatedCategory.getDescription());
+            changes.setImageUrl(updatedCategory.getImageUrl());
+            changes.setUpdatedAt(Instant.now().toString());
+            
+            // Update the category in DynamoDB if it exists
+            logger.info("Updating category: {}", changes);
+            Category existingCategory = DynamoDBUtil.updateItemIfExists(CATEGORIES_TABLE, "categoryId", changes);
+            CategorySnapshot.invalidate();
             if (existingCategory == null) {
                 logger.error("Category with ID {} not found", categoryId);
-                Map<String, Object> response = ApiResponse.notFound("Category with ID " + categoryId + " not found");
-                return convertToApiGatewayResponse(response);
-            }
-            
-            // Update the category fields
-            if (updatedCategory.getName() != null) {
-                existingCategory.setName(updatedCategory.getName());
-            }
-            
-            if (updatedCategory.getDescription() != null) {
-                existingCategory.setDescription(updatedCategory.getDescription());
+                return ApiResponse.notFound("Category with ID " + categoryId + " not found");
             }
             
-            if (updatedCategory.getImageUrl() != null) {
-                existingCategory.setImageUrl(updatedCategory.getImageUrl());
-            }
-            
-            // Update the timestamp
-            existingCategory.setUpdatedAt(Instant.now().toString());
-            
-            // Save the updated category to DynamoDB
-            logger.info("Updating category: {}", existingCategory);
-            DynamoDBUtil.updateItem(CATEGORIES_TABLE, existingCategory);
-            
             // Return the updated category
-            Map<String, Object> response = ApiResponse.success(existingCategory);
-            return convertToApiGatewayResponse(response);
+            return ApiResponse.success(existingCategory);
         } catch (Exception e) {
             logger.error("Error updating category: {}", e.getMessage(), e);
-            Map<String, Object> response = ApiResponse.serverError(e.getMessage());
-            return convertToApiGatewayResponse(response);
+            return ApiResponse.serverError(e.getMessage());
         }
     }
-    
-    /**
-     * Convert the API response to an API Gateway response event
-     * @param response The API response
-     * @return The API Gateway response event
-     */
-    private APIGatewayProxyResponseEvent convertToApiGatewayResponse(Map<String, Object> response) {
-        APIGatewayProxyResponseEvent apiGatewayResponse = new APIGatewayProxyResponseEvent();
-        apiGatewayResponse.setStatusCode((Integer) response.get("statusCode"));
-        apiGatewayResponse.setHeaders((Map<String, String>) response.get("headers"));
-        apiGatewayResponse.setBody((String) response.get("body"));
-        return apiGatewayResponse;
-    }
 }
 
 
@@ -17,16 +17,16 @@ import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.RequestHandler;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.shopcart.models.Customer;
 import com.shopcart.utils.ApiResponse;
 import com.shopcart.utils.DynamoDBUtil;
+import com.shopcart.utils.JsonCodec;
+import com.shopcart.utils.Priming;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.Instant;
 import java.util.List;
-import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -34,9 +34,13 @@ import java.util.UUID;
  */
 public class CreateCustomerHandler implements RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> {
     private static final Logger logger = LoggerFactory.getLogger(CreateCustomerHandler.class);
-    private static final ObjectMapper objectMapper = new ObjectMapper();
     private static final String CUSTOMERS_TABLE = System.getenv("CUSTOMERS_TABLE");
 
+    static {
+        JsonCodec.warmUp();
+        Priming.register();
+    }
+
     /**
      * Handle the Lambda function request
      * @param input The API Gateway request event
@@ -52,23 +56,20 @@ public class CreateCustomerHandler implements RequestHandler<APIGatewayProxyRequ
             String requestBody = input.getBody();
             if (requestBody == null || requestBody.isEmpty()) {
                 logger.error("Request body is empty");
-                Map<String, Object> response = ApiResponse.badRequest("Request body is required");
-                return convertToApiGatewayResponse(response);
+                return ApiResponse.badRequest("Request body is required");
             }
             
-            Customer customer = objectMapper.readValue(requestBody, Customer.class);
+            Customer customer = JsonCodec.read(requestBody, Customer.class);
             
             // Validate required fields
             if (customer.getEmail() == null || customer.getEmail().isEmpty()) {
                 logger.error("Email is required");
-                Map<String, Object> response = ApiResponse.badRequest("Email is required");
-                return convertToApiGatewayResponse(response);
+                return ApiResponse.badRequest("Email is required");
             }
             
             if (customer.getPassword() == null || customer.getPassword().isEmpty()) {
                 logger.error("Password is required");
-                Map<String, Object> response = ApiResponse.badRequest("Password is required");
-                return convertToApiGatewayResponse(response);
+                return ApiResponse.badRequest("Password is required");
             }
             
             // Check if email already exists
@@ -78,8 +79,7 @@ public class CreateCustomerHandler implements RequestHandler<APIGatewayProxyRequ
                 
                 if (!existingCustomers.isEmpty()) {
                     logger.error("Email already exists: {}", customer.getEmail());
-                    Map<String, Object> response = ApiResponse.badRequest("Email already exists");
-                    return convertToApiGatewayResponse(response);
+                    return ApiResponse.badRequest("Email already exists");
                 }
             } catch (Exception e) {
                 logger.warn("Error checking for existing email: {}", e.getMessage());
@@ -102,27 +102,12 @@ public class CreateCustomerHandler implements RequestHandler<APIGatewayProxyRequ
             DynamoDBUtil.putItem(CUSTOMERS_TABLE, customer);
             
             // Return the created customer
-            Map<String, Object> response = ApiResponse.created(customer);
-            return convertToApiGatewayResponse(response);
+            return ApiResponse.created(customer);
         } catch (Exception e) {
             logger.error("Error creating customer: {}", e.getMessage(), e);
-            Map<String, Object> response = ApiResponse.serverError(e.getMessage());
-            return convertToApiGatewayResponse(response);
+            return ApiResponse.serverError(e.getMessage());
         }
     }
-    
-    /**
-     * Convert the API response to an API Gateway response event
-     * @param response The API response
-     * @return The API Gateway response event
-     */
-    private APIGatewayProxyResponseEvent convertToApiGatewayResponse(Map<String, Object> response) {
-        APIGatewayProxyResponseEvent apiGatewayResponse = new APIGatewayProxyResponseEvent();
-        apiGatewayResponse.setStatusCode((Integer) response.get("statusCode"));
-        apiGatewayResponse.setHeaders((Map<String, String>) response.get("headers"));
-        apiGatewayResponse.setBody((String) response.get("body"));
-        return apiGatewayResponse;
-    }
 }
 
 
@@ -26,6 +26,7 @@ import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent
 import com.shopcart.models.Customer;
 import com.shopcart.utils.ApiResponse;
 import com.shopcart.utils.DynamoDBUtil;
+import com.shopcart.utils.Priming;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -38,6 +39,10 @@ public class DeleteCustomerHandler implements RequestHandler<APIGatewayProxyRequ
     private static final Logger logger = LoggerFactory.getLogger(DeleteCustomerHandler.class);
     private static final String CUSTOMERS_TABLE = System.getenv("CUSTOMERS_TABLE");
 
+    static {
+        Priming.register();
+    }
+
     /**
      * Handle the Lambda function request
      * @param input The API Gateway request event
@@ -53,46 +58,26 @@ public class DeleteCustomerHandler implements RequestHandler<APIGatewayProxyRequ
             Map<String, String> pathParameters = input.getPathParameters();
             if (pathParameters == null || !pathParameters.containsKey("customerId")) {
                 logger.error("Customer ID is required");
-                Map<String, Object> response = ApiResponse.badRequest("Customer ID is required");
-                return convertToApiGatewayResponse(response);
+                return ApiResponse.badRequest("Customer ID is required");
             }
             
             String customerId = pathParameters.get("customerId");
             
-            // Check if the customer exists
-            Customer existingCustomer = DynamoDBUtil.getItem(CUSTOMERS_TABLE, "customerId", customerId, Customer.class);
-            if (existingCustomer == null) {
+            // Delete the customer from DynamoDB if it exists
+            logger.info("Deleting customer with ID: {}", customerId);
+            Customer deletedCustomer = DynamoDBUtil.deleteItemIfExists(CUSTOMERS_TABLE, "customerId", customerId, Customer.class);
+            if (deletedCustomer == null) {
                 logger.error("Customer with ID {} not found", customerId);
-                Map<String, Object> response = ApiResponse.notFound("Customer with ID " + customerId + " not found");
-                return convertToApiGatewayResponse(response);
+                return ApiResponse.notFound("Customer with ID " + customerId + " not found");
             }
             
-            // Delete the customer from DynamoDB
-            logger.info("Deleting customer with ID: {}", customerId);
-            DynamoDBUtil.deleteItem(CUSTOMERS_TABLE, "customerId", customerId, Customer.class);
-            
             // Return a success response
-            Map<String, Object> response = ApiResponse.noContent();
-            return convertToApiGatewayResponse(response);
+            return ApiResponse.noContent();
         } catch (Exception e) {
             logger.error("Error deleting customer: {}", e.getMessage(), e);
-            Map<String, Object> response = ApiResponse.serverError(e.getMessage());
-            return convertToApiGatewayResponse(response);
+            return ApiResponse.serverError(e.getMessage());
         }
     }
-    
-    /**
-     * Convert the API response to an API Gateway response event
-     * @param response The API response
-     * @return The API Gateway response event
-     */
-    private APIGatewayProxyResponseEvent convertToApiGatewayResponse(Map<String, Object> response) {
-        APIGatewayProxyResponseEvent apiGatewayResponse = new APIGatewayProxyResponseEvent();
-        apiGatewayResponse.setStatusCode((Integer) response.get("statusCode"));
-        apiGatewayResponse.setHeaders((Map<String, String>) response.get("headers"));
-        apiGatewayResponse.setBody((String) response.get("body"));
-        return apiGatewayResponse;
-    }
 }
 
 
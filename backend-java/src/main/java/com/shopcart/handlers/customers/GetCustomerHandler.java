@@ -15,10 +15,12 @@ import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.RequestHandler;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.shopcart.models.Customer;
 import com.shopcart.utils.ApiResponse;
 import com.shopcart.utils.DynamoDBUtil;
+import com.shopcart.utils.JsonCodec;
+import com.shopcart.utils.Priming;
+import com.shopcart.utils.QueryPage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -30,9 +32,13 @@ import java.util.Map;
  */
 public class GetCustomerHandler implements RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> {
     private static final Logger logger = LoggerFactory.getLogger(GetCustomerHandler.class);
-    private static final ObjectMapper objectMapper = new ObjectMapper();
     private static final String CUSTOMERS_TABLE = System.getenv("CUSTOMERS_TABLE");
 
+    static {
+        JsonCodec.warmUp();
+        Priming.register();
+    }
+
     /**
      * Handle the Lambda function request
      * @param input The API Gateway request event
@@ -54,41 +60,41 @@ public class GetCustomerHandler implements RequestHandler<APIGatewayProxyRequest
                 
                 if (customer == null) {
                     logger.info("Customer with ID {} not found", customerId);
-                    Map<String, Object> response = ApiResponse.notFound("Customer with ID " + customerId + " not found");
-                    return convertToApiGatewayResponse(response);
+                    return ApiResponse.notFound("Customer with ID " + customerId + " not found");
                 }
                 
                 logger.info("Found customer: {}", customer);
-                Map<String, Object> response = ApiResponse.success(customer);
-                return convertToApiGatewayResponse(response);
+                return ApiResponse.success(customer);
+            }
+            
+            // Otherwise, get all customers, or one page of them if paging was requested
+            Map<String, String> queryParameters = input.getQueryStringParameters();
+            if (!QueryPage.isRequested(queryParameters)) {
+                logger.info("Getting all customers");
+                List<Customer> customers = DynamoDBUtil.scanItems(CUSTOMERS_TABLE, Customer.class);
+                logger.info("Found {} customers", customers.size());
+                
+                return ApiResponse.success(customers);
             }
             
-            // Otherwise, get all customers
-            logger.info("Getting all customers");
-            List<Customer> customers = DynamoDBUtil.scanItems(CUSTOMERS_TABLE, Customer.class);
-            logger.info("Found {} customers", customers.size());
+            logger.info("Getting one page of all customers");
+            QueryPage<Customer> page;
+            try {
+                page = DynamoDBUtil.scanPage(CUSTOMERS_TABLE,
+                    QueryPage.pageSize(queryParameters != null ? queryParameters.get("limit") : null),
+                    queryParameters != null ? queryParameters.get("nextToken") : null, Customer.class);
+            } catch (IllegalArgumentException e) {
+                logger.error("Invalid paging parameters: {}", e.getMessage());
+                return ApiResponse.badRequest(e.getMessage());
+            }
+            logger.info("Found {} customers", page.getItems().size());
             
-            Map<String, Object> response = ApiResponse.success(customers);
-            return convertToApiGatewayResponse(response);
+            return ApiResponse.success(page.getItems(), page.getHeaders());
         } catch (Exception e) {
             logger.error("Error getting customer(s): {}", e.getMessage(), e);
-            Map<String, Object> response = ApiResponse.serverError(e.getMessage());
-            return convertToApiGatewayResponse(response);
+            return ApiResponse.serverError(e.getMessage());
         }
     }
-    
-    /**
-     * Convert the API response to an API Gateway response event
-     * @param response The API response
-     * @return The API Gateway response event
-     */
-    private APIGatewayProxyResponseEvent convertToApiGatewayResponse(Map<String, Object> response) {
-        APIGatewayProxyResponseEvent apiGatewayResponse = new APIGatewayProxyResponseEvent();
-        apiGatewayResponse.setStatusCode((Integer) response.get("statusCode"));
-        apiGatewayResponse.setHeaders((Map<String, String>) response.get("headers"));
-        apiGatewayResponse.setBody((String) response.get("body"));
-        return apiGatewayResponse;
-    }
 }
 
 
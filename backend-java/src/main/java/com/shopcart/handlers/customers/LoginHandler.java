@@ -27,10 +27,13 @@ import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.RequestHandler;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.shopcart.models.Customer;
+import com.shopcart.requests.InvalidRequestException;
+import com.shopcart.requests.LoginRequest;
 import com.shopcart.utils.ApiResponse;
 import com.shopcart.utils.DynamoDBUtil;
+import com.shopcart.utils.JsonCodec;
+import com.shopcart.utils.Priming;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -43,8 +46,14 @@ import java.util.Map;
  */
 public class LoginHandler implements RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> {
     private static final Logger logger = LoggerFactory.getLogger(LoginHandler.class);
-    private static final ObjectMapper objectMapper = new ObjectMapper();
     private static final String CUSTOMERS_TABLE = System.getenv("CUSTOMERS_TABLE");
+    private static final List<String> LOGIN_ATTRIBUTES = List.of(
+        "customerId", "email", "password", "firstName", "lastName", "address", "phone");
+
+    static {
+        JsonCodec.warmUp();
+        Priming.register();
+    }
 
     /**
      * Handle the Lambda function request
@@ -61,42 +70,32 @@ public class LoginHandler implements RequestHandler<APIGatewayProxyRequestEvent,
             String requestBody = input.getBody();
             if (requestBody == null || requestBody.isEmpty()) {
                 logger.error("Request body is empty");
-                Map<String, Object> response = ApiResponse.badRequest("Request body is required");
-                return convertToApiGatewayResponse(response);
-            }
-            
-            // Extract email and password from the request
-            Map<String, String> credentials = objectMapper.readValue(requestBody, Map.class);
-            String email = credentials.get("email");
-            String password = credentials.get("password");
-            
-            if (email == null || email.isEmpty()) {
-                logger.error("Email is required");
-                Map<String, Object> response = ApiResponse.badRequest("Email is required");
-                return convertToApiGatewayResponse(response);
+                return ApiResponse.badRequest("Request body is required");
             }
             
-            if (password == null || password.isEmpty()) {
-                logger.error("Password is required");
-                Map<String, Object> response = ApiResponse.badRequest("Password is required");
-                return convertToApiGatewayResponse(response);
+            LoginRequest request;
+            try {
+                request = LoginRequest.parse(requestBody);
+            } catch (InvalidRequestException e) {
+                logger.error("Invalid request: {}", e.getMessage());
+                return ApiResponse.badRequest(e.getMessage());
             }
+            String email = request.email();
+            String password = request.password();
             
             // Find the customer by email
             List<Customer> customers;
             try {
-                customers = DynamoDBUtil.queryItemsByIndex(
-                    CUSTOMERS_TABLE, "EmailIndex", "email", email, Customer.class);
+                customers = DynamoDBUtil.queryPartialItemsByIndex(
+                    CUSTOMERS_TABLE, "EmailIndex", "email", email, Customer.class, LOGIN_ATTRIBUTES);
             } catch (Exception e) {
                 logger.error("Error querying customer by email: {}", e.getMessage(), e);
-                Map<String, Object> response = ApiResponse.serverError("Error querying customer by email");
-                return convertToApiGatewayResponse(response);
+                return ApiResponse.serverError("Error querying customer by email");
             }
             
             if (customers.isEmpty()) {
                 logger.error("Customer with email {} not found", email);
-                Map<String, Object> response = ApiResponse.unauthorized("Invalid email or password");
-                return convertToApiGatewayResponse(response);
+                return ApiResponse.unauthorized("Invalid email or password");
             }
             
             Customer customer = customers.get(0);
@@ -105,8 +104,7 @@ public class LoginHandler implements RequestHandler<APIGatewayProxyRequestEvent,
             // if (!verifyPassword(password, customer.getPassword())) {
             if (!password.equals(customer.getPassword())) {
                 logger.error("Invalid password for customer with email {}", email);
-                Map<String, Object> response = ApiResponse.unauthorized("Invalid email or password");
-                return convertToApiGatewayResponse(response);
+                return ApiResponse.unauthorized("Invalid email or password");
             }
             
             // Create a response with the customer data (excluding the password)
@@ -122,27 +120,12 @@ public class LoginHandler implements RequestHandler<APIGatewayProxyRequestEvent,
             // String token = generateToken(customer);
             // customerData.put("token", token);
             
-            Map<String, Object> response = ApiResponse.success(customerData);
-            return convertToApiGatewayResponse(response);
+            return ApiResponse.success(customerData);
         } catch (Exception e) {
             logger.error("Error during login: {}", e.getMessage(), e);
-            Map<String, Object> response = ApiResponse.serverError(e.getMessage());
-            return convertToApiGatewayResponse(response);
+            return ApiResponse.serverError(e.getMessage());
         }
     }
-    
-    /**
-     * Convert the API response to an API Gateway response event
-     * @param response The API response
-     * @return The API Gateway response event
-     */
-    private APIGatewayProxyResponseEvent convertToApiGatewayResponse(Map<String, Object> response) {
-        APIGatewayProxyResponseEvent apiGatewayResponse = new APIGatewayProxyResponseEvent();
-        apiGatewayResponse.setStatusCode((Integer) response.get("statusCode"));
-        apiGatewayResponse.setHeaders((Map<String, String>) response.get("headers"));
-        apiGatewayResponse.setBody((String) response.get("body"));
-        return apiGatewayResponse;
-    }
 }
 
 
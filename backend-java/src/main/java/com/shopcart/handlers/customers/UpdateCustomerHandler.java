@@ -20,10 +20,11 @@ import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.RequestHandler;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.shopcart.models.Customer;
 import com.shopcart.utils.ApiResponse;
 import com.shopcart.utils.DynamoDBUtil;
+import com.shopcart.utils.JsonCodec;
+import com.shopcart.utils.Priming;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -35,9 +36,13 @@ import java.util.Map;
  */
 public class UpdateCustomerHandler implements RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> {
     private static final Logger logger = LoggerFactory.getLogger(UpdateCustomerHandler.class);
-    private static final ObjectMapper objectMapper = new ObjectMapper();
     private static final String CUSTOMERS_TABLE = System.getenv("CUSTOMERS_TABLE");
 
+    static {
+        JsonCodec.warmUp();
+        Priming.register();
+    }
+
     /**
      * Handle the Lambda function request
      * @param input The API Gateway request event
@@ -53,8 +58,7 @@ public class UpdateCustomerHandler implements RequestHandler<APIGatewayProxyRequ
             Map<String, String> pathParameters = input.getPathParameters();
             if (pathParameters == null || !pathParameters.containsKey("customerId")) {
                 logger.error("Customer ID is required");
-                Map<String, Object> response = ApiResponse.badRequest("Customer ID is required");
-                return convertToApiGatewayResponse(response);
+                return ApiResponse.badRequest("Customer ID is required");
             }
             
             String customerId = pathParameters.get("customerId");
@@ -63,18 +67,16 @@ public class UpdateCustomerHandler implements RequestHandler<APIGatewayProxyRequ
             String requestBody = input.getBody();
             if (requestBody == null || requestBody.isEmpty()) {
                 logger.error("Request body is empty");
-                Map<String, Object> response = ApiResponse.badRequest("Request body is required");
-                return convertToApiGatewayResponse(response);
+                return ApiResponse.badRequest("Request body is required");
             }
             
-            Customer updatedCustomer = objectMapper.readValue(requestBody, Customer.class);
+            Customer updatedCustomer = JsonCodec.read(requestBody, Customer.class);
             
             // Get the existing customer
-            Customer existingCustomer = DynamoDBUtil.getItem(CUSTOMERS_TABLE, "customerId", customerId, Customer.class);
+            Customer existingCustomer = DynamoDBUtil.getItemConsistent(CUSTOMERS_TABLE, "customerId", customerId, Customer.class);
             if (existingCustomer == null) {
                 logger.error("Customer with ID {} not found", customerId);
-                Map<String, Object> response = ApiResponse.notFound("Customer with ID " + customerId + " not found");
-                return convertToApiGatewayResponse(response);
+                return ApiResponse.notFound("Customer with ID " + customerId + " not found");
             }
             
             // Update the customer fields
@@ -103,8 +105,7 @@ public class UpdateCustomerHandler implements RequestHandler<APIGatewayProxyRequ
                     
                     if (!existingCustomers.isEmpty()) {
                         logger.error("Email already exists: {}", updatedCustomer.getEmail());
-                        Map<String, Object> response = ApiResponse.badRequest("Email already exists");
-                        return convertToApiGatewayResponse(response);
+                        return ApiResponse.badRequest("Email already exists");
                     }
                 } catch (Exception e) {
                     logger.warn("Error checking for existing email: {}", e.getMessage());
@@ -128,27 +129,12 @@ public class UpdateCustomerHandler implements RequestHandler<APIGatewayProxyRequ
             DynamoDBUtil.updateItem(CUSTOMERS_TABLE, existingCustomer);
             
             // Return the updated customer
-            Map<String, Object> response = ApiResponse.success(existingCustomer);
-            return convertToApiGatewayResponse(response);
+            return ApiResponse.success(existingCustomer);
         } catch (Exception e) {
             logger.error("Error updating customer: {}", e.getMessage(), e);
-            Map<String, Object> response = ApiResponse.serverError(e.getMessage());
-            return convertToApiGatewayResponse(response);
+            return ApiResponse.serverError(e.getMessage());
         }
     }
-    
-    /**
-     * Convert the API response to an API Gateway response event
-     * @param response The API response
-     * @return The API Gateway response event
-     */
-    private APIGatewayProxyResponseEvent convertToApiGatewayResponse(Map<String, Object> response) {
-        APIGatewayProxyResponseEvent apiGatewayResponse = new APIGatewayProxyResponseEvent();
-        apiGatewayResponse.setStatusCode((Integer) response.get("statusCode"));
-        apiGatewayResponse.setHeaders((Map<String, String>) response.get("headers"));
-        apiGatewayResponse.setBody((String) response.get("body"));
-        return apiGatewayResponse;
-    }
 }
 
 
@@ -124,27 +124,41 @@ import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.RequestHandler;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.shopcart.models.*;
+import com.shopcart.requests.InvalidRequestException;
+import com.shopcart.requests.CreateOrderRequest;
 import com.shopcart.utils.ApiResponse;
+import com.shopcart.utils.CheckoutEngine;
+import com.shopcart.utils.CheckoutException;
 import com.shopcart.utils.DynamoDBUtil;
+import com.shopcart.utils.JsonCodec;
+import com.shopcart.utils.NegativeCache;
+import com.shopcart.utils.Priming;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.Instant;
 import java.util.*;
+import java.util.stream.Collectors;
 
 /**
  * Lambda function handler for creating an order
  */
 public class CreateOrderHandler implements RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> {
     private static final Logger logger = LoggerFactory.getLogger(CreateOrderHandler.class);
-    private static final ObjectMapper objectMapper = new ObjectMapper();
     private static final String ORDERS_TABLE = System.getenv("ORDERS_TABLE");
     private static final String ORDER_ITEMS_TABLE = System.getenv("ORDER_ITEMS_TABLE");
     private static final String CARTS_TABLE = System.getenv("CARTS_TABLE");
     private static final String CART_ITEMS_TABLE = System.getenv("CART_ITEMS_TABLE");
     private static final String PRODUCTS_TABLE = System.getenv("PRODUCTS_TABLE");
+    private static final CheckoutEngine checkoutEngine = new CheckoutEngine(
+        ORDERS_TABLE, ORDER_ITEMS_TABLE, CARTS_TABLE, CART_ITEMS_TABLE, PRODUCTS_TABLE);
+
+    static {
+        JsonCodec.warmUp();
+        Priming.register();
+    }
 
     /**
      * Handle the Lambda function request
@@ -161,62 +175,40 @@ public class CreateOrderHandler implements RequestHandler<APIGatewayProxyRequest
             String requestBody = input.getBody();
             if (requestBody == null || requestBody.isEmpty()) {
                 logger.error("Request body is empty");
-                Map<String, Object> response = ApiResponse.badRequest("Request body is required");
-                return convertToApiGatewayResponse(response);
-            }
-            
-            Map<String, String> requestMap = objectMapper.readValue(requestBody, Map.class);
-            String cartId = requestMap.get("cartId");
-            String customerId = requestMap.get("customerId");
-            String shippingAddress = requestMap.get("shippingAddress");
-            String paymentMethod = requestMap.get("paymentMethod");
-            
-            if (cartId == null || cartId.isEmpty()) {
-                logger.error("Cart ID is required");
-                Map<String, Object> response = ApiResponse.badRequest("Cart ID is required");
-                return convertToApiGatewayResponse(response);
-            }
-            
-            if (customerId == null || customerId.isEmpty()) {
-                logger.error("Customer ID is required");
-                Map<String, Object> response = ApiResponse.badRequest("Customer ID is required");
-                return convertToApiGatewayResponse(response);
+                return ApiResponse.badRequest("Request body is required");
             }
             
-            if (shippingAddress == null || shippingAddress.isEmpty()) {
-                logger.error("Shipping address is required");
-                Map<String, Object> response = ApiResponse.badRequest("Shipping address is required");
-                return convertToApiGatewayResponse(response);
-            }
-            
-            if (paymentMethod == null || paymentMethod.isEmpty()) {
-                logger.error("Payment method is required");
-                Map<String, Object> response = ApiResponse.badRequest("Payment method is required");
-                return convertToApiGatewayResponse(response);
+            CreateOrderRequest request;
+            try {
+                request = CreateOrderRequest.parse(requestBody);
+            } catch (InvalidRequestException e) {
+                logger.error("Invalid request: {}", e.getMessage());
+                return ApiResponse.badRequest(e.getMessage());
             }
+            String cartId = request.cartId();
+            String customerId = request.customerId();
+            String shippingAddress = request.shippingAddress();
+            String paymentMethod = request.paymentMethod();
             
             // Get the cart from DynamoDB
             logger.info("Getting cart with ID: {}", cartId);
-            Cart cart = DynamoDBUtil.getItem(CARTS_TABLE, "cartId", cartId, Cart.class);
+            Cart cart = DynamoDBUtil.getItemConsistent(CARTS_TABLE, "cartId", cartId, Cart.class);
             
             if (cart == null) {
                 logger.error("Cart with ID {} not found", cartId);
-                Map<String, Object> response = ApiResponse.notFound("Cart with ID " + cartId + " not found");
-                return convertToApiGatewayResponse(response);
+                return ApiResponse.notFound("Cart with ID " + cartId + " not found");
             }
             
             // Check if the cart belongs to the customer
             if (!cart.getCustomerId().equals(customerId)) {
                 logger.error("Cart with ID {} does not belong to customer {}", cartId, customerId);
-                Map<String, Object> response = ApiResponse.forbidden("Cart does not belong to the customer");
-                return convertToApiGatewayResponse(response);
+                return ApiResponse.forbidden("Cart does not belong to the customer");
             }
             
             // Check if the cart is empty
             if (cart.getTotalItems() == 0) {
                 logger.error("Cart with ID {} is empty", cartId);
-                Map<String, Object> response = ApiResponse.badRequest("Cart is empty");
-                return convertToApiGatewayResponse(response);
+                return ApiResponse.badRequest("Cart is empty");
             }
             
             // Get the cart items
@@ -226,8 +218,27 @@ public class CreateOrderHandler implements RequestHandler<APIGatewayProxyRequest
             
             if (cartItems.isEmpty()) {
                 logger.error("No items found in cart with ID {}", cartId);
-                Map<String, Object> response = ApiResponse.badRequest("No items found in cart");
-                return convertToApiGatewayResponse(response);
+                return ApiResponse.badRequest("No items found in cart");
+            }
+            
+            // Load every product in one batch, so lines that cannot be filled are rejected before
+            // anything is written; the transaction conditions still guard against concurrent orders
+            Map<Key, Product> products = DynamoDBUtil.batchGetItems(PRODUCTS_TABLE, cartItems.stream()
+                .map(cartItem -> productKey(cartItem.getProductId()))
+                .collect(Collectors.toList()), Product.class);
+            for (CartItem cartItem : cartItems) {
+                Product product = products.get(productKey(cartItem.getProductId()));
+                if (product == null) {
+                    logger.error("Product with ID {} no longer exists", cartItem.getProductId());
+                    return ApiResponse.badRequest("Product " + cartItem.getProductId() + " is no longer available");
+                }
+                int stock = product.getStock() != null ? product.getStock() : 0;
+                if (stock < cartItem.getQuantity()) {
+                    logger.error("Product {} is out of stock. Available: {}, Requested: {}", 
+                               cartItem.getProductId(), stock, cartItem.getQuantity());
+                    return ApiResponse.badRequest("Product " + cartItem.getProductId() + " is out of stock. Available: "
+                        + stock + ", Requested: " + cartItem.getQuantity());
+                }
             }
             
             // Create a new order
@@ -245,10 +256,6 @@ public class CreateOrderHandler implements RequestHandler<APIGatewayProxyRequest
             order.setCreatedAt(timestamp);
             order.setUpdatedAt(timestamp);
             
-            // Save the order to DynamoDB
-            logger.info("Creating order: {}", order);
-            DynamoDBUtil.putItem(ORDERS_TABLE, order);
-            
             // Create order items from cart items
             List<OrderItem> orderItems = new ArrayList<>();
             
@@ -265,64 +272,34 @@ public class CreateOrderHandler implements RequestHandler<APIGatewayProxyRequest
                 orderItem.setUpdatedAt(timestamp);
                 
                 orderItems.add(orderItem);
-                
-                // Update product stock
-                Product product = DynamoDBUtil.getItem(PRODUCTS_TABLE, "productId", cartItem.getProductId(), Product.class);
-                if (product != null) {
-                    int newStock = product.getStock() - cartItem.getQuantity();
-                    if (newStock < 0) newStock = 0;
-                    product.setStock(newStock);
-                    product.setUpdatedAt(timestamp);
-                    DynamoDBUtil.updateItem(PRODUCTS_TABLE, product);
-                }
             }
             
-            // Save the order items to DynamoDB
-            logger.info("Creating {} order items", orderItems.size());
-            for (OrderItem orderItem : orderItems) {
-                DynamoDBUtil.putItem(ORDER_ITEMS_TABLE, orderItem);
-            }
-            
-            // Clear the cart
-            logger.info("Clearing cart with ID: {}", cartId);
-            
-            // Delete all cart items
-            for (CartItem cartItem : cartItems) {
-                DynamoDBUtil.deleteItem(
-                    CART_ITEMS_TABLE, "cartId", cartId, "productId", cartItem.getProductId(), CartItem.class);
+            // Reserve stock, write the order and its items and clear the cart in one transaction
+            logger.info("Creating order: {}", order);
+            try {
+                checkoutEngine.checkout(cartId, order, cartItems, orderItems);
+                NegativeCache.forget(ORDERS_TABLE, orderId);
+            } catch (CheckoutException e) {
+                logger.error("Order for cart {} rejected: {}", cartId, e.getMessage());
+                return e.getReason() == CheckoutException.Reason.OUT_OF_STOCK
+                    ? ApiResponse.badRequest(e.getMessage())
+                    : ApiResponse.conflict(e.getMessage());
             }
             
-            // Update the cart totals
-            cart.setTotalPrice(0.0);
-            cart.setTotalItems(0);
-            cart.setUpdatedAt(timestamp);
-            DynamoDBUtil.updateItem(CARTS_TABLE, cart);
-            
             // Return the created order and its items
             Map<String, Object> orderData = new HashMap<>();
             orderData.put("order", order);
             orderData.put("items", orderItems);
             
-            Map<String, Object> response = ApiResponse.created(orderData);
-            return convertToApiGatewayResponse(response);
+            return ApiResponse.created(orderData);
         } catch (Exception e) {
             logger.error("Error creating order: {}", e.getMessage(), e);
-            Map<String, Object> response = ApiResponse.serverError(e.getMessage());
-            return convertToApiGatewayResponse(response);
+            return ApiResponse.serverError(e.getMessage());
         }
     }
-    
-    /**
-     * Convert the API response to an API Gateway response event
-     * @param response The API response
-     * @return The API Gateway response event
-     */
-    private APIGatewayProxyResponseEvent convertToApiGatewayResponse(Map<String, Object> response) {
-        APIGatewayProxyResponseEvent apiGatewayResponse = new APIGatewayProxyResponseEvent();
-        apiGatewayResponse.setStatusCode((Integer) response.get("statusCode"));
-        apiGatewayResponse.setHeaders((Map<String, String>) response.get("headers"));
-        apiGatewayResponse.setBody((String) response.get("body"));
-        return apiGatewayResponse;
+
+    private static Key productKey(String productId) {
+        return Key.builder().partitionValue(productId).build();
     }
 }
 
@@ -8,7 +8,9 @@ import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent
 import com.shopcart.models.Order;
 import com.shopcart.models.OrderItem;
 import com.shopcart.utils.ApiResponse;
+import com.shopcart.utils.BatchWriteReport;
 import com.shopcart.utils.DynamoDBUtil;
+import com.shopcart.utils.Priming;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import software.amazon.awssdk.enhanced.dynamodb.Key;
@@ -25,6 +27,10 @@ public class DeleteOrderHandler implements RequestHandler<APIGatewayProxyRequest
     private static final String ORDERS_TABLE = System.getenv("ORDERS_TABLE");
     private static final String ORDER_ITEMS_TABLE = System.getenv("ORDER_ITEMS_TABLE");
 
+    static {
+        Priming.register();
+    }
+
     /**
      * Handle the Lambda function request
      * @param input The API Gateway request event
@@ -40,28 +46,25 @@ public class DeleteOrderHandler implements RequestHandler<APIGatewayProxyRequest
             Map<String, String> pathParameters = input.getPathParameters();
             if (pathParameters == null || !pathParameters.containsKey("orderId")) {
                 logger.error("Order ID is required");
-                Map<String, Object> response = ApiResponse.badRequest("Order ID is required");
-                return convertToApiGatewayResponse(response);
+                return ApiResponse.badRequest("Order ID is required");
             }
             
             String orderId = pathParameters.get("orderId");
             
             // Get the order from DynamoDB
             logger.info("Getting order with ID: {}", orderId);
-            Order order = DynamoDBUtil.getItem(ORDERS_TABLE, "orderId", orderId, Order.class);
+            Order order = DynamoDBUtil.getItemConsistent(ORDERS_TABLE, "orderId", orderId, Order.class);
             
             if (order == null) {
                 logger.error("Order with ID {} not found", orderId);
-                Map<String, Object> response = ApiResponse.notFound("Order with ID " + orderId + " not found");
-                return convertToApiGatewayResponse(response);
+                return ApiResponse.notFound("Order with ID " + orderId + " not found");
             }
             
             // Check if the order can be deleted (only PENDING orders can be deleted)
             if (!"PENDING".equals(order.getStatus())) {
                 logger.error("Cannot delete order with status {}", order.getStatus());
-                Map<String, Object> response = ApiResponse.badRequest(
+                return ApiResponse.badRequest(
                     "Cannot delete order with status " + order.getStatus() + ". Only PENDING orders can be deleted.");
-                return convertToApiGatewayResponse(response);
             }
             
             // Get all order items
@@ -79,7 +82,13 @@ public class DeleteOrderHandler implements RequestHandler<APIGatewayProxyRequest
                         .build())
                     .collect(Collectors.toList());
                 
-                DynamoDBUtil.batchDeleteItems(ORDER_ITEMS_TABLE, keys, OrderItem.class);
+                BatchWriteReport report = DynamoDBUtil.batchDeleteItems(ORDER_ITEMS_TABLE, keys, OrderItem.class);
+                if (!report.isComplete()) {
+                    logger.error("Failed to delete {} of {} order items from order {}",
+                               report.getFailedKeys().size(), keys.size(), orderId);
+                    return ApiResponse.serverError(
+                        "Failed to delete " + report.getFailedKeys().size() + " order items");
+                }
             }
             
             // Delete the order from DynamoDB
@@ -87,25 +96,10 @@ public class DeleteOrderHandler implements RequestHandler<APIGatewayProxyRequest
             DynamoDBUtil.deleteItem(ORDERS_TABLE, "orderId", orderId, Order.class);
             
             // Return a success response
-            Map<String, Object> response = ApiResponse.noContent();
-            return convertToApiGatewayResponse(response);
+            return ApiResponse.noContent();
         } catch (Exception e) {
             logger.error("Error deleting order: {}", e.getMessage(), e);
-            Map<String, Object> response = ApiResponse.serverError(e.getMessage());
-            return convertToApiGatewayResponse(response);
+            return ApiResponse.serverError(e.getMessage());
         }
     }
-    
-    /**
-     * Convert the API response to an API Gateway response event
-     * @param response The API response
-     * @return The API Gateway response event
-     */
-    private APIGatewayProxyResponseEvent convertToApiGatewayResponse(Map<String, Object> response) {
-        APIGatewayProxyResponseEvent apiGatewayResponse = new APIGatewayProxyResponseEvent();
-        apiGatewayResponse.setStatusCode((Integer) response.get("statusCode"));
-        apiGatewayResponse.setHeaders((Map<String, String>) response.get("headers"));
-        apiGatewayResponse.setBody((String) response.get("body"));
-        return apiGatewayResponse;
-    }
 }
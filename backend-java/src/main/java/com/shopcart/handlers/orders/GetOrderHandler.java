@@ -131,27 +131,37 @@ import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.RequestHandler;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.shopcart.models.Order;
 import com.shopcart.models.OrderItem;
 import com.shopcart.utils.ApiResponse;
+import com.shopcart.utils.DynamoDBAsyncUtil;
 import com.shopcart.utils.DynamoDBUtil;
+import com.shopcart.utils.EntityTag;
+import com.shopcart.utils.JsonCodec;
+import com.shopcart.utils.NegativeCache;
+import com.shopcart.utils.Priming;
+import com.shopcart.utils.QueryPage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Lambda function handler for getting an order
  */
 public class GetOrderHandler implements RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> {
     private static final Logger logger = LoggerFactory.getLogger(GetOrderHandler.class);
-    private static final ObjectMapper objectMapper = new ObjectMapper();
     private static final String ORDERS_TABLE = System.getenv("ORDERS_TABLE");
     private static final String ORDER_ITEMS_TABLE = System.getenv("ORDER_ITEMS_TABLE");
 
+    static {
+        JsonCodec.warmUp();
+        Priming.register();
+    }
+
     /**
      * Handle the Lambda function request
      * @param input The API Gateway request event
@@ -168,71 +178,109 @@ public class GetOrderHandler implements RequestHandler<APIGatewayProxyRequestEve
             
             // If orderId is provided, get a specific order
             if (orderId != null && !orderId.isEmpty()) {
-                logger.info("Getting order with ID: {}", orderId);
-                Order order = DynamoDBUtil.getItem(ORDERS_TABLE, "orderId", orderId, Order.class);
+                // Skip the read for IDs that were recently found missing
+                if (NegativeCache.isMissing(ORDERS_TABLE, orderId)) {
+                    logger.info("Order with ID {} not found (cached miss)", orderId);
+                    return ApiResponse.notFound("Order with ID " + orderId + " not found");
+                }
                 
+                long missGeneration = NegativeCache.generation();
+                // Get the order and its items concurrently
+                logger.info("Getting order and order items for order ID: {}", orderId);
+                CompletableFuture<Order> orderFuture = DynamoDBAsyncUtil.getItem(
+                    ORDERS_TABLE, "orderId", orderId, Order.class);
+                CompletableFuture<List<OrderItem>> orderItemsFuture = DynamoDBAsyncUtil.queryItemsByIndex(
+                    ORDER_ITEMS_TABLE, "OrderIndex", "orderId", orderId, OrderItem.class);
+                
+                Order order = DynamoDBAsyncUtil.join(orderFuture);
                 if (order == null) {
                     logger.info("Order with ID {} not found", orderId);
-                    Map<String, Object> response = ApiResponse.notFound("Order with ID " + orderId + " not found");
-                    return convertToApiGatewayResponse(response);
+                    NegativeCache.remember(ORDERS_TABLE, orderId, missGeneration);
+                    return ApiResponse.notFound("Order with ID " + orderId + " not found");
                 }
                 
-                // Get the order items
-                logger.info("Getting order items for order ID: {}", orderId);
-                List<OrderItem> orderItems = DynamoDBUtil.queryItemsByIndex(
-                    ORDER_ITEMS_TABLE, "OrderIndex", "orderId", orderId, OrderItem.class);
+                List<OrderItem> orderItems = DynamoDBAsyncUtil.join(orderItemsFuture);
                 
                 // Create a response with the order and its items
                 Map<String, Object> orderData = new HashMap<>();
                 orderData.put("order", order);
                 orderData.put("items", orderItems);
                 
+                EntityTag tag = EntityTag.forResource()
+                    .add(order.getOrderId(), order.getUpdatedAt())
+                    .addAll(orderItems, OrderItem::getProductId, OrderItem::getUpdatedAt);
+                
                 logger.info("Found order: {} with {} items", order, orderItems.size());
-                Map<String, Object> response = ApiResponse.success(orderData);
-                return convertToApiGatewayResponse(response);
+                return ApiResponse.successIfModified(input, orderData, tag);
             }
             
             // Check if we need to filter by customer
             Map<String, String> queryParameters = input.getQueryStringParameters();
-            String customerId = queryParameters != null ? queryParameters.get("customerId") : null;
+            String customerId = pathParameters != null ? pathParameters.get("customerId") : null;
+            if (customerId == null && queryParameters != null) {
+                customerId = queryParameters.get("customerId");
+            }
             
-            if (customerId != null && !customerId.isEmpty()) {
-                // Get orders by customer
+            if (customerId != null && !customerId.isEmpty() && !QueryPage.isRequested(queryParameters)) {
+                // Get every order of the customer
                 logger.info("Getting orders by customer ID: {}", customerId);
                 List<Order> orders = DynamoDBUtil.queryItemsByIndex(
                     ORDERS_TABLE, "CustomerIndex", "customerId", customerId, Order.class);
                 
                 logger.info("Found {} orders for customer {}", orders.size(), customerId);
-                Map<String, Object> response = ApiResponse.success(orders);
-                return convertToApiGatewayResponse(response);
+                return ApiResponse.successIfModified(input, orders, EntityTag.forCollection()
+                    .addAll(orders, Order::getOrderId, Order::getUpdatedAt));
+            }
+            
+            if (customerId != null && !customerId.isEmpty()) {
+                // Get one page of orders by customer
+                logger.info("Getting page of orders by customer ID: {}", customerId);
+                QueryPage<Order> page;
+                try {
+                    page = DynamoDBUtil.queryPage(ORDERS_TABLE, "CustomerIndex", customerId,
+                        QueryPage.pageSize(queryParameters != null ? queryParameters.get("limit") : null),
+                        queryParameters != null ? queryParameters.get("nextToken") : null, Order.class);
+                } catch (IllegalArgumentException e) {
+                    logger.error("Invalid paging parameters: {}", e.getMessage());
+                    return ApiResponse.badRequest(e.getMessage());
+                }
+                
+                logger.info("Found {} orders for customer {}", page.getItems().size(), customerId);
+                return ApiResponse.successIfModified(input, page.getItems(), EntityTag.forCollection()
+                    .addAll(page.getItems(), Order::getOrderId, Order::getUpdatedAt)
+                    .addValue(QueryPage.NEXT_TOKEN_HEADER, page.getNextToken()), page.getHeaders());
             }
             
-            // Otherwise, get all orders (admin only)
-            logger.info("Getting all orders");
-            List<Order> orders = DynamoDBUtil.scanItems(ORDERS_TABLE, Order.class);
-            logger.info("Found {} orders", orders.size());
+            // Otherwise, get all orders, or one page of them if paging was requested (admin only)
+            if (!QueryPage.isRequested(queryParameters)) {
+                logger.info("Getting all orders");
+                List<Order> orders = DynamoDBUtil.scanItems(ORDERS_TABLE, Order.class);
+                logger.info("Found {} orders", orders.size());
+                
+                return ApiResponse.successIfModified(input, orders, EntityTag.forCollection()
+                    .addAll(orders, Order::getOrderId, Order::getUpdatedAt));
+            }
             
-            Map<String, Object> response = ApiResponse.success(orders);
-            return convertToApiGatewayResponse(response);
+            logger.info("Getting one page of all orders");
+            QueryPage<Order> page;
+            try {
+                page = DynamoDBUtil.scanPage(ORDERS_TABLE,
+                    QueryPage.pageSize(queryParameters != null ? queryParameters.get("limit") : null),
+                    queryParameters != null ? queryParameters.get("nextToken") : null, Order.class);
+            } catch (IllegalArgumentException e) {
+                logger.error("Invalid paging parameters: {}", e.getMessage());
+                return ApiResponse.badRequest(e.getMessage());
+            }
+            logger.info("Found {} orders", page.getItems().size());
+            
+            return ApiResponse.successIfModified(input, page.getItems(), EntityTag.forCollection()
+                .addAll(page.getItems(), Order::getOrderId, Order::getUpdatedAt)
+                .addValue(QueryPage.NEXT_TOKEN_HEADER, page.getNextToken()), page.getHeaders());
         } catch (Exception e) {
             logger.error("Error getting order(s): {}", e.getMessage(), e);
-            Map<String, Object> response = ApiResponse.serverError(e.getMessage());
-            return convertToApiGatewayResponse(response);
+            return ApiResponse.serverError(e.getMessage());
         }
     }
-    
-    /**
-     * Convert the API response to an API Gateway response event
-     * @param response The API response
-     * @return The API Gateway response event
-     */
-    private APIGatewayProxyResponseEvent convertToApiGatewayResponse(Map<String, Object> response) {
-        APIGatewayProxyResponseEvent apiGatewayResponse = new APIGatewayProxyResponseEvent();
-        apiGatewayResponse.setStatusCode((Integer) response.get("statusCode"));
-        apiGatewayResponse.setHeaders((Map<String, String>) response.get("headers"));
-        apiGatewayResponse.setBody((String) response.get("body"));
-        return apiGatewayResponse;
-    }
 }
 
 
@@ -138,16 +138,18 @@ import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.RequestHandler;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.shopcart.models.Order;
 import com.shopcart.models.OrderItem;
+import com.shopcart.requests.InvalidRequestException;
+import com.shopcart.requests.OrderStatusRequest;
 import com.shopcart.utils.ApiResponse;
 import com.shopcart.utils.DynamoDBUtil;
+import com.shopcart.utils.JsonCodec;
+import com.shopcart.utils.Priming;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.Instant;
-import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -157,11 +159,13 @@ import java.util.Map;
  */
 public class UpdateOrderStatusHandler implements RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> {
     private static final Logger logger = LoggerFactory.getLogger(UpdateOrderStatusHandler.class);
-    private static final ObjectMapper objectMapper = new ObjectMapper();
     private static final String ORDERS_TABLE = System.getenv("ORDERS_TABLE");
     private static final String ORDER_ITEMS_TABLE = System.getenv("ORDER_ITEMS_TABLE");
-    private static final List<String> VALID_STATUSES = Arrays.asList(
-        "PENDING", "PROCESSING", "SHIPPED", "DELIVERED", "CANCELLED");
+
+    static {
+        JsonCodec.warmUp();
+        Priming.register();
+    }
 
     /**
      * Handle the Lambda function request
@@ -178,8 +182,7 @@ public class UpdateOrderStatusHandler implements RequestHandler<APIGatewayProxyR
             Map<String, String> pathParameters = input.getPathParameters();
             if (pathParameters == null || !pathParameters.containsKey("orderId")) {
                 logger.error("Order ID is required");
-                Map<String, Object> response = ApiResponse.badRequest("Order ID is required");
-                return convertToApiGatewayResponse(response);
+                return ApiResponse.badRequest("Order ID is required");
             }
             
             String orderId = pathParameters.get("orderId");
@@ -188,35 +191,25 @@ public class UpdateOrderStatusHandler implements RequestHandler<APIGatewayProxyR
             String requestBody = input.getBody();
             if (requestBody == null || requestBody.isEmpty()) {
                 logger.error("Request body is empty");
-                Map<String, Object> response = ApiResponse.badRequest("Request body is required");
-                return convertToApiGatewayResponse(response);
-            }
-            
-            Map<String, String> requestMap = objectMapper.readValue(requestBody, Map.class);
-            String status = requestMap.get("status");
-            
-            if (status == null || status.isEmpty()) {
-                logger.error("Status is required");
-                Map<String, Object> response = ApiResponse.badRequest("Status is required");
-                return convertToApiGatewayResponse(response);
+                return ApiResponse.badRequest("Request body is required");
             }
             
-            // Validate the status
-            if (!VALID_STATUSES.contains(status)) {
-                logger.error("Invalid status: {}", status);
-                Map<String, Object> response = ApiResponse.badRequest(
-                    "Invalid status. Valid statuses are: " + String.join(", ", VALID_STATUSES));
-                return convertToApiGatewayResponse(response);
+            OrderStatusRequest request;
+            try {
+                request = OrderStatusRequest.parse(requestBody);
+            } catch (InvalidRequestException e) {
+                logger.error("Invalid request: {}", e.getMessage());
+                return ApiResponse.badRequest(e.getMessage());
             }
+            String status = request.status();
             
             // Get the order from DynamoDB
             logger.info("Getting order with ID: {}", orderId);
-            Order order = DynamoDBUtil.getItem(ORDERS_TABLE, "orderId", orderId, Order.class);
+            Order order = DynamoDBUtil.getItemConsistent(ORDERS_TABLE, "orderId", orderId, Order.class);
             
             if (order == null) {
                 logger.error("Order with ID {} not found", orderId);
-                Map<String, Object> response = ApiResponse.notFound("Order with ID " + orderId + " not found");
-                return convertToApiGatewayResponse(response);
+                return ApiResponse.notFound("Order with ID " + orderId + " not found");
             }
             
             // Update the order status
@@ -237,27 +230,12 @@ public class UpdateOrderStatusHandler implements RequestHandler<APIGatewayProxyR
             orderData.put("order", order);
             orderData.put("items", orderItems);
             
-            Map<String, Object> response = ApiResponse.success(orderData);
-            return convertToApiGatewayResponse(response);
+            return ApiResponse.success(orderData);
         } catch (Exception e) {
             logger.error("Error updating order status: {}", e.getMessage(), e);
-            Map<String, Object> response = ApiResponse.serverError(e.getMessage());
-            return convertToApiGatewayResponse(response);
+            return ApiResponse.serverError(e.getMessage());
         }
     }
-    
-    /**
-     * Convert the API response to an API Gateway response event
-     * @param response The API response
-     * @return The API Gateway response event
-     */
-    private APIGatewayProxyResponseEvent convertToApiGatewayResponse(Map<String, Object> response) {
-        APIGatewayProxyResponseEvent apiGatewayResponse = new APIGatewayProxyResponseEvent();
-        apiGatewayResponse.setStatusCode((Integer) response.get("statusCode"));
-        apiGatewayResponse.setHeaders((Map<String, String>) response.get("headers"));
-        apiGatewayResponse.setBody((String) response.get("body"));
-        return apiGatewayResponse;
-    }
 }
 
 
@@ -33,15 +33,17 @@ import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.RequestHandler;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.shopcart.models.Product;
 import com.shopcart.utils.ApiResponse;
 import com.shopcart.utils.DynamoDBUtil;
+import com.shopcart.utils.JsonCodec;
+import com.shopcart.utils.NegativeCache;
+import com.shopcart.utils.Priming;
+import com.shopcart.utils.ProductCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.Instant;
-import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -49,9 +51,13 @@ import java.util.UUID;
  */
 public class CreateProductHandler implements RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> {
     private static final Logger logger = LoggerFactory.getLogger(CreateProductHandler.class);
-    private static final ObjectMapper objectMapper = new ObjectMapper();
     private static final String PRODUCTS_TABLE = System.getenv("PRODUCTS_TABLE");
 
+    static {
+        JsonCodec.warmUp();
+        Priming.register();
+    }
+
     /**
      * Handle the Lambda function request
      * @param input The API Gateway request event
@@ -67,29 +73,25 @@ public class CreateProductHandler implements RequestHandler<APIGatewayProxyReque
             String requestBody = input.getBody();
             if (requestBody == null || requestBody.isEmpty()) {
                 logger.error("Request body is empty");
-                Map<String, Object> response = ApiResponse.badRequest("Request body is required");
-                return convertToApiGatewayResponse(response);
+                return ApiResponse.badRequest("Request body is required");
             }
             
-            Product product = objectMapper.readValue(requestBody, Product.class);
+            Product product = JsonCodec.read(requestBody, Product.class);
             
             // Validate required fields
             if (product.getName() == null || product.getName().isEmpty()) {
                 logger.error("Product name is required");
-                Map<String, Object> response = ApiResponse.badRequest("Product name is required");
-                return convertToApiGatewayResponse(response);
+                return ApiResponse.badRequest("Product name is required");
             }
             
             if (product.getPrice() == null) {
                 logger.error("Product price is required");
-                Map<String, Object> response = ApiResponse.badRequest("Product price is required");
-                return convertToApiGatewayResponse(response);
+                return ApiResponse.badRequest("Product price is required");
             }
             
             if (product.getCategoryId() == null || product.getCategoryId().isEmpty()) {
                 logger.error("Category ID is required");
-                Map<String, Object> response = ApiResponse.badRequest("Category ID is required");
-                return convertToApiGatewayResponse(response);
+                return ApiResponse.badRequest("Category ID is required");
             }
             
             // Generate product ID and timestamps
@@ -116,29 +118,16 @@ public class CreateProductHandler implements RequestHandler<APIGatewayProxyReque
             // Save the product to DynamoDB
             logger.info("Creating product: {}", product);
             DynamoDBUtil.putItem(PRODUCTS_TABLE, product);
+            ProductCache.invalidate(product.getProductId());
+            NegativeCache.forget(PRODUCTS_TABLE, product.getProductId());
             
             // Return the created product
-            Map<String, Object> response = ApiResponse.created(product);
-            return convertToApiGatewayResponse(response);
+            return ApiResponse.created(product);
         } catch (Exception e) {
             logger.error("Error creating product: {}", e.getMessage(), e);
-            Map<String, Object> response = ApiResponse.serverError(e.getMessage());
-            return convertToApiGatewayResponse(response);
+            return ApiResponse.serverError(e.getMessage());
         }
     }
-    
-    /**
-     * Convert the API response to an API Gateway response event
-     * @param response The API response
-     * @return The API Gateway response event
-     */
-    private APIGatewayProxyResponseEvent convertToApiGatewayResponse(Map<String, Object> response) {
-        APIGatewayProxyResponseEvent apiGatewayResponse = new APIGatewayProxyResponseEvent();
-        apiGatewayResponse.setStatusCode((Integer) response.get("statusCode"));
-        apiGatewayResponse.setHeaders((Map<String, String>) response.get("headers"));
-        apiGatewayResponse.setBody((String) response.get("body"));
-        return apiGatewayResponse;
-    }
 }
 
 
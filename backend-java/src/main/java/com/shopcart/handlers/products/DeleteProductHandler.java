@@ -44,6 +44,8 @@ import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent
 import com.shopcart.models.Product;
 import com.shopcart.utils.ApiResponse;
 import com.shopcart.utils.DynamoDBUtil;
+import com.shopcart.utils.Priming;
+import com.shopcart.utils.ProductCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -56,6 +58,10 @@ public class DeleteProductHandler implements RequestHandler<APIGatewayProxyReque
     private static final Logger logger = LoggerFactory.getLogger(DeleteProductHandler.class);
     private static final String PRODUCTS_TABLE = System.getenv("PRODUCTS_TABLE");
 
+    static {
+        Priming.register();
+    }
+
     /**
      * Handle the Lambda function request
      * @param input The API Gateway request event
@@ -71,46 +77,27 @@ public class DeleteProductHandler implements RequestHandler<APIGatewayProxyReque
             Map<String, String> pathParameters = input.getPathParameters();
             if (pathParameters == null || !pathParameters.containsKey("productId")) {
                 logger.error("Product ID is required");
-                Map<String, Object> response = ApiResponse.badRequest("Product ID is required");
-                return convertToApiGatewayResponse(response);
+                return ApiResponse.badRequest("Product ID is required");
             }
             
             String productId = pathParameters.get("productId");
             
-            // Check if the product exists
-            Product existingProduct = DynamoDBUtil.getItem(PRODUCTS_TABLE, "productId", productId, Product.class);
-            if (existingProduct == null) {
+            // Delete the product from DynamoDB if it exists
+            logger.info("Deleting product with ID: {}", productId);
+            Product deletedProduct = DynamoDBUtil.deleteItemIfExists(PRODUCTS_TABLE, "productId", productId, Product.class);
+            ProductCache.invalidate(productId);
+            if (deletedProduct == null) {
                 logger.error("Product with ID {} not found", productId);
-                Map<String, Object> response = ApiResponse.notFound("Product with ID " + productId + " not found");
-                return convertToApiGatewayResponse(response);
+                return ApiResponse.notFound("Product with ID " + productId + " not found");
             }
             
-            // Delete the product from DynamoDB
-            logger.info("Deleting product with ID: {}", productId);
-            DynamoDBUtil.deleteItem(PRODUCTS_TABLE, "productId", productId, Product.class);
-            
             // Return a success response
-            Map<String, Object> response = ApiResponse.noContent();
-            return convertToApiGatewayResponse(response);
+            return ApiResponse.noContent();
         } catch (Exception e) {
             logger.error("Error deleting product: {}", e.getMessage(), e);
-            Map<String, Object> response = ApiResponse.serverError(e.getMessage());
-            return convertToApiGatewayResponse(response);
+            return ApiResponse.serverError(e.getMessage());
         }
     }
-    
-    /**
-     * Convert the API response to an API Gateway response event
-     * @param response The API response
-     * @return The API Gateway response event
-     */
-    private APIGatewayProxyResponseEvent convertToApiGatewayResponse(Map<String, Object> response) {
-        APIGatewayProxyResponseEvent apiGatewayResponse = new APIGatewayProxyResponseEvent();
-        apiGatewayResponse.setStatusCode((Integer) response.get("statusCode"));
-        apiGatewayResponse.setHeaders((Map<String, String>) response.get("headers"));
-        apiGatewayResponse.setBody((String) response.get("body"));
-        return apiGatewayResponse;
-    }
 }
 
 
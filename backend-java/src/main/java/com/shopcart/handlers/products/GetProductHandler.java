@@ -30,10 +30,15 @@ import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.RequestHandler;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.shopcart.models.Product;
 import com.shopcart.utils.ApiResponse;
 import com.shopcart.utils.DynamoDBUtil;
+import com.shopcart.utils.EntityTag;
+import com.shopcart.utils.JsonCodec;
+import com.shopcart.utils.NegativeCache;
+import com.shopcart.utils.Priming;
+import com.shopcart.utils.ProductCache;
+import com.shopcart.utils.QueryPage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -45,9 +50,15 @@ import java.util.Map;
  */
 public class GetProductHandler implements RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> {
     private static final Logger logger = LoggerFactory.getLogger(GetProductHandler.class);
-    private static final ObjectMapper objectMapper = new ObjectMapper();
     private static final String PRODUCTS_TABLE = System.getenv("PRODUCTS_TABLE");
 
+    static {
+        // Resolve table schemas and handles during init rather than on the first request
+        DynamoDBUtil.warmUp();
+        JsonCodec.warmUp();
+        Priming.register();
+    }
+
     /**
      * Handle the Lambda function request
      * @param input The API Gateway request event
@@ -64,61 +75,96 @@ public class GetProductHandler implements RequestHandler<APIGatewayProxyRequestE
             
             // If productId is provided, get a specific product
             if (productId != null && !productId.isEmpty()) {
+                // Skip the read for IDs that were recently found missing
+                if (NegativeCache.isMissing(PRODUCTS_TABLE, productId)) {
+                    logger.info("Product with ID {} not found (cached miss)", productId);
+                    return ApiResponse.notFound("Product with ID " + productId + " not found");
+                }
+                
+                long missGeneration = NegativeCache.generation();
                 logger.info("Getting product with ID: {}", productId);
-                Product product = DynamoDBUtil.getItem(PRODUCTS_TABLE, "productId", productId, Product.class);
+                Product product = ProductCache.getProduct(PRODUCTS_TABLE, productId);
+                logger.debug("Product cache: {}", ProductCache.productStats());
                 
                 if (product == null) {
                     logger.info("Product with ID {} not found", productId);
-                    Map<String, Object> response = ApiResponse.notFound("Product with ID " + productId + " not found");
-                    return convertToApiGatewayResponse(response);
+                    NegativeCache.remember(PRODUCTS_TABLE, productId, missGeneration);
+                    return ApiResponse.notFound("Product with ID " + productId + " not found");
                 }
                 
                 logger.info("Found product: {}", product);
-                Map<String, Object> response = ApiResponse.success(product);
-                return convertToApiGatewayResponse(response);
+                return ApiResponse.successIfModified(input, product,
+                    EntityTag.forResource().add(product.getProductId(), product.getUpdatedAt()));
             }
             
             // Check if we need to filter by category
             Map<String, String> queryParameters = input.getQueryStringParameters();
-            String categoryId = queryParameters != null ? queryParameters.get("categoryId") : null;
+            String categoryId = pathParameters != null ? pathParameters.get("categoryId") : null;
+            if (categoryId == null && queryParameters != null) {
+                categoryId = queryParameters.get("categoryId");
+            }
             
-            if (categoryId != null && !categoryId.isEmpty()) {
-                // Get products by category
+            if (categoryId != null && !categoryId.isEmpty() && !QueryPage.isRequested(queryParameters)) {
+                // Get every product in the category
                 logger.info("Getting products by category ID: {}", categoryId);
-                List<Product> products = DynamoDBUtil.queryItemsByIndex(
-                    PRODUCTS_TABLE, "CategoryIndex", "categoryId", categoryId, Product.class);
+                List<Product> products = ProductCache.getCategoryProducts(PRODUCTS_TABLE, categoryId);
+                logger.debug("Category listing cache: {}", ProductCache.categoryStats());
                 
                 logger.info("Found {} products in category {}", products.size(), categoryId);
-                Map<String, Object> response = ApiResponse.success(products);
-                return convertToApiGatewayResponse(response);
+                return ApiResponse.successIfModified(input, products, EntityTag.forCollection()
+                    .addAll(products, Product::getProductId, Product::getUpdatedAt));
             }
             
-            // Otherwise, get all products
-            logger.info("Getting all products");
-            List<Product> products = DynamoDBUtil.scanItems(PRODUCTS_TABLE, Product.class);
-            logger.info("Found {} products", products.size());
+            if (categoryId != null && !categoryId.isEmpty()) {
+                // Get one page of products by category
+                logger.info("Getting page of products by category ID: {}", categoryId);
+                QueryPage<Product> page;
+                try {
+                    page = ProductCache.getCategoryPage(PRODUCTS_TABLE, categoryId,
+                        QueryPage.pageSize(queryParameters != null ? queryParameters.get("limit") : null),
+                        queryParameters != null ? queryParameters.get("nextToken") : null);
+                    logger.debug("Category listing cache: {}", ProductCache.categoryStats());
+                } catch (IllegalArgumentException e) {
+                    logger.error("Invalid paging parameters: {}", e.getMessage());
+                    return ApiResponse.badRequest(e.getMessage());
+                }
+                
+                logger.info("Found {} products in category {}", page.getItems().size(), categoryId);
+                return ApiResponse.successIfModified(input, page.getItems(), EntityTag.forCollection()
+                    .addAll(page.getItems(), Product::getProductId, Product::getUpdatedAt)
+                    .addValue(QueryPage.NEXT_TOKEN_HEADER, page.getNextToken()), page.getHeaders());
+            }
             
-            Map<String, Object> response = ApiResponse.success(products);
-            return convertToApiGatewayResponse(response);
+            // Otherwise, get all products, or one page of them if paging was requested
+            if (!QueryPage.isRequested(queryParameters)) {
+                logger.info("Getting all products");
+                List<Product> products = DynamoDBUtil.scanItems(PRODUCTS_TABLE, Product.class);
+                logger.info("Found {} products", products.size());
+                
+                return ApiResponse.successIfModified(input, products, EntityTag.forCollection()
+                    .addAll(products, Product::getProductId, Product::getUpdatedAt));
+            }
+            
+            logger.info("Getting one page of all products");
+            QueryPage<Product> page;
+            try {
+                page = DynamoDBUtil.scanPage(PRODUCTS_TABLE,
+                    QueryPage.pageSize(queryParameters != null ? queryParameters.get("limit") : null),
+                    queryParameters != null ? queryParameters.get("nextToken") : null, Product.class);
+            } catch (IllegalArgumentException e) {
+                logger.error("Invalid paging parameters: {}", e.getMessage());
+                return ApiResponse.badRequest(e.getMessage());
+            }
+            logger.info("Found {} products", page.getItems().size());
+            
+            return ApiResponse.successIfModified(input, page.getItems(), EntityTag.forCollection()
+                .addAll(page.getItems(), Product::getProductId, Product::getUpdatedAt)
+                .addValue(QueryPage.NEXT_TOKEN_HEADER, page.getNextToken()), page.getHeaders());
         } catch (Exception e) {
             logger.error("Error getting product(s): {}", e.getMessage(), e);
-            Map<String, Object> response = ApiResponse.serverError(e.getMessage());
-            return convertToApiGatewayResponse(response);
+            return ApiResponse.serverError(e.getMessage());
         }
     }
-    
-    /**
-     * Convert the API response to an API Gateway response event
-     * @param response The API response
-     * @return The API Gateway response event
-     */
-    private APIGatewayProxyResponseEvent convertToApiGatewayResponse(Map<String, Object> response) {
-        APIGatewayProxyResponseEvent apiGatewayResponse = new APIGatewayProxyResponseEvent();
-        apiGatewayResponse.setStatusCode((Integer) response.get("statusCode"));
-        apiGatewayResponse.setHeaders((Map<String, String>) response.get("headers"));
-        apiGatewayResponse.setBody((String) response.get("body"));
-        return apiGatewayResponse;
-    }
 }
 
 
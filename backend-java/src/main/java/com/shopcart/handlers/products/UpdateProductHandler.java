@@ -36,10 +36,12 @@ import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.RequestHandler;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.shopcart.models.Product;
 import com.shopcart.utils.ApiResponse;
 import com.shopcart.utils.DynamoDBUtil;
+import com.shopcart.utils.JsonCodec;
+import com.shopcart.utils.Priming;
+import com.shopcart.utils.ProductCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -51,9 +53,13 @@ import java.util.Map;
  */
 public class UpdateProductHandler implements RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> {
     private static final Logger logger = LoggerFactory.getLogger(UpdateProductHandler.class);
-    private static final ObjectMapper objectMapper = new ObjectMapper();
     private static final String PRODUCTS_TABLE = System.getenv("PRODUCTS_TABLE");
 
+    static {
+        JsonCodec.warmUp();
+        Priming.register();
+    }
+
     /**
      * Handle the Lambda function request
      * @param input The API Gateway request event
@@ -69,8 +75,7 @@ public class UpdateProductHandler implements RequestHandler<APIGatewayProxyReque
             Map<String, String> pathParameters = input.getPathParameters();
             if (pathParameters == null || !pathParameters.containsKey("productId")) {
                 logger.error("Product ID is required");
-                Map<String, Object> response = ApiResponse.badRequest("Product ID is required");
-                return convertToApiGatewayResponse(response);
+                return ApiResponse.badRequest("Product ID is required");
             }
             
             String productId = pathParameters.get("productId");
@@ -79,74 +84,38 @@ public class UpdateProductHandler implements RequestHandler<APIGatewayProxyReque
             String requestBody = input.getBody();
             if (requestBody == null || requestBody.isEmpty()) {
                 logger.error("Request body is empty");
-                Map<String, Object> response = ApiResponse.badRequest("Request body is required");
-                return convertToApiGatewayResponse(response);
+                return ApiResponse.badRequest("Request body is required");
             }
             
-            Product updatedProduct = objectMapper.readValue(requestBody, Product.class);
+            Product updatedProduct = JsonCodec.read(requestBody, Product.class);
+            
+            // Only the fields present in the request are written; the rest keep their stored values
+            Product changes = new Product();
+            changes.setProductId(productId);
+            changes.setName(updatedProduct.getName());
+            changes.setDescription(updatedProduct.getDescription());
+            changes.setPrice(updatedProduct.getPrice());
+            changes.setStock(updatedProduct.getStock());
+            changes.setImageUrl(updatedProduct.getImageUrl());
+            changes.setCategoryId(updatedProduct.getCategoryId());
+            changes.setUpdatedAt(Instant.now().toString());
             
-            // Get the existing product
-            Product existingProduct = DynamoDBUtil.getItem(PRODUCTS_TABLE, "productId", productId, Product.class);
+            // Update the product in DynamoDB if it exists
+            logger.info("Updating product: {}", changes);
+            Product existingProduct = DynamoDBUtil.updateItemIfExists(PRODUCTS_TABLE, "productId", changes);
+            ProductCache.invalidate(productId);
             if (existingProduct == null) {
                 logger.error("Product with ID {} not found", productId);
-                Map<String, Object> response = ApiResponse.notFound("Product with ID " + productId + " not found");
-                return convertToApiGatewayResponse(response);
-            }
-            
-            // Update the product fields
-            if (updatedProduct.getName() != null) {
-                existingProduct.setName(updatedProduct.getName());
-            }
-            
-            if (updatedProduct.getDescription() != null) {
-                existingProduct.setDescription(updatedProduct.getDescription());
-            }
-            
-            if (updatedProduct.getPrice() != null) {
-                existingProduct.setPrice(updatedProduct.getPrice());
-            }
-            
-            if (updatedProduct.getStock() != null) {
-                existingProduct.setStock(updatedProduct.getStock());
+                return ApiResponse.notFound("Product with ID " + productId + " not found");
             }
             
-            if (updatedProduct.getImageUrl() != null) {
-                existingProduct.setImageUrl(updatedProduct.getImageUrl());
-            }
-            
-            if (updatedProduct.getCategoryId() != null) {
-                existingProduct.setCategoryId(updatedProduct.getCategoryId());
-            }
-            
-            // Update the timestamp
-            existingProduct.setUpdatedAt(Instant.now().toString());
-            
-            // Save the updated product to DynamoDB
-            logger.info("Updating product: {}", existingProduct);
-            DynamoDBUtil.updateItem(PRODUCTS_TABLE, existingProduct);
-            
             // Return the updated product
-            Map<String, Object> response = ApiResponse.success(existingProduct);
-            return convertToApiGatewayResponse(response);
+            return ApiResponse.success(existingProduct);
         } catch (Exception e) {
             logger.error("Error updating product: {}", e.getMessage(), e);
-            Map<String, Object> response = ApiResponse.serverError(e.getMessage());
-            return convertToApiGatewayResponse(response);
+            return ApiResponse.serverError(e.getMessage());
         }
     }
-    
-    /**
-     * Convert the API response to an API Gateway response event
-     * @param response The API response
-     * @return The API Gateway response event
-     */
-    private APIGatewayProxyResponseEvent convertToApiGatewayResponse(Map<String, Object> response) {
-        APIGatewayProxyResponseEvent apiGatewayResponse = new APIGatewayProxyResponseEvent();
-        apiGatewayResponse.setStatusCode((Integer) response.get("statusCode"));
-        apiGatewayResponse.setHeaders((Map<String, String>) response.get("headers"));
-        apiGatewayResponse.setBody((String) response.get("body"));
-        return apiGatewayResponse;
-    }
 }
 
 
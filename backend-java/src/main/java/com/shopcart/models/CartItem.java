@@ -5,6 +5,7 @@ package com.shopcart.models;
 
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbBean;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbPartitionKey;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbSecondaryPartitionKey;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbSortKey;
 
 import java.util.Objects;
@@ -35,6 +36,7 @@ public class CartItem {
      * @return The cart ID
      */
     @DynamoDbPartitionKey
+    @DynamoDbSecondaryPartitionKey(indexNames = {"CartIndex"})
     public String getCartId() {
         return cartId;
     }
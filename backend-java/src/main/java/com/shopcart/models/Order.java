@@ -7,7 +7,6 @@ package com.shopcart.models;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbBean;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbPartitionKey;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbSecondaryPartitionKey;
-import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbSecondarySortKey;
 
 import java.util.Objects;
 
@@ -54,7 +53,7 @@ public class Order {
      * Get the customer ID
      * @return The customer ID
      */
-    @DynamoDbSecondaryPartitionKey(indexNames = {"CustomerOrderIndex"})
+    @DynamoDbSecondaryPartitionKey(indexNames = {"CustomerIndex"})
     public String getCustomerId() {
         return customerId;
     }
@@ -71,7 +70,6 @@ public class Order {
      * Get the order date
      * @return The order date
      */
-    @DynamoDbSecondarySortKey(indexNames = {"CustomerOrderIndex"})
     public String getOrderDate() {
         return orderDate;
     }
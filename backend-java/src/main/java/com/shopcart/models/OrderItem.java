@@ -7,6 +7,7 @@ package com.shopcart.models;
 
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbBean;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbPartitionKey;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbSecondaryPartitionKey;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbSortKey;
 
 import java.util.Objects;
@@ -24,6 +25,7 @@ public class OrderItem {
     private String imageUrl;
     private Double totalPrice;
     private String createdAt;
+    private String updatedAt;
 
     /**
      * Default constructor required by DynamoDB Enhanced Client
@@ -36,6 +38,7 @@ public class OrderItem {
      * @return The order ID
      */
     @DynamoDbPartitionKey
+    @DynamoDbSecondaryPartitionKey(indexNames = {"OrderIndex"})
     public String getOrderId() {
         return orderId;
     }
@@ -161,6 +164,22 @@ public class OrderItem {
         this.createdAt = createdAt;
     }
 
+    /**
+     * Get the update timestamp
+     * @return The update timestamp
+     */
+    public String getUpdatedAt() {
+        return updatedAt;
+    }
+
+    /**
+     * Set the update timestamp
+     * @param updatedAt The update timestamp
+     */
+    public void setUpdatedAt(String updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -186,6 +205,7 @@ public class OrderItem {
                 ", imageUrl='" + imageUrl + '\'' +
                 ", totalPrice=" + totalPrice +
                 ", createdAt='" + createdAt + '\'' +
+                ", updatedAt='" + updatedAt + '\'' +
                 '}';
     }
 }
@@ -0,0 +1,44 @@
+package com.shopcart.requests;
+
+/**
+ * Body of an add-item request
+ * @param productId The product to add
+ * @param quantity The quantity to add
+ */
+public record AddCartItemRequest(String productId, int quantity) {
+
+    /**
+     * Create an add-item request
+     * @throws InvalidRequestException If the product ID is missing or the quantity is not positive
+     */
+    public AddCartItemRequest {
+        if (productId == null || productId.isEmpty()) {
+            throw new InvalidRequestException("Product ID is required");
+        }
+        if (quantity <= 0) {
+            throw new InvalidRequestException("Quantity must be greater than 0");
+        }
+    }
+
+    /**
+     * Parse an add-item request body
+     * @param body The request body
+     * @return The request
+     * @throws InvalidRequestException If the body is malformed or a field is invalid
+     */
+    public static AddCartItemRequest parse(String body) {
+        String productId = null;
+        int quantity = 0;
+        try (RequestReader reader = RequestReader.open(body)) {
+            String field;
+            while ((field = reader.nextField()) != null) {
+                switch (field) {
+                    case "productId" -> productId = reader.text(field);
+                    case "quantity" -> quantity = reader.integer(field, 0);
+                    default -> reader.skip();
+                }
+            }
+        }
+        return new AddCartItemRequest(productId, quantity);
+    }
+}
@@ -0,0 +1,56 @@
+package com.shopcart.requests;
+
+/**
+ * Body of a create-order request
+ * @param cartId The cart to check out
+ * @param customerId The customer placing the order
+ * @param shippingAddress The shipping address
+ * @param paymentMethod The payment method
+ */
+public record CreateOrderRequest(String cartId, String customerId, String shippingAddress, String paymentMethod) {
+
+    /**
+     * Create a create-order request
+     * @throws InvalidRequestException If a field is missing
+     */
+    public CreateOrderRequest {
+        if (cartId == null || cartId.isEmpty()) {
+            throw new InvalidRequestException("Cart ID is required");
+        }
+        if (customerId == null || customerId.isEmpty()) {
+            throw new InvalidRequestException("Customer ID is required");
+        }
+        if (shippingAddress == null || shippingAddress.isEmpty()) {
+            throw new InvalidRequestException("Shipping address is required");
+        }
+        if (paymentMethod == null || paymentMethod.isEmpty()) {
+            throw new InvalidRequestException("Payment method is required");
+        }
+    }
+
+    /**
+     * Parse a create-order request body
+     * @param body The request body
+     * @return The request
+     * @throws InvalidRequestException If the body is malformed or a field is invalid
+     */
+    public static CreateOrderRequest parse(String body) {
+        String cartId = null;
+        String customerId = null;
+        String shippingAddress = null;
+        String paymentMethod = null;
+        try (RequestReader reader = RequestReader.open(body)) {
+            String field;
+            while ((field = reader.nextField()) != null) {
+                switch (field) {
+                    case "cartId" -> cartId = reader.text(field);
+                    case "customerId" -> customerId = reader.text(field);
+                    case "shippingAddress" -> shippingAddress = reader.text(field);
+                    case "paymentMethod" -> paymentMethod = reader.text(field);
+                    default -> reader.skip();
+                }
+            }
+        }
+        return new CreateOrderRequest(cartId, customerId, shippingAddress, paymentMethod);
+    }
+}
@@ -0,0 +1,16 @@
+package com.shopcart.requests;
+
+/**
+ * Thrown when a request body is malformed or one of its fields is invalid.
+ * The message is safe to return to the client.
+ */
+public class InvalidRequestException extends IllegalArgumentException {
+
+    /**
+     * Create an invalid request exception
+     * @param message The error message
+     */
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+}
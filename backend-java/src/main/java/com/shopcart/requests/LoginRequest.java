@@ -0,0 +1,53 @@
+package com.shopcart.requests;
+
+/**
+ * Body of a login request
+ * @param email The customer's email
+ * @param password The customer's password
+ */
+public record LoginRequest(String email, String password) {
+
+    /**
+     * Create a login request
+     * @throws InvalidRequestException If the email or password is missing
+     */
+    public LoginRequest {
+        if (email == null || email.isEmpty()) {
+            throw new InvalidRequestException("Email is required");
+        }
+        if (password == null || password.isEmpty()) {
+            throw new InvalidRequestException("Password is required");
+        }
+    }
+
+    /**
+     * Parse a login request body
+     * @param body The request body
+     * @return The request
+     * @throws InvalidRequestException If the body is malformed or a field is invalid
+     */
+    public static LoginRequest parse(String body) {
+        String email = null;
+        String password = null;
+        try (RequestReader reader = RequestReader.open(body)) {
+            String field;
+            while ((field = reader.nextField()) != null) {
+                switch (field) {
+                    case "email" -> email = reader.text(field);
+                    case "password" -> password = reader.text(field);
+                    default -> reader.skip();
+                }
+            }
+        }
+        return new LoginRequest(email, password);
+    }
+
+    /**
+     * Keep the password out of logs
+     * @return The request without the password
+     */
+    @Override
+    public String toString() {
+        return "LoginRequest[email=" + email + "]";
+    }
+}
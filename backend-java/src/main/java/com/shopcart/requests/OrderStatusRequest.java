@@ -0,0 +1,52 @@
+package com.shopcart.requests;
+
+import java.util.List;
+
+/**
+ * Body of an order-status request
+ * @param status The new order status
+ */
+public record OrderStatusRequest(String status) {
+    /**
+     * The statuses an order can be moved to
+     */
+    public static final List<String> VALID_STATUSES = List.of(
+        "PENDING", "PROCESSING", "SHIPPED", "DELIVERED", "CANCELLED");
+
+    private static final String INVALID_STATUS_MESSAGE =
+        "Invalid status. Valid statuses are: " + String.join(", ", VALID_STATUSES);
+
+    /**
+     * Create an order-status request
+     * @throws InvalidRequestException If the status is missing or not a valid status
+     */
+    public OrderStatusRequest {
+        if (status == null || status.isEmpty()) {
+            throw new InvalidRequestException("Status is required");
+        }
+        if (!VALID_STATUSES.contains(status)) {
+            throw new InvalidRequestException(INVALID_STATUS_MESSAGE);
+        }
+    }
+
+    /**
+     * Parse an order-status request body
+     * @param body The request body
+     * @return The request
+     * @throws InvalidRequestException If the body is malformed or a field is invalid
+     */
+    public static OrderStatusRequest parse(String body) {
+        String status = null;
+        try (RequestReader reader = RequestReader.open(body)) {
+            String field;
+            while ((field = reader.nextField()) != null) {
+                if (field.equals("status")) {
+                    status = reader.text(field);
+                } else {
+                    reader.skip();
+                }
+            }
+        }
+        return new OrderStatusRequest(status);
+    }
+}
@@ -0,0 +1,145 @@
+package com.shopcart.requests;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.shopcart.utils.JsonCodec;
+
+import java.io.IOException;
+
+/**
+ * Streaming reader for the flat JSON objects sent as request bodies.
+ * Fields are pulled straight off the token stream, so a request is parsed without building
+ * a map or boxing its numbers. Field names come from the factory's interned symbol table.
+ * Unknown fields are skipped.
+ */
+final class RequestReader implements AutoCloseable {
+    private static final JsonFactory factory = JsonCodec.objectMapper().getFactory();
+
+    private final JsonParser parser;
+
+    private RequestReader(JsonParser parser) {
+        this.parser = parser;
+    }
+
+    /**
+     * Start reading a request body
+     * @param body The request body
+     * @return The reader, positioned before the first field
+     * @throws InvalidRequestException If the body is not a JSON object
+     */
+    static RequestReader open(String body) {
+        if (body == null || body.isEmpty()) {
+            throw new InvalidRequestException("Request body is required");
+        }
+        try {
+            JsonParser parser = factory.createParser(body);
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                parser.close();
+                throw new InvalidRequestException("Request body must be a JSON object");
+            }
+            return new RequestReader(parser);
+        } catch (IOException e) {
+            throw new InvalidRequestException("Request body is not valid JSON");
+        }
+    }
+
+    /**
+     * Move to the next field of the object
+     * @return The field name, or null at the end of the object
+     * @throws InvalidRequestException If the body is not valid JSON
+     */
+    String nextField() {
+        try {
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.FIELD_NAME) {
+                parser.nextToken();
+                return parser.currentName();
+            }
+            if (token == JsonToken.END_OBJECT && parser.nextToken() == null) {
+                return null;
+            }
+            throw new InvalidRequestException("Request body is not valid JSON");
+        } catch (JsonProcessingException e) {
+            throw new InvalidRequestException("Request body is not valid JSON");
+        } catch (IOException e) {
+            throw new InvalidRequestException("Request body could not be read");
+        }
+    }
+
+    /**
+     * Read the current field as a string
+     * @param field The field name, for the error message
+     * @return The value, or null if the field is null
+     * @throws InvalidRequestException If the value is not a string
+     */
+    String text(String field) {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token != JsonToken.VALUE_STRING) {
+            throw new InvalidRequestException("Field '" + field + "' must be a string");
+        }
+        try {
+            return parser.getText();
+        } catch (IOException e) {
+            throw new InvalidRequestException("Request body is not valid JSON");
+        }
+    }
+
+    /**
+     * Read the current field as a whole number. Numbers written with a zero fraction,
+     * such as 2.0, are accepted.
+     * @param field The field name, for the error message
+     * @param missing The value to return if the field is null
+     * @return The value
+     * @throws InvalidRequestException If the value is not a whole number in the int range
+     */
+    int integer(String field, int missing) {
+        try {
+            switch (parser.currentToken()) {
+                case VALUE_NULL:
+                    return missing;
+                case VALUE_NUMBER_INT:
+                    if (parser.getNumberType() == JsonParser.NumberType.INT) {
+                        return parser.getIntValue();
+                    }
+                    break;
+                case VALUE_NUMBER_FLOAT:
+                    double value = parser.getDoubleValue();
+                    if (value == Math.rint(value) && value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+                        return (int) value;
+                    }
+                    break;
+                default:
+                    break;
+            }
+        } catch (IOException e) {
+            throw new InvalidRequestException("Request body is not valid JSON");
+        }
+        throw new InvalidRequestException("Field '" + field + "' must be a whole number");
+    }
+
+    /**
+     * Skip the value of the current field, including nested objects and arrays
+     * @throws InvalidRequestException If the body is not valid JSON
+     */
+    void skip() {
+        try {
+            parser.skipChildren();
+        } catch (IOException e) {
+            throw new InvalidRequestException("Request body is not valid JSON");
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            parser.close();
+        } catch (IOException e) {
+            // Nothing to release for a string source
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.shopcart.requests;
+
+/**
+ * Body of an update-item request
+ * @param quantity The new quantity; 0 removes the item
+ */
+public record UpdateCartItemRequest(int quantity) {
+
+    /**
+     * Create an update-item request
+     * @throws InvalidRequestException If the quantity is negative
+     */
+    public UpdateCartItemRequest {
+        if (quantity < 0) {
+            throw new InvalidRequestException("Quantity must be greater than or equal to 0");
+        }
+    }
+
+    /**
+     * Parse an update-item request body
+     * @param body The request body
+     * @return The request
+     * @throws InvalidRequestException If the body is malformed, or the quantity is missing or invalid
+     */
+    public static UpdateCartItemRequest parse(String body) {
+        // A missing quantity is rejected like a negative one
+        int quantity = -1;
+        try (RequestReader reader = RequestReader.open(body)) {
+            String field;
+            while ((field = reader.nextField()) != null) {
+                if (field.equals("quantity")) {
+                    quantity = reader.integer(field, -1);
+                } else {
+                    reader.skip();
+                }
+            }
+        }
+        return new UpdateCartItemRequest(quantity);
+    }
+}
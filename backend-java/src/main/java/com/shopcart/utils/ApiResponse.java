@@ -8,20 +8,53 @@
 
 package com.shopcart.utils;
 
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
- * Utility class for API responses
+ * Utility class for API responses.
+ * Responses are built straight into the API Gateway response event. Responses without
+ * additional headers share one immutable header map, bodies are serialized once to their
+ * final string, and the bodies of common errors are serialized ahead of time.
+ * GET responses can carry an ETag and Last-Modified date and answer conditional requests
+ * with 304 Not Modified.
  */
 public class ApiResponse {
     private static final Logger logger = LoggerFactory.getLogger(ApiResponse.class);
-    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final Map<String, String> DEFAULT_HEADERS = Map.of(
+        "Content-Type", "application/json",
+        "Access-Control-Allow-Origin", "*",
+        "Access-Control-Allow-Credentials", "true");
+    private static final DateTimeFormatter HTTP_DATE = DateTimeFormatter.RFC_1123_DATE_TIME.withZone(ZoneOffset.UTC);
+    private static final String SERIALIZATION_ERROR_BODY = "{\"error\": \"Error serializing response\"}";
+    private static final Map<String, String> CONSTANT_ERROR_BODIES = new HashMap<>();
+
+    static {
+        for (String message : List.of(
+                "Bad Request", "Unauthorized", "Forbidden", "Not Found", "Method Not Allowed",
+                "Conflict", "Internal Server Error",
+                "Request body is required", "Request body is not valid JSON",
+                "Request body must be a JSON object", "Cart ID is required", "Product ID is required",
+                "Category ID is required", "Customer ID is required", "Order ID is required",
+                "Cart ID and Product ID are required", "Email is required", "Password is required",
+                "Status is required", "Quantity must be greater than 0",
+                "Quantity must be greater than or equal to 0", "Cart is empty", "Email already exists",
+                "Invalid email or password")) {
+            CONSTANT_ERROR_BODIES.put(message, serializeError(message));
+        }
+    }
 
     /**
      * Create a standardized API response
@@ -30,41 +63,78 @@ public class ApiResponse {
      * @param headers Additional headers
      * @return API Gateway response object
      */
-    public static Map<String, Object> createResponse(int statusCode, Object body, Map<String, String> headers) {
-        Map<String, Object> response = new HashMap<>();
-        Map<String, String> responseHeaders = new HashMap<>();
-        responseHeaders.put("Content-Type", "application/json");
-        responseHeaders.put("Access-Control-Allow-Origin", "*");
-        responseHeaders.put("Access-Control-Allow-Credentials", "true");
-        
-        if (headers != null) {
-            responseHeaders.putAll(headers);
+    public static APIGatewayProxyResponseEvent createResponse(int statusCode, Object body, Map<String, String> headers) {
+        return respond(statusCode, serialize(body), headers);
+    }
+
+    /**
+     * Serialize a response body
+     * @param body Response body; strings are passed through
+     * @return The serialized body
+     */
+    private static String serialize(Object body) {
+        if (body instanceof String text) {
+            return text;
         }
-        
-        response.put("statusCode", statusCode);
-        response.put("headers", responseHeaders);
-        
         try {
-            if (body instanceof String) {
-                response.put("body", body);
-            } else {
-                response.put("body", objectMapper.writeValueAsString(body));
-            }
+            return JsonCodec.write(body);
         } catch (JsonProcessingException e) {
             logger.error("Error serializing response body: {}", e.getMessage());
-            response.put("body", "{\"error\": \"Error serializing response\"}");
+            return SERIALIZATION_ERROR_BODY;
+        }
+    }
+
+    /**
+     * Create an error response with a body of the form {"error": message}
+     * @param statusCode HTTP status code
+     * @param message Error message
+     * @param headers Additional headers
+     * @return API Gateway response object
+     */
+    public static APIGatewayProxyResponseEvent error(int statusCode, String message, Map<String, String> headers) {
+        String body = CONSTANT_ERROR_BODIES.get(message);
+        return respond(statusCode, body != null ? body : serializeError(message), headers);
+    }
+
+    /**
+     * Fill the response event
+     * @param statusCode HTTP status code
+     * @param body Serialized response body
+     * @param headers Additional headers, or null
+     * @return API Gateway response object
+     */
+    private static APIGatewayProxyResponseEvent respond(int statusCode, String body, Map<String, String> headers) {
+        Map<String, String> responseHeaders = DEFAULT_HEADERS;
+        if (headers != null && !headers.isEmpty()) {
+            responseHeaders = new HashMap<>(DEFAULT_HEADERS);
+            responseHeaders.putAll(headers);
         }
-        
+        APIGatewayProxyResponseEvent response = new APIGatewayProxyResponseEvent();
+        response.setStatusCode(statusCode);
+        response.setHeaders(responseHeaders);
+        response.setBody(body);
         return response;
     }
 
+    /**
+     * Serialize an error body
+     * @param message Error message
+     * @return The JSON error body
+     */
+    private static String serializeError(String message) {
+        char[] quoted = JsonStringEncoder.getInstance().quoteAsString(message);
+        return new StringBuilder(quoted.length + 12)
+            .append("{\"error\":\"").append(quoted).append("\"}")
+            .toString();
+    }
+
     /**
      * Create a success response (200 OK)
      * @param body Response body
      * @param headers Additional headers
      * @return API Gateway response object
      */
-    public static Map<String, Object> success(Object body, Map<String, String> headers) {
+    public static APIGatewayProxyResponseEvent success(Object body, Map<String, String> headers) {
         return createResponse(200, body, headers);
     }
 
@@ -73,17 +143,143 @@ public class ApiResponse {
      * @param body Response body
      * @return API Gateway response object
      */
-    public static Map<String, Object> success(Object body) {
+    public static APIGatewayProxyResponseEvent success(Object body) {
         return success(body, null);
     }
 
+    /**
+     * Create a success response (200 OK) with validators, or a not modified response
+     * (304 Not Modified) without a body if the request's If-None-Match or If-Modified-Since
+     * header shows the client already has this representation
+     * @param request The API Gateway request, for its conditional headers
+     * @param body Response body
+     * @param tag The entity tag of the body
+     * @param headers Additional headers
+     * @return API Gateway response object
+     */
+    public static APIGatewayProxyResponseEvent successIfModified(APIGatewayProxyRequestEvent request, Object body,
+                                                                 EntityTag tag, Map<String, String> headers) {
+        String serialized = null;
+        String etag = tag.value();
+        if (etag == null) {
+            // Without item versions the validator has to come from the body itself
+            serialized = serialize(body);
+            etag = EntityTag.ofBody(serialized);
+        }
+        Instant lastModified = tag.lastModified();
+
+        Map<String, String> responseHeaders = new HashMap<>(DEFAULT_HEADERS);
+        if (headers != null) {
+            responseHeaders.putAll(headers);
+        }
+        responseHeaders.put("ETag", etag);
+        responseHeaders.put("Cache-Control", "no-cache");
+        String exposed = responseHeaders.get("Access-Control-Expose-Headers");
+        responseHeaders.put("Access-Control-Expose-Headers",
+            (exposed != null ? exposed + ", " : "") + (lastModified != null ? "ETag, Last-Modified" : "ETag"));
+        if (lastModified != null) {
+            responseHeaders.put("Last-Modified", HTTP_DATE.format(lastModified));
+        }
+
+        if (notModified(request, etag, lastModified)) {
+            APIGatewayProxyResponseEvent response = new APIGatewayProxyResponseEvent();
+            response.setStatusCode(304);
+            response.setHeaders(responseHeaders);
+            return response;
+        }
+        APIGatewayProxyResponseEvent response = new APIGatewayProxyResponseEvent();
+        response.setStatusCode(200);
+        response.setHeaders(responseHeaders);
+        response.setBody(serialized != null ? serialized : serialize(body));
+        return response;
+    }
+
+    /**
+     * Create a success response (200 OK) with validators, or a not modified response
+     * (304 Not Modified) without a body
+     * @param request The API Gateway request, for its conditional headers
+     * @param body Response body
+     * @param tag The entity tag of the body
+     * @return API Gateway response object
+     */
+    public static APIGatewayProxyResponseEvent successIfModified(APIGatewayProxyRequestEvent request, Object body,
+                                                                 EntityTag tag) {
+        return successIfModified(request, body, tag, null);
+    }
+
+    /**
+     * Evaluate the conditional headers of a GET request. If-None-Match takes precedence,
+     * and If-Modified-Since is only checked when it is absent.
+     * @param request The API Gateway request
+     * @param etag The entity tag of the current representation
+     * @param lastModified The Last-Modified date, or null
+     * @return True if the client's copy is current
+     */
+    static boolean notModified(APIGatewayProxyRequestEvent request, String etag, Instant lastModified) {
+        String ifNoneMatch = header(request, "If-None-Match");
+        if (ifNoneMatch != null) {
+            for (String candidate : ifNoneMatch.split(",")) {
+                String value = candidate.trim();
+                if (value.startsWith("W/")) {
+                    // If-None-Match uses the weak comparison
+                    value = value.substring(2);
+                }
+                if (value.equals("*") || value.equals(etag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        String ifModifiedSince = header(request, "If-Modified-Since");
+        if (ifModifiedSince == null || lastModified == null) {
+            return false;
+        }
+        try {
+            Instant since = HTTP_DATE.parse(ifModifiedSince.trim(), Instant::from);
+            return lastModified.getEpochSecond() <= since.getEpochSecond();
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Get a request header. Header names are compared case-insensitively, since API Gateway
+     * passes them through as the client sent them.
+     * @param request The API Gateway request
+     * @param name The header name
+     * @return The header value, or null if the header is absent
+     */
+    public static String header(APIGatewayProxyRequestEvent request, String name) {
+        Map<String, String> headers = request.getHeaders();
+        if (headers != null) {
+            String value = headers.get(name);
+            if (value != null) {
+                return value;
+            }
+            for (Map.Entry<String, String> header : headers.entrySet()) {
+                if (name.equalsIgnoreCase(header.getKey())) {
+                    return header.getValue();
+                }
+            }
+        }
+        Map<String, List<String>> multiValueHeaders = request.getMultiValueHeaders();
+        if (multiValueHeaders != null) {
+            for (Map.Entry<String, List<String>> header : multiValueHeaders.entrySet()) {
+                if (name.equalsIgnoreCase(header.getKey()) && !header.getValue().isEmpty()) {
+                    return String.join(", ", header.getValue());
+                }
+            }
+        }
+        return null;
+    }
+
     /**
      * Create a created response (201 Created)
      * @param body Response body
      * @param headers Additional headers
      * @return API Gateway response object
      */
-    public static Map<String, Object> created(Object body, Map<String, String> headers) {
+    public static APIGatewayProxyResponseEvent created(Object body, Map<String, String> headers) {
         return createResponse(201, body, headers);
     }
 
@@ -92,7 +288,7 @@ public class ApiResponse {
      * @param body Response body
      * @return API Gateway response object
      */
-    public static Map<String, Object> created(Object body) {
+    public static APIGatewayProxyResponseEvent created(Object body) {
         return created(body, null);
     }
 
@@ -101,7 +297,7 @@ public class ApiResponse {
      * @param headers Additional headers
      * @return API Gateway response object
      */
-    public static Map<String, Object> noContent(Map<String, String> headers) {
+    public static APIGatewayProxyResponseEvent noContent(Map<String, String> headers) {
         return createResponse(204, "", headers);
     }
 
@@ -109,7 +305,7 @@ public class ApiResponse {
      * Create a no content response (204 No Content)
      * @return API Gateway response object
      */
-    public static Map<String, Object> noContent() {
+    public static APIGatewayProxyResponseEvent noContent() {
         return noContent(null);
     }
 
@@ -119,10 +315,8 @@ public class ApiResponse {
      * @param headers Additional headers
      * @return API Gateway response object
      */
-    public static Map<String, Object> badRequest(String message, Map<String, String> headers) {
-        Map<String, String> error = new HashMap<>();
-        error.put("error", message != null ? message : "Bad Request");
-        return createResponse(400, error, headers);
+    public static APIGatewayProxyResponseEvent badRequest(String message, Map<String, String> headers) {
+        return error(400, message != null ? message : "Bad Request", headers);
     }
 
     /**
@@ -130,7 +324,7 @@ public class ApiResponse {
      * @param message Error message
      * @return API Gateway response object
      */
-    public static Map<String, Object> badRequest(String message) {
+    public static APIGatewayProxyResponseEvent badRequest(String message) {
         return badRequest(message, null);
     }
 
@@ -140,10 +334,8 @@ public class ApiResponse {
      * @param headers Additional headers
      * @return API Gateway response object
      */
-    public static Map<String, Object> unauthorized(String message, Map<String, String> headers) {
-        Map<String, String> error = new HashMap<>();
-        error.put("error", message != null ? message : "Unauthorized");
-        return createResponse(401, error, headers);
+    public static APIGatewayProxyResponseEvent unauthorized(String message, Map<String, String> headers) {
+        return error(401, message != null ? message : "Unauthorized", headers);
     }
 
     /**
@@ -151,7 +343,7 @@ public class ApiResponse {
      * @param message Error message
      * @return API Gateway response object
      */
-    public static Map<String, Object> unauthorized(String message) {
+    public static APIGatewayProxyResponseEvent unauthorized(String message) {
         return unauthorized(message, null);
     }
 
@@ -161,10 +353,8 @@ public class ApiResponse {
      * @param headers Additional headers
      * @return API Gateway response object
      */
-    public static Map<String, Object> forbidden(String message, Map<String, String> headers) {
-        Map<String, String> error = new HashMap<>();
-        error.put("error", message != null ? message : "Forbidden");
-        return createResponse(403, error, headers);
+    public static APIGatewayProxyResponseEvent forbidden(String message, Map<String, String> headers) {
+        return error(403, message != null ? message : "Forbidden", headers);
     }
 
     /**
@@ -172,7 +362,7 @@ public class ApiResponse {
      * @param message Error message
      * @return API Gateway response object
      */
-    public static Map<String, Object> forbidden(String message) {
+    public static APIGatewayProxyResponseEvent forbidden(String message) {
         return forbidden(message, null);
     }
 
@@ -182,10 +372,8 @@ public class ApiResponse {
      * @param headers Additional headers
      * @return API Gateway response object
      */
-    public static Map<String, Object> notFound(String message, Map<String, String> headers) {
-        Map<String, String> error = new HashMap<>();
-        error.put("error", message != null ? message : "Not Found");
-        return createResponse(404, error, headers);
+    public static APIGatewayProxyResponseEvent notFound(String message, Map<String, String> headers) {
+        return error(404, message != null ? message : "Not Found", headers);
     }
 
     /**
@@ -193,20 +381,56 @@ public class ApiResponse {
      * @param message Error message
      * @return API Gateway response object
      */
-    public static Map<String, Object> notFound(String message) {
+    public static APIGatewayProxyResponseEvent notFound(String message) {
         return notFound(message, null);
     }
 
+    /**
+     * Create a method not allowed response (405 Method Not Allowed)
+     * @param message Error message
+     * @param headers Additional headers, such as Allow
+     * @return API Gateway response object
+     */
+    public static APIGatewayProxyResponseEvent methodNotAllowed(String message, Map<String, String> headers) {
+        return error(405, message != null ? message : "Method Not Allowed", headers);
+    }
+
+    /**
+     * Create a method not allowed response (405 Method Not Allowed)
+     * @param message Error message
+     * @return API Gateway response object
+     */
+    public static APIGatewayProxyResponseEvent methodNotAllowed(String message) {
+        return methodNotAllowed(message, null);
+    }
+
+    /**
+     * Create a conflict response (409 Conflict)
+     * @param message Error message
+     * @param headers Additional headers
+     * @return API Gateway response object
+     */
+    public static APIGatewayProxyResponseEvent conflict(String message, Map<String, String> headers) {
+        return error(409, message != null ? message : "Conflict", headers);
+    }
+
+    /**
+     * Create a conflict response (409 Conflict)
+     * @param message Error message
+     * @return API Gateway response object
+     */
+    public static APIGatewayProxyResponseEvent conflict(String message) {
+        return conflict(message, null);
+    }
+
     /**
      * Create a server error response (500 Internal Server Error)
      * @param message Error message
      * @param headers Additional headers
      * @return API Gateway response object
      */
-    public static Map<String, Object> serverError(String message, Map<String, String> headers) {
-        Map<String, String> error = new HashMap<>();
-        error.put("error", message != null ? message : "Internal Server Error");
-        return createResponse(500, error, headers);
+    public static APIGatewayProxyResponseEvent serverError(String message, Map<String, String> headers) {
+        return error(500, message != null ? message : "Internal Server Error", headers);
     }
 
     /**
@@ -214,7 +438,7 @@ public class ApiResponse {
      * @param message Error message
      * @return API Gateway response object
      */
-    public static Map<String, Object> serverError(String message) {
+    public static APIGatewayProxyResponseEvent serverError(String message) {
         return serverError(message, null);
     }
 }
@@ -0,0 +1,62 @@
+package com.shopcart.utils;
+
+import software.amazon.awssdk.services.dynamodb.model.CancellationReason;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Utility class for retry backoff with full jitter
+ */
+public class Backoff {
+    /**
+     * Maximum number of retries for throttled or unprocessed batch requests
+     */
+    public static final int MAX_RETRIES = 8;
+
+    private static final long BASE_DELAY_MILLIS = 25;
+    private static final long MAX_DELAY_MILLIS = 2000;
+
+    /**
+     * Compute the delay before a retry: a random value between zero and the
+     * exponentially growing cap for the attempt
+     * @param attempt The retry attempt, starting at 1
+     * @return The delay in milliseconds
+     */
+    public static long delayMillis(int attempt) {
+        long cap = Math.min(MAX_DELAY_MILLIS, BASE_DELAY_MILLIS << Math.min(attempt, 16));
+        return ThreadLocalRandom.current().nextLong(cap + 1);
+    }
+
+    /**
+     * Sleep for the jittered delay of a retry attempt
+     * @param attempt The retry attempt, starting at 1
+     */
+    public static void sleep(int attempt) {
+        try {
+            Thread.sleep(delayMillis(attempt));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while backing off", e);
+        }
+    }
+
+    /**
+     * Check whether a cancelled transaction failed only because of contention, so running it
+     * again can succeed. Failed conditions and other reasons, such as validation errors, are not retryable.
+     * @param reasons The cancellation reasons of the transaction
+     * @return True if at least one action conflicted or was throttled and none failed otherwise
+     */
+    public static boolean isRetryable(List<CancellationReason> reasons) {
+        boolean contended = false;
+        for (CancellationReason reason : reasons) {
+            String code = reason.code();
+            if ("TransactionConflict".equals(code) || "ThrottlingError".equals(code)) {
+                contended = true;
+            } else if (code != null && !"None".equals(code)) {
+                return false;
+            }
+        }
+        return contended;
+    }
+}
@@ -0,0 +1,63 @@
+package com.shopcart.utils;
+
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Per-item outcome of a batch write or batch delete
+ */
+public class BatchWriteReport {
+    private final List<Key> writtenKeys = new ArrayList<>();
+    private final List<Key> failedKeys = new ArrayList<>();
+
+    /**
+     * Record the keys of items that were written
+     * @param keys The written keys
+     */
+    synchronized void addWritten(List<Key> keys) {
+        writtenKeys.addAll(keys);
+    }
+
+    /**
+     * Record the keys of items that could not be written
+     * @param keys The failed keys
+     */
+    synchronized void addFailed(List<Key> keys) {
+        failedKeys.addAll(keys);
+    }
+
+    /**
+     * Get the keys of items that were written
+     * @return The written keys
+     */
+    public synchronized List<Key> getWrittenKeys() {
+        return Collections.unmodifiableList(new ArrayList<>(writtenKeys));
+    }
+
+    /**
+     * Get the keys of items that could not be written after all retries
+     * @return The failed keys
+     */
+    public synchronized List<Key> getFailedKeys() {
+        return Collections.unmodifiableList(new ArrayList<>(failedKeys));
+    }
+
+    /**
+     * Check whether every item in the batch was written
+     * @return True if no item failed
+     */
+    public synchronized boolean isComplete() {
+        return failedKeys.isEmpty();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "BatchWriteReport{" +
+                "written=" + writtenKeys.size() +
+                ", failed=" + failedKeys.size() +
+                '}';
+    }
+}
@@ -0,0 +1,173 @@
+package com.shopcart.utils;
+
+import com.shopcart.models.Cart;
+import com.shopcart.models.CartItem;
+import software.amazon.awssdk.enhanced.dynamodb.Expression;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.CancellationReason;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItem;
+import software.amazon.awssdk.services.dynamodb.model.TransactionCanceledException;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Utility class for maintaining cart totals incrementally.
+ * A cart mutation changes a single line, so the cart's totalPrice and totalItems are
+ * adjusted with an atomic {@code ADD} of the line's delta instead of being recomputed
+ * from every line. Concurrent mutations of different lines then add up instead of
+ * overwriting each other. The line and the totals are written in one transaction, so they
+ * cannot drift apart if a request fails half way.
+ */
+public class CartTotals {
+    // Positions of the actions in the transaction written by commit
+    private static final int LINE_ACTION = 0;
+    private static final int CART_ACTION = 1;
+
+    /**
+     * Outcome of committing the change of a line
+     */
+    public enum Outcome {
+        /**
+         * The line and the cart totals were written
+         */
+        COMMITTED,
+        /**
+         * The line changed since it was read, or the transaction conflicted; nothing was written
+         */
+        LINE_CHANGED,
+        /**
+         * The cart does not exist; nothing was written
+         */
+        CART_NOT_FOUND
+    }
+
+    /**
+     * Write the change of one line together with the matching change of the cart totals,
+     * as a single transaction. The line is only written if it is still as it was read.
+     * @param cartsTable The carts table name
+     * @param cartItemsTable The cart items table name
+     * @param before The line as it was read, or null if it is being added
+     * @param after The line to write, or null if the line is being removed
+     * @param timestamp The update timestamp
+     * @return The outcome; the caller reads the line again and retries on {@link Outcome#LINE_CHANGED}
+     * @throws TransactionCanceledException If the transaction was cancelled for any other reason
+     */
+    public static Outcome commit(String cartsTable, String cartItemsTable, CartItem before, CartItem after,
+                                 String timestamp) {
+        CartItem line = after != null ? after : before;
+        TransactWriteItem lineAction = after != null
+                ? DynamoDBUtil.transactPut(cartItemsTable, after, unchangedSince(before))
+                : DynamoDBUtil.transactDelete(cartItemsTable, Key.builder()
+                        .partitionValue(line.getCartId())
+                        .sortValue(line.getProductId())
+                        .build(), CartItem.class, unchangedSince(before));
+        TransactWriteItem cartAction = DynamoDBUtil.transactUpdate(cartsTable,
+                Key.builder().partitionValue(line.getCartId()).build(), Cart.class,
+                delta(before, after, timestamp), DynamoDBUtil.attributeExists("cartId"));
+
+        try {
+            DynamoDBUtil.transactWriteItems(List.of(lineAction, cartAction), null);
+            return Outcome.COMMITTED;
+        } catch (TransactionCanceledException e) {
+            Outcome outcome = outcome(e.cancellationReasons());
+            if (outcome == null) {
+                throw e;
+            }
+            return outcome;
+        }
+    }
+
+    /**
+     * Map the cancellation reasons of a line transaction to its outcome
+     * @param reasons The cancellation reasons, in the order of the actions
+     * @return The outcome, or null if the transaction failed for a reason a retry cannot fix
+     */
+    static Outcome outcome(List<CancellationReason> reasons) {
+        if (failedCondition(reasons, CART_ACTION)) {
+            return Outcome.CART_NOT_FOUND;
+        }
+        if (failedCondition(reasons, LINE_ACTION) || Backoff.isRetryable(reasons)) {
+            return Outcome.LINE_CHANGED;
+        }
+        return null;
+    }
+
+    private static boolean failedCondition(List<CancellationReason> reasons, int action) {
+        return reasons.size() > action && "ConditionalCheckFailed".equals(reasons.get(action).code());
+    }
+
+    /**
+     * Build the update expression that adds the change of one line to the cart totals
+     * @param before The line before the change, or null if it was added
+     * @param after The line after the change, or null if it was removed
+     * @param timestamp The update timestamp
+     * @return The update expression
+     */
+    public static Expression delta(CartItem before, CartItem after, String timestamp) {
+        // Subtract as decimals so repeated deltas do not accumulate binary rounding errors
+        BigDecimal priceDelta = lineTotal(after).subtract(lineTotal(before));
+        int itemsDelta = quantity(after) - quantity(before);
+        return delta(priceDelta, itemsDelta, timestamp);
+    }
+
+    /**
+     * Build the update expression that subtracts removed lines from the cart totals
+     * @param removed The removed lines
+     * @param timestamp The update timestamp
+     * @return The update expression
+     */
+    public static Expression removal(List<CartItem> removed, String timestamp) {
+        BigDecimal priceDelta = BigDecimal.ZERO;
+        int itemsDelta = 0;
+        for (CartItem line : removed) {
+            priceDelta = priceDelta.subtract(lineTotal(line));
+            itemsDelta -= quantity(line);
+        }
+        return delta(priceDelta, itemsDelta, timestamp);
+    }
+
+    private static Expression delta(BigDecimal priceDelta, int itemsDelta, String timestamp) {
+        return Expression.builder()
+                .expression("ADD #totalPrice :priceDelta, #totalItems :itemsDelta SET #updatedAt = :updatedAt")
+                .putExpressionName("#totalPrice", "totalPrice")
+                .putExpressionName("#totalItems", "totalItems")
+                .putExpressionName("#updatedAt", "updatedAt")
+                .putExpressionValue(":priceDelta", AttributeValue.builder().n(priceDelta.toPlainString()).build())
+                .putExpressionValue(":itemsDelta", AttributeValue.builder().n(Integer.toString(itemsDelta)).build())
+                .putExpressionValue(":updatedAt", AttributeValue.builder().s(timestamp).build())
+                .build();
+    }
+
+    /**
+     * Build a condition that holds only if a line is still as it was read,
+     * so a read-modify-write of the line cannot lose a concurrent change
+     * @param before The line as it was read, or null if it did not exist
+     * @return The condition expression
+     */
+    public static Expression unchangedSince(CartItem before) {
+        if (before == null) {
+            return DynamoDBUtil.attributeNotExists("productId");
+        }
+        return Expression.builder()
+                .expression("#quantity = :quantity")
+                .putExpressionName("#quantity", "quantity")
+                .putExpressionValue(":quantity", AttributeValue.builder().n(Integer.toString(quantity(before))).build())
+                .build();
+    }
+
+    private static BigDecimal lineTotal(CartItem item) {
+        if (item == null || item.getTotalPrice() == null) {
+            return BigDecimal.ZERO;
+        }
+        return BigDecimal.valueOf(item.getTotalPrice());
+    }
+
+    private static int quantity(CartItem item) {
+        if (item == null || item.getQuantity() == null) {
+            return 0;
+        }
+        return item.getQuantity();
+    }
+}
@@ -0,0 +1,161 @@
+package com.shopcart.utils;
+
+import com.shopcart.models.Category;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Container-wide immutable snapshot of the Categories table.
+ * The category set is small and rarely changes, so the list endpoint and single-category
+ * lookups are served from one scan. Once a snapshot has used 80% of its time to live, the
+ * next read starts a background refresh and keeps serving the current
+ * snapshot until the new one is in place. A snapshot that has expired with no refresh
+ * running, or that is more than twice its time to live old, is reloaded in the request;
+ * the second bound covers a refresh thread that Lambda froze between invocations.
+ * A category missing from the snapshot is read from the table, since it may have been
+ * created through another container. The time to live comes from
+ * {@code CATEGORY_SNAPSHOT_TTL_SECONDS}; 0 reads the table on every request.
+ * Categories in the snapshot are shared between requests and must not be modified.
+ */
+public final class CategorySnapshot {
+    private static final Logger logger = LoggerFactory.getLogger(CategorySnapshot.class);
+    private static final double REFRESH_AHEAD = 0.8;
+    private static final long MAX_STALENESS_FACTOR = 2;
+    private static final long TTL_NANOS = Duration.ofSeconds(ttlSeconds()).toNanos();
+    private static final ExecutorService refresher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "category-snapshot-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static volatile Snapshot current;
+    private static final AtomicBoolean refreshing = new AtomicBoolean();
+    // Bumped by every invalidation, so a refresh that raced with one is discarded
+    private static final AtomicLong generation = new AtomicLong();
+    // Requests that find no usable snapshot at the same time share one scan, unless an
+    // invalidation came between them
+    private static final SingleFlight<Load, Snapshot> loads = new SingleFlight<>();
+
+    private CategorySnapshot() {
+    }
+
+    private static long ttlSeconds() {
+        String value = System.getenv("CATEGORY_SNAPSHOT_TTL_SECONDS");
+        try {
+            return value != null ? Math.max(0, Long.parseLong(value.trim())) : 60;
+        } catch (NumberFormatException e) {
+            logger.warn("Ignoring invalid CATEGORY_SNAPSHOT_TTL_SECONDS value: {}", value);
+            return 60;
+        }
+    }
+
+    /**
+     * Get every category
+     * @param tableName The categories table
+     * @return The categories, in scan order
+     */
+    public static List<Category> all(String tableName) {
+        return snapshot(tableName).categories();
+    }
+
+    /**
+     * Get a category by ID. A category that is not in the snapshot is read from the table,
+     * and if it exists a refresh is started so the snapshot picks it up.
+     * @param tableName The categories table
+     * @param categoryId The category ID
+     * @return The category, or null if it does not exist
+     */
+    public static Category get(String tableName, String categoryId) {
+        Category category = snapshot(tableName).byId().get(categoryId);
+        if (category != null) {
+            return category;
+        }
+        category = DynamoDBUtil.getItem(tableName, "categoryId", categoryId, Category.class);
+        if (category != null) {
+            logger.info("Category {} is not in the snapshot yet, refreshing it", categoryId);
+            refreshInBackground(tableName);
+        }
+        return category;
+    }
+
+    /**
+     * Drop the snapshot after a category was created, changed or deleted in this container.
+     * The next read loads a new one.
+     */
+    public static synchronized void invalidate() {
+        generation.incrementAndGet();
+        current = null;
+    }
+
+    private static Snapshot snapshot(String tableName) {
+        Snapshot snapshot = current;
+        if (snapshot == null || !tableName.equals(snapshot.tableName())) {
+            return reload(tableName);
+        }
+        long age = System.nanoTime() - snapshot.loadedAt();
+        if (age >= TTL_NANOS * MAX_STALENESS_FACTOR) {
+            // Too old to trust a refresh that may be frozen along with the container
+            return reload(tableName);
+        }
+        if (age >= TTL_NANOS) {
+            // Serve the stale snapshot only while a refresh is on its way
+            return refreshing.get() ? snapshot : reload(tableName);
+        }
+        if (age >= TTL_NANOS * REFRESH_AHEAD) {
+            refreshInBackground(tableName);
+        }
+        return snapshot;
+    }
+
+    private static void refreshInBackground(String tableName) {
+        if (!refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        refresher.execute(() -> {
+            try {
+                reload(tableName);
+            } catch (Exception e) {
+                logger.warn("Error refreshing category snapshot: {}", e.getMessage());
+            } finally {
+                refreshing.set(false);
+            }
+        });
+    }
+
+    private static Snapshot reload(String tableName) {
+        long loadGeneration = generation.get();
+        return loads.run(new Load(tableName, loadGeneration), () -> load(tableName, loadGeneration));
+    }
+
+    private static Snapshot load(String tableName, long loadGeneration) {
+        long loadedAt = System.nanoTime();
+        List<Category> categories = List.copyOf(DynamoDBUtil.scanItems(tableName, Category.class));
+        Map<String, Category> byId = new HashMap<>();
+        for (Category category : categories) {
+            byId.put(category.getCategoryId(), category);
+        }
+        Snapshot snapshot = new Snapshot(tableName, categories, Map.copyOf(byId), loadedAt);
+        synchronized (CategorySnapshot.class) {
+            if (TTL_NANOS > 0 && generation.get() == loadGeneration) {
+                current = snapshot;
+                logger.info("Loaded category snapshot with {} categories", categories.size());
+            }
+        }
+        return snapshot;
+    }
+
+    private record Load(String tableName, long generation) {
+    }
+
+    private record Snapshot(String tableName, List<Category> categories, Map<String, Category> byId, long loadedAt) {
+    }
+}
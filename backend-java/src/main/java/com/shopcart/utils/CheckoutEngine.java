@@ -0,0 +1,258 @@
+package com.shopcart.utils;
+
+import com.shopcart.models.Cart;
+import com.shopcart.models.CartItem;
+import com.shopcart.models.Order;
+import com.shopcart.models.OrderItem;
+import com.shopcart.models.Product;
+import software.amazon.awssdk.enhanced.dynamodb.Expression;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.CancellationReason;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItem;
+import software.amazon.awssdk.services.dynamodb.model.TransactionCanceledException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Places orders with TransactWriteItems.
+ * For every cart line the stock is decremented under a {@code stock >= :qty} condition, the
+ * order item is written and the cart item is deleted; the order itself and the cart totals
+ * are written in the same transaction. A cart whose lines do not fit in one transaction is
+ * split into chunks that are committed in order, with the order written by the last chunk.
+ * If a chunk is rejected, the chunks already committed are undone before the failure is reported.
+ */
+public class CheckoutEngine {
+    private static final Logger logger = LoggerFactory.getLogger(CheckoutEngine.class);
+    private static final int ACTIONS_PER_LINE = 3;
+    private static final int ORDER_ACTIONS = 2;
+
+    /**
+     * Maximum number of cart lines committed by one transaction
+     */
+    static final int LINES_PER_CHUNK = (DynamoDBUtil.TRANSACT_WRITE_LIMIT - ORDER_ACTIONS) / ACTIONS_PER_LINE;
+
+    private final String ordersTable;
+    private final String orderItemsTable;
+    private final String cartsTable;
+    private final String cartItemsTable;
+    private final String productsTable;
+
+    /**
+     * Create a checkout engine for the given tables
+     * @param ordersTable The orders table name
+     * @param orderItemsTable The order items table name
+     * @param cartsTable The carts table name
+     * @param cartItemsTable The cart items table name
+     * @param productsTable The products table name
+     */
+    public CheckoutEngine(String ordersTable, String orderItemsTable, String cartsTable,
+                          String cartItemsTable, String productsTable) {
+        this.ordersTable = ordersTable;
+        this.orderItemsTable = orderItemsTable;
+        this.cartsTable = cartsTable;
+        this.cartItemsTable = cartItemsTable;
+        this.productsTable = productsTable;
+    }
+
+    /**
+     * Place an order for the lines of a cart
+     * @param cartId The cart ID
+     * @param order The order to write
+     * @param cartItems The cart lines, as read
+     * @param orderItems The order items, in the same order as the cart lines
+     * @throws CheckoutException If the order was rejected; nothing of it remains written
+     */
+    public void checkout(String cartId, Order order, List<CartItem> cartItems, List<OrderItem> orderItems)
+            throws CheckoutException {
+        if (cartItems.size() != orderItems.size()) {
+            throw new IllegalArgumentException("Every cart item needs an order item");
+        }
+
+        int chunks = (cartItems.size() + LINES_PER_CHUNK - 1) / LINES_PER_CHUNK;
+        logger.info("Placing order {} with {} items in {} transactions", order.getOrderId(), cartItems.size(), chunks);
+
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            int start = chunk * LINES_PER_CHUNK;
+            int end = Math.min(start + LINES_PER_CHUNK, cartItems.size());
+            boolean last = chunk == chunks - 1;
+
+            try {
+                commitChunk(cartId, order, cartItems.subList(start, end), orderItems.subList(start, end),
+                        last ? cartItems : null, chunk);
+            } catch (CheckoutException | RuntimeException e) {
+                for (int committed = chunk - 1; committed >= 0; committed--) {
+                    int from = committed * LINES_PER_CHUNK;
+                    undoChunk(order, cartItems.subList(from, from + LINES_PER_CHUNK),
+                            orderItems.subList(from, from + LINES_PER_CHUNK), committed);
+                }
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Commit the lines of one chunk, and the order itself if this is the last chunk
+     * @param allCartItems Every cart line if this is the last chunk, otherwise null
+     */
+    private void commitChunk(String cartId, Order order, List<CartItem> cartItems, List<OrderItem> orderItems,
+                             List<CartItem> allCartItems, int chunk) throws CheckoutException {
+        String timestamp = order.getCreatedAt();
+        List<TransactWriteItem> actions = new ArrayList<>();
+        List<CheckoutException> failures = new ArrayList<>();
+
+        for (int i = 0; i < cartItems.size(); i++) {
+            CartItem cartItem = cartItems.get(i);
+            String productId = cartItem.getProductId();
+
+            actions.add(DynamoDBUtil.transactUpdate(productsTable, productKey(productId), Product.class,
+                    stockChange("-", cartItem.getQuantity(), timestamp), enoughStock(cartItem.getQuantity())));
+            failures.add(new CheckoutException(CheckoutException.Reason.OUT_OF_STOCK, productId,
+                    "Product " + productId + " is out of stock or no longer available"));
+
+            actions.add(DynamoDBUtil.transactPut(orderItemsTable, orderItems.get(i), null));
+            failures.add(null);
+
+            actions.add(DynamoDBUtil.transactDelete(cartItemsTable, cartItemKey(cartItem), CartItem.class,
+                    CartTotals.unchangedSince(cartItem)));
+            failures.add(new CheckoutException(CheckoutException.Reason.CART_CHANGED, productId,
+                    "Cart was changed while placing the order"));
+        }
+
+        if (allCartItems != null) {
+            actions.add(DynamoDBUtil.transactPut(ordersTable, order, DynamoDBUtil.attributeNotExists("orderId")));
+            failures.add(null);
+
+            actions.add(DynamoDBUtil.transactUpdate(cartsTable, Key.builder().partitionValue(cartId).build(),
+                    Cart.class, CartTotals.removal(allCartItems, timestamp),
+                    DynamoDBUtil.attributeExists("cartId")));
+            failures.add(new CheckoutException(CheckoutException.Reason.CART_CHANGED, null,
+                    "Cart was deleted while placing the order"));
+        }
+
+        String token = requestToken(order.getOrderId(), "commit", chunk);
+        for (int attempt = 0; ; attempt++) {
+            try {
+                DynamoDBUtil.transactWriteItems(actions, token);
+                return;
+            } catch (TransactionCanceledException e) {
+                CheckoutException failure = conditionFailure(e.cancellationReasons(), failures);
+                if (failure != null) {
+                    logger.info("Order {} rejected: {}", order.getOrderId(), failure.getMessage());
+                    throw failure;
+                }
+                if (!Backoff.isRetryable(e.cancellationReasons())) {
+                    logger.error("Order {} cancelled for a reason a retry cannot fix: {}", order.getOrderId(),
+                               reasonCodes(e.cancellationReasons()));
+                    throw e;
+                }
+                if (attempt >= Backoff.MAX_RETRIES) {
+                    throw new CheckoutException(CheckoutException.Reason.CONFLICT, null,
+                            "Order could not be placed because of concurrent orders, please retry");
+                }
+                Backoff.sleep(attempt + 1);
+            }
+        }
+    }
+
+    /**
+     * Undo a committed chunk: restore the stock, remove the order items and put the cart lines back.
+     * Failures are logged rather than thrown, so the remaining chunks are still undone.
+     */
+    private void undoChunk(Order order, List<CartItem> cartItems, List<OrderItem> orderItems, int chunk) {
+        String timestamp = order.getCreatedAt();
+        List<TransactWriteItem> actions = new ArrayList<>();
+        for (int i = 0; i < cartItems.size(); i++) {
+            CartItem cartItem = cartItems.get(i);
+            OrderItem orderItem = orderItems.get(i);
+
+            actions.add(DynamoDBUtil.transactUpdate(productsTable, productKey(cartItem.getProductId()), Product.class,
+                    stockChange("+", cartItem.getQuantity(), timestamp), null));
+            actions.add(DynamoDBUtil.transactDelete(orderItemsTable, Key.builder()
+                    .partitionValue(orderItem.getOrderId())
+                    .sortValue(orderItem.getProductId())
+                    .build(), OrderItem.class, null));
+            actions.add(DynamoDBUtil.transactPut(cartItemsTable, cartItem, null));
+        }
+
+        String token = requestToken(order.getOrderId(), "undo", chunk);
+        for (int attempt = 0; ; attempt++) {
+            try {
+                DynamoDBUtil.transactWriteItems(actions, token);
+                logger.info("Rolled back part {} of order {}", chunk, order.getOrderId());
+                return;
+            } catch (RuntimeException e) {
+                if (attempt >= Backoff.MAX_RETRIES) {
+                    logger.error("Failed to roll back part {} of order {}, stock and cart need repair: {}",
+                               chunk, order.getOrderId(), e.getMessage());
+                    return;
+                }
+                Backoff.sleep(attempt + 1);
+            }
+        }
+    }
+
+    private static Expression stockChange(String operator, int quantity, String timestamp) {
+        return Expression.builder()
+                .expression("SET #stock = #stock " + operator + " :quantity, #updatedAt = :updatedAt")
+                .putExpressionName("#stock", "stock")
+                .putExpressionName("#updatedAt", "updatedAt")
+                .putExpressionValue(":quantity", AttributeValue.builder().n(Integer.toString(quantity)).build())
+                .putExpressionValue(":updatedAt", AttributeValue.builder().s(timestamp).build())
+                .build();
+    }
+
+    private static Expression enoughStock(int quantity) {
+        return Expression.builder()
+                .expression("attribute_exists(#productId) AND #stock >= :required")
+                .putExpressionName("#productId", "productId")
+                .putExpressionName("#stock", "stock")
+                .putExpressionValue(":required", AttributeValue.builder().n(Integer.toString(quantity)).build())
+                .build();
+    }
+
+    private static Key productKey(String productId) {
+        return Key.builder().partitionValue(productId).build();
+    }
+
+    private static Key cartItemKey(CartItem cartItem) {
+        return Key.builder()
+                .partitionValue(cartItem.getCartId())
+                .sortValue(cartItem.getProductId())
+                .build();
+    }
+
+    /**
+     * Map the first failed condition of a cancelled transaction to its checkout failure
+     * @return The failure, or null if no condition failed; the transaction is then retried only
+     * if {@link Backoff#isRetryable(List)} holds
+     */
+    static CheckoutException conditionFailure(List<CancellationReason> reasons, List<CheckoutException> failures) {
+        for (int i = 0; i < reasons.size() && i < failures.size(); i++) {
+            if ("ConditionalCheckFailed".equals(reasons.get(i).code())) {
+                CheckoutException failure = failures.get(i);
+                return failure != null ? failure : new CheckoutException(CheckoutException.Reason.CONFLICT, null,
+                        "Order could not be placed, please retry");
+            }
+        }
+        return null;
+    }
+
+    private static List<String> reasonCodes(List<CancellationReason> reasons) {
+        return reasons.stream().map(CancellationReason::code).toList();
+    }
+
+    /**
+     * Derive a stable idempotency token, at most 36 characters, for one transaction of an order
+     */
+    private static String requestToken(String orderId, String phase, int chunk) {
+        String seed = orderId + "/" + phase + "/" + chunk;
+        return UUID.nameUUIDFromBytes(seed.getBytes(StandardCharsets.UTF_8)).toString();
+    }
+}
@@ -0,0 +1,57 @@
+package com.shopcart.utils;
+
+/**
+ * Thrown when a checkout cannot be committed. Any part of the order that was
+ * already written has been rolled back when this is thrown.
+ */
+public class CheckoutException extends Exception {
+
+    /**
+     * Why the checkout was rejected
+     */
+    public enum Reason {
+        /**
+         * A product does not have enough stock, or no longer exists
+         */
+        OUT_OF_STOCK,
+        /**
+         * The cart was changed while the order was being placed
+         */
+        CART_CHANGED,
+        /**
+         * Concurrent checkouts kept conflicting with this one
+         */
+        CONFLICT
+    }
+
+    private final Reason reason;
+    private final String productId;
+
+    /**
+     * Create a checkout exception
+     * @param reason Why the checkout was rejected
+     * @param productId The product the rejection is about, or null
+     * @param message The error message
+     */
+    public CheckoutException(Reason reason, String productId, String message) {
+        super(message);
+        this.reason = reason;
+        this.productId = productId;
+    }
+
+    /**
+     * Get why the checkout was rejected
+     * @return The reason
+     */
+    public Reason getReason() {
+        return reason;
+    }
+
+    /**
+     * Get the product the rejection is about
+     * @return The product ID, or null if the rejection is not about a single product
+     */
+    public String getProductId() {
+        return productId;
+    }
+}
@@ -0,0 +1,340 @@
+package com.shopcart.utils;
+
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbAsyncTable;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryEnhancedRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Utility class for asynchronous DynamoDB operations.
+ * Mirrors {@link DynamoDBUtil} but returns {@link CompletableFuture}s so handlers
+ * can overlap independent round trips. The asynchronous client belongs to the
+ * {@link DynamoDbStorage} that {@link DynamoDBUtil} runs on, so it is only created when that
+ * backend is active and is replaced together with it on reconnect. When {@link DynamoDBUtil}
+ * runs on another {@link Storage} backend, or on a DynamoDB backend without an asynchronous
+ * client, operations are applied to that backend and return completed futures.
+ */
+public class DynamoDBAsyncUtil {
+    private static final Logger logger = LoggerFactory.getLogger(DynamoDBAsyncUtil.class);
+    // Concurrent reads of the same item share one request; each caller gets its own copy
+    private static final SingleFlight<DynamoDBUtil.ItemRead, Object> itemReads =
+            new SingleFlight<>(DynamoDBUtil::copyItem);
+
+    /**
+     * Build the asynchronous table handles for every configured table.
+     * Does nothing when operations are applied to the active storage backend.
+     */
+    public static void warmUp() {
+        TableRegistry tables = asyncTables();
+        if (tables != null) {
+            tables.warmUp();
+        }
+    }
+
+    /**
+     * Wait for a future and rethrow its failure without the CompletionException wrapper
+     * @param future The future to wait for
+     * @param <T> The result type
+     * @return The result of the future
+     */
+    public static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Get the asynchronous table handles of the active storage backend
+     * @return The table registry, or null if operations are applied to the active storage backend
+     */
+    private static TableRegistry asyncTables() {
+        return DynamoDBUtil.storage() instanceof DynamoDbStorage storage ? storage.asyncTableRegistry() : null;
+    }
+
+    /**
+     * Start an item read, or follow the identical read already in flight
+     * @param read Identifies the read
+     * @param operation Starts the read
+     * @param <T> The type of the item
+     * @return A future completing with the item, or null if it does not exist
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> CompletableFuture<T> coalesce(DynamoDBUtil.ItemRead read,
+                                                     Supplier<CompletableFuture<T>> operation) {
+        return (CompletableFuture<T>) itemReads.runAsync(read, operation);
+    }
+
+    /**
+     * Run an operation on the active storage backend
+     * @param operation The operation
+     * @param <T> The result type
+     * @return A future completed with the result or the failure of the operation
+     */
+    private static <T> CompletableFuture<T> fromStorage(Supplier<T> operation) {
+        try {
+            return CompletableFuture.completedFuture(operation.get());
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Get an item from DynamoDB
+     * @param tableName The DynamoDB table name
+     * @param partitionKey The partition key name
+     * @param partitionValue The partition key value
+     * @param clazz The class type of the item
+     * @param <T> The type of the item
+     * @return A future completing with the item, or null if it does not exist
+     */
+    public static <T> CompletableFuture<T> getItem(String tableName, String partitionKey, String partitionValue,
+                                                   Class<T> clazz) {
+        TableRegistry tables = asyncTables();
+        if (tables == null) {
+            return fromStorage(() -> DynamoDBUtil.getItem(tableName, partitionKey, partitionValue, clazz));
+        }
+        logger.info("Getting item from table {} with {} = {}", tableName, partitionKey, partitionValue);
+
+        DynamoDbAsyncTable<T> table = tables.asyncTable(tableName, clazz);
+        Key key = Key.builder().partitionValue(partitionValue).build();
+        return coalesce(new DynamoDBUtil.ItemRead(tableName, key, clazz),
+                () -> logFailure(table.getItem(key), "getting item from table {}: {}", tableName));
+    }
+
+    /**
+     * Get an item from DynamoDB with a composite key
+     * @param tableName The DynamoDB table name
+     * @param partitionKey The partition key name
+     * @param partitionValue The partition key value
+     * @param sortKey The sort key name
+     * @param sortValue The sort key value
+     * @param clazz The class type of the item
+     * @param <T> The type of the item
+     * @return A future completing with the item, or null if it does not exist
+     */
+    public static <T> CompletableFuture<T> getItem(String tableName, String partitionKey, String partitionValue,
+                                                   String sortKey, String sortValue, Class<T> clazz) {
+        TableRegistry tables = asyncTables();
+        if (tables == null) {
+            return fromStorage(() -> DynamoDBUtil.getItem(tableName, partitionKey, partitionValue,
+                    sortKey, sortValue, clazz));
+        }
+        logger.info("Getting item from table {} with {} = {} and {} = {}",
+                   tableName, partitionKey, partitionValue, sortKey, sortValue);
+
+        DynamoDbAsyncTable<T> table = tables.asyncTable(tableName, clazz);
+        Key key = Key.builder()
+                .partitionValue(partitionValue)
+                .sortValue(sortValue)
+                .build();
+        return coalesce(new DynamoDBUtil.ItemRead(tableName, key, clazz),
+                () -> logFailure(table.getItem(key), "getting item from table {}: {}", tableName));
+    }
+
+    /**
+     * Scan all items from DynamoDB
+     * @param tableName The DynamoDB table name
+     * @param clazz The class type of the items
+     * @param <T> The type of the items
+     * @return A future completing with the items
+     */
+    public static <T> CompletableFuture<List<T>> scanItems(String tableName, Class<T> clazz) {
+        TableRegistry tables = asyncTables();
+        if (tables == null) {
+            return fromStorage(() -> DynamoDBUtil.scanItems(tableName, clazz));
+        }
+        logger.info("Scanning items from table {}", tableName);
+
+        DynamoDbAsyncTable<T> table = tables.asyncTable(tableName, clazz);
+        List<T> items = new ArrayList<>();
+        CompletableFuture<List<T>> future = table.scan().items().subscribe(items::add)
+                .thenApply(ignored -> items);
+        return logFailure(future, "scanning items from table {}: {}", tableName);
+    }
+
+    /**
+     * Query items from DynamoDB by index
+     * @param tableName The DynamoDB table name
+     * @param indexName The index name
+     * @param keyName The key name
+     * @param keyValue The key value
+     * @param clazz The class type of the items
+     * @param <T> The type of the items
+     * @return A future completing with the items
+     */
+    public static <T> CompletableFuture<List<T>> queryItemsByIndex(String tableName, String indexName,
+                                                                 String keyName, String keyValue, Class<T> clazz) {
+        TableRegistry tables = asyncTables();
+        if (tables == null) {
+            return fromStorage(() -> DynamoDBUtil.queryItemsByIndex(tableName, indexName, keyName, keyValue, clazz));
+        }
+        logger.info("Querying items from table {} by index {} with {} = {}",
+                   tableName, indexName, keyName, keyValue);
+
+        DynamoDbAsyncTable<T> table = tables.asyncTable(tableName, clazz);
+        QueryEnhancedRequest request = QueryEnhancedRequest.builder()
+                .queryConditional(QueryConditional.keyEqualTo(Key.builder().partitionValue(keyValue).build()))
+                .build();
+
+        List<T> items = new ArrayList<>();
+        CompletableFuture<List<T>> future = table.index(indexName).query(request)
+                .subscribe(page -> items.addAll(page.items()))
+                .thenApply(ignored -> items);
+        return logFailure(future, "querying items from table {}: {}", tableName);
+    }
+
+    /**
+     * Put an item in DynamoDB
+     * @param tableName The DynamoDB table name
+     * @param item The item to put
+     * @param <T> The type of the item
+     * @return A future completing when the item has been written
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> CompletableFuture<Void> putItem(String tableName, T item) {
+        TableRegistry tables = asyncTables();
+        if (tables == null) {
+            return fromStorage(() -> {
+                DynamoDBUtil.putItem(tableName, item);
+                return null;
+            });
+        }
+        logger.info("Putting item in table {}: {}", tableName, item);
+
+        DynamoDbAsyncTable<T> table = tables.asyncTable(tableName, (Class<T>) item.getClass());
+        return logFailure(table.putItem(item), "putting item in table {}: {}", tableName);
+    }
+
+    /**
+     * Update an item in DynamoDB
+     * @param tableName The DynamoDB table name
+     * @param item The item to update
+     * @param <T> The type of the item
+     * @return A future completing with the updated item
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> CompletableFuture<T> updateItem(String tableName, T item) {
+        TableRegistry tables = asyncTables();
+        if (tables == null) {
+            return fromStorage(() -> DynamoDBUtil.updateItem(tableName, item));
+        }
+        logger.info("Updating item in table {}: {}", tableName, item);
+
+        DynamoDbAsyncTable<T> table = tables.asyncTable(tableName, (Class<T>) item.getClass());
+        return logFailure(table.updateItem(item), "updating item in table {}: {}", tableName);
+    }
+
+    /**
+     * Delete an item from DynamoDB
+     * @param tableName The DynamoDB table name
+     * @param partitionKey The partition key name
+     * @param partitionValue The partition key value
+     * @param clazz The class type of the item
+     * @param <T> The type of the item
+     * @return A future completing with the deleted item, or null if it did not exist
+     */
+    public static <T> CompletableFuture<T> deleteItem(String tableName, String partitionKey, String partitionValue,
+                                                      Class<T> clazz) {
+        TableRegistry tables = asyncTables();
+        if (tables == null) {
+            return fromStorage(() -> DynamoDBUtil.storage().deleteItem(tableName,
+                    Key.builder().partitionValue(partitionValue).build(), clazz, null));
+        }
+        logger.info("Deleting item from table {} with {} = {}", tableName, partitionKey, partitionValue);
+
+        DynamoDbAsyncTable<T> table = tables.asyncTable(tableName, clazz);
+        Key key = Key.builder().partitionValue(partitionValue).build();
+        return logFailure(table.deleteItem(key), "deleting item from table {}: {}", tableName);
+    }
+
+    /**
+     * Delete an item from DynamoDB with a composite key
+     * @param tableName The DynamoDB table name
+     * @param partitionKey The partition key name
+     * @param partitionValue The partition key value
+     * @param sortKey The sort key name
+     * @param sortValue The sort key value
+     * @param clazz The class type of the item
+     * @param <T> The type of the item
+     * @return A future completing with the deleted item, or null if it did not exist
+     */
+    public static <T> CompletableFuture<T> deleteItem(String tableName, String partitionKey, String partitionValue,
+                                                      String sortKey, String sortValue, Class<T> clazz) {
+        TableRegistry tables = asyncTables();
+        if (tables == null) {
+            return fromStorage(() -> DynamoDBUtil.deleteItem(tableName, partitionKey, partitionValue,
+                    sortKey, sortValue, clazz));
+        }
+        logger.info("Deleting item from table {} with {} = {} and {} = {}",
+                   tableName, partitionKey, partitionValue, sortKey, sortValue);
+
+        DynamoDbAsyncTable<T> table = tables.asyncTable(tableName, clazz);
+        Key key = Key.builder()
+                .partitionValue(partitionValue)
+                .sortValue(sortValue)
+                .build();
+        return logFailure(table.deleteItem(key), "deleting item from table {}: {}", tableName);
+    }
+
+    /**
+     * Batch write items to DynamoDB.
+     * Items go through the same chunks of 25 and unprocessed-item retries as
+     * {@link DynamoDBUtil#batchWriteItems}, without blocking the caller.
+     * @param tableName The DynamoDB table name
+     * @param items The items to write
+     * @param clazz The class type of the items
+     * @param <T> The type of the items
+     * @return A future completing with the per-item outcome of the batch
+     */
+    public static <T> CompletableFuture<BatchWriteReport> batchWriteItems(String tableName, List<T> items,
+                                                                          Class<T> clazz) {
+        if (!(DynamoDBUtil.storage() instanceof DynamoDbStorage storage)) {
+            return fromStorage(() -> DynamoDBUtil.batchWriteItems(tableName, items, clazz));
+        }
+        logger.info("Batch writing {} items to table {}", items.size(), tableName);
+        return logFailure(storage.batchWriteItemsAsync(tableName, items, clazz),
+                "batch writing items to table {}: {}", tableName);
+    }
+
+    /**
+     * Batch delete items from DynamoDB.
+     * Keys go through the same chunks of 25 and unprocessed-item retries as
+     * {@link DynamoDBUtil#batchDeleteItems}, without blocking the caller.
+     * @param tableName The DynamoDB table name
+     * @param keys The keys of the items to delete
+     * @param clazz The class type of the items
+     * @param <T> The type of the items
+     * @return A future completing with the per-item outcome of the batch
+     */
+    public static <T> CompletableFuture<BatchWriteReport> batchDeleteItems(String tableName, List<Key> keys,
+                                                                           Class<T> clazz) {
+        if (!(DynamoDBUtil.storage() instanceof DynamoDbStorage storage)) {
+            return fromStorage(() -> DynamoDBUtil.batchDeleteItems(tableName, keys, clazz));
+        }
+        logger.info("Batch deleting {} items from table {}", keys.size(), tableName);
+        return logFailure(storage.batchDeleteItemsAsync(tableName, keys, clazz),
+                "batch deleting items from table {}: {}", tableName);
+    }
+
+    private static <T> CompletableFuture<T> logFailure(CompletableFuture<T> future, String operation, String tableName) {
+        return future.whenComplete((result, error) -> {
+            if (error != null) {
+                logger.error("Error " + operation, tableName, error.getMessage());
+            }
+        });
+    }
+}
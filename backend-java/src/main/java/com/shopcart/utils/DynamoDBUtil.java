@@ -6,34 +6,125 @@
 
 package com.shopcart.utils;
 
-import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
-import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.Expression;
 import software.amazon.awssdk.enhanced.dynamodb.Key;
 import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
-import software.amazon.awssdk.enhanced.dynamodb.model.*;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.Delete;
+import software.amazon.awssdk.services.dynamodb.model.Put;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItem;
+import software.amazon.awssdk.services.dynamodb.model.TransactionCanceledException;
+import software.amazon.awssdk.services.dynamodb.model.Update;
 
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Utility class for DynamoDB operations
+ * Utility class for DynamoDB operations.
+ * Every operation is delegated to the active {@link Storage} backend: DynamoDB by default, or an
+ * {@link InMemoryStorage} when {@code STORAGE_BACKEND=memory} is set or one is installed with
+ * {@link #useStorage(Storage)}.
  */
 public class DynamoDBUtil {
+    /**
+     * Maximum number of actions in a single TransactWriteItems request
+     */
+    public static final int TRANSACT_WRITE_LIMIT = 100;
+
     private static final Logger logger = LoggerFactory.getLogger(DynamoDBUtil.class);
-    private static final DynamoDbClient dynamoDbClient = DynamoDbClient.create();
-    private static final DynamoDbEnhancedClient enhancedClient = DynamoDbEnhancedClient.builder()
-            .dynamoDbClient(dynamoDbClient)
-            .build();
+    private static final int SCAN_SEGMENTS = DynamoDbStorage.parallelism("SCAN_SEGMENTS", 4);
+    private static volatile Storage storage = createStorage();
+    // Concurrent reads of the same item share one request; each caller gets its own copy
+    private static final SingleFlight<ItemRead, Object> itemReads = new SingleFlight<>(DynamoDBUtil::copyItem);
+
+    /**
+     * Create the backend selected by the {@code STORAGE_BACKEND} environment variable
+     * @return The in-memory backend for {@code memory}, otherwise the DynamoDB backend
+     */
+    private static Storage createStorage() {
+        String backend = System.getenv("STORAGE_BACKEND");
+        if ("memory".equalsIgnoreCase(backend)) {
+            logger.info("Using in-memory storage");
+            return new InMemoryStorage();
+        }
+        if (backend != null && !backend.isEmpty() && !"dynamodb".equalsIgnoreCase(backend)) {
+            logger.warn("Ignoring unknown STORAGE_BACKEND value: {}", backend);
+        }
+        DynamoDbClientFactory factory = new DynamoDbClientFactory();
+        return new DynamoDbStorage(factory.createClient(), factory::createAsyncClient);
+    }
 
     /**
-     * Get an item from DynamoDB
+     * Get the active storage backend
+     * @return The backend every operation is delegated to
+     */
+    public static Storage storage() {
+        return storage;
+    }
+
+    /**
+     * Replace the storage backend and close the previous one.
+     * Benchmarks and load tests use this to run the handlers against an {@link InMemoryStorage}.
+     * @param replacement The backend to use from now on
+     */
+    public static synchronized void useStorage(Storage replacement) {
+        Storage previous = storage;
+        replacement.warmUp();
+        
+        storage = replacement;
+        previous.close();
+        ProductCache.invalidateAll();
+        CategorySnapshot.invalidate();
+        NegativeCache.clear();
+        logger.info("Switched storage to {}", replacement.getClass().getSimpleName());
+    }
+
+    /**
+     * Build the table schemas and table handles for every configured table.
+     * Handlers call this from their static initializer so the first request
+     * does not pay for bean introspection.
+     */
+    public static void warmUp() {
+        storage.warmUp();
+    }
+
+    /**
+     * Replace the clients with new ones, dropping their pooled connections and cached credentials.
+     * The asynchronous client used by {@link DynamoDBAsyncUtil} is replaced too and rebuilt on first use.
+     * Intended to be called when the function is restored from a snapshot. Other backends are kept.
+     */
+    public static void reconnect() {
+        if (storage instanceof DynamoDbStorage) {
+            DynamoDbClientFactory factory = new DynamoDbClientFactory();
+            useStorage(new DynamoDbStorage(factory.createClient(), factory::createAsyncClient));
+            logger.info("Reconnected DynamoDB client");
+        }
+    }
+
+    /**
+     * Switch to the DynamoDB backend with the given client and close the previous backend.
+     * Benchmarks use this to run the handlers against an in-process store; {@link DynamoDBAsyncUtil}
+     * then runs its operations through the same client.
+     * @param client The client to use from now on
+     */
+    public static void reconnect(DynamoDbClient client) {
+        useStorage(new DynamoDbStorage(client));
+        logger.info("Reconnected DynamoDB client");
+    }
+
+    /**
+     * Get an item from DynamoDB.
+     * Concurrent identical reads share one request; read-modify-write paths use {@link #getItemConsistent}.
      * @param tableName The DynamoDB table name
      * @param partitionKey The partition key name
      * @param partitionValue The partition key value
@@ -45,9 +136,9 @@ public class DynamoDBUtil {
         logger.info("Getting item from table {} with {} = {}", tableName, partitionKey, partitionValue);
         
         try {
-            DynamoDbTable<T> table = enhancedClient.table(tableName, TableSchema.fromBean(clazz));
             Key key = Key.builder().partitionValue(partitionValue).build();
-            return table.getItem(key);
+            return clazz.cast(itemReads.run(new ItemRead(tableName, key, clazz),
+                    () -> storage.getItem(tableName, key, clazz, false)));
         } catch (Exception e) {
             logger.error("Error getting item from table {}: {}", tableName, e.getMessage());
             throw e;
@@ -55,7 +146,8 @@ public class DynamoDBUtil {
     }
 
     /**
-     * Get an item from DynamoDB with a composite key
+     * Get an item from DynamoDB with a composite key.
+     * Concurrent identical reads share one request; read-modify-write paths use {@link #getItemConsistent}.
      * @param tableName The DynamoDB table name
      * @param partitionKey The partition key name
      * @param partitionValue The partition key value
@@ -71,12 +163,64 @@ public class DynamoDBUtil {
                    tableName, partitionKey, partitionValue, sortKey, sortValue);
         
         try {
-            DynamoDbTable<T> table = enhancedClient.table(tableName, TableSchema.fromBean(clazz));
             Key key = Key.builder()
                     .partitionValue(partitionValue)
                     .sortValue(sortValue)
                     .build();
-            return table.getItem(key);
+            return clazz.cast(itemReads.run(new ItemRead(tableName, key, clazz),
+                    () -> storage.getItem(tableName, key, clazz, false)));
+        } catch (Exception e) {
+            logger.error("Error getting item from table {}: {}", tableName, e.getMessage());
+            throw e;
+        }
+    }
+
+    /**
+     * Get the latest committed version of an item from DynamoDB with a strongly consistent read.
+     * The read is never shared with concurrent callers, so read-modify-write paths always
+     * see the writes that completed before they started.
+     * @param tableName The DynamoDB table name
+     * @param partitionKey The partition key name
+     * @param partitionValue The partition key value
+     * @param clazz The class type of the item
+     * @param <T> The type of the item
+     * @return The item from DynamoDB
+     */
+    public static <T> T getItemConsistent(String tableName, String partitionKey, String partitionValue,
+                                          Class<T> clazz) {
+        logger.info("Getting item from table {} with {} = {} (consistent read)", tableName, partitionKey, partitionValue);
+        
+        try {
+            return storage.getItem(tableName, Key.builder().partitionValue(partitionValue).build(), clazz, true);
+        } catch (Exception e) {
+            logger.error("Error getting item from table {}: {}", tableName, e.getMessage());
+            throw e;
+        }
+    }
+
+    /**
+     * Get the latest committed version of an item from DynamoDB with a composite key and a
+     * strongly consistent read. The read is never shared with concurrent callers.
+     * @param tableName The DynamoDB table name
+     * @param partitionKey The partition key name
+     * @param partitionValue The partition key value
+     * @param sortKey The sort key name
+     * @param sortValue The sort key value
+     * @param clazz The class type of the item
+     * @param <T> The type of the item
+     * @return The item from DynamoDB
+     */
+    public static <T> T getItemConsistent(String tableName, String partitionKey, String partitionValue,
+                                          String sortKey, String sortValue, Class<T> clazz) {
+        logger.info("Getting item from table {} with {} = {} and {} = {} (consistent read)",
+                   tableName, partitionKey, partitionValue, sortKey, sortValue);
+        
+        try {
+            Key key = Key.builder()
+                    .partitionValue(partitionValue)
+                    .sortValue(sortValue)
+                    .build();
+            return storage.getItem(tableName, key, clazz, true);
         } catch (Exception e) {
             logger.error("Error getting item from table {}: {}", tableName, e.getMessage());
             throw e;
@@ -84,7 +228,70 @@ public class DynamoDBUtil {
     }
 
     /**
-     * Scan all items from DynamoDB
+     * Get only some attributes of an item from DynamoDB.
+     * The result is a partially populated item: attributes that were not requested are null.
+     * Only an empty result means the item does not exist; an item without any of the requested
+     * attributes is still returned.
+     * @param tableName The DynamoDB table name
+     * @param partitionKey The partition key name
+     * @param partitionValue The partition key value
+     * @param clazz The class type of the item
+     * @param attributes The attributes to read
+     * @param <T> The type of the item
+     * @return The partial item from DynamoDB, or empty if it does not exist
+     */
+    public static <T> Optional<T> getPartialItem(String tableName, String partitionKey, String partitionValue,
+                                       Class<T> clazz, List<String> attributes) {
+        logger.info("Getting attributes {} from table {} with {} = {}", 
+                   attributes, tableName, partitionKey, partitionValue);
+        
+        try {
+            Key key = Key.builder().partitionValue(partitionValue).build();
+            return storage.getPartialItem(tableName, key, clazz, attributes);
+        } catch (Exception e) {
+            logger.error("Error getting item from table {}: {}", tableName, e.getMessage());
+            throw e;
+        }
+    }
+
+    /**
+     * Check whether an item exists, reading only its key
+     * @param tableName The DynamoDB table name
+     * @param partitionKey The partition key name
+     * @param partitionValue The partition key value
+     * @param clazz The class type of the item
+     * @param <T> The type of the item
+     * @return True if the item exists
+     */
+    public static <T> boolean itemExists(String tableName, String partitionKey, String partitionValue, Class<T> clazz) {
+        return getPartialItem(tableName, partitionKey, partitionValue, clazz, List.of(partitionKey)).isPresent();
+    }
+
+    /**
+     * Batch get items from DynamoDB by primary key.
+     * Keys are deduplicated and sent in chunks of 100; unprocessed keys are
+     * retried with jittered backoff. Keys that do not exist are absent from the result.
+     * @param tableName The DynamoDB table name
+     * @param keys The primary keys of the items to get
+     * @param clazz The class type of the items
+     * @param <T> The type of the items
+     * @return The items from DynamoDB keyed by primary key
+     */
+    public static <T> Map<Key, T> batchGetItems(String tableName, List<Key> keys, Class<T> clazz) {
+        logger.info("Batch getting {} items from table {}", keys.size(), tableName);
+        
+        try {
+            return storage.batchGetItems(tableName, keys, clazz);
+        } catch (Exception e) {
+            logger.error("Error batch getting items from table {}: {}", tableName, e.getMessage());
+            throw e;
+        }
+    }
+
+    /**
+     * Scan all items from DynamoDB into a list, with {@code SCAN_SEGMENTS} parallel segments.
+     * The whole table is held in memory; use {@link #scanPage} or {@link #scanStream} for tables
+     * that may not fit.
      * @param tableName The DynamoDB table name
      * @param clazz The class type of the items
      * @param <T> The type of the items
@@ -93,16 +300,51 @@ public class DynamoDBUtil {
     public static <T> List<T> scanItems(String tableName, Class<T> clazz) {
         logger.info("Scanning items from table {}", tableName);
         
-        try {
-            DynamoDbTable<T> table = enhancedClient.table(tableName, TableSchema.fromBean(clazz));
-            PageIterable<T> pagedResults = table.scan();
-            return pagedResults.items().stream().collect(Collectors.toList());
+        try (Stream<T> items = scanStream(tableName, clazz, SCAN_SEGMENTS, null)) {
+            return items.collect(Collectors.toList());
         } catch (Exception e) {
             logger.error("Error scanning items from table {}: {}", tableName, e.getMessage());
             throw e;
         }
     }
 
+    /**
+     * Scan a single page of items from DynamoDB
+     * @param tableName The DynamoDB table name
+     * @param pageSize The maximum number of items to evaluate
+     * @param pageToken The continuation token from a previous page, or null for the first page
+     * @param clazz The class type of the items
+     * @param <T> The type of the items
+     * @return The page of items and the token for the next page
+     * @throws IllegalArgumentException If the page token is malformed
+     */
+    public static <T> QueryPage<T> scanPage(String tableName, int pageSize, String pageToken, Class<T> clazz) {
+        logger.info("Scanning page of {} items from table {}", pageSize, tableName);
+        
+        try {
+            return storage.scanPage(tableName, pageSize, pageToken, clazz);
+        } catch (Exception e) {
+            logger.error("Error scanning page from table {}: {}", tableName, e.getMessage());
+            throw e;
+        }
+    }
+
+    /**
+     * Scan a table, returning the items as a lazily consumed stream. Callers opt in to parallel
+     * segments for large tables; segment workers block while the consumer falls behind, so the
+     * table is not held in memory. Close the stream if it is not fully consumed.
+     * @param tableName The DynamoDB table name
+     * @param clazz The class type of the items
+     * @param totalSegments The number of parallel segments; 1 scans sequentially on the calling thread
+     * @param pageLimit The maximum number of items per scan request, or null for no limit
+     * @param <T> The type of the items
+     * @return A stream of the items in the table
+     */
+    public static <T> Stream<T> scanStream(String tableName, Class<T> clazz, int totalSegments, Integer pageLimit) {
+        logger.info("Scanning items from table {} with {} segments", tableName, totalSegments);
+        return storage.scan(tableName, clazz, totalSegments, pageLimit);
+    }
+
     /**
      * Query items from DynamoDB by index
      * @param tableName The DynamoDB table name
@@ -119,19 +361,35 @@ public class DynamoDBUtil {
                    tableName, indexName, keyName, keyValue);
         
         try {
-            DynamoDbTable<T> table = enhancedClient.table(tableName, TableSchema.fromBean(clazz));
-            
-            Map<String, AttributeValue> expressionValues = new HashMap<>();
-            expressionValues.put(":value", AttributeValue.builder().s(keyValue).build());
-            
-            QueryEnhancedRequest request = QueryEnhancedRequest.builder()
-                    .queryConditional(QueryConditional.keyEqualTo(Key.builder().partitionValue(keyValue).build()))
-                    .filterExpression(builder -> builder.expression(keyName + " = :value")
-                                                      .expressionValues(expressionValues))
-                    .build();
-            
-            PageIterable<T> pagedResults = table.index(indexName).query(request);
-            return pagedResults.items().stream().collect(Collectors.toList());
+            QueryConditional queryConditional = QueryConditional.keyEqualTo(Key.builder().partitionValue(keyValue).build());
+            return storage.query(tableName, indexName, queryConditional, clazz, null);
+        } catch (Exception e) {
+            logger.error("Error querying items from table {} by index {}: {}", 
+                        tableName, indexName, e.getMessage());
+            throw e;
+        }
+    }
+
+    /**
+     * Query only some attributes of items from DynamoDB by index.
+     * The results are partially populated items: attributes that were not requested are null.
+     * @param tableName The DynamoDB table name
+     * @param indexName The index name
+     * @param keyName The key name
+     * @param keyValue The key value
+     * @param clazz The class type of the items
+     * @param attributes The attributes to read
+     * @param <T> The type of the items
+     * @return The partial items from DynamoDB
+     */
+    public static <T> List<T> queryPartialItemsByIndex(String tableName, String indexName, String keyName,
+                                                       String keyValue, Class<T> clazz, List<String> attributes) {
+        logger.info("Querying attributes {} from table {} by index {} with {} = {}", 
+                   attributes, tableName, indexName, keyName, keyValue);
+        
+        try {
+            QueryConditional queryConditional = QueryConditional.keyEqualTo(Key.builder().partitionValue(keyValue).build());
+            return storage.query(tableName, indexName, queryConditional, clazz, attributes);
         } catch (Exception e) {
             logger.error("Error querying items from table {} by index {}: {}", 
                         tableName, indexName, e.getMessage());
@@ -139,6 +397,53 @@ public class DynamoDBUtil {
         }
     }
 
+    /**
+     * Query a single page of items by partition key
+     * @param tableName The DynamoDB table name
+     * @param indexName The index name, or null to query the table itself
+     * @param keyValue The partition key value
+     * @param pageSize The maximum number of items to evaluate
+     * @param pageToken The continuation token from a previous page, or null for the first page
+     * @param clazz The class type of the items
+     * @param <T> The type of the items
+     * @return The page of items and the token for the next page
+     */
+    public static <T> QueryPage<T> queryPage(String tableName, String indexName, String keyValue,
+                                             int pageSize, String pageToken, Class<T> clazz) {
+        QueryConditional queryConditional = QueryConditional.keyEqualTo(Key.builder().partitionValue(keyValue).build());
+        return queryPage(tableName, indexName, queryConditional, pageSize, pageToken, true, clazz);
+    }
+
+    /**
+     * Query a single page of items with a key condition.
+     * Sort key conditions are expressed through the query conditional, for example
+     * {@code QueryConditional.sortBeginsWith} or {@code QueryConditional.sortBetween}.
+     * @param tableName The DynamoDB table name
+     * @param indexName The index name, or null to query the table itself
+     * @param queryConditional The partition and optional sort key condition
+     * @param pageSize The maximum number of items to evaluate
+     * @param pageToken The continuation token from a previous page, or null for the first page
+     * @param scanIndexForward True for ascending sort key order, false for descending
+     * @param clazz The class type of the items
+     * @param <T> The type of the items
+     * @return The page of items and the token for the next page
+     * @throws IllegalArgumentException If the page token is malformed
+     */
+    public static <T> QueryPage<T> queryPage(String tableName, String indexName, QueryConditional queryConditional,
+                                             int pageSize, String pageToken, boolean scanIndexForward,
+                                             Class<T> clazz) {
+        logger.info("Querying page of {} items from table {} by index {}", pageSize, tableName, indexName);
+        
+        try {
+            return storage.queryPage(tableName, indexName, queryConditional, pageSize, pageToken,
+                    scanIndexForward, clazz);
+        } catch (Exception e) {
+            logger.error("Error querying page from table {} by index {}: {}", 
+                        tableName, indexName, e.getMessage());
+            throw e;
+        }
+    }
+
     /**
      * Put an item in DynamoDB
      * @param tableName The DynamoDB table name
@@ -149,8 +454,30 @@ public class DynamoDBUtil {
         logger.info("Putting item in table {}: {}", tableName, item);
         
         try {
-            DynamoDbTable<T> table = enhancedClient.table(tableName, TableSchema.fromBean((Class<T>) item.getClass()));
-            table.putItem(item);
+            storage.putItem(tableName, item, null);
+        } catch (Exception e) {
+            logger.error("Error putting item in table {}: {}", tableName, e.getMessage());
+            throw e;
+        }
+    }
+
+    /**
+     * Put an item in DynamoDB if a condition holds
+     * @param tableName The DynamoDB table name
+     * @param item The item to put
+     * @param condition The condition the stored item must satisfy
+     * @param <T> The type of the item
+     * @return True if the item was written, false if the condition was not met
+     */
+    public static <T> boolean putItem(String tableName, T item, Expression condition) {
+        logger.info("Conditionally putting item in table {}: {}", tableName, item);
+        
+        try {
+            storage.putItem(tableName, item, condition);
+            return true;
+        } catch (ConditionalCheckFailedException e) {
+            logger.info("Condition not met putting item in table {}: {}", tableName, item);
+            return false;
         } catch (Exception e) {
             logger.error("Error putting item in table {}: {}", tableName, e.getMessage());
             throw e;
@@ -168,8 +495,7 @@ public class DynamoDBUtil {
         logger.info("Updating item in table {}: {}", tableName, item);
         
         try {
-            DynamoDbTable<T> table = enhancedClient.table(tableName, TableSchema.fromBean((Class<T>) item.getClass()));
-            return table.updateItem(item);
+            return storage.updateItem(tableName, item, false, null);
         } catch (Exception e) {
             logger.error("Error updating item in table {}: {}", tableName, e.getMessage());
             throw e;
@@ -188,9 +514,8 @@ public class DynamoDBUtil {
         logger.info("Deleting item from table {} with {} = {}", tableName, partitionKey, partitionValue);
         
         try {
-            DynamoDbTable<T> table = enhancedClient.table(tableName, TableSchema.fromBean(clazz));
             Key key = Key.builder().partitionValue(partitionValue).build();
-            table.deleteItem(key);
+            storage.deleteItem(tableName, key, clazz, null);
         } catch (Exception e) {
             logger.error("Error deleting item from table {}: {}", tableName, e.getMessage());
             throw e;
@@ -206,19 +531,19 @@ public class DynamoDBUtil {
      * @param sortValue The sort key value
      * @param clazz The class type of the item
      * @param <T> The type of the item
+     * @return The deleted item, or null if it did not exist
      */
-    public static <T> void deleteItem(String tableName, String partitionKey, String partitionValue, 
-                                    String sortKey, String sortValue, Class<T> clazz) {
+    public static <T> T deleteItem(String tableName, String partitionKey, String partitionValue, 
+                                   String sortKey, String sortValue, Class<T> clazz) {
         logger.info("Deleting item from table {} with {} = {} and {} = {}", 
                    tableName, partitionKey, partitionValue, sortKey, sortValue);
         
         try {
-            DynamoDbTable<T> table = enhancedClient.table(tableName, TableSchema.fromBean(clazz));
             Key key = Key.builder()
                     .partitionValue(partitionValue)
                     .sortValue(sortValue)
                     .build();
-            table.deleteItem(key);
+            return storage.deleteItem(tableName, key, clazz, null);
         } catch (Exception e) {
             logger.error("Error deleting item from table {}: {}", tableName, e.getMessage());
             throw e;
@@ -226,67 +551,287 @@ public class DynamoDBUtil {
     }
 
     /**
-     * Batch write items to DynamoDB
+     * Build a condition that holds only if the item already has the given attribute
+     * @param attributeName The attribute name, usually the partition key
+     * @return The condition expression
+     */
+    public static Expression attributeExists(String attributeName) {
+        return Expression.builder()
+                .expression("attribute_exists(#key)")
+                .putExpressionName("#key", attributeName)
+                .build();
+    }
+
+    /**
+     * Apply an update expression to an item in DynamoDB, in a single round trip.
+     * Use this for atomic in-place changes such as {@code ADD} counters that must not be
+     * computed from a previously read copy of the item.
      * @param tableName The DynamoDB table name
-     * @param items The items to write
-     * @param <T> The type of the items
+     * @param key The primary key of the item
+     * @param clazz The class type of the item
+     * @param update The update expression with its attribute names and values
+     * @param condition The condition the stored item must satisfy, or null
+     * @param <T> The type of the item
+     * @return The item as stored after the update, or null if the condition was not met
      */
-    public static <T> void batchWriteItems(String tableName, List<T> items, Class<T> clazz) {
-        logger.info("Batch writing {} items to table {}", items.size(), tableName);
+    public static <T> T updateItem(String tableName, Key key, Class<T> clazz, Expression update, Expression condition) {
+        logger.info("Updating item in table {} with {}: {}", tableName, key, update.expression());
         
         try {
-            DynamoDbTable<T> table = enhancedClient.table(tableName, TableSchema.fromBean(clazz));
-            
-            WriteBatch.Builder<T> writeBatchBuilder = WriteBatch.builder(clazz)
-                    .mappedTableResource(table);
-            
-            for (T item : items) {
-                writeBatchBuilder.addPutItem(item);
-            }
-            
-            BatchWriteItemEnhancedRequest batchWriteItemEnhancedRequest = BatchWriteItemEnhancedRequest.builder()
-                    .writeBatches(writeBatchBuilder.build())
-                    .build();
-            
-            enhancedClient.batchWriteItem(batchWriteItemEnhancedRequest);
+            return storage.updateItem(tableName, key, clazz, update, condition);
+        } catch (ConditionalCheckFailedException e) {
+            logger.info("Condition not met updating item in table {} with {}", tableName, key);
+            return null;
         } catch (Exception e) {
-            logger.error("Error batch writing items to table {}: {}", tableName, e.getMessage());
+            logger.error("Error updating item in table {}: {}", tableName, e.getMessage());
             throw e;
         }
     }
 
     /**
-     * Batch delete items from DynamoDB
+     * Update an item in DynamoDB if it already exists, in a single round trip.
+     * Only the non-null attributes of the item are written; the other attributes keep their stored values.
      * @param tableName The DynamoDB table name
-     * @param keys The keys of the items to delete
-     * @param <T> The type of the items
+     * @param partitionKey The partition key name
+     * @param item The item holding the key and the attributes to change
+     * @param <T> The type of the item
+     * @return The item as stored after the update, or null if it does not exist
      */
-    public static <T> void batchDeleteItems(String tableName, List<Key> keys, Class<T> clazz) {
-        logger.info("Batch deleting {} items from table {}", keys.size(), tableName);
+    public static <T> T updateItemIfExists(String tableName, String partitionKey, T item) {
+        logger.info("Updating existing item in table {}: {}", tableName, item);
         
         try {
-            DynamoDbTable<T> table = enhancedClient.table(tableName, TableSchema.fromBean(clazz));
-            
-            WriteBatch.Builder<T> writeBatchBuilder = WriteBatch.builder(clazz)
-                    .mappedTableResource(table);
-            
-            for (Key key : keys) {
-                writeBatchBuilder.addDeleteItem(key);
-            }
-            
-            BatchWriteItemEnhancedRequest batchWriteItemEnhancedRequest = BatchWriteItemEnhancedRequest.builder()
-                    .writeBatches(writeBatchBuilder.build())
-                    .build();
-            
-            enhancedClient.batchWriteItem(batchWriteItemEnhancedRequest);
+            return storage.updateItem(tableName, item, true, attributeExists(partitionKey));
+        } catch (ConditionalCheckFailedException e) {
+            logger.info("Item not found in table {}: {}", tableName, item);
+            return null;
         } catch (Exception e) {
-            logger.error("Error batch deleting items from table {}: {}", tableName, e.getMessage());
+            logger.error("Error updating item in table {}: {}", tableName, e.getMessage());
             throw e;
         }
     }
-}
 
+    /**
+     * Build a condition that holds only if the item does not exist yet
+     * @param attributeName The attribute name, usually the partition or sort key
+     * @return The condition expression
+     */
+    public static Expression attributeNotExists(String attributeName) {
+        return Expression.builder()
+                .expression("attribute_not_exists(#key)")
+                .putExpressionName("#key", attributeName)
+                .build();
+    }
 
+    /**
+     * Delete an item from DynamoDB if a condition holds, in a single round trip
+     * @param tableName The DynamoDB table name
+     * @param partitionKey The partition key name
+     * @param partitionValue The partition key value
+     * @param clazz The class type of the item
+     * @param condition The condition the stored item must satisfy
+     * @param <T> The type of the item
+     * @return The deleted item, or null if the condition was not met
+     */
+    public static <T> T deleteItem(String tableName, String partitionKey, String partitionValue,
+                                   Class<T> clazz, Expression condition) {
+        logger.info("Conditionally deleting item from table {} with {} = {}", 
+                   tableName, partitionKey, partitionValue);
+        
+        try {
+            Key key = Key.builder().partitionValue(partitionValue).build();
+            return storage.deleteItem(tableName, key, clazz, condition);
+        } catch (ConditionalCheckFailedException e) {
+            logger.info("Condition not met deleting item from table {} with {} = {}", 
+                       tableName, partitionKey, partitionValue);
+            return null;
+        } catch (Exception e) {
+            logger.error("Error deleting item from table {}: {}", tableName, e.getMessage());
+            throw e;
+        }
+    }
 
+    /**
+     * Delete an item from DynamoDB if it exists, in a single round trip
+     * @param tableName The DynamoDB table name
+     * @param partitionKey The partition key name
+     * @param partitionValue The partition key value
+     * @param clazz The class type of the item
+     * @param <T> The type of the item
+     * @return The deleted item, or null if it did not exist
+     */
+    public static <T> T deleteItemIfExists(String tableName, String partitionKey, String partitionValue,
+                                           Class<T> clazz) {
+        return deleteItem(tableName, partitionKey, partitionValue, clazz, attributeExists(partitionKey));
+    }
 
+    /**
+     * Build a transactional put of an item
+     * @param tableName The DynamoDB table name
+     * @param item The item to put
+     * @param condition The condition the stored item must satisfy, or null
+     * @param <T> The type of the item
+     * @return The transaction action
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> TransactWriteItem transactPut(String tableName, T item, Expression condition) {
+        TableSchema<T> schema = TableRegistry.schema((Class<T>) item.getClass());
+        Map<String, String> names = new HashMap<>();
+        Map<String, AttributeValue> values = new HashMap<>();
+        
+        Put.Builder put = Put.builder()
+                .tableName(tableName)
+                .item(schema.itemToMap(item, true));
+        if (condition != null) {
+            DynamoDbStorage.collectExpressionAttributes(condition, names, values);
+            put.conditionExpression(condition.expression());
+        }
+        if (!names.isEmpty()) {
+            put.expressionAttributeNames(names);
+        }
+        if (!values.isEmpty()) {
+            put.expressionAttributeValues(values);
+        }
+        return TransactWriteItem.builder().put(put.build()).build();
+    }
 
+    /**
+     * Build a transactional update of an item with an update expression
+     * @param tableName The DynamoDB table name
+     * @param key The primary key of the item
+     * @param clazz The class type of the item
+     * @param update The update expression with its attribute names and values
+     * @param condition The condition the stored item must satisfy, or null
+     * @param <T> The type of the item
+     * @return The transaction action
+     */
+    public static <T> TransactWriteItem transactUpdate(String tableName, Key key, Class<T> clazz,
+                                                       Expression update, Expression condition) {
+        Map<String, String> names = new HashMap<>();
+        Map<String, AttributeValue> values = new HashMap<>();
+        DynamoDbStorage.collectExpressionAttributes(update, names, values);
+        
+        Update.Builder builder = Update.builder()
+                .tableName(tableName)
+                .key(key.primaryKeyMap(TableRegistry.schema(clazz)))
+                .updateExpression(update.expression());
+        if (condition != null) {
+            DynamoDbStorage.collectExpressionAttributes(condition, names, values);
+            builder.conditionExpression(condition.expression());
+        }
+        if (!names.isEmpty()) {
+            builder.expressionAttributeNames(names);
+        }
+        if (!values.isEmpty()) {
+            builder.expressionAttributeValues(values);
+        }
+        return TransactWriteItem.builder().update(builder.build()).build();
+    }
+
+    /**
+     * Build a transactional delete of an item
+     * @param tableName The DynamoDB table name
+     * @param key The primary key of the item
+     * @param clazz The class type of the item
+     * @param condition The condition the stored item must satisfy, or null
+     * @param <T> The type of the item
+     * @return The transaction action
+     */
+    public static <T> TransactWriteItem transactDelete(String tableName, Key key, Class<T> clazz, Expression condition) {
+        Map<String, String> names = new HashMap<>();
+        Map<String, AttributeValue> values = new HashMap<>();
+        
+        Delete.Builder delete = Delete.builder()
+                .tableName(tableName)
+                .key(key.primaryKeyMap(TableRegistry.schema(clazz)));
+        if (condition != null) {
+            DynamoDbStorage.collectExpressionAttributes(condition, names, values);
+            delete.conditionExpression(condition.expression());
+        }
+        if (!names.isEmpty()) {
+            delete.expressionAttributeNames(names);
+        }
+        if (!values.isEmpty()) {
+            delete.expressionAttributeValues(values);
+        }
+        return TransactWriteItem.builder().delete(delete.build()).build();
+    }
+
+    /**
+     * Write a set of actions as a single all-or-nothing transaction.
+     * A cancelled transaction is rethrown as {@link TransactionCanceledException}; its
+     * cancellation reasons are in the same order as the actions.
+     * @param actions The actions, at most {@link #TRANSACT_WRITE_LIMIT}
+     * @param clientRequestToken The idempotency token, so a retried request is applied at most once
+     */
+    public static void transactWriteItems(List<TransactWriteItem> actions, String clientRequestToken) {
+        logger.info("Writing transaction of {} actions", actions.size());
+        
+        try {
+            storage.transactWriteItems(actions, clientRequestToken);
+        } catch (TransactionCanceledException e) {
+            logger.info("Transaction cancelled: {}", e.cancellationReasons());
+            throw e;
+        } catch (Exception e) {
+            logger.error("Error writing transaction: {}", e.getMessage());
+            throw e;
+        }
+    }
+
+    /**
+     * Batch write items to DynamoDB.
+     * Items are split into chunks of 25 that are written concurrently with bounded
+     * parallelism; unprocessed items are retried with jittered backoff.
+     * @param tableName The DynamoDB table name
+     * @param items The items to write
+     * @param clazz The class type of the items
+     * @param <T> The type of the items
+     * @return The per-item outcome of the batch
+     */
+    public static <T> BatchWriteReport batchWriteItems(String tableName, List<T> items, Class<T> clazz) {
+        logger.info("Batch writing {} items to table {}", items.size(), tableName);
+        
+        BatchWriteReport report = storage.batchWriteItems(tableName, items, clazz);
+        logger.info("Batch write to table {} finished: {}", tableName, report);
+        return report;
+    }
+
+    /**
+     * Batch delete items from DynamoDB.
+     * Keys are split into chunks of 25 that are deleted concurrently with bounded
+     * parallelism; unprocessed keys are retried with jittered backoff.
+     * @param tableName The DynamoDB table name
+     * @param keys The keys of the items to delete
+     * @param clazz The class type of the items
+     * @param <T> The type of the items
+     * @return The per-item outcome of the batch
+     */
+    public static <T> BatchWriteReport batchDeleteItems(String tableName, List<Key> keys, Class<T> clazz) {
+        logger.info("Batch deleting {} items from table {}", keys.size(), tableName);
+        
+        BatchWriteReport report = storage.batchDeleteItems(tableName, keys, clazz);
+        logger.info("Batch delete from table {} finished: {}", tableName, report);
+        return report;
+    }
+
+    /**
+     * Copy a model item through its table schema, so callers sharing a read never see each
+     * other's changes
+     * @param item The item
+     * @return The copy
+     */
+    @SuppressWarnings("unchecked")
+    static Object copyItem(Object item) {
+        TableSchema<Object> schema = (TableSchema<Object>) TableRegistry.schema(item.getClass());
+        return schema.mapToItem(schema.itemToMap(item, true));
+    }
+
+    /**
+     * Identifies a read of one item, for coalescing identical reads
+     * @param tableName The table name
+     * @param key The primary key
+     * @param clazz The class type of the item
+     */
+    record ItemRead(String tableName, Key key, Class<?> clazz) {
+    }
+}
@@ -0,0 +1,284 @@
+package com.shopcart.utils;
+
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.ContainerCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.EnvironmentVariableCredentialsProvider;
+import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
+import software.amazon.awssdk.http.SdkHttpClient;
+import software.amazon.awssdk.http.apache.ApacheHttpClient;
+import software.amazon.awssdk.http.async.SdkAsyncHttpClient;
+import software.amazon.awssdk.http.crt.AwsCrtAsyncHttpClient;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
+import software.amazon.awssdk.http.urlconnection.UrlConnectionHttpClient;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClientBuilder;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClientBuilder;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Factory for DynamoDB clients configured from environment variables.
+ * The HTTP transport, connection pool and timeouts are set explicitly, and region and
+ * credentials are taken straight from the Lambda environment so the SDK does not walk
+ * its discovery chains at class-init time.
+ */
+public class DynamoDbClientFactory {
+    private static final Logger logger = LoggerFactory.getLogger(DynamoDbClientFactory.class);
+
+    static final String HTTP_CLIENT = "DYNAMODB_HTTP_CLIENT";
+    static final String ASYNC_HTTP_CLIENT = "DYNAMODB_ASYNC_HTTP_CLIENT";
+    static final String MAX_CONNECTIONS = "DYNAMODB_MAX_CONNECTIONS";
+    static final String CONNECTION_TTL_MILLIS = "DYNAMODB_CONNECTION_TTL_MS";
+    static final String CONNECTION_TIMEOUT_MILLIS = "DYNAMODB_CONNECTION_TIMEOUT_MS";
+    static final String SOCKET_TIMEOUT_MILLIS = "DYNAMODB_SOCKET_TIMEOUT_MS";
+    static final String TCP_KEEP_ALIVE = "DYNAMODB_TCP_KEEP_ALIVE";
+    static final String API_CALL_TIMEOUT_MILLIS = "DYNAMODB_API_CALL_TIMEOUT_MS";
+    static final String API_CALL_ATTEMPT_TIMEOUT_MILLIS = "DYNAMODB_API_CALL_ATTEMPT_TIMEOUT_MS";
+
+    private static final int DEFAULT_MAX_CONNECTIONS = 50;
+    private static final long DEFAULT_CONNECTION_TIMEOUT_MILLIS = 2000;
+    private static final long DEFAULT_SOCKET_TIMEOUT_MILLIS = 5000;
+    private static final long DEFAULT_API_CALL_TIMEOUT_MILLIS = 10000;
+    private static final long DEFAULT_API_CALL_ATTEMPT_TIMEOUT_MILLIS = 3000;
+
+    private final Map<String, String> environment;
+
+    /**
+     * Create a factory configured from the process environment
+     */
+    public DynamoDbClientFactory() {
+        this(System.getenv());
+    }
+
+    /**
+     * Create a factory configured from the given variables
+     * @param environment The configuration variables
+     */
+    public DynamoDbClientFactory(Map<String, String> environment) {
+        this.environment = environment;
+    }
+
+    /**
+     * Create a synchronous DynamoDB client.
+     * {@code DYNAMODB_HTTP_CLIENT} selects {@code urlconnection} (default) or {@code apache}.
+     * @return The client
+     */
+    public DynamoDbClient createClient() {
+        String transport = transport(HTTP_CLIENT, "urlconnection");
+        logger.info("Creating DynamoDB client with {} transport", transport);
+
+        DynamoDbClientBuilder builder = DynamoDbClient.builder()
+                .httpClientBuilder(httpClientBuilder(transport))
+                .overrideConfiguration(overrideConfiguration())
+                .credentialsProvider(credentialsProvider());
+        Region region = region();
+        if (region != null) {
+            builder.region(region);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Create an asynchronous DynamoDB client.
+     * {@code DYNAMODB_ASYNC_HTTP_CLIENT} selects {@code netty} (default) or {@code crt};
+     * the CRT transport is only bundled by the {@code crt} build profile.
+     * @return The client
+     */
+    public DynamoDbAsyncClient createAsyncClient() {
+        String transport = transport(ASYNC_HTTP_CLIENT, "netty");
+        logger.info("Creating DynamoDB async client with {} transport", transport);
+
+        DynamoDbAsyncClientBuilder builder = DynamoDbAsyncClient.builder()
+                .httpClientBuilder(asyncHttpClientBuilder(transport))
+                .overrideConfiguration(overrideConfiguration())
+                .credentialsProvider(credentialsProvider());
+        Region region = region();
+        if (region != null) {
+            builder.region(region);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Configure the synchronous HTTP transport. The client owns the transport it builds,
+     * so closing the client also closes its connections.
+     * @param transport The transport name
+     * @return The HTTP client builder
+     */
+    SdkHttpClient.Builder<?> httpClientBuilder(String transport) {
+        Duration connectionTimeout = millis(CONNECTION_TIMEOUT_MILLIS, DEFAULT_CONNECTION_TIMEOUT_MILLIS);
+        Duration socketTimeout = millis(SOCKET_TIMEOUT_MILLIS, DEFAULT_SOCKET_TIMEOUT_MILLIS);
+
+        switch (transport) {
+            case "urlconnection":
+                // The JDK client keeps connections alive on its own; its pool size is the
+                // http.maxConnections system property rather than a builder setting
+                return UrlConnectionHttpClient.builder()
+                        .connectionTimeout(connectionTimeout)
+                        .socketTimeout(socketTimeout);
+            case "apache":
+                ApacheHttpClient.Builder apache = ApacheHttpClient.builder()
+                        .maxConnections(integer(MAX_CONNECTIONS, DEFAULT_MAX_CONNECTIONS))
+                        .connectionTimeout(connectionTimeout)
+                        .socketTimeout(socketTimeout)
+                        .tcpKeepAlive(bool(TCP_KEEP_ALIVE, true));
+                Duration ttl = millis(CONNECTION_TTL_MILLIS, 0);
+                if (!ttl.isZero()) {
+                    apache.connectionTimeToLive(ttl);
+                }
+                return apache;
+            default:
+                throw new IllegalArgumentException("Unsupported " + HTTP_CLIENT + " '" + transport
+                        + "', expected urlconnection or apache");
+        }
+    }
+
+    /**
+     * Configure the asynchronous HTTP transport. The client owns the transport it builds,
+     * so closing the client also closes its connections.
+     * @param transport The transport name
+     * @return The HTTP client builder
+     */
+    SdkAsyncHttpClient.Builder<?> asyncHttpClientBuilder(String transport) {
+        Duration connectionTimeout = millis(CONNECTION_TIMEOUT_MILLIS, DEFAULT_CONNECTION_TIMEOUT_MILLIS);
+        Duration ttl = millis(CONNECTION_TTL_MILLIS, 0);
+        int maxConnections = integer(MAX_CONNECTIONS, DEFAULT_MAX_CONNECTIONS);
+        boolean keepAlive = bool(TCP_KEEP_ALIVE, true);
+
+        switch (transport) {
+            case "netty":
+                NettyNioAsyncHttpClient.Builder netty = NettyNioAsyncHttpClient.builder()
+                        .maxConcurrency(maxConnections)
+                        .connectionTimeout(connectionTimeout)
+                        .readTimeout(millis(SOCKET_TIMEOUT_MILLIS, DEFAULT_SOCKET_TIMEOUT_MILLIS))
+                        .tcpKeepAlive(keepAlive);
+                if (!ttl.isZero()) {
+                    netty.connectionTimeToLive(ttl);
+                }
+                return netty;
+            case "crt":
+                if (!crtAvailable()) {
+                    throw new IllegalArgumentException(ASYNC_HTTP_CLIENT + " 'crt' needs the CRT transport, "
+                            + "which is only bundled when building with -Pcrt");
+                }
+                AwsCrtAsyncHttpClient.Builder crt = AwsCrtAsyncHttpClient.builder()
+                        .maxConcurrency(maxConnections)
+                        .connectionTimeout(connectionTimeout);
+                if (keepAlive) {
+                    crt.tcpKeepAliveConfiguration(keepAliveConfig -> keepAliveConfig
+                            .keepAliveInterval(Duration.ofSeconds(30))
+                            .keepAliveTimeout(Duration.ofSeconds(10)));
+                }
+                if (!ttl.isZero()) {
+                    // CRT has no hard connection lifetime; idle connections are closed after the TTL instead
+                    crt.connectionMaxIdleTime(ttl);
+                }
+                return crt;
+            default:
+                throw new IllegalArgumentException("Unsupported " + ASYNC_HTTP_CLIENT + " '" + transport
+                        + "', expected netty or crt");
+        }
+    }
+
+    /**
+     * Check whether the CRT transport is on the classpath
+     * @return True if the package was built with the crt profile
+     */
+    private static boolean crtAvailable() {
+        try {
+            Class.forName("software.amazon.awssdk.http.crt.AwsCrtAsyncHttpClient", false,
+                    DynamoDbClientFactory.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    /**
+     * Build the API call timeouts shared by both clients
+     * @return The override configuration
+     */
+    ClientOverrideConfiguration overrideConfiguration() {
+        return ClientOverrideConfiguration.builder()
+                .apiCallTimeout(millis(API_CALL_TIMEOUT_MILLIS, DEFAULT_API_CALL_TIMEOUT_MILLIS))
+                .apiCallAttemptTimeout(millis(API_CALL_ATTEMPT_TIMEOUT_MILLIS, DEFAULT_API_CALL_ATTEMPT_TIMEOUT_MILLIS))
+                .build();
+    }
+
+    /**
+     * Use the credentials Lambda provides, and only fall back to the default provider
+     * chain outside Lambda. SnapStart functions get their credentials from the container
+     * endpoint instead of environment variables.
+     * @return The credentials provider
+     */
+    AwsCredentialsProvider credentialsProvider() {
+        if (environment.containsKey("AWS_ACCESS_KEY_ID")) {
+            return EnvironmentVariableCredentialsProvider.create();
+        }
+        if (environment.containsKey("AWS_CONTAINER_CREDENTIALS_FULL_URI")) {
+            return ContainerCredentialsProvider.builder().build();
+        }
+        return DefaultCredentialsProvider.create();
+    }
+
+    /**
+     * Get the region Lambda puts in the environment
+     * @return The region, or null to let the SDK discover it
+     */
+    Region region() {
+        String region = environment.get("AWS_REGION");
+        return region == null || region.isEmpty() ? null : Region.of(region);
+    }
+
+    private String transport(String name, String defaultValue) {
+        String value = environment.get(name);
+        return value == null || value.isEmpty() ? defaultValue : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private int integer(String name, int defaultValue) {
+        String value = environment.get(name);
+        if (value == null || value.isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            int parsed = Integer.parseInt(value.trim());
+            if (parsed > 0) {
+                return parsed;
+            }
+        } catch (NumberFormatException e) {
+            // fall through to the default below
+        }
+        logger.warn("Ignoring invalid {}={}, using {}", name, value, defaultValue);
+        return defaultValue;
+    }
+
+    private Duration millis(String name, long defaultValue) {
+        String value = environment.get(name);
+        if (value == null || value.isEmpty()) {
+            return Duration.ofMillis(defaultValue);
+        }
+        try {
+            long parsed = Long.parseLong(value.trim());
+            if (parsed >= 0) {
+                return Duration.ofMillis(parsed);
+            }
+        } catch (NumberFormatException e) {
+            // fall through to the default below
+        }
+        logger.warn("Ignoring invalid {}={}, using {}", name, value, defaultValue);
+        return Duration.ofMillis(defaultValue);
+    }
+
+    private boolean bool(String name, boolean defaultValue) {
+        String value = environment.get(name);
+        return value == null || value.isEmpty() ? defaultValue : Boolean.parseBoolean(value.trim());
+    }
+}
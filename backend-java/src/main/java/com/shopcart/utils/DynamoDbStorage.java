@@ -0,0 +1,541 @@
+package com.shopcart.utils;
+
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedAsyncClient;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.Expression;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.model.DeleteItemEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.GetItemEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.Page;
+import software.amazon.awssdk.enhanced.dynamodb.model.PutItemEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.ScanEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.UpdateItemEnhancedRequest;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.DeleteRequest;
+import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.GetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.KeysAndAttributes;
+import software.amazon.awssdk.services.dynamodb.model.PutRequest;
+import software.amazon.awssdk.services.dynamodb.model.ReturnValue;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItem;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItemsRequest;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.WriteRequest;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Storage backend for Amazon DynamoDB.
+ * Single-item operations go through the enhanced client and cached table handles; projected
+ * reads, expression updates, batches and transactions use the low-level client directly.
+ */
+public class DynamoDbStorage implements Storage {
+    private static final Logger logger = LoggerFactory.getLogger(DynamoDbStorage.class);
+    private static final int BATCH_GET_LIMIT = 100;
+    private static final int BATCH_WRITE_LIMIT = 25;
+    private static final int BATCH_WRITE_PARALLELISM = parallelism("BATCH_WRITE_PARALLELISM", 4);
+    private static final ExecutorService batchWriteExecutor =
+            Executors.newFixedThreadPool(BATCH_WRITE_PARALLELISM, daemonThreads("dynamodb-batch-write"));
+    private static final int SCAN_PARALLELISM = parallelism("SCAN_PARALLELISM", 8);
+    private static final ParallelScanner parallelScanner =
+            new ParallelScanner(Executors.newFixedThreadPool(SCAN_PARALLELISM, daemonThreads("dynamodb-scan")));
+
+    private final DynamoDbClient dynamoDbClient;
+    private final TableRegistry tableRegistry;
+    private final Supplier<DynamoDbAsyncClient> asyncClientFactory;
+    private DynamoDbAsyncClient dynamoDbAsyncClient;
+    private volatile TableRegistry asyncTableRegistry;
+
+    /**
+     * Create a backend that sends every request with the given client.
+     * It has no asynchronous client, so {@link DynamoDBAsyncUtil} runs its operations on this backend.
+     * @param dynamoDbClient The DynamoDB client, closed with this backend
+     */
+    public DynamoDbStorage(DynamoDbClient dynamoDbClient) {
+        this(dynamoDbClient, null);
+    }
+
+    /**
+     * Create a backend that sends every request with the given client and builds an
+     * asynchronous client for {@link DynamoDBAsyncUtil} on first use
+     * @param dynamoDbClient The DynamoDB client, closed with this backend
+     * @param asyncClientFactory Creates the asynchronous client, closed with this backend; may be null
+     */
+    public DynamoDbStorage(DynamoDbClient dynamoDbClient, Supplier<DynamoDbAsyncClient> asyncClientFactory) {
+        this.dynamoDbClient = dynamoDbClient;
+        this.tableRegistry = new TableRegistry(DynamoDbEnhancedClient.builder()
+                .dynamoDbClient(dynamoDbClient)
+                .build());
+        this.asyncClientFactory = asyncClientFactory;
+    }
+
+    /**
+     * Read a parallelism setting from the environment
+     * @param variable The environment variable name
+     * @param defaultValue The value to use when the variable is unset or invalid
+     * @return The configured parallelism
+     */
+    static int parallelism(String variable, int defaultValue) {
+        String value = System.getenv(variable);
+        try {
+            return value != null ? Math.max(1, Integer.parseInt(value.trim())) : defaultValue;
+        } catch (NumberFormatException e) {
+            logger.warn("Ignoring invalid {} value: {}", variable, value);
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Create a factory for named daemon threads, so worker pools never keep the runtime alive
+     * @param prefix The thread name prefix
+     * @return The thread factory
+     */
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    @Override
+    public void warmUp() {
+        tableRegistry.warmUp();
+    }
+
+    /**
+     * Get the asynchronous table handles, creating the asynchronous client on first use
+     * @return The asynchronous table registry, or null if this backend has no asynchronous client
+     */
+    TableRegistry asyncTableRegistry() {
+        TableRegistry registry = asyncTableRegistry;
+        if (registry == null && asyncClientFactory != null) {
+            synchronized (this) {
+                registry = asyncTableRegistry;
+                if (registry == null) {
+                    dynamoDbAsyncClient = asyncClientFactory.get();
+                    registry = new TableRegistry(DynamoDbEnhancedAsyncClient.builder()
+                            .dynamoDbClient(dynamoDbAsyncClient)
+                            .build());
+                    asyncTableRegistry = registry;
+                }
+            }
+        }
+        return registry;
+    }
+
+    @Override
+    public <T> T getItem(String tableName, Key key, Class<T> clazz, boolean consistentRead) {
+        return tableRegistry.table(tableName, clazz).getItem(GetItemEnhancedRequest.builder()
+                .key(key)
+                .consistentRead(consistentRead)
+                .build());
+    }
+
+    @Override
+    public <T> Optional<T> getPartialItem(String tableName, Key key, Class<T> clazz, List<String> attributes) {
+        TableSchema<T> schema = TableRegistry.schema(clazz);
+        GetItemResponse response = dynamoDbClient.getItem(GetItemRequest.builder()
+                .tableName(tableName)
+                .key(key.primaryKeyMap(schema))
+                .projectionExpression(projectionExpression(attributes))
+                .expressionAttributeNames(projectionNames(attributes))
+                .build());
+
+        // An existing item without any of the projected attributes comes back as an empty map
+        return response.hasItem() ? Optional.of(schema.mapToItem(response.item(), true)) : Optional.empty();
+    }
+
+    /**
+     * Keys are deduplicated and sent in chunks of 100; unprocessed keys are
+     * retried with jittered backoff.
+     */
+    @Override
+    public <T> Map<Key, T> batchGetItems(String tableName, List<Key> keys, Class<T> clazz) {
+        DynamoDbTable<T> table = tableRegistry.table(tableName, clazz);
+        TableSchema<T> schema = table.tableSchema();
+        List<Key> uniqueKeys = new ArrayList<>(new LinkedHashSet<>(keys));
+        Map<Key, T> results = new HashMap<>();
+
+        for (int start = 0; start < uniqueKeys.size(); start += BATCH_GET_LIMIT) {
+            List<Map<String, AttributeValue>> keyMaps = new ArrayList<>();
+            for (Key key : uniqueKeys.subList(start, Math.min(start + BATCH_GET_LIMIT, uniqueKeys.size()))) {
+                keyMaps.add(key.primaryKeyMap(schema));
+            }
+
+            Map<String, KeysAndAttributes> requestItems =
+                    Map.of(tableName, KeysAndAttributes.builder().keys(keyMaps).build());
+            int attempt = 0;
+            while (!requestItems.isEmpty()) {
+                BatchGetItemResponse response = dynamoDbClient.batchGetItem(
+                        BatchGetItemRequest.builder().requestItems(requestItems).build());
+
+                for (Map<String, AttributeValue> itemMap : response.responses().getOrDefault(tableName, List.of())) {
+                    T item = schema.mapToItem(itemMap);
+                    results.put(table.keyFrom(item), item);
+                }
+
+                requestItems = response.unprocessedKeys();
+                if (!requestItems.isEmpty()) {
+                    if (++attempt > Backoff.MAX_RETRIES) {
+                        throw new IllegalStateException("Unprocessed keys remain in table " + tableName
+                                + " after " + Backoff.MAX_RETRIES + " retries");
+                    }
+                    logger.warn("Retrying {} unprocessed keys from table {} (attempt {})",
+                               requestItems.get(tableName).keys().size(), tableName, attempt);
+                    Backoff.sleep(attempt);
+                }
+            }
+        }
+
+        return results;
+    }
+
+    /**
+     * A single segment is read page by page on the calling thread. With more segments, the
+     * segment workers block while the consumer falls behind, so large tables can be
+     * processed without holding them in memory.
+     */
+    @Override
+    public <T> Stream<T> scan(String tableName, Class<T> clazz, int totalSegments, Integer pageLimit) {
+        DynamoDbTable<T> table = tableRegistry.table(tableName, clazz);
+        if (totalSegments <= 1) {
+            return table.scan(ScanEnhancedRequest.builder().limit(pageLimit).build()).items().stream();
+        }
+        return parallelScanner.scan(table, totalSegments, pageLimit);
+    }
+
+    @Override
+    public <T> QueryPage<T> scanPage(String tableName, int pageSize, String pageToken, Class<T> clazz) {
+        ScanEnhancedRequest request = ScanEnhancedRequest.builder()
+                .limit(pageSize)
+                .exclusiveStartKey(QueryPage.decodeToken(pageToken))
+                .build();
+        Page<T> page = tableRegistry.table(tableName, clazz).scan(request).iterator().next();
+        return new QueryPage<>(page.items(), QueryPage.encodeToken(page.lastEvaluatedKey()));
+    }
+
+    @Override
+    public <T> List<T> query(String tableName, String indexName, QueryConditional queryConditional,
+                             Class<T> clazz, List<String> attributes) {
+        DynamoDbTable<T> table = tableRegistry.table(tableName, clazz);
+
+        QueryEnhancedRequest.Builder request = QueryEnhancedRequest.builder()
+                .queryConditional(queryConditional);
+        if (attributes != null) {
+            request.attributesToProject(attributes);
+        }
+
+        return (indexName != null ? table.index(indexName).query(request.build()) : table.query(request.build()))
+                .stream()
+                .flatMap(page -> page.items().stream())
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public <T> QueryPage<T> queryPage(String tableName, String indexName, QueryConditional queryConditional,
+                                      int pageSize, String pageToken, boolean scanIndexForward, Class<T> clazz) {
+        DynamoDbTable<T> table = tableRegistry.table(tableName, clazz);
+
+        QueryEnhancedRequest request = QueryEnhancedRequest.builder()
+                .queryConditional(queryConditional)
+                .limit(pageSize)
+                .scanIndexForward(scanIndexForward)
+                .exclusiveStartKey(QueryPage.decodeToken(pageToken))
+                .build();
+
+        Page<T> page = indexName != null
+                ? table.index(indexName).query(request).iterator().next()
+                : table.query(request).iterator().next();
+        return new QueryPage<>(page.items(), QueryPage.encodeToken(page.lastEvaluatedKey()));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> void putItem(String tableName, T item, Expression condition) {
+        Class<T> clazz = (Class<T>) item.getClass();
+        tableRegistry.table(tableName, clazz).putItem(PutItemEnhancedRequest.builder(clazz)
+                .item(item)
+                .conditionExpression(condition)
+                .build());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T updateItem(String tableName, T item, boolean ignoreNulls, Expression condition) {
+        Class<T> clazz = (Class<T>) item.getClass();
+        return tableRegistry.table(tableName, clazz).updateItem(UpdateItemEnhancedRequest.builder(clazz)
+                .item(item)
+                .ignoreNulls(ignoreNulls)
+                .conditionExpression(condition)
+                .build());
+    }
+
+    @Override
+    public <T> T updateItem(String tableName, Key key, Class<T> clazz, Expression update, Expression condition) {
+        TableSchema<T> schema = TableRegistry.schema(clazz);
+
+        Map<String, String> names = new HashMap<>();
+        Map<String, AttributeValue> values = new HashMap<>();
+        collectExpressionAttributes(update, names, values);
+
+        UpdateItemRequest.Builder request = UpdateItemRequest.builder()
+                .tableName(tableName)
+                .key(key.primaryKeyMap(schema))
+                .updateExpression(update.expression())
+                .returnValues(ReturnValue.ALL_NEW);
+        if (condition != null) {
+            collectExpressionAttributes(condition, names, values);
+            request.conditionExpression(condition.expression());
+        }
+        if (!names.isEmpty()) {
+            request.expressionAttributeNames(names);
+        }
+        if (!values.isEmpty()) {
+            request.expressionAttributeValues(values);
+        }
+
+        UpdateItemResponse response = dynamoDbClient.updateItem(request.build());
+        return schema.mapToItem(response.attributes());
+    }
+
+    @Override
+    public <T> T deleteItem(String tableName, Key key, Class<T> clazz, Expression condition) {
+        return tableRegistry.table(tableName, clazz).deleteItem(DeleteItemEnhancedRequest.builder()
+                .key(key)
+                .conditionExpression(condition)
+                .build());
+    }
+
+    @Override
+    public void transactWriteItems(List<TransactWriteItem> actions, String clientRequestToken) {
+        dynamoDbClient.transactWriteItems(TransactWriteItemsRequest.builder()
+                .transactItems(actions)
+                .clientRequestToken(clientRequestToken)
+                .build());
+    }
+
+    /**
+     * Items with the same primary key are written once, with the last of them, since a chunk
+     * holding two requests for one key is rejected as a whole. The remaining items are split
+     * into chunks of 25 that are written concurrently with bounded parallelism; unprocessed
+     * items are retried with jittered backoff.
+     */
+    @Override
+    public <T> BatchWriteReport batchWriteItems(String tableName, List<T> items, Class<T> clazz) {
+        return batchWriteItemsAsync(tableName, items, clazz).join();
+    }
+
+    /**
+     * Write items like {@link #batchWriteItems} without waiting for the chunks to finish
+     * @param tableName The table name
+     * @param items The items to write
+     * @param clazz The class type of the items
+     * @param <T> The type of the items
+     * @return A future completing with the per-item outcome once every chunk is done
+     */
+    public <T> CompletableFuture<BatchWriteReport> batchWriteItemsAsync(String tableName, List<T> items, Class<T> clazz) {
+        DynamoDbTable<T> table = tableRegistry.table(tableName, clazz);
+        Map<Key, WriteRequest> requests = new LinkedHashMap<>();
+        for (T item : items) {
+            WriteRequest request = WriteRequest.builder()
+                    .putRequest(PutRequest.builder().item(table.tableSchema().itemToMap(item, true)).build())
+                    .build();
+            // Last write wins, in the position of the last occurrence
+            Key key = table.keyFrom(item);
+            requests.remove(key);
+            requests.put(key, request);
+        }
+
+        return writeInChunks(tableName, requests);
+    }
+
+    /**
+     * Duplicate keys are deleted once. The keys are split into chunks of 25 that are deleted
+     * concurrently with bounded parallelism; unprocessed keys are retried with jittered backoff.
+     */
+    @Override
+    public <T> BatchWriteReport batchDeleteItems(String tableName, List<Key> keys, Class<T> clazz) {
+        return batchDeleteItemsAsync(tableName, keys, clazz).join();
+    }
+
+    /**
+     * Delete items like {@link #batchDeleteItems} without waiting for the chunks to finish
+     * @param tableName The table name
+     * @param keys The primary keys of the items to delete
+     * @param clazz The class type of the items
+     * @param <T> The type of the items
+     * @return A future completing with the per-item outcome once every chunk is done
+     */
+    public <T> CompletableFuture<BatchWriteReport> batchDeleteItemsAsync(String tableName, List<Key> keys, Class<T> clazz) {
+        TableSchema<T> schema = TableRegistry.schema(clazz);
+        Map<Key, WriteRequest> requests = new LinkedHashMap<>();
+        for (Key key : keys) {
+            requests.computeIfAbsent(key, k -> WriteRequest.builder()
+                    .deleteRequest(DeleteRequest.builder().key(k.primaryKeyMap(schema)).build())
+                    .build());
+        }
+
+        return writeInChunks(tableName, requests);
+    }
+
+    @Override
+    public void close() {
+        dynamoDbClient.close();
+        synchronized (this) {
+            if (dynamoDbAsyncClient != null) {
+                dynamoDbAsyncClient.close();
+            }
+        }
+    }
+
+    /**
+     * Merge the attribute names and values of an expression into a low-level request
+     * @param expression The expression
+     * @param names The expression attribute names of the request
+     * @param values The expression attribute values of the request
+     */
+    static void collectExpressionAttributes(Expression expression, Map<String, String> names,
+                                            Map<String, AttributeValue> values) {
+        if (expression.expressionNames() != null) {
+            names.putAll(expression.expressionNames());
+        }
+        if (expression.expressionValues() != null) {
+            values.putAll(expression.expressionValues());
+        }
+    }
+
+    /**
+     * Build a projection expression with a placeholder per attribute, so reserved words such as
+     * {@code name} and {@code status} can be projected
+     * @param attributes The attributes to project
+     * @return The projection expression
+     */
+    private static String projectionExpression(List<String> attributes) {
+        StringBuilder expression = new StringBuilder();
+        for (int i = 0; i < attributes.size(); i++) {
+            if (i > 0) {
+                expression.append(", ");
+            }
+            expression.append("#p").append(i);
+        }
+        return expression.toString();
+    }
+
+    /**
+     * Build the expression attribute names for {@link #projectionExpression(List)}
+     * @param attributes The attributes to project
+     * @return The placeholders mapped to attribute names
+     */
+    private static Map<String, String> projectionNames(List<String> attributes) {
+        Map<String, String> names = new HashMap<>();
+        for (int i = 0; i < attributes.size(); i++) {
+            names.put("#p" + i, attributes.get(i));
+        }
+        return names;
+    }
+
+    /**
+     * Write requests in chunks of 25 on the batch write executor
+     * @param tableName The DynamoDB table name
+     * @param requests The write requests by the primary key they affect, one per key
+     * @return A future completing with the per-item outcome once every chunk is done
+     */
+    private CompletableFuture<BatchWriteReport> writeInChunks(String tableName, Map<Key, WriteRequest> requests) {
+        BatchWriteReport report = new BatchWriteReport();
+        List<KeyedWrite> allWrites = new ArrayList<>(requests.size());
+        requests.forEach((key, request) -> allWrites.add(new KeyedWrite(key, request)));
+        List<CompletableFuture<Void>> chunks = new ArrayList<>();
+
+        for (int start = 0; start < allWrites.size(); start += BATCH_WRITE_LIMIT) {
+            List<KeyedWrite> chunk = allWrites.subList(start, Math.min(start + BATCH_WRITE_LIMIT, allWrites.size()));
+            chunks.add(CompletableFuture.runAsync(() -> writeChunk(tableName, chunk, report), batchWriteExecutor));
+        }
+
+        return CompletableFuture.allOf(chunks.toArray(new CompletableFuture[0])).thenApply(done -> report);
+    }
+
+    /**
+     * Write a single chunk, retrying unprocessed items until they succeed or retries run out
+     * @param tableName The DynamoDB table name
+     * @param chunk The write requests of the chunk, each for a different key
+     * @param report The report to record outcomes in
+     */
+    private void writeChunk(String tableName, List<KeyedWrite> chunk, BatchWriteReport report) {
+        // Keys are unique within the chunk, so each request identifies one write
+        Map<WriteRequest, KeyedWrite> writes = new HashMap<>();
+        for (KeyedWrite write : chunk) {
+            writes.put(write.request(), write);
+        }
+        List<KeyedWrite> pending = chunk;
+        int attempt = 0;
+
+        try {
+            while (!pending.isEmpty()) {
+                BatchWriteItemResponse response = dynamoDbClient.batchWriteItem(BatchWriteItemRequest.builder()
+                        .requestItems(Map.of(tableName, pending.stream().map(KeyedWrite::request)
+                                .collect(Collectors.toList())))
+                        .build());
+
+                List<KeyedWrite> unprocessed = response.unprocessedItems().getOrDefault(tableName, List.of()).stream()
+                        .map(writes::get)
+                        .collect(Collectors.toList());
+                Set<KeyedWrite> unprocessedSet = new HashSet<>(unprocessed);
+                report.addWritten(pending.stream()
+                        .filter(write -> !unprocessedSet.contains(write))
+                        .map(KeyedWrite::key)
+                        .collect(Collectors.toList()));
+                pending = unprocessed;
+
+                if (!pending.isEmpty()) {
+                    if (++attempt > Backoff.MAX_RETRIES) {
+                        logger.error("Giving up on {} unprocessed items in table {} after {} retries",
+                                    pending.size(), tableName, Backoff.MAX_RETRIES);
+                        break;
+                    }
+                    logger.warn("Retrying {} unprocessed items in table {} (attempt {})",
+                               pending.size(), tableName, attempt);
+                    Backoff.sleep(attempt);
+                }
+            }
+        } catch (Exception e) {
+            logger.error("Error batch writing items to table {}: {}", tableName, e.getMessage());
+        }
+
+        report.addFailed(pending.stream().map(KeyedWrite::key).collect(Collectors.toList()));
+    }
+
+    private record KeyedWrite(Key key, WriteRequest request) {
+    }
+}
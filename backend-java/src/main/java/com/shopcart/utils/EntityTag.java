@@ -0,0 +1,140 @@
+package com.shopcart.utils;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Validator for a GET response, built from the versions of the items in it rather than from
+ * the serialized body, so a matching conditional request is answered without serializing.
+ * Every write stamps {@code updatedAt}, so the ID and {@code updatedAt} of each item identify
+ * the representation. If an item has no {@code updatedAt} the tag is incomplete, and
+ * {@link ApiResponse} falls back to hashing the serialized body.
+ */
+public final class EntityTag {
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final boolean trackLastModified;
+    private long hash = FNV_OFFSET;
+    private boolean complete = true;
+    private Instant lastModified;
+
+    private EntityTag(boolean trackLastModified) {
+        this.trackLastModified = trackLastModified;
+    }
+
+    /**
+     * Start a tag for a single resource, such as a product or a cart with its items.
+     * The newest {@code updatedAt} becomes the Last-Modified date.
+     * @return The tag
+     */
+    public static EntityTag forResource() {
+        return new EntityTag(true);
+    }
+
+    /**
+     * Start a tag for a collection. Collections get no Last-Modified date, since removing an
+     * item does not make the newest {@code updatedAt} any newer.
+     * @return The tag
+     */
+    public static EntityTag forCollection() {
+        return new EntityTag(false);
+    }
+
+    /**
+     * Add an item
+     * @param id The item ID
+     * @param updatedAt The item's {@code updatedAt} timestamp
+     * @return This tag
+     */
+    public EntityTag add(String id, String updatedAt) {
+        if (updatedAt == null) {
+            complete = false;
+            return this;
+        }
+        mix(id);
+        mix(updatedAt);
+        if (trackLastModified) {
+            try {
+                Instant instant = Instant.parse(updatedAt);
+                if (lastModified == null || instant.isAfter(lastModified)) {
+                    lastModified = instant;
+                }
+            } catch (DateTimeParseException e) {
+                complete = false;
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Add every item of a list
+     * @param items The items
+     * @param id Gets the ID of an item
+     * @param updatedAt Gets the {@code updatedAt} timestamp of an item
+     * @param <T> The type of the items
+     * @return This tag
+     */
+    public <T> EntityTag addAll(List<T> items, Function<T, String> id, Function<T, String> updatedAt) {
+        for (T item : items) {
+            add(id.apply(item), updatedAt.apply(item));
+        }
+        return this;
+    }
+
+    /**
+     * Add a value that is part of the response without being an item, such as a continuation token
+     * @param name The value's name
+     * @param value The value, or null
+     * @return This tag
+     */
+    public EntityTag addValue(String name, String value) {
+        mix(name);
+        mix(value);
+        return this;
+    }
+
+    /**
+     * Get the quoted strong entity tag
+     * @return The tag, or null if an item had no usable version
+     */
+    public String value() {
+        return complete ? quote(hash) : null;
+    }
+
+    /**
+     * Get the Last-Modified date
+     * @return The newest {@code updatedAt} of a resource, or null for collections
+     */
+    public Instant lastModified() {
+        return complete ? lastModified : null;
+    }
+
+    /**
+     * Build the entity tag of a serialized body
+     * @param body The serialized body
+     * @return The quoted strong entity tag
+     */
+    static String ofBody(String body) {
+        EntityTag tag = new EntityTag(false);
+        tag.mix(body);
+        return quote(tag.hash);
+    }
+
+    private static String quote(long hash) {
+        return "\"" + Long.toHexString(hash) + "\"";
+    }
+
+    // 64-bit FNV-1a over the characters, with a separator so "ab"+"c" and "a"+"bc" differ
+    private void mix(String value) {
+        long h = hash;
+        if (value != null) {
+            for (int i = 0; i < value.length(); i++) {
+                h = (h ^ value.charAt(i)) * FNV_PRIME;
+            }
+        }
+        hash = (h ^ 0xffff) * FNV_PRIME;
+    }
+}
@@ -0,0 +1,573 @@
+package com.shopcart.utils;
+
+import software.amazon.awssdk.enhanced.dynamodb.Expression;
+import software.amazon.awssdk.enhanced.dynamodb.IndexMetadata;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.KeyAttributeMetadata;
+import software.amazon.awssdk.enhanced.dynamodb.TableMetadata;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.CancellationReason;
+import software.amazon.awssdk.services.dynamodb.model.ConditionCheck;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.Delete;
+import software.amazon.awssdk.services.dynamodb.model.Put;
+import software.amazon.awssdk.services.dynamodb.model.ResourceNotFoundException;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItem;
+import software.amazon.awssdk.services.dynamodb.model.TransactionCanceledException;
+import software.amazon.awssdk.services.dynamodb.model.Update;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Storage backend that keeps every table in memory, for load tests, benchmarks and local runs
+ * without DynamoDB.
+ * Items are held as attribute maps produced by the same bean schemas as in DynamoDB, and the
+ * secondary indexes declared on the models ({@code CartIndex}, {@code CustomerIndex},
+ * {@code EmailIndex}, {@code CategoryIndex} and {@code OrderIndex}) are maintained on every write.
+ * Condition and update expressions are evaluated, so conditional writes, atomic counters and
+ * transactions behave as they do in DynamoDB.
+ * Reads are lock-free and see each item either before or after a write; writes take a per-table
+ * lock, and a transaction holds the locks of every table it touches until all its actions are applied.
+ * Tables are created on first use. Scans ignore segments, and client request tokens are not tracked.
+ */
+public class InMemoryStorage implements Storage {
+    private static final Logger logger = LoggerFactory.getLogger(InMemoryStorage.class);
+
+    private final ConcurrentMap<String, MemoryTable> tables = new ConcurrentHashMap<>();
+
+    @Override
+    public void warmUp() {
+        TableRegistry.configuredTables().forEach(this::table);
+        logger.info("Created {} in-memory tables", tables.size());
+    }
+
+    @Override
+    public <T> T getItem(String tableName, Key key, Class<T> clazz, boolean consistentRead) {
+        MemoryTable table = table(tableName, clazz);
+        return toItem(table.get(table.key(key)), clazz);
+    }
+
+    @Override
+    public <T> Optional<T> getPartialItem(String tableName, Key key, Class<T> clazz, List<String> attributes) {
+        MemoryTable table = table(tableName, clazz);
+        Map<String, AttributeValue> projected = project(table.get(table.key(key)), attributes);
+        return projected != null
+                ? Optional.of(TableRegistry.schema(clazz).mapToItem(projected, true))
+                : Optional.empty();
+    }
+
+    @Override
+    public <T> Map<Key, T> batchGetItems(String tableName, List<Key> keys, Class<T> clazz) {
+        MemoryTable table = table(tableName, clazz);
+        Map<Key, T> results = new HashMap<>();
+        for (Key key : keys) {
+            Map<String, AttributeValue> item = table.get(table.key(key));
+            if (item != null) {
+                results.put(key, toItem(item, clazz));
+            }
+        }
+        return results;
+    }
+
+    @Override
+    public <T> Stream<T> scan(String tableName, Class<T> clazz, int totalSegments, Integer pageLimit) {
+        return new ArrayList<>(table(tableName, clazz).items.values()).stream()
+                .map(item -> toItem(item, clazz));
+    }
+
+    @Override
+    public <T> List<T> query(String tableName, String indexName, QueryConditional queryConditional,
+                             Class<T> clazz, List<String> attributes) {
+        return table(tableName, clazz).query(indexName, queryConditional, true).stream()
+                .map(item -> toItem(attributes != null ? project(item, attributes) : item, clazz))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * The continuation token holds the key attributes of the last item of the page, and the next
+     * page starts at the first item ordered after them, so pages stay consistent under writes.
+     */
+    @Override
+    public <T> QueryPage<T> queryPage(String tableName, String indexName, QueryConditional queryConditional,
+                                      int pageSize, String pageToken, boolean scanIndexForward, Class<T> clazz) {
+        MemoryTable table = table(tableName, clazz);
+        IndexKeys index = table.index(indexName);
+        Comparator<Map<String, AttributeValue>> order = scanIndexForward
+                ? table.order(index)
+                : table.order(index).reversed();
+        List<Map<String, AttributeValue>> matches = table.query(indexName, queryConditional, scanIndexForward);
+        return page(table, index, order, matches, pageSize, pageToken, clazz);
+    }
+
+    /**
+     * Items are scanned in primary key order, with the same continuation tokens as queries.
+     */
+    @Override
+    public <T> QueryPage<T> scanPage(String tableName, int pageSize, String pageToken, Class<T> clazz) {
+        MemoryTable table = table(tableName, clazz);
+        IndexKeys index = table.index(null);
+        Comparator<Map<String, AttributeValue>> order = table.order(index);
+        List<Map<String, AttributeValue>> items = new ArrayList<>(table.items.values());
+        items.sort(order);
+        return page(table, index, order, items, pageSize, pageToken, clazz);
+    }
+
+    private <T> QueryPage<T> page(MemoryTable table, IndexKeys index, Comparator<Map<String, AttributeValue>> order,
+                                  List<Map<String, AttributeValue>> matches, int pageSize, String pageToken,
+                                  Class<T> clazz) {
+        int start = 0;
+        Map<String, AttributeValue> exclusiveStartKey = QueryPage.decodeToken(pageToken);
+        if (exclusiveStartKey != null) {
+            while (start < matches.size() && order.compare(matches.get(start), exclusiveStartKey) <= 0) {
+                start++;
+            }
+        }
+
+        int end = Math.min(start + pageSize, matches.size());
+        List<T> items = matches.subList(start, end).stream()
+                .map(item -> toItem(item, clazz))
+                .collect(Collectors.toList());
+        String nextToken = end < matches.size() && end > start
+                ? QueryPage.encodeToken(table.keyAttributes(matches.get(end - 1), index))
+                : null;
+        return new QueryPage<>(items, nextToken);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> void putItem(String tableName, T item, Expression condition) {
+        Class<T> clazz = (Class<T>) item.getClass();
+        MemoryTable table = table(tableName, clazz);
+        Map<String, AttributeValue> attributes = TableRegistry.schema(clazz).itemToMap(item, true);
+
+        table.lock.lock();
+        try {
+            MemoryTable.ItemKey key = table.key(attributes);
+            checkCondition(condition, table.get(key));
+            table.store(key, attributes);
+        } finally {
+            table.lock.unlock();
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T updateItem(String tableName, T item, boolean ignoreNulls, Expression condition) {
+        Class<T> clazz = (Class<T>) item.getClass();
+        MemoryTable table = table(tableName, clazz);
+        Map<String, AttributeValue> attributes = TableRegistry.schema(clazz).itemToMap(item, true);
+
+        table.lock.lock();
+        try {
+            MemoryTable.ItemKey key = table.key(attributes);
+            Map<String, AttributeValue> existing = table.get(key);
+            checkCondition(condition, existing);
+
+            Map<String, AttributeValue> updated = new HashMap<>();
+            if (ignoreNulls && existing != null) {
+                updated.putAll(existing);
+            }
+            updated.putAll(attributes);
+            table.store(key, updated);
+            return toItem(updated, clazz);
+        } finally {
+            table.lock.unlock();
+        }
+    }
+
+    @Override
+    public <T> T updateItem(String tableName, Key key, Class<T> clazz, Expression update, Expression condition) {
+        MemoryTable table = table(tableName, clazz);
+
+        table.lock.lock();
+        try {
+            MemoryTable.ItemKey itemKey = table.key(key);
+            Map<String, AttributeValue> existing = table.get(itemKey);
+            checkCondition(condition, existing);
+
+            Map<String, AttributeValue> updated = StorageExpressions.update(update,
+                    existing != null ? existing : key.primaryKeyMap(TableRegistry.schema(clazz)));
+            table.store(itemKey, updated);
+            return toItem(updated, clazz);
+        } finally {
+            table.lock.unlock();
+        }
+    }
+
+    @Override
+    public <T> T deleteItem(String tableName, Key key, Class<T> clazz, Expression condition) {
+        MemoryTable table = table(tableName, clazz);
+
+        table.lock.lock();
+        try {
+            MemoryTable.ItemKey itemKey = table.key(key);
+            checkCondition(condition, table.get(itemKey));
+            return toItem(table.remove(itemKey), clazz);
+        } finally {
+            table.lock.unlock();
+        }
+    }
+
+    /**
+     * Every condition is checked before any action is applied. If one fails, nothing is written
+     * and the cancellation reasons are reported in the same order as the actions.
+     */
+    @Override
+    public void transactWriteItems(List<TransactWriteItem> actions, String clientRequestToken) {
+        List<MemoryTable> locked = actions.stream()
+                .map(action -> table(tableName(action)))
+                .distinct()
+                .sorted(Comparator.comparing(table -> table.name))
+                .collect(Collectors.toList());
+        locked.forEach(table -> table.lock.lock());
+
+        try {
+            List<CancellationReason> reasons = new ArrayList<>();
+            boolean cancelled = false;
+            for (TransactWriteItem action : actions) {
+                boolean conditionMet = conditionMet(action);
+                reasons.add(conditionMet
+                        ? CancellationReason.builder().code("None").build()
+                        : CancellationReason.builder().code("ConditionalCheckFailed")
+                                .message("The conditional request failed").build());
+                cancelled |= !conditionMet;
+            }
+            if (cancelled) {
+                throw TransactionCanceledException.builder()
+                        .message("Transaction cancelled, please refer cancellation reasons for specific reasons "
+                                + reasons.stream().map(CancellationReason::code).collect(Collectors.toList()))
+                        .cancellationReasons(reasons)
+                        .build();
+            }
+
+            for (TransactWriteItem action : actions) {
+                apply(action);
+            }
+        } finally {
+            locked.forEach(table -> table.lock.unlock());
+        }
+    }
+
+    @Override
+    public <T> BatchWriteReport batchWriteItems(String tableName, List<T> items, Class<T> clazz) {
+        TableSchema<T> schema = TableRegistry.schema(clazz);
+        MemoryTable table = table(tableName, clazz);
+        Set<Key> written = new LinkedHashSet<>();
+        for (T item : items) {
+            putItem(tableName, item, null);
+            Key key = table.keyOf(schema.itemToMap(item, true));
+            written.remove(key);
+            written.add(key);
+        }
+
+        BatchWriteReport report = new BatchWriteReport();
+        report.addWritten(new ArrayList<>(written));
+        return report;
+    }
+
+    @Override
+    public <T> BatchWriteReport batchDeleteItems(String tableName, List<Key> keys, Class<T> clazz) {
+        for (Key key : keys) {
+            deleteItem(tableName, key, clazz, null);
+        }
+
+        BatchWriteReport report = new BatchWriteReport();
+        report.addWritten(new ArrayList<>(new LinkedHashSet<>(keys)));
+        return report;
+    }
+
+    @Override
+    public void close() {
+        tables.clear();
+    }
+
+    private MemoryTable table(String tableName, Class<?> clazz) {
+        return tables.computeIfAbsent(tableName, name -> new MemoryTable(name, TableRegistry.schema(clazz)));
+    }
+
+    /**
+     * Get a table a transaction refers to by name only
+     * @throws ResourceNotFoundException If the table has not been used yet and is not configured in the environment
+     */
+    private MemoryTable table(String tableName) {
+        MemoryTable table = tables.get(tableName);
+        if (table != null) {
+            return table;
+        }
+        Class<?> clazz = TableRegistry.configuredTables().get(tableName);
+        if (clazz == null) {
+            throw ResourceNotFoundException.builder()
+                    .message("Requested resource not found: Table: " + tableName + " not found")
+                    .build();
+        }
+        return table(tableName, clazz);
+    }
+
+    private static void checkCondition(Expression condition, Map<String, AttributeValue> existing) {
+        if (!StorageExpressions.matches(condition, existing)) {
+            throw ConditionalCheckFailedException.builder()
+                    .message("The conditional request failed")
+                    .build();
+        }
+    }
+
+    private boolean conditionMet(TransactWriteItem action) {
+        if (action.put() != null) {
+            Put put = action.put();
+            MemoryTable table = table(put.tableName());
+            return StorageExpressions.matches(put.conditionExpression(), put.expressionAttributeNames(),
+                    put.expressionAttributeValues(), table.get(table.key(put.item())));
+        }
+        if (action.update() != null) {
+            Update update = action.update();
+            MemoryTable table = table(update.tableName());
+            return StorageExpressions.matches(update.conditionExpression(), update.expressionAttributeNames(),
+                    update.expressionAttributeValues(), table.get(table.key(update.key())));
+        }
+        if (action.delete() != null) {
+            Delete delete = action.delete();
+            MemoryTable table = table(delete.tableName());
+            return StorageExpressions.matches(delete.conditionExpression(), delete.expressionAttributeNames(),
+                    delete.expressionAttributeValues(), table.get(table.key(delete.key())));
+        }
+        ConditionCheck check = action.conditionCheck();
+        MemoryTable table = table(check.tableName());
+        return StorageExpressions.matches(check.conditionExpression(), check.expressionAttributeNames(),
+                check.expressionAttributeValues(), table.get(table.key(check.key())));
+    }
+
+    private void apply(TransactWriteItem action) {
+        if (action.put() != null) {
+            MemoryTable table = table(action.put().tableName());
+            table.store(table.key(action.put().item()), action.put().item());
+        } else if (action.update() != null) {
+            Update update = action.update();
+            MemoryTable table = table(update.tableName());
+            MemoryTable.ItemKey key = table.key(update.key());
+            Map<String, AttributeValue> existing = table.get(key);
+            table.store(key, StorageExpressions.update(update.updateExpression(), update.expressionAttributeNames(),
+                    update.expressionAttributeValues(), existing != null ? existing : update.key()));
+        } else if (action.delete() != null) {
+            MemoryTable table = table(action.delete().tableName());
+            table.remove(table.key(action.delete().key()));
+        }
+    }
+
+    private static String tableName(TransactWriteItem action) {
+        if (action.put() != null) {
+            return action.put().tableName();
+        }
+        if (action.update() != null) {
+            return action.update().tableName();
+        }
+        if (action.delete() != null) {
+            return action.delete().tableName();
+        }
+        return action.conditionCheck().tableName();
+    }
+
+    private static <T> T toItem(Map<String, AttributeValue> item, Class<T> clazz) {
+        return item != null ? TableRegistry.schema(clazz).mapToItem(item) : null;
+    }
+
+    private static Map<String, AttributeValue> project(Map<String, AttributeValue> item, List<String> attributes) {
+        if (item == null) {
+            return null;
+        }
+        Map<String, AttributeValue> projected = new HashMap<>();
+        for (String attribute : attributes) {
+            AttributeValue value = item.get(attribute);
+            if (value != null) {
+                projected.put(attribute, value);
+            }
+        }
+        return projected;
+    }
+
+    /**
+     * Partition and optional sort key attributes of the table or one of its indexes
+     */
+    private record IndexKeys(String partitionKey, String sortKey) {
+    }
+
+    /**
+     * One table: its items by primary key and, per index, the primary keys of the items in each partition.
+     * Stored attribute maps are immutable and replaced as a whole on every write.
+     */
+    private static final class MemoryTable {
+        private final String name;
+        private final TableSchema<?> schema;
+        private final IndexKeys primary;
+        private final Map<String, IndexKeys> indexes = new HashMap<>();
+        private final Map<String, ConcurrentMap<AttributeValue, Set<ItemKey>>> partitions = new HashMap<>();
+        private final ConcurrentMap<ItemKey, Map<String, AttributeValue>> items = new ConcurrentHashMap<>();
+        private final ReentrantLock lock = new ReentrantLock();
+
+        MemoryTable(String name, TableSchema<?> schema) {
+            this.name = name;
+            this.schema = schema;
+            TableMetadata metadata = schema.tableMetadata();
+            this.primary = new IndexKeys(metadata.primaryPartitionKey(), metadata.primarySortKey().orElse(null));
+            indexes.put(TableMetadata.primaryIndexName(), primary);
+            for (IndexMetadata index : metadata.indices()) {
+                if (!index.name().equals(TableMetadata.primaryIndexName())) {
+                    indexes.put(index.name(), new IndexKeys(
+                            index.partitionKey().map(KeyAttributeMetadata::name).orElse(primary.partitionKey()),
+                            index.sortKey().map(KeyAttributeMetadata::name).orElse(null)));
+                }
+            }
+            for (String indexName : indexes.keySet()) {
+                partitions.put(indexName, new ConcurrentHashMap<>());
+            }
+        }
+
+        IndexKeys index(String indexName) {
+            IndexKeys index = indexes.get(indexName != null ? indexName : TableMetadata.primaryIndexName());
+            if (index == null) {
+                throw new IllegalArgumentException("The table " + name + " does not have the specified index: " + indexName);
+            }
+            return index;
+        }
+
+        ItemKey key(Key key) {
+            return new ItemKey(key.partitionKeyValue(), key.sortKeyValue().orElse(null));
+        }
+
+        ItemKey key(Map<String, AttributeValue> item) {
+            AttributeValue partitionValue = item.get(primary.partitionKey());
+            if (partitionValue == null || (primary.sortKey() != null && item.get(primary.sortKey()) == null)) {
+                throw new IllegalArgumentException("One of the required keys was not given a value in table " + name);
+            }
+            return new ItemKey(partitionValue, primary.sortKey() != null ? item.get(primary.sortKey()) : null);
+        }
+
+        Key keyOf(Map<String, AttributeValue> item) {
+            ItemKey key = key(item);
+            Key.Builder builder = Key.builder().partitionValue(key.partitionValue());
+            if (key.sortValue() != null) {
+                builder.sortValue(key.sortValue());
+            }
+            return builder.build();
+        }
+
+        Map<String, AttributeValue> get(ItemKey key) {
+            return items.get(key);
+        }
+
+        /**
+         * Replace an item and move it between index partitions. Callers hold the table lock.
+         */
+        void store(ItemKey key, Map<String, AttributeValue> item) {
+            Map<String, AttributeValue> stored = Map.copyOf(item);
+            Map<String, AttributeValue> previous = items.put(key, stored);
+            unindex(key, previous);
+            for (Map.Entry<String, IndexKeys> index : indexes.entrySet()) {
+                AttributeValue partitionValue = stored.get(index.getValue().partitionKey());
+                if (partitionValue != null) {
+                    partitions.get(index.getKey())
+                            .computeIfAbsent(partitionValue, value -> ConcurrentHashMap.newKeySet())
+                            .add(key);
+                }
+            }
+        }
+
+        /**
+         * Remove an item from the table and its indexes. Callers hold the table lock.
+         */
+        Map<String, AttributeValue> remove(ItemKey key) {
+            Map<String, AttributeValue> previous = items.remove(key);
+            unindex(key, previous);
+            return previous;
+        }
+
+        private void unindex(ItemKey key, Map<String, AttributeValue> previous) {
+            if (previous == null) {
+                return;
+            }
+            for (Map.Entry<String, IndexKeys> index : indexes.entrySet()) {
+                AttributeValue partitionValue = previous.get(index.getValue().partitionKey());
+                if (partitionValue != null) {
+                    partitions.get(index.getKey()).computeIfPresent(partitionValue, (value, keys) -> {
+                        keys.remove(key);
+                        return keys.isEmpty() ? null : keys;
+                    });
+                }
+            }
+        }
+
+        /**
+         * Get the items of one index partition that satisfy a key condition, in sort key order
+         */
+        List<Map<String, AttributeValue>> query(String indexName, QueryConditional queryConditional, boolean forward) {
+            IndexKeys index = index(indexName);
+            String resolvedName = indexName != null ? indexName : TableMetadata.primaryIndexName();
+            Expression keyCondition = queryConditional.expression(schema, resolvedName);
+            AttributeValue partitionValue = StorageExpressions.keyValue(keyCondition, index.partitionKey());
+            if (partitionValue == null) {
+                throw new IllegalArgumentException("Query condition missed key schema element: " + index.partitionKey());
+            }
+
+            List<Map<String, AttributeValue>> matches = new ArrayList<>();
+            for (ItemKey key : partitions.get(resolvedName).getOrDefault(partitionValue, Set.of())) {
+                Map<String, AttributeValue> item = items.get(key);
+                if (item != null && StorageExpressions.matches(keyCondition, item)) {
+                    matches.add(item);
+                }
+            }
+            matches.sort(forward ? order(index) : order(index).reversed());
+            return matches;
+        }
+
+        /**
+         * Order items by the index sort key, then by primary key so the order is total
+         */
+        Comparator<Map<String, AttributeValue>> order(IndexKeys index) {
+            Comparator<Map<String, AttributeValue>> order = attributeOrder(index.sortKey());
+            return order.thenComparing(attributeOrder(primary.partitionKey()))
+                    .thenComparing(attributeOrder(primary.sortKey()));
+        }
+
+        /**
+         * Get the attributes of an item that identify its position in an index, for a continuation token
+         */
+        Map<String, AttributeValue> keyAttributes(Map<String, AttributeValue> item, IndexKeys index) {
+            Map<String, AttributeValue> keyAttributes = new LinkedHashMap<>();
+            for (String attribute : new String[] {primary.partitionKey(), primary.sortKey(),
+                                                  index.partitionKey(), index.sortKey()}) {
+                if (attribute != null && item.containsKey(attribute)) {
+                    keyAttributes.put(attribute, item.get(attribute));
+                }
+            }
+            return keyAttributes;
+        }
+
+        private static Comparator<Map<String, AttributeValue>> attributeOrder(String attribute) {
+            if (attribute == null) {
+                return (left, right) -> 0;
+            }
+            return Comparator.comparing(item -> item.get(attribute),
+                    Comparator.nullsFirst(StorageExpressions::compare));
+        }
+
+        private record ItemKey(AttributeValue partitionValue, AttributeValue sortValue) {
+        }
+    }
+}
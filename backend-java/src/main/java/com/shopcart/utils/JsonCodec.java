@@ -0,0 +1,150 @@
+package com.shopcart.utils;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Shared JSON codec for request and response bodies.
+ * One ObjectMapper serves the whole function. Its Blackbird module replaces the reflective
+ * getter and setter calls of the model beans with generated lambdas. A reader and a writer
+ * for each model, each model list and the map envelopes are built when the class loads, so
+ * requests never look up serializers.
+ */
+public final class JsonCodec {
+    private static final Logger logger = LoggerFactory.getLogger(JsonCodec.class);
+    private static final ObjectMapper objectMapper = createObjectMapper();
+    private static final ConcurrentMap<Class<?>, ObjectReader> readers = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<Class<?>, ObjectWriter> listWriters = new ConcurrentHashMap<>();
+    private static volatile boolean warmedUp;
+
+    static {
+        for (Class<?> clazz : TableRegistry.modelClasses()) {
+            readers.put(clazz, objectMapper.readerFor(clazz));
+            writers.put(clazz, objectMapper.writerFor(clazz));
+            listWriters.put(clazz, objectMapper.writerFor(
+                    objectMapper.getTypeFactory().constructCollectionType(List.class, clazz)));
+        }
+        readers.put(Map.class, objectMapper.readerFor(Map.class));
+        writers.put(HashMap.class, objectMapper.writerFor(HashMap.class));
+        writers.put(LinkedHashMap.class, objectMapper.writerFor(LinkedHashMap.class));
+    }
+
+    private JsonCodec() {
+    }
+
+    /**
+     * Build the shared ObjectMapper. Blackbird defines classes at runtime, which a native
+     * image cannot do, so native executables use plain reflection instead.
+     * @return The ObjectMapper
+     */
+    private static ObjectMapper createObjectMapper() {
+        JsonMapper.Builder builder = JsonMapper.builder();
+        if (System.getProperty("org.graalvm.nativeimage.imagecode") == null) {
+            builder.addModule(new BlackbirdModule());
+        }
+        return builder.build();
+    }
+
+    /**
+     * Get the shared ObjectMapper, for callers that need a one-off reader or writer
+     * @return The ObjectMapper
+     */
+    public static ObjectMapper objectMapper() {
+        return objectMapper;
+    }
+
+    /**
+     * Get the reader for a type
+     * @param clazz The type to read
+     * @return The cached reader
+     */
+    public static ObjectReader reader(Class<?> clazz) {
+        return readers.computeIfAbsent(clazz, objectMapper::readerFor);
+    }
+
+    /**
+     * Build a reader for a generic type. Callers keep the reader in a static field.
+     * @param type The type to read
+     * @return The reader
+     */
+    public static ObjectReader reader(TypeReference<?> type) {
+        return objectMapper.readerFor(type);
+    }
+
+    /**
+     * Get the writer for a type
+     * @param clazz The type to write
+     * @return The cached writer
+     */
+    public static ObjectWriter writer(Class<?> clazz) {
+        return writers.computeIfAbsent(clazz, objectMapper::writerFor);
+    }
+
+    /**
+     * Read a JSON document
+     * @param json The JSON document
+     * @param clazz The type to read
+     * @param <T> The type to read
+     * @return The value
+     * @throws JsonProcessingException If the document is malformed or does not match the type
+     */
+    public static <T> T read(String json, Class<T> clazz) throws JsonProcessingException {
+        return reader(clazz).readValue(json);
+    }
+
+    /**
+     * Write a value as JSON. Lists of models use their prebuilt list writer.
+     * @param value The value
+     * @return The JSON document
+     * @throws JsonProcessingException If the value cannot be serialized
+     */
+    public static String write(Object value) throws JsonProcessingException {
+        if (value == null) {
+            return "null";
+        }
+        if (value instanceof List<?> list && !list.isEmpty() && list.get(0) != null) {
+            ObjectWriter listWriter = listWriters.get(list.get(0).getClass());
+            if (listWriter != null) {
+                return listWriter.writeValueAsString(value);
+            }
+        }
+        return writer(value.getClass()).writeValueAsString(value);
+    }
+
+    /**
+     * Run every model through its reader and writers once, so the serializers, and the
+     * classes Blackbird generates for them, are ready before the first request.
+     * Intended to be called during function initialization; later calls do nothing.
+     */
+    public static void warmUp() {
+        if (warmedUp) {
+            return;
+        }
+        for (Class<?> clazz : TableRegistry.modelClasses()) {
+            try {
+                Object item = clazz.getDeclaredConstructor().newInstance();
+                read(write(item), clazz);
+                write(List.of(item));
+            } catch (Exception e) {
+                logger.warn("Error warming up JSON codec for {}: {}", clazz.getSimpleName(), e.getMessage());
+            }
+        }
+        warmedUp = true;
+    }
+}
@@ -0,0 +1,288 @@
+package com.shopcart.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * A bounded in-memory cache with a time to live and least recently used eviction.
+ * Entries live for the lifetime of the container, so every Lambda instance and every server
+ * process holds its own copy. Null values are never cached.
+ * @param <K> The key type
+ * @param <V> The value type
+ */
+public final class LruCache<K, V> {
+    private static final Logger logger = LoggerFactory.getLogger(LruCache.class);
+
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final LongSupplier clock;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<K, Entry<V>> entries;
+    // Bumped by every invalidation, so a load that raced with one is not stored
+    private final AtomicLong generation = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    // Keyed by generation too, so a miss after an invalidation never joins a load that predates it
+    private final SingleFlight<Load<K>, V> loads = new SingleFlight<>();
+
+    /**
+     * Create a cache
+     * @param maxEntries The maximum number of entries; the least recently used entry is evicted beyond it
+     * @param ttl How long an entry stays valid after it is stored; zero disables the cache
+     */
+    public LruCache(int maxEntries, Duration ttl) {
+        this(maxEntries, ttl, System::nanoTime);
+    }
+
+    /**
+     * Create a cache with its own clock
+     * @param maxEntries The maximum number of entries
+     * @param ttl How long an entry stays valid after it is stored
+     * @param clock The nanosecond clock
+     */
+    LruCache(int maxEntries, Duration ttl, LongSupplier clock) {
+        this.maxEntries = Math.max(1, maxEntries);
+        this.ttlNanos = Math.max(0, ttl.toNanos());
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > LruCache.this.maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Create a cache configured from {@code <prefix>_MAX_ENTRIES} and {@code <prefix>_TTL_SECONDS}
+     * @param prefix The environment variable prefix
+     * @param defaultMaxEntries The size bound when the variable is unset or invalid
+     * @param defaultTtl The time to live when the variable is unset or invalid
+     * @param <K> The key type
+     * @param <V> The value type
+     * @return The cache
+     */
+    public static <K, V> LruCache<K, V> fromEnvironment(String prefix, int defaultMaxEntries, Duration defaultTtl) {
+        int maxEntries = (int) setting(prefix + "_MAX_ENTRIES", defaultMaxEntries);
+        long ttlSeconds = setting(prefix + "_TTL_SECONDS", defaultTtl.toSeconds());
+        return new LruCache<>(maxEntries, Duration.ofSeconds(ttlSeconds));
+    }
+
+    /**
+     * Read a non-negative cache setting from the environment
+     * @param variable The environment variable name
+     * @param defaultValue The value to use when the variable is unset or invalid
+     * @return The setting
+     */
+    private static long setting(String variable, long defaultValue) {
+        String value = System.getenv(variable);
+        if (value == null || value.isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            long parsed = Long.parseLong(value.trim());
+            if (parsed >= 0 && parsed <= Integer.MAX_VALUE) {
+                return parsed;
+            }
+        } catch (NumberFormatException e) {
+            // fall through to the default below
+        }
+        logger.warn("Ignoring invalid {}={}, using {}", variable, value, defaultValue);
+        return defaultValue;
+    }
+
+    /**
+     * Check whether the cache stores anything
+     * @return False if the time to live is zero
+     */
+    public boolean isEnabled() {
+        return ttlNanos > 0;
+    }
+
+    /**
+     * Get a cached value
+     * @param key The key
+     * @return The value, or null if it is absent or expired
+     */
+    public V get(K key) {
+        if (!isEnabled()) {
+            misses.increment();
+            return null;
+        }
+        lock.lock();
+        try {
+            Entry<V> entry = entries.get(key);
+            if (entry != null && entry.expiresAt - clock.getAsLong() > 0) {
+                hits.increment();
+                return entry.value;
+            }
+            if (entry != null) {
+                entries.remove(key);
+                expirations.increment();
+            }
+        } finally {
+            lock.unlock();
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Get a cached value, loading and storing it on a miss. The loader runs outside the
+     * cache lock, and concurrent misses for the same key share one call to it.
+     * @param key The key
+     * @param loader Loads the value; may return null, which is passed through but not cached
+     * @return The value
+     */
+    public V getOrLoad(K key, Function<? super K, ? extends V> loader) {
+        V value = get(key);
+        if (value != null) {
+            return value;
+        }
+        long loadGeneration = generation.get();
+        return loads.run(new Load<>(key, loadGeneration), () -> {
+            V loaded = loader.apply(key);
+            if (loaded != null) {
+                store(key, loaded, loadGeneration);
+            }
+            return loaded;
+        });
+    }
+
+    /**
+     * Store a value
+     * @param key The key
+     * @param value The value; null removes the entry
+     */
+    public void put(K key, V value) {
+        if (value == null) {
+            invalidate(key);
+            return;
+        }
+        store(key, value, generation.get());
+    }
+
+    /**
+     * Store a value read before a concurrent invalidation could have happened. The value is
+     * dropped if any entry was invalidated since {@code loadGeneration} was taken.
+     * @param key The key
+     * @param value The value
+     * @param loadGeneration The {@link #generation()} taken before the value was read
+     */
+    public void put(K key, V value, long loadGeneration) {
+        if (value != null) {
+            store(key, value, loadGeneration);
+        }
+    }
+
+    /**
+     * Get the invalidation generation, to take before a read whose result is stored with
+     * {@link #put(Object, Object, long)}
+     * @return The generation
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    private void store(K key, V value, long loadGeneration) {
+        if (!isEnabled()) {
+            return;
+        }
+        lock.lock();
+        try {
+            if (generation.get() == loadGeneration) {
+                entries.put(key, new Entry<>(value, clock.getAsLong() + ttlNanos));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Remove an entry
+     * @param key The key
+     */
+    public void invalidate(K key) {
+        lock.lock();
+        try {
+            generation.incrementAndGet();
+            entries.remove(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Remove every entry
+     */
+    public void invalidateAll() {
+        lock.lock();
+        try {
+            generation.incrementAndGet();
+            entries.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get the number of entries, including expired ones not yet removed
+     * @return The number of entries
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get the cache statistics since the container started
+     * @return The statistics
+     */
+    public Stats stats() {
+        return new Stats(hits.sum(), misses.sum(), evictions.sum(), expirations.sum(), size());
+    }
+
+    private record Entry<V>(V value, long expiresAt) {
+    }
+
+    private record Load<K>(K key, long generation) {
+    }
+
+    /**
+     * Cache statistics
+     * @param hits Lookups served from the cache
+     * @param misses Lookups that found no valid entry
+     * @param evictions Entries removed to stay within the size bound
+     * @param expirations Entries removed because their time to live had passed
+     * @param size The current number of entries
+     */
+    public record Stats(long hits, long misses, long evictions, long expirations, int size) {
+
+        /**
+         * Get the fraction of lookups served from the cache
+         * @return The hit rate, or 0 if there were no lookups
+         */
+        public double hitRate() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0 : (double) hits / lookups;
+        }
+    }
+}
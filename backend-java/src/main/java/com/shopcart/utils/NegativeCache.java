@@ -0,0 +1,74 @@
+package com.shopcart.utils;
+
+import java.time.Duration;
+
+/**
+ * Short-lived memory of item lookups that found nothing, so repeated requests for IDs that
+ * do not exist are answered without another read. Size and time to live come from
+ * {@code NEGATIVE_CACHE_MAX_ENTRIES} and {@code NEGATIVE_CACHE_TTL_SECONDS}; a TTL of 0 turns
+ * the cache off. Handlers that create an item forget its ID, so a create in this container
+ * is visible at once. A create made elsewhere is visible once the miss expires.
+ */
+public final class NegativeCache {
+    private static final LruCache<ItemKey, Boolean> misses =
+            LruCache.fromEnvironment("NEGATIVE_CACHE", 10000, Duration.ofSeconds(10));
+
+    private NegativeCache() {
+    }
+
+    /**
+     * Check whether a recent lookup found no item
+     * @param tableName The table
+     * @param id The partition key value
+     * @return True if the item was recently found missing
+     */
+    public static boolean isMissing(String tableName, String id) {
+        return misses.get(new ItemKey(tableName, id)) != null;
+    }
+
+    /**
+     * Get the generation to take before the lookup whose miss is remembered
+     * @return The generation
+     */
+    public static long generation() {
+        return misses.generation();
+    }
+
+    /**
+     * Remember that a lookup found no item, unless an item was created since the lookup
+     * started; a create that raced the read would otherwise be hidden by a stale miss
+     * @param tableName The table
+     * @param id The partition key value
+     * @param generation The {@link #generation()} taken before the lookup
+     */
+    public static void remember(String tableName, String id, long generation) {
+        misses.put(new ItemKey(tableName, id), Boolean.TRUE, generation);
+    }
+
+    /**
+     * Forget a miss after the item was created
+     * @param tableName The table
+     * @param id The partition key value
+     */
+    public static void forget(String tableName, String id) {
+        misses.invalidate(new ItemKey(tableName, id));
+    }
+
+    /**
+     * Forget every miss
+     */
+    public static void clear() {
+        misses.invalidateAll();
+    }
+
+    /**
+     * Get the cache statistics; hits are lookups answered as missing without a read
+     * @return The statistics
+     */
+    public static LruCache.Stats stats() {
+        return misses.stats();
+    }
+
+    private record ItemKey(String tableName, String id) {
+    }
+}
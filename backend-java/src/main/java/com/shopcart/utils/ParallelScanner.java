@@ -0,0 +1,192 @@
+package com.shopcart.utils;
+
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.model.Page;
+import software.amazon.awssdk.enhanced.dynamodb.model.ScanEnhancedRequest;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Parallel segmented scan engine.
+ * Splits a table scan into Segment/TotalSegments workers running on an executor and
+ * exposes the results as a lazily consumed stream. Workers hand pages to the consumer
+ * through a bounded queue, so a slow consumer blocks the workers instead of the
+ * whole table being buffered in memory. If the consumer stops taking pages for longer
+ * than the abandon timeout without closing the stream, the workers give up.
+ */
+public class ParallelScanner {
+    private static final Logger logger = LoggerFactory.getLogger(ParallelScanner.class);
+    private static final long OFFER_TIMEOUT_MILLIS = 100;
+    private static final Duration DEFAULT_ABANDON_TIMEOUT = Duration.ofSeconds(60);
+
+    private final ExecutorService executor;
+    private final long abandonTimeoutNanos;
+
+    /**
+     * Create a scanner that runs segment workers on the given executor
+     * @param executor The executor for segment workers
+     */
+    public ParallelScanner(ExecutorService executor) {
+        this(executor, DEFAULT_ABANDON_TIMEOUT);
+    }
+
+    /**
+     * Create a scanner that runs segment workers on the given executor
+     * @param executor The executor for segment workers
+     * @param abandonTimeout How long workers wait for a consumer that stopped taking pages
+     */
+    public ParallelScanner(ExecutorService executor, Duration abandonTimeout) {
+        this.executor = executor;
+        this.abandonTimeoutNanos = abandonTimeout.toNanos();
+    }
+
+    /**
+     * Scan a table with parallel segments.
+     * The returned stream must be closed if it is not fully consumed, so the workers stop.
+     * @param table The table to scan
+     * @param totalSegments The number of parallel segments
+     * @param pageLimit The maximum number of items per scan request, or null for the 1 MB service limit
+     * @param <T> The type of the items
+     * @return A lazily consumed stream of items
+     */
+    public <T> Stream<T> scan(DynamoDbTable<T> table, int totalSegments, Integer pageLimit) {
+        ScanIterator<T> iterator = new ScanIterator<>(totalSegments, abandonTimeoutNanos);
+        for (int segment = 0; segment < totalSegments; segment++) {
+            ScanEnhancedRequest request = ScanEnhancedRequest.builder()
+                    .segment(segment)
+                    .totalSegments(totalSegments)
+                    .limit(pageLimit)
+                    .build();
+            int segmentNumber = segment;
+            executor.execute(() -> iterator.runSegment(table, request, segmentNumber));
+        }
+
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false)
+                .onClose(iterator::cancel);
+    }
+
+    /**
+     * Iterator over the pages produced by the segment workers
+     * @param <T> The type of the items
+     */
+    private static class ScanIterator<T> implements Iterator<T> {
+        private final BlockingQueue<Object> pages;
+        private final int totalSegments;
+        private final long abandonTimeoutNanos;
+        private volatile boolean cancelled;
+        private volatile boolean abandoned;
+        private volatile long lastTakeNanos = System.nanoTime();
+        private int finishedSegments;
+        private Iterator<T> current = Collections.emptyIterator();
+
+        ScanIterator(int totalSegments, long abandonTimeoutNanos) {
+            this.totalSegments = totalSegments;
+            this.abandonTimeoutNanos = abandonTimeoutNanos;
+            this.pages = new ArrayBlockingQueue<>(Math.max(2, totalSegments * 2));
+        }
+
+        void runSegment(DynamoDbTable<T> table, ScanEnhancedRequest request, int segment) {
+            try {
+                for (Page<T> page : table.scan(request)) {
+                    if (!offer(page.items())) {
+                        return;
+                    }
+                }
+                offer(SegmentDone.INSTANCE);
+            } catch (RuntimeException e) {
+                logger.error("Error scanning segment {} of table {}: {}", segment, table.tableName(), e.getMessage());
+                offer(new SegmentFailed(e));
+            }
+        }
+
+        /**
+         * Hand a value to the consumer, waiting while the queue is full
+         * @return False if the scan was cancelled or abandoned before the value could be queued
+         */
+        private boolean offer(Object value) {
+            try {
+                while (!cancelled) {
+                    if (pages.offer(value, OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                        return true;
+                    }
+                    if (System.nanoTime() - lastTakeNanos > abandonTimeoutNanos) {
+                        logger.warn("Scan stream was abandoned without being closed, stopping its workers");
+                        abandoned = true;
+                        cancel();
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return false;
+        }
+
+        void cancel() {
+            cancelled = true;
+            pages.clear();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean hasNext() {
+            while (!current.hasNext()) {
+                if (abandoned) {
+                    throw new IllegalStateException("Scan was stopped because its results were not consumed in time");
+                }
+                if (finishedSegments == totalSegments || cancelled) {
+                    return false;
+                }
+
+                Object next;
+                try {
+                    next = pages.take();
+                    lastTakeNanos = System.nanoTime();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    cancel();
+                    throw new IllegalStateException("Interrupted while waiting for scan results", e);
+                }
+
+                if (next == SegmentDone.INSTANCE) {
+                    finishedSegments++;
+                } else if (next instanceof SegmentFailed failed) {
+                    cancel();
+                    throw failed.error;
+                } else {
+                    current = ((List<T>) next).iterator();
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return current.next();
+        }
+    }
+
+    private enum SegmentDone {
+        INSTANCE
+    }
+
+    private record SegmentFailed(RuntimeException error) {
+    }
+}
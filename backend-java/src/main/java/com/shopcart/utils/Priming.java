@@ -0,0 +1,106 @@
+package com.shopcart.utils;
+
+import org.crac.Context;
+import org.crac.Core;
+import org.crac.Resource;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Startup priming for Lambda SnapStart.
+ * Before the snapshot is taken, everything that is otherwise done lazily on the first request
+ * is run once: the DynamoDB clients and table schemas are built, every model goes through the
+ * bean mapper and the JSON codec, and a response is rendered. After a restore the
+ * clients are rebuilt, since the snapshot holds dead connections and possibly stale credentials.
+ * Without a CRaC runtime the hooks are never called and registering is a no-op.
+ */
+public class Priming implements Resource {
+    private static final Logger logger = LoggerFactory.getLogger(Priming.class);
+
+    // CRaC only keeps weak references to registered resources
+    private static final Priming instance = new Priming();
+
+    private volatile boolean registered;
+
+    /**
+     * Register the priming hooks with the CRaC runtime.
+     * Intended to be called from a handler's static initializer.
+     */
+    public static void register() {
+        instance.registerOnce();
+    }
+
+    private synchronized void registerOnce() {
+        if (!registered) {
+            Core.getGlobalContext().register(this);
+            registered = true;
+        }
+    }
+
+    @Override
+    public void beforeCheckpoint(Context<? extends Resource> context) {
+        logger.info("Priming before checkpoint");
+        prime();
+    }
+
+    @Override
+    public void afterRestore(Context<? extends Resource> context) {
+        logger.info("Reconnecting after restore");
+        DynamoDBUtil.reconnect();
+    }
+
+    /**
+     * Run every lazily initialized code path once. Failures are logged and ignored,
+     * since priming must never prevent the snapshot from being taken.
+     */
+    void prime() {
+        DynamoDBUtil.warmUp();
+        DynamoDBAsyncUtil.warmUp();
+        JsonCodec.warmUp();
+
+        for (Class<?> clazz : TableRegistry.modelClasses()) {
+            try {
+                primeModel(clazz);
+            } catch (Exception e) {
+                logger.warn("Error priming model {}: {}", clazz.getSimpleName(), e.getMessage());
+            }
+        }
+
+        ApiResponse.success(Map.of("primed", true), Map.of("X-Primed", "true"));
+        ApiResponse.notFound("primed");
+
+        primeRequest();
+    }
+
+    private <T> void primeModel(Class<T> clazz) throws Exception {
+        T item = clazz.getDeclaredConstructor().newInstance();
+
+        TableSchema<T> schema = TableRegistry.schema(clazz);
+        schema.mapToItem(schema.itemToMap(item, false));
+
+        ApiResponse.success(item);
+    }
+
+    /**
+     * Send one read so request marshalling, signing and the TLS stack are loaded
+     */
+    private void primeRequest() {
+        for (Map.Entry<String, Class<?>> entry : TableRegistry.configuredTables().entrySet()) {
+            TableSchema<?> schema = TableRegistry.schema(entry.getValue());
+            if (schema.tableMetadata().primarySortKey().isPresent()) {
+                continue;
+            }
+            String partitionKey = schema.tableMetadata().primaryPartitionKey();
+            try {
+                DynamoDBUtil.getItem(entry.getKey(), partitionKey, "priming", entry.getValue());
+            } catch (Exception e) {
+                logger.warn("Error priming request to table {}: {}", entry.getKey(), e.getMessage());
+            }
+            return;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.shopcart.utils;
+
+import com.shopcart.models.Product;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read-through cache for product lookups by ID and for the CategoryIndex listing, whole or by page.
+ * Product lookups are sized by {@code PRODUCT_CACHE_MAX_ENTRIES} and {@code PRODUCT_CACHE_TTL_SECONDS},
+ * category listings by {@code PRODUCT_CATEGORY_CACHE_MAX_ENTRIES} and
+ * {@code PRODUCT_CATEGORY_CACHE_TTL_SECONDS}; a TTL of 0 turns that cache off. Writes made in this
+ * container invalidate the affected entries at once. Writes made elsewhere, including the
+ * stock reserved by checkouts, show up when the entries expire.
+ * Products are mutable beans, so every caller gets its own copy and the cached ones are never shared.
+ */
+public final class ProductCache {
+    private static final LruCache<String, Product> products =
+            LruCache.fromEnvironment("PRODUCT_CACHE", 1000, Duration.ofSeconds(30));
+    private static final LruCache<CategoryPageKey, QueryPage<Product>> categoryPages =
+            LruCache.fromEnvironment("PRODUCT_CATEGORY_CACHE", 1000, Duration.ofSeconds(30));
+
+    private ProductCache() {
+    }
+
+    /**
+     * Get a product by ID, reading the table on a miss
+     * @param tableName The products table
+     * @param productId The product ID
+     * @return The product, or null if it does not exist
+     */
+    public static Product getProduct(String tableName, String productId) {
+        return copy(products.getOrLoad(productId,
+                id -> DynamoDBUtil.getItem(tableName, "productId", id, Product.class)));
+    }
+
+    /**
+     * Get one page of the products in a category, querying the CategoryIndex on a miss
+     * @param tableName The products table
+     * @param categoryId The category ID
+     * @param limit The page size
+     * @param nextToken The continuation token from the previous page, or null for the first page
+     * @return The page of products
+     * @throws IllegalArgumentException If the continuation token is invalid
+     */
+    public static QueryPage<Product> getCategoryPage(String tableName, String categoryId, int limit, String nextToken) {
+        QueryPage<Product> page = categoryPages.getOrLoad(new CategoryPageKey(categoryId, limit, nextToken),
+                key -> DynamoDBUtil.queryPage(tableName, "CategoryIndex", categoryId, limit, nextToken, Product.class));
+        return new QueryPage<>(copy(page.getItems()), page.getNextToken());
+    }
+
+    /**
+     * Get every product in a category, querying the CategoryIndex on a miss
+     * @param tableName The products table
+     * @param categoryId The category ID
+     * @return The products
+     */
+    public static List<Product> getCategoryProducts(String tableName, String categoryId) {
+        // Cached as a single page without a limit or a continuation token
+        return copy(categoryPages.getOrLoad(new CategoryPageKey(categoryId, 0, null),
+                key -> new QueryPage<>(DynamoDBUtil.queryItemsByIndex(
+                        tableName, "CategoryIndex", "categoryId", categoryId, Product.class), null)).getItems());
+    }
+
+    /**
+     * Drop a product after it was created, changed or deleted. Its category listings are
+     * dropped too, since the product may have joined, left or moved between them.
+     * @param productId The product ID
+     */
+    public static void invalidate(String productId) {
+        products.invalidate(productId);
+        categoryPages.invalidateAll();
+    }
+
+    /**
+     * Drop every cached product and listing
+     */
+    public static void invalidateAll() {
+        products.invalidateAll();
+        categoryPages.invalidateAll();
+    }
+
+    /**
+     * Get the statistics of the product lookups
+     * @return The statistics
+     */
+    public static LruCache.Stats productStats() {
+        return products.stats();
+    }
+
+    /**
+     * Get the statistics of the category listings
+     * @return The statistics
+     */
+    public static LruCache.Stats categoryStats() {
+        return categoryPages.stats();
+    }
+
+    /**
+     * Copy a cached product for a caller
+     * @param product The cached product, or null
+     * @return A copy the caller may modify, or null
+     */
+    private static Product copy(Product product) {
+        return product != null ? (Product) DynamoDBUtil.copyItem(product) : null;
+    }
+
+    /**
+     * Copy cached products for a caller
+     * @param products The cached products
+     * @return Copies the caller may modify
+     */
+    private static List<Product> copy(List<Product> products) {
+        List<Product> copies = new ArrayList<>(products.size());
+        for (Product product : products) {
+            copies.add(copy(product));
+        }
+        return copies;
+    }
+
+    private record CategoryPageKey(String categoryId, int limit, String nextToken) {
+    }
+}
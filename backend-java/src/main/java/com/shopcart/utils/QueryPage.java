@@ -0,0 +1,190 @@
+package com.shopcart.utils;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import software.amazon.awssdk.core.SdkBytes;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A single page of query results with an opaque continuation token
+ * @param <T> The type of the items
+ */
+public class QueryPage<T> {
+    /**
+     * Response header carrying the continuation token for the next page
+     */
+    public static final String NEXT_TOKEN_HEADER = "X-Next-Token";
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private static final TypeReference<Map<String, Map<String, String>>> TOKEN_TYPE = new TypeReference<>() {
+    };
+    private static final ObjectReader tokenReader = JsonCodec.reader(TOKEN_TYPE);
+    private static final ObjectWriter tokenWriter = JsonCodec.writer(LinkedHashMap.class);
+
+    private final List<T> items;
+    private final String nextToken;
+
+    /**
+     * Create a page of results
+     * @param items The items in this page
+     * @param nextToken The token for the next page, or null if this is the last page
+     */
+    public QueryPage(List<T> items, String nextToken) {
+        this.items = Collections.unmodifiableList(items);
+        this.nextToken = nextToken;
+    }
+
+    /**
+     * Get the items in this page
+     * @return The items
+     */
+    public List<T> getItems() {
+        return items;
+    }
+
+    /**
+     * Get the token for the next page
+     * @return The continuation token, or null if there are no more pages
+     */
+    public String getNextToken() {
+        return nextToken;
+    }
+
+    /**
+     * Check whether another page is available
+     * @return True if a continuation token is present
+     */
+    public boolean hasNextPage() {
+        return nextToken != null;
+    }
+
+    /**
+     * Get the response headers that expose the continuation token to API clients
+     * @return The headers, without a token if this is the last page
+     */
+    public Map<String, String> getHeaders() {
+        Map<String, String> headers = new LinkedHashMap<>();
+        headers.put("Access-Control-Expose-Headers", NEXT_TOKEN_HEADER);
+        if (nextToken != null) {
+            headers.put(NEXT_TOKEN_HEADER, nextToken);
+        }
+        return headers;
+    }
+
+    /**
+     * Check whether a list request asked for paging by sending {@code limit} or {@code nextToken}.
+     * List endpoints return every item when it did not.
+     * @param queryParameters The query string parameters, or null
+     * @return True if a single page was requested
+     */
+    public static boolean isRequested(Map<String, String> queryParameters) {
+        return queryParameters != null
+                && (queryParameters.containsKey("limit") || queryParameters.containsKey("nextToken"));
+    }
+
+    /**
+     * Parse a page size request parameter
+     * @param limit The raw parameter value, or null for the default page size
+     * @return The page size, capped at {@link #MAX_PAGE_SIZE}
+     * @throws IllegalArgumentException If the value is not a positive integer
+     */
+    public static int pageSize(String limit) {
+        if (limit == null || limit.isEmpty()) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        try {
+            int pageSize = Integer.parseInt(limit);
+            if (pageSize > 0) {
+                return Math.min(pageSize, MAX_PAGE_SIZE);
+            }
+        } catch (NumberFormatException e) {
+            // fall through to the validation error below
+        }
+        throw new IllegalArgumentException("limit must be a positive integer");
+    }
+
+    /**
+     * Encode a LastEvaluatedKey as an opaque, URL-safe continuation token
+     * @param lastEvaluatedKey The last evaluated key of a query page
+     * @return The continuation token, or null if the key is empty
+     */
+    public static String encodeToken(Map<String, AttributeValue> lastEvaluatedKey) {
+        if (lastEvaluatedKey == null || lastEvaluatedKey.isEmpty()) {
+            return null;
+        }
+
+        Map<String, Map<String, String>> encoded = new LinkedHashMap<>();
+        for (Map.Entry<String, AttributeValue> entry : lastEvaluatedKey.entrySet()) {
+            AttributeValue value = entry.getValue();
+            if (value.s() != null) {
+                encoded.put(entry.getKey(), Map.of("S", value.s()));
+            } else if (value.n() != null) {
+                encoded.put(entry.getKey(), Map.of("N", value.n()));
+            } else if (value.b() != null) {
+                encoded.put(entry.getKey(), Map.of("B", Base64.getEncoder().encodeToString(value.b().asByteArray())));
+            } else {
+                throw new IllegalArgumentException("Unsupported key attribute type for " + entry.getKey());
+            }
+        }
+
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(tokenWriter.writeValueAsBytes(encoded));
+        } catch (Exception e) {
+            throw new IllegalStateException("Error encoding continuation token", e);
+        }
+    }
+
+    /**
+     * Decode a continuation token produced by {@link #encodeToken(Map)}
+     * @param token The continuation token
+     * @return The exclusive start key for the next query, or null if the token is empty
+     * @throws IllegalArgumentException If the token is malformed
+     */
+    public static Map<String, AttributeValue> decodeToken(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+
+        Map<String, Map<String, String>> encoded;
+        try {
+            String json = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            encoded = tokenReader.readValue(json);
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Invalid continuation token");
+        }
+
+        Map<String, AttributeValue> key = new LinkedHashMap<>();
+        for (Map.Entry<String, Map<String, String>> entry : encoded.entrySet()) {
+            Map<String, String> value = entry.getValue();
+            if (value.containsKey("S")) {
+                key.put(entry.getKey(), AttributeValue.builder().s(value.get("S")).build());
+            } else if (value.containsKey("N")) {
+                key.put(entry.getKey(), AttributeValue.builder().n(value.get("N")).build());
+            } else if (value.containsKey("B")) {
+                key.put(entry.getKey(), AttributeValue.builder()
+                        .b(SdkBytes.fromByteArray(Base64.getDecoder().decode(value.get("B"))))
+                        .build());
+            } else {
+                throw new IllegalArgumentException("Invalid continuation token");
+            }
+        }
+        return key;
+    }
+
+    @Override
+    public String toString() {
+        return "QueryPage{" +
+                "items=" + items.size() +
+                ", hasNextPage=" + hasNextPage() +
+                '}';
+    }
+}
@@ -0,0 +1,220 @@
+package com.shopcart.utils;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Routes API Gateway requests to handlers by HTTP method and resource path.
+ * Path templates such as {@code /carts/{cartId}/items/{productId}} are split into segments
+ * once when they are added, and indexed by method and segment count, so a request is only
+ * compared with the few templates of the same shape. Where templates overlap, the one with
+ * more literal segments wins. The matched template's path parameters are set on the event,
+ * so the handlers see the same event as when API Gateway invokes them directly.
+ */
+public class Router {
+    private static final Logger logger = LoggerFactory.getLogger(Router.class);
+
+    private final Map<String, Map<Integer, List<Route>>> routes = new HashMap<>();
+
+    /**
+     * Add a route
+     * @param method The HTTP method
+     * @param template The resource path template, e.g. {@code /products/{productId}}
+     * @param handler Supplies the handler for the route
+     * @return This router
+     */
+    public Router add(String method, String template,
+                      Supplier<? extends RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent>> handler) {
+        Route route = new Route(method.toUpperCase(Locale.ROOT), template, handler);
+        List<Route> candidates = routes
+                .computeIfAbsent(route.method, key -> new HashMap<>())
+                .computeIfAbsent(route.segments.length, key -> new ArrayList<>());
+        candidates.add(route);
+        candidates.sort(Comparator.comparingInt((Route candidate) -> candidate.literals).reversed());
+        return this;
+    }
+
+    /**
+     * Wrap a handler constructor so the handler is created on first use and then reused.
+     * Deferring creation keeps a handler's static initialization off the cold start of
+     * requests for other routes.
+     * @param constructor The handler constructor
+     * @return The memoizing supplier
+     */
+    public static Supplier<RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent>> lazy(
+            Supplier<? extends RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent>> constructor) {
+        return new Supplier<>() {
+            private volatile RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> handler;
+
+            @Override
+            public RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> get() {
+                RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> current = handler;
+                if (current == null) {
+                    synchronized (this) {
+                        current = handler;
+                        if (current == null) {
+                            current = constructor.get();
+                            handler = current;
+                        }
+                    }
+                }
+                return current;
+            }
+        };
+    }
+
+    /**
+     * Route a request to its handler
+     * @param input The API Gateway request event
+     * @param context The Lambda context
+     * @return The handler's response, or a 404 or 405 response if no route matches
+     */
+    public APIGatewayProxyResponseEvent route(APIGatewayProxyRequestEvent input, Context context) {
+        String method = input.getHttpMethod() != null ? input.getHttpMethod().toUpperCase(Locale.ROOT) : "";
+        String path = input.getPath() != null ? input.getPath() : input.getResource();
+        String[] segments = split(path);
+
+        Match match = match(method, segments);
+        if (match == null) {
+            List<String> allowed = allowedMethods(segments);
+            if (!allowed.isEmpty()) {
+                logger.info("Method {} not allowed for {}", method, path);
+                return ApiResponse.methodNotAllowed(
+                        "Method " + method + " not allowed for " + path, Map.of("Allow", String.join(", ", allowed)));
+            }
+            logger.info("No route for {} {}", method, path);
+            return ApiResponse.notFound("No route for " + method + " " + path);
+        }
+
+        Map<String, String> pathParameters = new HashMap<>();
+        if (input.getPathParameters() != null) {
+            pathParameters.putAll(input.getPathParameters());
+            pathParameters.remove("proxy");
+        }
+        pathParameters.putAll(match.pathParameters);
+        input.setPathParameters(pathParameters);
+        input.setResource(match.route.template);
+
+        return match.route.handler.get().handleRequest(input, context);
+    }
+
+    /**
+     * Find the route for a request
+     * @param method The HTTP method
+     * @param path The request path
+     * @return The matched route and its path parameters, or null if no route matches
+     */
+    Match match(String method, String path) {
+        return match(method.toUpperCase(Locale.ROOT), split(path));
+    }
+
+    private Match match(String method, String[] segments) {
+        List<Route> candidates = routes.getOrDefault(method, Map.of()).get(segments.length);
+        if (candidates == null) {
+            return null;
+        }
+        for (Route route : candidates) {
+            Map<String, String> pathParameters = route.bind(segments);
+            if (pathParameters != null) {
+                return new Match(route, pathParameters);
+            }
+        }
+        return null;
+    }
+
+    private List<String> allowedMethods(String[] segments) {
+        TreeSet<String> allowed = new TreeSet<>();
+        for (String method : routes.keySet()) {
+            if (match(method, segments) != null) {
+                allowed.add(method);
+            }
+        }
+        return new ArrayList<>(allowed);
+    }
+
+    private static String[] split(String path) {
+        if (path == null) {
+            return new String[0];
+        }
+        String trimmed = path.replaceAll("^/+|/+$", "");
+        return trimmed.isEmpty() ? new String[0] : trimmed.split("/+");
+    }
+
+    /**
+     * A route matched by a request, with the path parameters bound from the request path
+     */
+    record Match(Route route, Map<String, String> pathParameters) {
+    }
+
+    /**
+     * A precompiled route: literal segments hold their text and parameter segments a null
+     */
+    static final class Route {
+        final String method;
+        final String template;
+        final String[] segments;
+        final String[] parameterNames;
+        final int literals;
+        final Supplier<? extends RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent>> handler;
+
+        Route(String method, String template,
+              Supplier<? extends RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent>> handler) {
+            this.method = method;
+            this.template = template;
+            this.handler = handler;
+            this.segments = split(template);
+            this.parameterNames = new String[segments.length];
+
+            int literalCount = 0;
+            for (int i = 0; i < segments.length; i++) {
+                String segment = segments[i];
+                if (segment.startsWith("{") && segment.endsWith("}")) {
+                    parameterNames[i] = segment.substring(1, segment.length() - 1);
+                    segments[i] = null;
+                } else {
+                    literalCount++;
+                }
+            }
+            this.literals = literalCount;
+        }
+
+        /**
+         * Bind the path parameters of a request path of the same length
+         * @return The path parameters, or null if a literal segment differs
+         */
+        Map<String, String> bind(String[] path) {
+            Map<String, String> pathParameters = null;
+            for (int i = 0; i < segments.length; i++) {
+                if (segments[i] != null) {
+                    if (!segments[i].equals(path[i])) {
+                        return null;
+                    }
+                } else {
+                    if (pathParameters == null) {
+                        pathParameters = new LinkedHashMap<>();
+                    }
+                    pathParameters.put(parameterNames[i], URLDecoder.decode(
+                            path[i].replace("+", "%2B"), StandardCharsets.UTF_8));
+                }
+            }
+            return pathParameters != null ? pathParameters : Map.of();
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.shopcart.utils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Coalesces concurrent identical operations. The first caller for a key runs the operation;
+ * callers arriving while it is in flight wait for it and share its result or its exception.
+ * A caller arriving after it finished starts a new one, so results are never reused after
+ * the fact. When results are mutable, every caller that shares a result gets its own copy.
+ * The caller that ran the operation gets the original only if nobody joined it.
+ * @param <K> The key type
+ * @param <V> The result type
+ */
+public final class SingleFlight<K, V> {
+    private final ConcurrentMap<K, Flight<V>> inFlight = new ConcurrentHashMap<>();
+    private final UnaryOperator<V> copy;
+    private final LongAdder coalesced = new LongAdder();
+
+    /**
+     * Create a single-flight group for immutable or otherwise shareable results
+     */
+    public SingleFlight() {
+        this(UnaryOperator.identity());
+    }
+
+    /**
+     * Create a single-flight group for mutable results
+     * @param copy Copies a result for a caller that shares it
+     */
+    public SingleFlight(UnaryOperator<V> copy) {
+        this.copy = copy;
+    }
+
+    /**
+     * Run an operation, or wait for the identical one already in flight
+     * @param key Identifies the operation
+     * @param operation The operation
+     * @return The result
+     */
+    public V run(K key, Supplier<? extends V> operation) {
+        Flight<V> created = new Flight<>();
+        Flight<V> flight = join(key, created);
+        if (flight != created) {
+            return share(await(flight.result));
+        }
+        V value;
+        try {
+            value = operation.get();
+        } catch (RuntimeException | Error e) {
+            land(key, flight);
+            flight.result.completeExceptionally(e);
+            throw e;
+        }
+        land(key, flight);
+        flight.result.complete(value);
+        return flight.joined ? share(value) : value;
+    }
+
+    /**
+     * Start an asynchronous operation, or follow the identical one already in flight
+     * @param key Identifies the operation
+     * @param operation Starts the operation
+     * @return A future completing with the result
+     */
+    public CompletableFuture<V> runAsync(K key, Supplier<? extends CompletableFuture<? extends V>> operation) {
+        Flight<V> created = new Flight<>();
+        Flight<V> flight = join(key, created);
+        if (flight != created) {
+            return flight.result.thenApply(this::share);
+        }
+        CompletableFuture<? extends V> started;
+        try {
+            started = operation.get();
+        } catch (RuntimeException | Error e) {
+            land(key, flight);
+            flight.result.completeExceptionally(e);
+            throw e;
+        }
+        started.whenComplete((value, error) -> {
+            land(key, flight);
+            if (error != null) {
+                flight.result.completeExceptionally(error);
+            } else {
+                flight.result.complete(value);
+            }
+        });
+        return flight.result.thenApply(value -> flight.joined ? share(value) : value);
+    }
+
+    /**
+     * Get the number of calls that shared an operation already in flight
+     * @return The number of coalesced calls
+     */
+    public long coalescedCount() {
+        return coalesced.sum();
+    }
+
+    /**
+     * Register a call, either as the leader of a new flight or as a follower of the current one
+     * @param key Identifies the operation
+     * @param created The flight to start if none is in progress
+     * @return The flight the call belongs to; the created one if the call leads it
+     */
+    private Flight<V> join(K key, Flight<V> created) {
+        Flight<V> flight = inFlight.compute(key, (k, existing) -> {
+            if (existing == null) {
+                return created;
+            }
+            // Marked under the map's lock on the key, so the leader sees it once it has landed
+            existing.joined = true;
+            return existing;
+        });
+        if (flight != created) {
+            coalesced.increment();
+        }
+        return flight;
+    }
+
+    /**
+     * Take the flight off the map so later callers start their own
+     * @param key Identifies the operation
+     * @param flight The flight that finished
+     */
+    private void land(K key, Flight<V> flight) {
+        inFlight.remove(key, flight);
+    }
+
+    private V share(V value) {
+        return value == null ? null : copy.apply(value);
+    }
+
+    private static <V> V await(CompletableFuture<V> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static final class Flight<V> {
+        private final CompletableFuture<V> result = new CompletableFuture<>();
+        private volatile boolean joined;
+    }
+}
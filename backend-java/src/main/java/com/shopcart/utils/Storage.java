@@ -0,0 +1,188 @@
+package com.shopcart.utils;
+
+import software.amazon.awssdk.enhanced.dynamodb.Expression;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItem;
+import software.amazon.awssdk.services.dynamodb.model.TransactionCanceledException;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Storage backend behind {@link DynamoDBUtil}.
+ * Items are addressed by table name and primary key and mapped with the bean schemas from
+ * {@link TableRegistry}; conditions, updates and transactions use the DynamoDB expression
+ * and request types, so every backend has the same semantics as DynamoDB. A condition that
+ * is not met is reported as {@link ConditionalCheckFailedException}, and a cancelled
+ * transaction as {@link TransactionCanceledException}.
+ */
+public interface Storage {
+
+    /**
+     * Prepare the tables configured in the environment, so the first request does not pay for it
+     */
+    void warmUp();
+
+    /**
+     * Get an item by primary key
+     * @param tableName The table name
+     * @param key The primary key
+     * @param clazz The class type of the item
+     * @param consistentRead True to read the latest committed version of the item
+     * @param <T> The type of the item
+     * @return The item, or null if it does not exist
+     */
+    <T> T getItem(String tableName, Key key, Class<T> clazz, boolean consistentRead);
+
+    /**
+     * Get only some attributes of an item by primary key
+     * @param tableName The table name
+     * @param key The primary key
+     * @param clazz The class type of the item
+     * @param attributes The attributes to read
+     * @param <T> The type of the item
+     * @return The partial item, or empty if it does not exist. An item that exists but has none
+     * of the attributes is present, with every attribute null.
+     */
+    <T> Optional<T> getPartialItem(String tableName, Key key, Class<T> clazz, List<String> attributes);
+
+    /**
+     * Get items by primary key
+     * @param tableName The table name
+     * @param keys The primary keys, possibly with duplicates
+     * @param clazz The class type of the items
+     * @param <T> The type of the items
+     * @return The existing items keyed by primary key
+     */
+    <T> Map<Key, T> batchGetItems(String tableName, List<Key> keys, Class<T> clazz);
+
+    /**
+     * Scan every item of a table. Close the stream if it is not fully consumed.
+     * @param tableName The table name
+     * @param clazz The class type of the items
+     * @param totalSegments The number of parallel segments, where the backend supports them
+     * @param pageLimit The maximum number of items per scan request, or null for no limit
+     * @param <T> The type of the items
+     * @return A stream of the items in the table
+     */
+    <T> Stream<T> scan(String tableName, Class<T> clazz, int totalSegments, Integer pageLimit);
+
+    /**
+     * Scan a single page of items
+     * @param tableName The table name
+     * @param pageSize The maximum number of items to evaluate
+     * @param pageToken The continuation token from a previous page, or null for the first page
+     * @param clazz The class type of the items
+     * @param <T> The type of the items
+     * @return The page of items and the token for the next page
+     */
+    <T> QueryPage<T> scanPage(String tableName, int pageSize, String pageToken, Class<T> clazz);
+
+    /**
+     * Query every item matching a key condition
+     * @param tableName The table name
+     * @param indexName The index name, or null to query the table itself
+     * @param queryConditional The partition and optional sort key condition
+     * @param clazz The class type of the items
+     * @param attributes The attributes to read, or null for all of them
+     * @param <T> The type of the items
+     * @return The matching items
+     */
+    <T> List<T> query(String tableName, String indexName, QueryConditional queryConditional,
+                      Class<T> clazz, List<String> attributes);
+
+    /**
+     * Query a single page of items matching a key condition
+     * @param tableName The table name
+     * @param indexName The index name, or null to query the table itself
+     * @param queryConditional The partition and optional sort key condition
+     * @param pageSize The maximum number of items to evaluate
+     * @param pageToken The continuation token from a previous page, or null for the first page
+     * @param scanIndexForward True for ascending sort key order, false for descending
+     * @param clazz The class type of the items
+     * @param <T> The type of the items
+     * @return The page of items and the token for the next page
+     */
+    <T> QueryPage<T> queryPage(String tableName, String indexName, QueryConditional queryConditional,
+                               int pageSize, String pageToken, boolean scanIndexForward, Class<T> clazz);
+
+    /**
+     * Put an item, replacing any stored item with the same key
+     * @param tableName The table name
+     * @param item The item to put
+     * @param condition The condition the stored item must satisfy, or null
+     * @param <T> The type of the item
+     */
+    <T> void putItem(String tableName, T item, Expression condition);
+
+    /**
+     * Update an item from a copy of it
+     * @param tableName The table name
+     * @param item The item holding the key and the attributes to write
+     * @param ignoreNulls True to keep the stored value of null attributes, false to remove them
+     * @param condition The condition the stored item must satisfy, or null
+     * @param <T> The type of the item
+     * @return The item as stored after the update
+     */
+    <T> T updateItem(String tableName, T item, boolean ignoreNulls, Expression condition);
+
+    /**
+     * Apply an update expression to an item, creating it if it does not exist
+     * @param tableName The table name
+     * @param key The primary key
+     * @param clazz The class type of the item
+     * @param update The update expression with its attribute names and values
+     * @param condition The condition the stored item must satisfy, or null
+     * @param <T> The type of the item
+     * @return The item as stored after the update
+     */
+    <T> T updateItem(String tableName, Key key, Class<T> clazz, Expression update, Expression condition);
+
+    /**
+     * Delete an item
+     * @param tableName The table name
+     * @param key The primary key
+     * @param clazz The class type of the item
+     * @param condition The condition the stored item must satisfy, or null
+     * @param <T> The type of the item
+     * @return The deleted item, or null if it did not exist
+     */
+    <T> T deleteItem(String tableName, Key key, Class<T> clazz, Expression condition);
+
+    /**
+     * Write a set of actions as a single all-or-nothing transaction
+     * @param actions The actions
+     * @param clientRequestToken The idempotency token
+     */
+    void transactWriteItems(List<TransactWriteItem> actions, String clientRequestToken);
+
+    /**
+     * Put many items. Items with the same primary key are written once, with the last of them,
+     * and the report lists every key once.
+     * @param tableName The table name
+     * @param items The items to write
+     * @param clazz The class type of the items
+     * @param <T> The type of the items
+     * @return The per-item outcome of the batch
+     */
+    <T> BatchWriteReport batchWriteItems(String tableName, List<T> items, Class<T> clazz);
+
+    /**
+     * Delete many items. Duplicate keys are deleted once, and the report lists every key once.
+     * @param tableName The table name
+     * @param keys The keys of the items to delete
+     * @param clazz The class type of the items
+     * @param <T> The type of the items
+     * @return The per-item outcome of the batch
+     */
+    <T> BatchWriteReport batchDeleteItems(String tableName, List<Key> keys, Class<T> clazz);
+
+    /**
+     * Release the resources held by the backend, such as pooled connections
+     */
+    void close();
+}
@@ -0,0 +1,548 @@
+package com.shopcart.utils;
+
+import software.amazon.awssdk.enhanced.dynamodb.Expression;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Evaluates DynamoDB condition, key condition and update expressions against attribute maps,
+ * for the in-memory storage backend.
+ * Supports comparisons, {@code BETWEEN}, {@code IN}, {@code AND}/{@code OR}/{@code NOT},
+ * {@code attribute_exists}, {@code attribute_not_exists}, {@code begins_with}, {@code contains}
+ * and {@code size} in conditions, and {@code SET} (with {@code +}, {@code -}, {@code if_not_exists}
+ * and {@code list_append}), {@code REMOVE}, {@code ADD} and {@code DELETE} in updates.
+ * Only top-level attributes can be addressed.
+ */
+final class StorageExpressions {
+
+    private StorageExpressions() {
+    }
+
+    /**
+     * Check whether an item satisfies a condition
+     * @param condition The condition, or null for none
+     * @param item The stored item, or null if it does not exist
+     * @return True if the condition holds
+     */
+    static boolean matches(Expression condition, Map<String, AttributeValue> item) {
+        if (condition == null) {
+            return true;
+        }
+        return matches(condition.expression(), condition.expressionNames(), condition.expressionValues(), item);
+    }
+
+    /**
+     * Check whether an item satisfies a condition expression
+     * @param expression The condition expression, or null for none
+     * @param names The expression attribute names
+     * @param values The expression attribute values
+     * @param item The stored item, or null if it does not exist
+     * @return True if the condition holds
+     * @throws IllegalArgumentException If the expression is malformed
+     */
+    static boolean matches(String expression, Map<String, String> names, Map<String, AttributeValue> values,
+                           Map<String, AttributeValue> item) {
+        if (expression == null || expression.isEmpty()) {
+            return true;
+        }
+        Parser parser = new Parser(expression, names, values, item != null ? item : Map.of());
+        boolean result = parser.condition();
+        parser.expectEnd();
+        return result;
+    }
+
+    /**
+     * Get the value a key condition expression requires an attribute to equal.
+     * Key conditions only combine clauses with {@code AND}, so every equality applies.
+     * @param keyCondition The key condition expression
+     * @param attribute The key attribute name
+     * @return The required value, or null if the expression does not constrain the attribute
+     */
+    static AttributeValue keyValue(Expression keyCondition, String attribute) {
+        Parser parser = new Parser(keyCondition.expression(), keyCondition.expressionNames(),
+                keyCondition.expressionValues(), Map.of());
+        parser.condition();
+        parser.expectEnd();
+        return parser.equalities.get(attribute);
+    }
+
+    /**
+     * Apply an update expression to an item
+     * @param update The update expression
+     * @param item The stored item, or its key if it does not exist
+     * @return The item after the update
+     */
+    static Map<String, AttributeValue> update(Expression update, Map<String, AttributeValue> item) {
+        return update(update.expression(), update.expressionNames(), update.expressionValues(), item);
+    }
+
+    /**
+     * Apply an update expression to an item. Every operand reads the item as it was before the update.
+     * @param expression The update expression
+     * @param names The expression attribute names
+     * @param values The expression attribute values
+     * @param item The stored item, or its key if it does not exist
+     * @return The item after the update
+     * @throws IllegalArgumentException If the expression is malformed or reads a missing attribute
+     */
+    static Map<String, AttributeValue> update(String expression, Map<String, String> names,
+                                              Map<String, AttributeValue> values, Map<String, AttributeValue> item) {
+        Parser parser = new Parser(expression, names, values, item);
+        Map<String, AttributeValue> result = new HashMap<>(item);
+        parser.update(result);
+        return result;
+    }
+
+    /**
+     * Compare two scalar values of the same type: numbers numerically, strings and binaries lexicographically
+     * @param left The first value
+     * @param right The second value
+     * @return A negative number, zero or a positive number as the first value is less than, equal to or greater than the second
+     * @throws IllegalArgumentException If the values are not scalars of the same type
+     */
+    static int compare(AttributeValue left, AttributeValue right) {
+        if (left.n() != null && right.n() != null) {
+            return new BigDecimal(left.n()).compareTo(new BigDecimal(right.n()));
+        }
+        if (left.s() != null && right.s() != null) {
+            return left.s().compareTo(right.s());
+        }
+        if (left.b() != null && right.b() != null) {
+            return Arrays.compareUnsigned(left.b().asByteArrayUnsafe(), right.b().asByteArrayUnsafe());
+        }
+        throw new IllegalArgumentException("Cannot compare " + left + " with " + right);
+    }
+
+    private static boolean comparable(AttributeValue left, AttributeValue right) {
+        return left != null && right != null
+                && ((left.n() != null && right.n() != null)
+                    || (left.s() != null && right.s() != null)
+                    || (left.b() != null && right.b() != null));
+    }
+
+    private static boolean equal(AttributeValue left, AttributeValue right) {
+        if (left == null || right == null) {
+            return false;
+        }
+        return comparable(left, right) ? compare(left, right) == 0 : left.equals(right);
+    }
+
+    private static AttributeValue number(BigDecimal value) {
+        return AttributeValue.builder().n(value.stripTrailingZeros().toPlainString()).build();
+    }
+
+    private static int size(AttributeValue value) {
+        if (value.s() != null) {
+            return value.s().length();
+        }
+        if (value.b() != null) {
+            return value.b().asByteArrayUnsafe().length;
+        }
+        if (value.hasL()) {
+            return value.l().size();
+        }
+        if (value.hasM()) {
+            return value.m().size();
+        }
+        if (value.hasSs()) {
+            return value.ss().size();
+        }
+        if (value.hasNs()) {
+            return value.ns().size();
+        }
+        if (value.hasBs()) {
+            return value.bs().size();
+        }
+        throw new IllegalArgumentException("size() is not defined for " + value);
+    }
+
+    /**
+     * Add a number or the elements of a set to an attribute, as {@code ADD} does
+     */
+    private static AttributeValue add(AttributeValue existing, AttributeValue delta) {
+        if (existing == null) {
+            return delta;
+        }
+        if (existing.n() != null && delta.n() != null) {
+            return number(new BigDecimal(existing.n()).add(new BigDecimal(delta.n())));
+        }
+        if (existing.hasSs() && delta.hasSs()) {
+            Set<String> union = new LinkedHashSet<>(existing.ss());
+            union.addAll(delta.ss());
+            return AttributeValue.builder().ss(union).build();
+        }
+        if (existing.hasNs() && delta.hasNs()) {
+            Set<String> union = new LinkedHashSet<>(existing.ns());
+            union.addAll(delta.ns());
+            return AttributeValue.builder().ns(union).build();
+        }
+        throw new IllegalArgumentException("ADD is not defined for " + existing + " and " + delta);
+    }
+
+    /**
+     * Remove the elements of a set from an attribute, as {@code DELETE} does
+     * @return The remaining set, or null if it is empty
+     */
+    private static AttributeValue subtractSet(AttributeValue existing, AttributeValue delta) {
+        if (existing == null) {
+            return null;
+        }
+        if (existing.hasSs() && delta.hasSs()) {
+            Set<String> remaining = new LinkedHashSet<>(existing.ss());
+            remaining.removeAll(delta.ss());
+            return remaining.isEmpty() ? null : AttributeValue.builder().ss(remaining).build();
+        }
+        if (existing.hasNs() && delta.hasNs()) {
+            Set<String> remaining = new LinkedHashSet<>(existing.ns());
+            remaining.removeAll(delta.ns());
+            return remaining.isEmpty() ? null : AttributeValue.builder().ns(remaining).build();
+        }
+        throw new IllegalArgumentException("DELETE is not defined for " + existing + " and " + delta);
+    }
+
+    private static List<String> tokenize(String expression) {
+        List<String> tokens = new ArrayList<>();
+        int i = 0;
+        while (i < expression.length()) {
+            char c = expression.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '<' || c == '>') {
+                boolean twoChars = i + 1 < expression.length()
+                        && (expression.charAt(i + 1) == '=' || (c == '<' && expression.charAt(i + 1) == '>'));
+                tokens.add(expression.substring(i, twoChars ? i + 2 : i + 1));
+                i += twoChars ? 2 : 1;
+            } else if ("(),=+-".indexOf(c) >= 0) {
+                tokens.add(String.valueOf(c));
+                i++;
+            } else {
+                int start = i;
+                while (i < expression.length() && !Character.isWhitespace(expression.charAt(i))
+                        && "(),=+-<>".indexOf(expression.charAt(i)) < 0) {
+                    i++;
+                }
+                tokens.add(expression.substring(start, i));
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * A resolved operand: the attribute it names, if any, and its value in the item
+     */
+    private record Operand(String attribute, AttributeValue value) {
+    }
+
+    /**
+     * Recursive descent parser that evaluates the expression while it parses it
+     */
+    private static final class Parser {
+        private final List<String> tokens;
+        private final Map<String, String> names;
+        private final Map<String, AttributeValue> values;
+        private final Map<String, AttributeValue> item;
+        private final Map<String, AttributeValue> equalities = new HashMap<>();
+        private int position;
+
+        Parser(String expression, Map<String, String> names, Map<String, AttributeValue> values,
+               Map<String, AttributeValue> item) {
+            this.tokens = tokenize(expression);
+            this.names = names != null ? names : Map.of();
+            this.values = values != null ? values : Map.of();
+            this.item = item;
+        }
+
+        boolean condition() {
+            boolean result = conjunction();
+            while (accept("OR")) {
+                boolean next = conjunction();
+                result = result || next;
+            }
+            return result;
+        }
+
+        private boolean conjunction() {
+            boolean result = negation();
+            while (accept("AND")) {
+                boolean next = negation();
+                result = result && next;
+            }
+            return result;
+        }
+
+        private boolean negation() {
+            if (accept("NOT")) {
+                return !negation();
+            }
+            return predicate();
+        }
+
+        private boolean predicate() {
+            if (accept("(")) {
+                boolean result = condition();
+                expect(")");
+                return result;
+            }
+            if (peekFunction("attribute_exists")) {
+                next();
+                expect("(");
+                String attribute = path();
+                expect(")");
+                return item.containsKey(attribute);
+            }
+            if (peekFunction("attribute_not_exists")) {
+                next();
+                expect("(");
+                String attribute = path();
+                expect(")");
+                return !item.containsKey(attribute);
+            }
+            if (peekFunction("begins_with")) {
+                next();
+                expect("(");
+                AttributeValue value = operand().value();
+                expect(",");
+                AttributeValue prefix = operand().value();
+                expect(")");
+                return value != null && prefix != null && value.s() != null && prefix.s() != null
+                        && value.s().startsWith(prefix.s());
+            }
+            if (peekFunction("contains")) {
+                next();
+                expect("(");
+                AttributeValue value = operand().value();
+                expect(",");
+                AttributeValue element = operand().value();
+                expect(")");
+                return contains(value, element);
+            }
+
+            Operand left = operand();
+            if (accept("BETWEEN")) {
+                AttributeValue low = operand().value();
+                expect("AND");
+                AttributeValue high = operand().value();
+                return comparable(left.value(), low) && comparable(left.value(), high)
+                        && compare(left.value(), low) >= 0 && compare(left.value(), high) <= 0;
+            }
+            if (accept("IN")) {
+                expect("(");
+                boolean found = false;
+                do {
+                    found |= equal(left.value(), operand().value());
+                } while (accept(","));
+                expect(")");
+                return found;
+            }
+
+            String comparator = next();
+            Operand right = operand();
+            switch (comparator) {
+                case "=":
+                    recordEquality(left, right);
+                    return equal(left.value(), right.value());
+                case "<>":
+                    return !equal(left.value(), right.value());
+                case "<":
+                    return comparable(left.value(), right.value()) && compare(left.value(), right.value()) < 0;
+                case "<=":
+                    return comparable(left.value(), right.value()) && compare(left.value(), right.value()) <= 0;
+                case ">":
+                    return comparable(left.value(), right.value()) && compare(left.value(), right.value()) > 0;
+                case ">=":
+                    return comparable(left.value(), right.value()) && compare(left.value(), right.value()) >= 0;
+                default:
+                    throw new IllegalArgumentException("Unsupported comparator: " + comparator);
+            }
+        }
+
+        void update(Map<String, AttributeValue> result) {
+            while (position < tokens.size()) {
+                String clause = next().toUpperCase();
+                switch (clause) {
+                    case "SET":
+                        do {
+                            String attribute = path();
+                            expect("=");
+                            result.put(attribute, setValue());
+                        } while (accept(","));
+                        break;
+                    case "REMOVE":
+                        do {
+                            result.remove(path());
+                        } while (accept(","));
+                        break;
+                    case "ADD":
+                        do {
+                            String attribute = path();
+                            result.put(attribute, add(item.get(attribute), required(operand())));
+                        } while (accept(","));
+                        break;
+                    case "DELETE":
+                        do {
+                            String attribute = path();
+                            AttributeValue remaining = subtractSet(item.get(attribute), required(operand()));
+                            if (remaining != null) {
+                                result.put(attribute, remaining);
+                            } else {
+                                result.remove(attribute);
+                            }
+                        } while (accept(","));
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unsupported update clause: " + clause);
+                }
+            }
+        }
+
+        private AttributeValue setValue() {
+            AttributeValue left = setOperand();
+            if (accept("+")) {
+                AttributeValue right = setOperand();
+                return number(new BigDecimal(left.n()).add(new BigDecimal(right.n())));
+            }
+            if (accept("-")) {
+                AttributeValue right = setOperand();
+                return number(new BigDecimal(left.n()).subtract(new BigDecimal(right.n())));
+            }
+            return left;
+        }
+
+        private AttributeValue setOperand() {
+            if (peekFunction("if_not_exists")) {
+                next();
+                expect("(");
+                String attribute = path();
+                expect(",");
+                AttributeValue fallback = required(operand());
+                expect(")");
+                return item.containsKey(attribute) ? item.get(attribute) : fallback;
+            }
+            if (peekFunction("list_append")) {
+                next();
+                expect("(");
+                AttributeValue first = required(operand());
+                expect(",");
+                AttributeValue second = required(operand());
+                expect(")");
+                List<AttributeValue> list = new ArrayList<>(first.l());
+                list.addAll(second.l());
+                return AttributeValue.builder().l(list).build();
+            }
+            return required(operand());
+        }
+
+        private Operand operand() {
+            if (peekFunction("size")) {
+                next();
+                expect("(");
+                AttributeValue value = operand().value();
+                expect(")");
+                return new Operand(null, value != null ? number(BigDecimal.valueOf(size(value))) : null);
+            }
+            String token = next();
+            if (token.startsWith(":")) {
+                AttributeValue value = values.get(token);
+                if (value == null) {
+                    throw new IllegalArgumentException("Undefined expression attribute value: " + token);
+                }
+                return new Operand(null, value);
+            }
+            String attribute = resolve(token);
+            return new Operand(attribute, item.get(attribute));
+        }
+
+        private String path() {
+            return resolve(next());
+        }
+
+        private String resolve(String token) {
+            if (token.startsWith("#")) {
+                String name = names.get(token);
+                if (name == null) {
+                    throw new IllegalArgumentException("Undefined expression attribute name: " + token);
+                }
+                return name;
+            }
+            return token;
+        }
+
+        private AttributeValue required(Operand operand) {
+            if (operand.value() == null) {
+                throw new IllegalArgumentException("The expression refers to an attribute that does not exist in the item: "
+                        + operand.attribute());
+            }
+            return operand.value();
+        }
+
+        private void recordEquality(Operand left, Operand right) {
+            if (left.attribute() != null && right.attribute() == null && right.value() != null) {
+                equalities.put(left.attribute(), right.value());
+            } else if (right.attribute() != null && left.attribute() == null && left.value() != null) {
+                equalities.put(right.attribute(), left.value());
+            }
+        }
+
+        private boolean contains(AttributeValue value, AttributeValue element) {
+            if (value == null || element == null) {
+                return false;
+            }
+            if (value.s() != null && element.s() != null) {
+                return value.s().contains(element.s());
+            }
+            if (value.hasSs() && element.s() != null) {
+                return value.ss().contains(element.s());
+            }
+            if (value.hasNs() && element.n() != null) {
+                return value.ns().stream().anyMatch(n -> equal(AttributeValue.builder().n(n).build(), element));
+            }
+            if (value.hasL()) {
+                return value.l().stream().anyMatch(member -> equal(member, element));
+            }
+            return false;
+        }
+
+        private boolean peekFunction(String function) {
+            return position + 1 < tokens.size()
+                    && tokens.get(position).equalsIgnoreCase(function)
+                    && tokens.get(position + 1).equals("(");
+        }
+
+        private boolean accept(String token) {
+            if (position < tokens.size() && tokens.get(position).equalsIgnoreCase(token)) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        private void expect(String token) {
+            if (!accept(token)) {
+                throw new IllegalArgumentException("Expected '" + token + "' at token " + position
+                        + " of expression " + String.join(" ", tokens));
+            }
+        }
+
+        private String next() {
+            if (position >= tokens.size()) {
+                throw new IllegalArgumentException("Unexpected end of expression " + String.join(" ", tokens));
+            }
+            return tokens.get(position++);
+        }
+
+        void expectEnd() {
+            if (position != tokens.size()) {
+                throw new IllegalArgumentException("Unexpected token '" + tokens.get(position)
+                        + "' in expression " + String.join(" ", tokens));
+            }
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.shopcart.utils;
+
+import com.shopcart.models.Cart;
+import com.shopcart.models.CartItem;
+import com.shopcart.models.Category;
+import com.shopcart.models.Customer;
+import com.shopcart.models.Order;
+import com.shopcart.models.OrderItem;
+import com.shopcart.models.Product;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbAsyncTable;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedAsyncClient;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Registry of precomputed table schemas and table handles.
+ * Bean schemas are introspected once per model class and table handles are
+ * built once per (table name, model class), so requests never pay for reflection.
+ */
+public class TableRegistry {
+    private static final Logger logger = LoggerFactory.getLogger(TableRegistry.class);
+
+    private static final List<Class<?>> MODEL_CLASSES = List.of(
+            Product.class, Cart.class, CartItem.class, Order.class,
+            OrderItem.class, Customer.class, Category.class);
+
+    private static final Map<String, Class<?>> TABLE_ENVIRONMENT = tableEnvironment();
+
+    private static final ConcurrentMap<Class<?>, TableSchema<?>> schemas = new ConcurrentHashMap<>();
+
+    static {
+        for (Class<?> clazz : MODEL_CLASSES) {
+            schemas.put(clazz, TableSchema.fromBean(clazz));
+        }
+    }
+
+    private final DynamoDbEnhancedClient enhancedClient;
+    private final DynamoDbEnhancedAsyncClient enhancedAsyncClient;
+    private final ConcurrentMap<TableKey, DynamoDbTable<?>> tables = new ConcurrentHashMap<>();
+    private final ConcurrentMap<TableKey, DynamoDbAsyncTable<?>> asyncTables = new ConcurrentHashMap<>();
+
+    /**
+     * Create a registry that builds table handles with the given client.
+     * It has no asynchronous table handles.
+     * @param enhancedClient The DynamoDB enhanced client
+     */
+    public TableRegistry(DynamoDbEnhancedClient enhancedClient) {
+        this.enhancedClient = enhancedClient;
+        this.enhancedAsyncClient = null;
+    }
+
+    /**
+     * Create a registry that builds asynchronous table handles with the given client.
+     * It has no synchronous table handles.
+     * @param enhancedAsyncClient The DynamoDB enhanced async client
+     */
+    public TableRegistry(DynamoDbEnhancedAsyncClient enhancedAsyncClient) {
+        this.enhancedClient = null;
+        this.enhancedAsyncClient = enhancedAsyncClient;
+    }
+
+    /**
+     * Get the table schema for a model class
+     * @param clazz The model class
+     * @param <T> The model type
+     * @return The cached table schema
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> TableSchema<T> schema(Class<T> clazz) {
+        return (TableSchema<T>) schemas.computeIfAbsent(clazz, TableSchema::fromBean);
+    }
+
+    /**
+     * Get every model class that is stored in a table
+     * @return The model classes
+     */
+    public static List<Class<?>> modelClasses() {
+        return MODEL_CLASSES;
+    }
+
+    /**
+     * Get the table names configured through the Lambda environment, with their model classes
+     * @return Configured table names mapped to model classes
+     */
+    public static Map<String, Class<?>> configuredTables() {
+        Map<String, Class<?>> configured = new LinkedHashMap<>();
+        for (Map.Entry<String, Class<?>> entry : TABLE_ENVIRONMENT.entrySet()) {
+            String tableName = System.getenv(entry.getKey());
+            if (tableName != null && !tableName.isEmpty()) {
+                configured.put(tableName, entry.getValue());
+            }
+        }
+        return configured;
+    }
+
+    /**
+     * Get the table handle for a table name and model class
+     * @param tableName The DynamoDB table name
+     * @param clazz The model class
+     * @param <T> The model type
+     * @return The cached table handle
+     * @throws IllegalStateException If the registry was created with an async client
+     */
+    @SuppressWarnings("unchecked")
+    public <T> DynamoDbTable<T> table(String tableName, Class<T> clazz) {
+        if (enhancedClient == null) {
+            throw new IllegalStateException("This table registry was created with an async client; use asyncTable");
+        }
+        return (DynamoDbTable<T>) tables.computeIfAbsent(new TableKey(tableName, clazz),
+                key -> enhancedClient.table(tableName, schema(clazz)));
+    }
+
+    /**
+     * Get the asynchronous table handle for a table name and model class
+     * @param tableName The DynamoDB table name
+     * @param clazz The model class
+     * @param <T> The model type
+     * @return The cached asynchronous table handle
+     * @throws IllegalStateException If the registry was created with a synchronous client
+     */
+    @SuppressWarnings("unchecked")
+    public <T> DynamoDbAsyncTable<T> asyncTable(String tableName, Class<T> clazz) {
+        if (enhancedAsyncClient == null) {
+            throw new IllegalStateException("This table registry was created with a synchronous client; use table");
+        }
+        return (DynamoDbAsyncTable<T>) asyncTables.computeIfAbsent(new TableKey(tableName, clazz),
+                key -> enhancedAsyncClient.table(tableName, schema(clazz)));
+    }
+
+    /**
+     * Build the table handles for every table configured in the environment.
+     * Intended to be called during function initialization.
+     */
+    public void warmUp() {
+        Map<String, Class<?>> configured = configuredTables();
+        for (Map.Entry<String, Class<?>> entry : configured.entrySet()) {
+            if (enhancedClient != null) {
+                table(entry.getKey(), entry.getValue());
+            } else {
+                asyncTable(entry.getKey(), entry.getValue());
+            }
+        }
+        logger.info("Warmed up {} table schemas and {} table handles", schemas.size(), configured.size());
+    }
+
+    private static Map<String, Class<?>> tableEnvironment() {
+        Map<String, Class<?>> environment = new LinkedHashMap<>();
+        environment.put("PRODUCTS_TABLE", Product.class);
+        environment.put("CARTS_TABLE", Cart.class);
+        environment.put("CART_ITEMS_TABLE", CartItem.class);
+        environment.put("ORDERS_TABLE", Order.class);
+        environment.put("ORDER_ITEMS_TABLE", OrderItem.class);
+        environment.put("CUSTOMERS_TABLE", Customer.class);
+        environment.put("CATEGORIES_TABLE", Category.class);
+        return environment;
+    }
+
+    private record TableKey(String tableName, Class<?> modelClass) {
+    }
+}
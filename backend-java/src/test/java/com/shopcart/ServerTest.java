@@ -0,0 +1,91 @@
+package com.shopcart;
+
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.shopcart.utils.Router;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ServerTest {
+    private Server server;
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        Router router = new Router()
+                .add("POST", "/carts/{cartId}/items", () -> (input, context) -> new APIGatewayProxyResponseEvent()
+                        .withStatusCode(201)
+                        .withHeaders(Map.of("Content-Type", "application/json"))
+                        .withBody(input.getPathParameters().get("cartId") + "|"
+                                + input.getQueryStringParameters().get("limit") + "|"
+                                + input.getHeaders().get("X-trace") + "|"
+                                + input.getBody()))
+                .add("DELETE", "/carts/{cartId}", () -> (input, context) -> new APIGatewayProxyResponseEvent()
+                        .withStatusCode(204))
+                .add("GET", "/fail", () -> (input, context) -> {
+                    throw new IllegalStateException("boom");
+                });
+        server = new Server(router, 0);
+        server.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.stop();
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + server.port() + path));
+    }
+
+    @Test
+    public void testRequest_IsAdaptedToProxyEvent() throws Exception {
+        HttpResponse<String> response = client.send(request("/carts/c-1/items?limit=5&x=a%20b")
+                .header("X-Trace", "t-1")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"quantity\":2}"))
+                .build(), HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(201, response.statusCode());
+        assertEquals("application/json", response.headers().firstValue("Content-Type").orElse(null));
+        assertEquals("c-1|5|t-1|{\"quantity\":2}", response.body());
+    }
+
+    @Test
+    public void testResponse_NoContentHasNoBody() throws Exception {
+        HttpResponse<String> response = client.send(request("/carts/c-1").DELETE().build(),
+                HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(204, response.statusCode());
+        assertEquals("", response.body());
+    }
+
+    @Test
+    public void testResponse_HandlerFailureIsServerError() throws Exception {
+        HttpResponse<String> response = client.send(request("/fail").GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(500, response.statusCode());
+        assertTrue(response.body().contains("boom"));
+    }
+
+    @Test
+    public void testParseQuery_KeepsRepeatedParameters() {
+        Map<String, List<String>> query = Server.parseQuery("tag=a&tag=b&q=x+y&empty");
+
+        assertEquals(List.of("a", "b"), query.get("tag"));
+        assertEquals(List.of("x y"), query.get("q"));
+        assertEquals(List.of(""), query.get("empty"));
+        assertNull(Server.parseQuery(""));
+    }
+}
@@ -0,0 +1,52 @@
+package com.shopcart.requests;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class RequestParsingTest {
+
+    @Test
+    public void testAddCartItem_AcceptsIntegralDecimalAndSkipsUnknownFields() {
+        AddCartItemRequest request = AddCartItemRequest.parse(
+                "{\"note\":{\"a\":[1,2]},\"productId\":\"p-1\",\"quantity\":2.0}");
+
+        assertEquals(new AddCartItemRequest("p-1", 2), request);
+    }
+
+    @Test
+    public void testAddCartItem_RejectsFractionalQuantity() {
+        InvalidRequestException e = assertThrows(InvalidRequestException.class, () ->
+                AddCartItemRequest.parse("{\"productId\":\"p-1\",\"quantity\":1.5}"));
+
+        assertEquals("Field 'quantity' must be a whole number", e.getMessage());
+    }
+
+    @Test
+    public void testUpdateCartItem_MissingQuantityIsRejected() {
+        InvalidRequestException e = assertThrows(InvalidRequestException.class, () ->
+                UpdateCartItemRequest.parse("{}"));
+
+        assertEquals("Quantity must be greater than or equal to 0", e.getMessage());
+        assertEquals(0, UpdateCartItemRequest.parse("{\"quantity\":0}").quantity());
+    }
+
+    @Test
+    public void testCreateOrder_ReportsFirstMissingField() {
+        InvalidRequestException e = assertThrows(InvalidRequestException.class, () ->
+                CreateOrderRequest.parse("{\"cartId\":\"c-1\",\"customerId\":\"u-1\",\"paymentMethod\":\"card\"}"));
+
+        assertEquals("Shipping address is required", e.getMessage());
+    }
+
+    @Test
+    public void testParse_RejectsMalformedAndMistypedBodies() {
+        assertEquals("Request body is not valid JSON", assertThrows(InvalidRequestException.class, () ->
+                LoginRequest.parse("{\"email\":\"a@b.c\",")).getMessage());
+        assertEquals("Request body must be a JSON object", assertThrows(InvalidRequestException.class, () ->
+                LoginRequest.parse("[]")).getMessage());
+        assertEquals("Field 'status' must be a string", assertThrows(InvalidRequestException.class, () ->
+                OrderStatusRequest.parse("{\"status\":1}")).getMessage());
+    }
+}
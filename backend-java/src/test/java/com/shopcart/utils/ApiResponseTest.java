@@ -0,0 +1,75 @@
+package com.shopcart.utils;
+
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class ApiResponseTest {
+
+    @Test
+    public void testError_EscapesMessageLikeObjectMapper() throws Exception {
+        String message = "Product \"p-1\" not found\n\\ \u0001";
+
+        APIGatewayProxyResponseEvent response = ApiResponse.notFound(message);
+
+        assertEquals(404, response.getStatusCode());
+        assertEquals(new ObjectMapper().writeValueAsString(Map.of("error", message)), response.getBody());
+    }
+
+    @Test
+    public void testHeaders_SharedUnlessExtended() {
+        APIGatewayProxyResponseEvent plain = ApiResponse.badRequest("Request body is required");
+        APIGatewayProxyResponseEvent other = ApiResponse.success(Map.of("ok", true));
+        APIGatewayProxyResponseEvent extended = ApiResponse.success("{}", Map.of("X-Next-Token", "t"));
+
+        assertSame(plain.getHeaders(), other.getHeaders());
+        assertEquals("{\"error\":\"Request body is required\"}", plain.getBody());
+        assertEquals("application/json", extended.getHeaders().get("Content-Type"));
+        assertEquals("t", extended.getHeaders().get("X-Next-Token"));
+    }
+
+    @Test
+    public void testSuccessIfModified_MatchingETagInAnyHeaderCaseReturns304() {
+        EntityTag tag = EntityTag.forResource().add("p-1", "2024-05-01T10:00:00.5Z");
+        APIGatewayProxyResponseEvent first = ApiResponse.successIfModified(new APIGatewayProxyRequestEvent(), "{}", tag);
+
+        APIGatewayProxyResponseEvent second = ApiResponse.successIfModified(new APIGatewayProxyRequestEvent()
+                .withHeaders(Map.of("if-none-match", "W/" + first.getHeaders().get("ETag"))), "{}",
+                EntityTag.forResource().add("p-1", "2024-05-01T10:00:00.5Z"));
+
+        assertEquals(200, first.getStatusCode());
+        assertEquals("Wed, 1 May 2024 10:00:00 GMT", first.getHeaders().get("Last-Modified"));
+        assertEquals(304, second.getStatusCode());
+        assertNull(second.getBody());
+    }
+
+    @Test
+    public void testSuccessIfModified_IfModifiedSinceComparesWholeSeconds() {
+        APIGatewayProxyRequestEvent request = new APIGatewayProxyRequestEvent()
+                .withHeaders(Map.of("If-Modified-Since", "Wed, 01 May 2024 10:00:00 GMT"));
+
+        assertEquals(304, ApiResponse.successIfModified(request, "{}",
+                EntityTag.forResource().add("c-1", "2024-05-01T10:00:00.900Z")).getStatusCode());
+        assertEquals(200, ApiResponse.successIfModified(request, "{}",
+                EntityTag.forResource().add("c-1", "2024-05-01T10:00:01Z")).getStatusCode());
+    }
+
+    @Test
+    public void testSuccessIfModified_UnversionedItemsFallBackToBodyHash() {
+        APIGatewayProxyResponseEvent a = ApiResponse.successIfModified(new APIGatewayProxyRequestEvent(),
+                Map.of("name", "a"), EntityTag.forCollection().add("x", null));
+        APIGatewayProxyResponseEvent b = ApiResponse.successIfModified(new APIGatewayProxyRequestEvent(),
+                Map.of("name", "b"), EntityTag.forCollection().add("x", null));
+
+        assertNotEquals(a.getHeaders().get("ETag"), b.getHeaders().get("ETag"));
+        assertNull(a.getHeaders().get("Last-Modified"));
+    }
+}
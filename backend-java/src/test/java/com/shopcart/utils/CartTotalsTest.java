@@ -0,0 +1,71 @@
+package com.shopcart.utils;
+
+import com.shopcart.models.CartItem;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.enhanced.dynamodb.Expression;
+import software.amazon.awssdk.services.dynamodb.model.CancellationReason;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class CartTotalsTest {
+
+    @Test
+    public void testDelta_AddedLine() {
+        Expression delta = CartTotals.delta(null, line(3, 29.97), "2024-01-01T00:00:00Z");
+
+        assertEquals("29.97", delta.expressionValues().get(":priceDelta").n());
+        assertEquals("3", delta.expressionValues().get(":itemsDelta").n());
+        assertEquals("2024-01-01T00:00:00Z", delta.expressionValues().get(":updatedAt").s());
+    }
+
+    @Test
+    public void testDelta_ChangedLineIsExactDecimal() {
+        Expression delta = CartTotals.delta(line(1, 0.1), line(3, 0.3), "2024-01-01T00:00:00Z");
+
+        assertEquals("0.2", delta.expressionValues().get(":priceDelta").n());
+        assertEquals("2", delta.expressionValues().get(":itemsDelta").n());
+    }
+
+    @Test
+    public void testDelta_RemovedLine() {
+        Expression delta = CartTotals.delta(line(2, 19.98), null, "2024-01-01T00:00:00Z");
+
+        assertEquals("-19.98", delta.expressionValues().get(":priceDelta").n());
+        assertEquals("-2", delta.expressionValues().get(":itemsDelta").n());
+    }
+
+    @Test
+    public void testUnchangedSince_ExistingLineChecksQuantity() {
+        Expression condition = CartTotals.unchangedSince(line(4, 39.96));
+
+        assertEquals("#quantity = :quantity", condition.expression());
+        assertEquals("4", condition.expressionValues().get(":quantity").n());
+    }
+
+    @Test
+    public void testOutcome_MapsCancellationReasons() {
+        assertEquals(CartTotals.Outcome.CART_NOT_FOUND,
+                CartTotals.outcome(List.of(reason("None"), reason("ConditionalCheckFailed"))));
+        assertEquals(CartTotals.Outcome.LINE_CHANGED,
+                CartTotals.outcome(List.of(reason("ConditionalCheckFailed"), reason("None"))));
+        assertEquals(CartTotals.Outcome.LINE_CHANGED,
+                CartTotals.outcome(List.of(reason("TransactionConflict"), reason("None"))));
+        assertNull(CartTotals.outcome(List.of(reason("ValidationError"), reason("None"))));
+    }
+
+    private CancellationReason reason(String code) {
+        return CancellationReason.builder().code(code).build();
+    }
+
+    private CartItem line(int quantity, double totalPrice) {
+        CartItem item = new CartItem();
+        item.setCartId("cart-1");
+        item.setProductId("product-1");
+        item.setQuantity(quantity);
+        item.setTotalPrice(totalPrice);
+        return item;
+    }
+}
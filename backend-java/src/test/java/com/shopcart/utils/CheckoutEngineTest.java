@@ -0,0 +1,51 @@
+package com.shopcart.utils;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.dynamodb.model.CancellationReason;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CheckoutEngineTest {
+
+    @Test
+    public void testChunk_FitsTransactionLimit() {
+        assertTrue(CheckoutEngine.LINES_PER_CHUNK * 3 + 2 <= DynamoDBUtil.TRANSACT_WRITE_LIMIT);
+    }
+
+    @Test
+    public void testConditionFailure_MapsFailedActionToReason() {
+        CheckoutException outOfStock = new CheckoutException(CheckoutException.Reason.OUT_OF_STOCK, "p-2", "out of stock");
+        List<CancellationReason> reasons = List.of(reason("None"), reason("ConditionalCheckFailed"), reason("None"));
+
+        CheckoutException failure = CheckoutEngine.conditionFailure(reasons, Arrays.asList(null, outOfStock, null));
+
+        assertSame(outOfStock, failure);
+        assertEquals("p-2", failure.getProductId());
+    }
+
+    @Test
+    public void testConditionFailure_ConflictIsRetryable() {
+        List<CancellationReason> reasons = List.of(reason("TransactionConflict"), reason("None"));
+
+        assertNull(CheckoutEngine.conditionFailure(reasons, Arrays.asList(null, null)));
+    }
+
+    @Test
+    public void testRetry_OnlyContentionIsRetried() {
+        assertTrue(Backoff.isRetryable(List.of(reason("TransactionConflict"), reason("None"))));
+        assertTrue(Backoff.isRetryable(List.of(reason("None"), reason("ThrottlingError"))));
+        assertFalse(Backoff.isRetryable(List.of(reason("ValidationError"), reason("None"))));
+        assertFalse(Backoff.isRetryable(List.of(reason("TransactionConflict"), reason("ItemCollectionSizeLimitExceeded"))));
+    }
+
+    private CancellationReason reason(String code) {
+        return CancellationReason.builder().code(code).build();
+    }
+}
@@ -0,0 +1,36 @@
+package com.shopcart.utils;
+
+import com.shopcart.models.Cart;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DynamoDBUtilTest {
+
+    @BeforeEach
+    public void setUp() {
+        DynamoDBUtil.useStorage(new InMemoryStorage());
+    }
+
+    @Test
+    public void testItemExists_ReportsWhetherTheKeyIsStored() {
+        Cart cart = new Cart();
+        cart.setCartId("cart-1");
+        DynamoDBUtil.putItem("Carts", cart);
+
+        assertTrue(DynamoDBUtil.itemExists("Carts", "cartId", "cart-1", Cart.class));
+        assertFalse(DynamoDBUtil.itemExists("Carts", "cartId", "cart-2", Cart.class));
+    }
+
+    @Test
+    public void testItemExists_FalseAfterDelete() {
+        Cart cart = new Cart();
+        cart.setCartId("cart-1");
+        DynamoDBUtil.putItem("Carts", cart);
+        DynamoDBUtil.deleteItem("Carts", "cartId", "cart-1", Cart.class);
+
+        assertFalse(DynamoDBUtil.itemExists("Carts", "cartId", "cart-1", Cart.class));
+    }
+}
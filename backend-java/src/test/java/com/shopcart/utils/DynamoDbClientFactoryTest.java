@@ -0,0 +1,56 @@
+package com.shopcart.utils;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.auth.credentials.EnvironmentVariableCredentialsProvider;
+import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
+import software.amazon.awssdk.http.SdkHttpClient;
+import software.amazon.awssdk.regions.Region;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DynamoDbClientFactoryTest {
+
+    @Test
+    public void testRegionAndCredentials_TakenFromEnvironment() {
+        DynamoDbClientFactory factory = new DynamoDbClientFactory(Map.of(
+                "AWS_REGION", "eu-west-1",
+                "AWS_ACCESS_KEY_ID", "key"));
+
+        assertEquals(Region.EU_WEST_1, factory.region());
+        assertInstanceOf(EnvironmentVariableCredentialsProvider.class, factory.credentialsProvider());
+        assertNull(new DynamoDbClientFactory(Map.of()).region());
+    }
+
+    @Test
+    public void testTimeouts_DefaultsAndOverrides() {
+        ClientOverrideConfiguration defaults = new DynamoDbClientFactory(Map.of()).overrideConfiguration();
+        ClientOverrideConfiguration tuned = new DynamoDbClientFactory(Map.of(
+                DynamoDbClientFactory.API_CALL_TIMEOUT_MILLIS, "1500",
+                DynamoDbClientFactory.API_CALL_ATTEMPT_TIMEOUT_MILLIS, "not-a-number")).overrideConfiguration();
+
+        assertEquals(Duration.ofSeconds(10), defaults.apiCallTimeout().get());
+        assertEquals(Duration.ofMillis(1500), tuned.apiCallTimeout().get());
+        assertEquals(Duration.ofSeconds(3), tuned.apiCallAttemptTimeout().get());
+    }
+
+    @Test
+    public void testHttpClient_SelectsTransport() {
+        DynamoDbClientFactory factory = new DynamoDbClientFactory(Map.of(
+                DynamoDbClientFactory.MAX_CONNECTIONS, "10",
+                DynamoDbClientFactory.CONNECTION_TTL_MILLIS, "60000"));
+
+        try (SdkHttpClient urlConnection = factory.httpClientBuilder("urlconnection").build();
+             SdkHttpClient apache = factory.httpClientBuilder("apache").build()) {
+            assertTrue(urlConnection.clientName().contains("UrlConnection"));
+            assertTrue(apache.clientName().contains("Apache"));
+        }
+        assertThrows(IllegalArgumentException.class, () -> factory.httpClientBuilder("crt"));
+    }
+}
@@ -0,0 +1,142 @@
+package com.shopcart.utils;
+
+import com.shopcart.models.Product;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.GetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.KeysAndAttributes;
+import software.amazon.awssdk.services.dynamodb.model.WriteRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class DynamoDbStorageTest {
+
+    @Test
+    public void testBatchWriteItems_DuplicateKeysKeepLastWrite() {
+        DynamoDbClient client = mock(DynamoDbClient.class);
+        List<BatchWriteItemRequest> sent = new ArrayList<>();
+        when(client.batchWriteItem(any(BatchWriteItemRequest.class))).thenAnswer(invocation -> {
+            sent.add(invocation.getArgument(0));
+            return BatchWriteItemResponse.builder().build();
+        });
+        DynamoDbStorage storage = new DynamoDbStorage(client);
+
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            products.add(product("p-" + (i % 20), i));
+        }
+        BatchWriteReport report = storage.batchWriteItems("Products", products, Product.class);
+
+        List<WriteRequest> requests = sent.stream()
+                .flatMap(request -> request.requestItems().get("Products").stream())
+                .collect(Collectors.toList());
+        assertEquals(1, sent.size());
+        assertEquals(20, requests.size());
+        assertTrue(requests.stream().anyMatch(request ->
+                "p-0".equals(request.putRequest().item().get("productId").s())
+                        && "20".equals(request.putRequest().item().get("stock").n())));
+        assertTrue(report.isComplete());
+        assertEquals(20, report.getWrittenKeys().size());
+    }
+
+    @Test
+    public void testBatchGetItems_ChunksKeysAndRetriesUnprocessedKeys() {
+        DynamoDbClient client = mock(DynamoDbClient.class);
+        List<Integer> chunkSizes = new ArrayList<>();
+        when(client.batchGetItem(any(BatchGetItemRequest.class))).thenAnswer(invocation -> {
+            List<Map<String, AttributeValue>> keys =
+                    invocation.<BatchGetItemRequest>getArgument(0).requestItems().get("Products").keys();
+            chunkSizes.add(keys.size());
+            // The first request leaves its last key unprocessed
+            boolean throttled = chunkSizes.size() == 1;
+            List<Map<String, AttributeValue>> found = keys.subList(0, throttled ? keys.size() - 1 : keys.size());
+            BatchGetItemResponse.Builder response = BatchGetItemResponse.builder()
+                    .responses(Map.of("Products", found));
+            if (throttled) {
+                response.unprocessedKeys(Map.of("Products", KeysAndAttributes.builder()
+                        .keys(keys.get(keys.size() - 1)).build()));
+            }
+            return response.build();
+        });
+        DynamoDbStorage storage = new DynamoDbStorage(client);
+
+        List<Key> keys = new ArrayList<>();
+        for (int i = 0; i < 150; i++) {
+            keys.add(Key.builder().partitionValue("p-" + (i % 120)).build());
+        }
+        Map<Key, Product> products = storage.batchGetItems("Products", keys, Product.class);
+
+        assertEquals(List.of(100, 1, 20), chunkSizes);
+        assertEquals(120, products.size());
+        assertEquals("p-99", products.get(Key.builder().partitionValue("p-99").build()).getProductId());
+    }
+
+    @Test
+    public void testGetItem_SendsConsistentReadFlag() {
+        DynamoDbClient client = mock(DynamoDbClient.class);
+        List<GetItemRequest> sent = new ArrayList<>();
+        when(client.getItem(any(GetItemRequest.class))).thenAnswer(invocation -> {
+            sent.add(invocation.getArgument(0));
+            return GetItemResponse.builder().build();
+        });
+        DynamoDbStorage storage = new DynamoDbStorage(client);
+
+        assertNull(storage.getItem("Products", Key.builder().partitionValue("p-1").build(), Product.class, true));
+        storage.getItem("Products", Key.builder().partitionValue("p-1").build(), Product.class, false);
+
+        assertEquals(2, sent.size());
+        assertTrue(sent.get(0).consistentRead());
+        assertFalse(sent.get(1).consistentRead());
+    }
+
+    @Test
+    public void testAsyncTableRegistry_CreatesClientOnFirstUseAndClosesIt() {
+        DynamoDbAsyncClient asyncClient = mock(DynamoDbAsyncClient.class);
+        AtomicInteger created = new AtomicInteger();
+        DynamoDbStorage storage = new DynamoDbStorage(mock(DynamoDbClient.class), () -> {
+            created.incrementAndGet();
+            return asyncClient;
+        });
+
+        assertEquals(0, created.get());
+        assertSame(storage.asyncTableRegistry(), storage.asyncTableRegistry());
+        assertEquals(1, created.get());
+
+        storage.close();
+        verify(asyncClient).close();
+    }
+
+    @Test
+    public void testAsyncTableRegistry_AbsentWithoutAsyncClient() {
+        assertNull(new DynamoDbStorage(mock(DynamoDbClient.class)).asyncTableRegistry());
+    }
+
+    private Product product(String productId, int stock) {
+        Product product = new Product();
+        product.setProductId(productId);
+        product.setStock(stock);
+        return product;
+    }
+}
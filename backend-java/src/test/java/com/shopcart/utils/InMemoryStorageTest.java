@@ -0,0 +1,166 @@
+package com.shopcart.utils;
+
+import com.shopcart.models.CartItem;
+import com.shopcart.models.Product;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.enhanced.dynamodb.Expression;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.TransactionCanceledException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class InMemoryStorageTest {
+    private final InMemoryStorage storage = new InMemoryStorage();
+
+    @Test
+    public void testPutItem_ConditionNotMetThrows() {
+        storage.putItem("Products", product("p-1", "c-1", 5), null);
+
+        assertThrows(ConditionalCheckFailedException.class, () ->
+                storage.putItem("Products", product("p-1", "c-1", 9), DynamoDBUtil.attributeNotExists("productId")));
+        assertEquals(5, storage.getItem("Products", key("p-1"), Product.class, false).getStock());
+    }
+
+    @Test
+    public void testGetPartialItem_ExistingItemWithoutAttributesIsPresent() {
+        storage.putItem("Products", product("p-1", "c-1", 5), null);
+
+        Optional<Product> projected = storage.getPartialItem("Products", key("p-1"), Product.class, List.of("imageUrl"));
+
+        assertTrue(projected.isPresent());
+        assertNull(projected.get().getStock());
+        assertFalse(storage.getPartialItem("Products", key("p-2"), Product.class, List.of("imageUrl")).isPresent());
+    }
+
+    @Test
+    public void testQuery_FollowsIndexKeyChanges() {
+        storage.putItem("Products", product("p-1", "c-1", 5), null);
+        storage.putItem("Products", product("p-2", "c-1", 5), null);
+        storage.updateItem("Products", product("p-2", "c-2", 5), true, null);
+
+        assertEquals(List.of("p-1"), productIds(storage.query("Products", "CategoryIndex",
+                QueryConditional.keyEqualTo(key("c-1")), Product.class, null)));
+        assertEquals(List.of("p-2"), productIds(storage.query("Products", "CategoryIndex",
+                QueryConditional.keyEqualTo(key("c-2")), Product.class, null)));
+    }
+
+    @Test
+    public void testQueryPage_ResumesAfterToken() {
+        for (String productId : List.of("p-3", "p-1", "p-4", "p-2")) {
+            CartItem item = new CartItem();
+            item.setCartId("cart-1");
+            item.setProductId(productId);
+            storage.putItem("CartItems", item, null);
+        }
+
+        List<String> seen = new ArrayList<>();
+        String token = null;
+        do {
+            QueryPage<CartItem> page = storage.queryPage("CartItems", null,
+                    QueryConditional.keyEqualTo(key("cart-1")), 3, token, true, CartItem.class);
+            page.getItems().forEach(item -> seen.add(item.getProductId()));
+            token = page.getNextToken();
+        } while (token != null);
+
+        assertEquals(List.of("p-1", "p-2", "p-3", "p-4"), seen);
+    }
+
+    @Test
+    public void testScanPage_VisitsEveryItemOnce() {
+        for (String productId : List.of("p-3", "p-1", "p-5", "p-2", "p-4")) {
+            storage.putItem("Products", product(productId, "c-1", 1), null);
+        }
+
+        List<String> seen = new ArrayList<>();
+        String token = null;
+        do {
+            QueryPage<Product> page = storage.scanPage("Products", 2, token, Product.class);
+            seen.addAll(productIds(page.getItems()));
+            token = page.getNextToken();
+        } while (token != null);
+
+        assertEquals(List.of("p-1", "p-2", "p-3", "p-4", "p-5"), seen);
+    }
+
+    @Test
+    public void testUpdateItem_AppliesExpressionWhenConditionHolds() {
+        storage.putItem("Products", product("p-1", "c-1", 5), null);
+
+        Product updated = storage.updateItem("Products", key("p-1"), Product.class, decrement(2), inStock(2));
+
+        assertEquals(3, updated.getStock());
+        assertThrows(ConditionalCheckFailedException.class, () ->
+                storage.updateItem("Products", key("p-1"), Product.class, decrement(4), inStock(4)));
+    }
+
+    @Test
+    public void testTransactWriteItems_CancelledTransactionWritesNothing() {
+        storage.putItem("Products", product("p-1", "c-1", 5), null);
+        storage.putItem("Products", product("p-2", "c-1", 1), null);
+
+        TransactionCanceledException e = assertThrows(TransactionCanceledException.class, () ->
+                storage.transactWriteItems(List.of(
+                        DynamoDBUtil.transactUpdate("Products", key("p-1"), Product.class, decrement(2), inStock(2)),
+                        DynamoDBUtil.transactUpdate("Products", key("p-2"), Product.class, decrement(2), inStock(2))),
+                        "token"));
+
+        assertEquals(List.of("None", "ConditionalCheckFailed"),
+                e.cancellationReasons().stream().map(reason -> reason.code()).collect(Collectors.toList()));
+        assertEquals(5, storage.getItem("Products", key("p-1"), Product.class, false).getStock());
+    }
+
+    @Test
+    public void testDeleteItem_RemovesFromIndex() {
+        storage.putItem("Products", product("p-1", "c-1", 5), null);
+
+        assertEquals("p-1", storage.deleteItem("Products", key("p-1"), Product.class, null).getProductId());
+        assertNull(storage.getItem("Products", key("p-1"), Product.class, false));
+        assertTrue(storage.query("Products", "CategoryIndex",
+                QueryConditional.keyEqualTo(key("c-1")), Product.class, null).isEmpty());
+    }
+
+    private Product product(String productId, String categoryId, int stock) {
+        Product product = new Product();
+        product.setProductId(productId);
+        product.setCategoryId(categoryId);
+        product.setStock(stock);
+        return product;
+    }
+
+    private Key key(String partitionValue) {
+        return Key.builder().partitionValue(partitionValue).build();
+    }
+
+    private Expression decrement(int quantity) {
+        return Expression.builder()
+                .expression("SET #stock = #stock - :quantity")
+                .putExpressionName("#stock", "stock")
+                .putExpressionValue(":quantity", AttributeValue.builder().n(String.valueOf(quantity)).build())
+                .build();
+    }
+
+    private Expression inStock(int required) {
+        return Expression.builder()
+                .expression("attribute_exists(#productId) AND #stock >= :required")
+                .putExpressionName("#productId", "productId")
+                .putExpressionName("#stock", "stock")
+                .putExpressionValue(":required", AttributeValue.builder().n(String.valueOf(required)).build())
+                .build();
+    }
+
+    private List<String> productIds(List<Product> products) {
+        return products.stream().map(Product::getProductId).collect(Collectors.toList());
+    }
+}
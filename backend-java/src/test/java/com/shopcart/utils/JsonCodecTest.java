@@ -0,0 +1,43 @@
+package com.shopcart.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shopcart.models.Product;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class JsonCodecTest {
+
+    @Test
+    public void testWrite_ModelListMatchesPlainObjectMapper() throws Exception {
+        List<Product> products = List.of(product("p-1", 5), product("p-2", 0));
+
+        assertEquals(new ObjectMapper().writeValueAsString(products), JsonCodec.write(products));
+    }
+
+    @Test
+    public void testRead_RoundTripsModel() throws Exception {
+        Product product = JsonCodec.read(JsonCodec.write(product("p-1", 5)), Product.class);
+
+        assertEquals("p-1", product.getProductId());
+        assertEquals(5, product.getStock());
+    }
+
+    @Test
+    public void testRead_MapKeepsNumberTypes() throws Exception {
+        Map<?, ?> body = JsonCodec.read("{\"productId\":\"p-1\",\"quantity\":2}", Map.class);
+
+        assertEquals(Map.of("productId", "p-1", "quantity", 2), body);
+    }
+
+    private Product product(String productId, int stock) {
+        Product product = new Product();
+        product.setProductId(productId);
+        product.setStock(stock);
+        product.setPrice(9.99);
+        return product;
+    }
+}
@@ -0,0 +1,66 @@
+package com.shopcart.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class LruCacheTest {
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    public void testGetOrLoad_LoadsOnceUntilExpired() {
+        LruCache<String, String> cache = new LruCache<>(10, Duration.ofSeconds(30), now::get);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.getOrLoad("p-1", key -> key + "#" + loads.incrementAndGet());
+        now.addAndGet(Duration.ofSeconds(29).toNanos());
+        assertEquals("p-1#1", cache.getOrLoad("p-1", key -> key + "#" + loads.incrementAndGet()));
+        now.addAndGet(Duration.ofSeconds(2).toNanos());
+        assertEquals("p-1#2", cache.getOrLoad("p-1", key -> key + "#" + loads.incrementAndGet()));
+
+        LruCache.Stats stats = cache.stats();
+        assertEquals(1, stats.hits());
+        assertEquals(2, stats.misses());
+        assertEquals(1, stats.expirations());
+    }
+
+    @Test
+    public void testPut_EvictsLeastRecentlyUsed() {
+        LruCache<String, String> cache = new LruCache<>(2, Duration.ofSeconds(30), now::get);
+        cache.put("a", "A");
+        cache.put("b", "B");
+        cache.get("a");
+        cache.put("c", "C");
+
+        assertNull(cache.get("b"));
+        assertEquals("A", cache.get("a"));
+        assertEquals("C", cache.get("c"));
+        assertEquals(1, cache.stats().evictions());
+    }
+
+    @Test
+    public void testGetOrLoad_DoesNotStoreLoadThatRacedWithInvalidation() {
+        LruCache<String, String> cache = new LruCache<>(10, Duration.ofSeconds(30), now::get);
+
+        cache.getOrLoad("p-1", key -> {
+            cache.invalidate(key);
+            return "stale";
+        });
+
+        assertNull(cache.get("p-1"));
+    }
+
+    @Test
+    public void testZeroTtl_DisablesCache() {
+        LruCache<String, String> cache = new LruCache<>(10, Duration.ZERO, now::get);
+        cache.put("a", "A");
+
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.size());
+    }
+}
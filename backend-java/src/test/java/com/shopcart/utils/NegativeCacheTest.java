@@ -0,0 +1,32 @@
+package com.shopcart.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class NegativeCacheTest {
+
+    @Test
+    public void testForget_CreateClearsRememberedMiss() {
+        NegativeCache.remember("NegativeCacheTest-Products", "p-1", NegativeCache.generation());
+
+        assertTrue(NegativeCache.isMissing("NegativeCacheTest-Products", "p-1"));
+        assertFalse(NegativeCache.isMissing("NegativeCacheTest-Carts", "p-1"));
+
+        NegativeCache.forget("NegativeCacheTest-Products", "p-1");
+
+        assertFalse(NegativeCache.isMissing("NegativeCacheTest-Products", "p-1"));
+    }
+
+    @Test
+    public void testRemember_CreateDuringLookupDropsStaleMiss() {
+        long generation = NegativeCache.generation();
+        // A create lands between the read that found nothing and remembering the miss
+        NegativeCache.forget("NegativeCacheTest-Orders", "o-1");
+
+        NegativeCache.remember("NegativeCacheTest-Orders", "o-1", generation);
+
+        assertFalse(NegativeCache.isMissing("NegativeCacheTest-Orders", "o-1"));
+    }
+}
@@ -0,0 +1,102 @@
+package com.shopcart.utils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.model.Page;
+import software.amazon.awssdk.enhanced.dynamodb.model.PageIterable;
+import software.amazon.awssdk.enhanced.dynamodb.model.ScanEnhancedRequest;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ParallelScannerTest {
+
+    private ExecutorService executor;
+    private ParallelScanner scanner;
+    private DynamoDbTable<String> table;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        executor = Executors.newCachedThreadPool();
+        scanner = new ParallelScanner(executor);
+        table = mock(DynamoDbTable.class);
+        when(table.tableName()).thenReturn("test");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testScan_MergesAllSegments() {
+        when(table.scan(any(ScanEnhancedRequest.class))).thenAnswer(invocation -> {
+            ScanEnhancedRequest request = invocation.getArgument(0);
+            int segment = request.segment();
+            return PageIterable.create(() -> List.of(
+                    Page.create(List.of(segment + "-a", segment + "-b")),
+                    Page.create(List.of(segment + "-c"))).iterator());
+        });
+
+        List<String> items;
+        try (Stream<String> stream = scanner.scan(table, 3, 2)) {
+            items = stream.sorted().collect(Collectors.toList());
+        }
+
+        assertEquals(List.of("0-a", "0-b", "0-c", "1-a", "1-b", "1-c", "2-a", "2-b", "2-c"), items);
+    }
+
+    @Test
+    public void testScan_PropagatesSegmentFailure() {
+        when(table.scan(any(ScanEnhancedRequest.class))).thenAnswer(invocation -> {
+            ScanEnhancedRequest request = invocation.getArgument(0);
+            if (request.segment() == 1) {
+                throw new IllegalStateException("throttled");
+            }
+            return PageIterable.create(() -> List.of(Page.create(List.of("item"))).iterator());
+        });
+
+        try (Stream<String> stream = scanner.scan(table, 2, null)) {
+            assertThrows(IllegalStateException.class, () -> stream.collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    public void testScan_AbandonedStreamReleasesWorkers() throws Exception {
+        ExecutorService singleThread = Executors.newSingleThreadExecutor();
+        try {
+            ParallelScanner abandonable = new ParallelScanner(singleThread, Duration.ofMillis(50));
+            when(table.scan(any(ScanEnhancedRequest.class))).thenAnswer(invocation -> PageIterable.create(() ->
+                    Stream.generate(() -> Page.create(List.of("item"))).iterator()));
+
+            // Read one item and drop the stream without closing it
+            Iterator<String> items = abandonable.scan(table, 1, 1).iterator();
+            assertEquals("item", items.next());
+
+            // The only worker thread must become free again
+            singleThread.submit(() -> { }).get(5, TimeUnit.SECONDS);
+            assertThrows(IllegalStateException.class, () -> {
+                while (items.hasNext()) {
+                    items.next();
+                }
+            });
+        } finally {
+            singleThread.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.shopcart.utils;
+
+import com.shopcart.models.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+
+public class ProductCacheTest {
+
+    @BeforeEach
+    public void setUp() {
+        DynamoDBUtil.useStorage(new InMemoryStorage());
+        DynamoDBUtil.putItem("Products", product("p-1", "c-1", 5));
+    }
+
+    @Test
+    public void testGetProduct_ReturnsCopiesOfTheCachedProduct() {
+        Product first = ProductCache.getProduct("Products", "p-1");
+        first.setStock(0);
+        Product second = ProductCache.getProduct("Products", "p-1");
+
+        assertNotSame(first, second);
+        assertEquals(5, second.getStock());
+    }
+
+    @Test
+    public void testGetCategoryProducts_ReturnsCopiesOfTheCachedListing() {
+        ProductCache.getCategoryProducts("Products", "c-1").get(0).setStock(0);
+        List<Product> products = ProductCache.getCategoryProducts("Products", "c-1");
+
+        assertEquals(1, products.size());
+        assertEquals(5, products.get(0).getStock());
+    }
+
+    @Test
+    public void testGetCategoryPage_ReturnsCopiesOfTheCachedPage() {
+        ProductCache.getCategoryPage("Products", "c-1", 10, null).getItems().get(0).setStock(0);
+
+        assertEquals(5, ProductCache.getCategoryPage("Products", "c-1", 10, null).getItems().get(0).getStock());
+    }
+
+    private Product product(String productId, String categoryId, int stock) {
+        Product product = new Product();
+        product.setProductId(productId);
+        product.setCategoryId(categoryId);
+        product.setStock(stock);
+        return product;
+    }
+}
@@ -0,0 +1,68 @@
+package com.shopcart.utils;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class QueryPageTest {
+
+    @Test
+    public void testToken_RoundTripsLastEvaluatedKey() {
+        Map<String, AttributeValue> lastEvaluatedKey = new LinkedHashMap<>();
+        lastEvaluatedKey.put("productId", AttributeValue.builder().s("p-1").build());
+        lastEvaluatedKey.put("categoryId", AttributeValue.builder().s("c/1+2").build());
+        lastEvaluatedKey.put("rank", AttributeValue.builder().n("42").build());
+
+        String token = QueryPage.encodeToken(lastEvaluatedKey);
+
+        assertFalse(token.contains("/") || token.contains("+") || token.contains("="));
+        assertEquals(lastEvaluatedKey, QueryPage.decodeToken(token));
+    }
+
+    @Test
+    public void testToken_EmptyKeyMeansLastPage() {
+        assertNull(QueryPage.encodeToken(Map.of()));
+        assertNull(QueryPage.decodeToken(null));
+        assertFalse(new QueryPage<>(List.of("a"), null).hasNextPage());
+    }
+
+    @Test
+    public void testIsRequested_PagingIsOptIn() {
+        assertFalse(QueryPage.isRequested(null));
+        assertFalse(QueryPage.isRequested(Map.of("categoryId", "c-1")));
+        assertTrue(QueryPage.isRequested(Map.of("limit", "20")));
+        assertTrue(QueryPage.isRequested(Map.of("nextToken", "abc")));
+    }
+
+    @Test
+    public void testToken_RejectsMalformedToken() {
+        assertThrows(IllegalArgumentException.class, () -> QueryPage.decodeToken("not-a-token"));
+    }
+
+    @Test
+    public void testPageSize() {
+        assertEquals(QueryPage.DEFAULT_PAGE_SIZE, QueryPage.pageSize(null));
+        assertEquals(10, QueryPage.pageSize("10"));
+        assertEquals(QueryPage.MAX_PAGE_SIZE, QueryPage.pageSize("100000"));
+        assertThrows(IllegalArgumentException.class, () -> QueryPage.pageSize("0"));
+        assertThrows(IllegalArgumentException.class, () -> QueryPage.pageSize("ten"));
+    }
+
+    @Test
+    public void testHeaders_ExposeNextToken() {
+        QueryPage<String> page = new QueryPage<>(List.of("a"), "token");
+
+        assertTrue(page.hasNextPage());
+        assertEquals("token", page.getHeaders().get(QueryPage.NEXT_TOKEN_HEADER));
+        assertEquals(QueryPage.NEXT_TOKEN_HEADER, page.getHeaders().get("Access-Control-Expose-Headers"));
+    }
+}
@@ -0,0 +1,105 @@
+package com.shopcart.utils;
+
+import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class RouterTest {
+
+    private static Supplier<RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent>> responding(String body) {
+        return () -> (input, context) -> new APIGatewayProxyResponseEvent()
+                .withStatusCode(200)
+                .withBody(body + " " + input.getResource() + " " + input.getPathParameters());
+    }
+
+    private static Router router() {
+        return new Router()
+                .add("GET", "/customers/{customerId}", responding("customer"))
+                .add("GET", "/customers/{customerId}/cart", responding("cart"))
+                .add("GET", "/customers/{customerId}/orders", responding("orders"))
+                .add("PUT", "/carts/{cartId}/items/{productId}", responding("item"))
+                .add("POST", "/carts/{cartId}/items", responding("add"))
+                .add("POST", "/carts/{cartId}/clear", responding("clear"))
+                .add("GET", "/products/{productId}", responding("product"))
+                .add("GET", "/products/featured", responding("featured"));
+    }
+
+    private static APIGatewayProxyRequestEvent request(String method, String path) {
+        return new APIGatewayProxyRequestEvent()
+                .withHttpMethod(method)
+                .withPath(path)
+                .withResource("/{proxy+}")
+                .withPathParameters(Map.of("proxy", path.substring(1)));
+    }
+
+    @Test
+    public void testMatch_BindsPathParameters() {
+        Router.Match match = router().match("PUT", "/carts/c-1/items/p%2F2");
+
+        assertEquals("/carts/{cartId}/items/{productId}", match.route().template);
+        assertEquals(Map.of("cartId", "c-1", "productId", "p/2"), match.pathParameters());
+    }
+
+    @Test
+    public void testMatch_LiteralSegmentsSelectTheRoute() {
+        Router router = router();
+
+        assertEquals("/carts/{cartId}/items", router.match("post", "/carts/c-1/items").route().template);
+        assertEquals("/carts/{cartId}/clear", router.match("POST", "/carts/c-1/clear/").route().template);
+        assertEquals("/customers/{customerId}/orders", router.match("GET", "/customers/u-1/orders").route().template);
+        assertNull(router.match("GET", "/customers/u-1/wishlist"));
+    }
+
+    @Test
+    public void testMatch_PrefersMoreLiteralSegments() {
+        Router router = router();
+
+        assertEquals("/products/featured", router.match("GET", "/products/featured").route().template);
+        assertEquals("/products/{productId}", router.match("GET", "/products/p-1").route().template);
+    }
+
+    @Test
+    public void testRoute_ReplacesProxyParameters() {
+        APIGatewayProxyResponseEvent response = router().route(request("GET", "/customers/u-1"), null);
+
+        assertEquals(200, response.getStatusCode());
+        assertEquals("customer /customers/{customerId} {customerId=u-1}", response.getBody());
+    }
+
+    @Test
+    public void testRoute_UnknownPathIsNotFound() {
+        APIGatewayProxyResponseEvent response = router().route(request("GET", "/wishlists/w-1"), null);
+
+        assertEquals(404, response.getStatusCode());
+    }
+
+    @Test
+    public void testRoute_WrongMethodIsNotAllowed() {
+        APIGatewayProxyResponseEvent response = router().route(request("DELETE", "/carts/c-1/items/p-1"), null);
+
+        assertEquals(405, response.getStatusCode());
+        assertEquals("PUT", response.getHeaders().get("Allow"));
+    }
+
+    @Test
+    public void testLazy_CreatesHandlerOnce() {
+        AtomicInteger created = new AtomicInteger();
+        Supplier<RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent>> handler = Router.lazy(() -> {
+            created.incrementAndGet();
+            return (input, context) -> new APIGatewayProxyResponseEvent();
+        });
+
+        assertEquals(0, created.get());
+        assertSame(handler.get(), handler.get());
+        assertEquals(1, created.get());
+    }
+}
@@ -0,0 +1,133 @@
+package com.shopcart.utils;
+
+import com.shopcart.models.Product;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SingleFlightTest {
+    private static final int CALLERS = 8;
+
+    @Test
+    public void testRun_ConcurrentCallersShareOneLoadAndGetCopies() throws Exception {
+        SingleFlight<String, Product> flight = new SingleFlight<>(product -> (Product) DynamoDBUtil.copyItem(product));
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Product> results = runConcurrently(() -> flight.run("p-1", () -> {
+            loads.incrementAndGet();
+            await(release);
+            Product product = new Product();
+            product.setProductId("p-1");
+            product.setStock(5);
+            return product;
+        }), () -> {
+            waitFor(() -> flight.coalescedCount() == CALLERS - 1);
+            release.countDown();
+        });
+
+        assertEquals(1, loads.get());
+        for (Product product : results) {
+            assertEquals(5, product.getStock());
+            for (Product other : results) {
+                if (other != product) {
+                    assertNotSame(other, product);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testRun_FailureIsSharedAndNextCallStartsAgain() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>();
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Object> results = runConcurrently(() -> {
+            try {
+                return flight.run("k", () -> {
+                    await(release);
+                    throw new IllegalStateException("throttled");
+                });
+            } catch (IllegalStateException e) {
+                return e.getMessage();
+            }
+        }, () -> {
+            waitFor(() -> flight.coalescedCount() == CALLERS - 1);
+            release.countDown();
+        });
+
+        assertTrue(results.stream().allMatch("throttled"::equals));
+        assertEquals("fresh", flight.run("k", () -> "fresh"));
+    }
+
+    @Test
+    public void testRunAsync_FollowersShareThePendingFuture() {
+        SingleFlight<String, String> flight = new SingleFlight<>();
+        CompletableFuture<String> pending = new CompletableFuture<>();
+        AtomicInteger starts = new AtomicInteger();
+
+        CompletableFuture<String> first = flight.runAsync("k", () -> {
+            starts.incrementAndGet();
+            return pending;
+        });
+        CompletableFuture<String> second = flight.runAsync("k", () -> {
+            starts.incrementAndGet();
+            return CompletableFuture.completedFuture("other");
+        });
+        pending.complete("value");
+
+        assertEquals(1, starts.get());
+        assertSame(first.join(), second.join());
+        assertThrows(IllegalStateException.class, () -> flight.run("k", () -> {
+            throw new IllegalStateException("not coalesced once landed");
+        }));
+    }
+
+    private static <T> List<T> runConcurrently(java.util.concurrent.Callable<T> call, Runnable coordinator)
+            throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+        try {
+            List<Future<T>> futures = new ArrayList<>();
+            for (int i = 0; i < CALLERS; i++) {
+                futures.add(executor.submit(call));
+            }
+            coordinator.run();
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : futures) {
+                results.add(future.get(10, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void waitFor(java.util.function.BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.shopcart.utils;
+
+import com.shopcart.models.CartItem;
+import com.shopcart.models.Order;
+import com.shopcart.models.OrderItem;
+import com.shopcart.models.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+
+public class TableRegistryTest {
+
+    private TableRegistry registry;
+
+    @BeforeEach
+    public void setUp() {
+        DynamoDbEnhancedClient enhancedClient = DynamoDbEnhancedClient.builder()
+                .dynamoDbClient(mock(DynamoDbClient.class))
+                .build();
+        registry = new TableRegistry(enhancedClient);
+    }
+
+    @Test
+    public void testSchema_IsBuiltOncePerModel() {
+        assertSame(TableRegistry.schema(Product.class), TableRegistry.schema(Product.class));
+    }
+
+    @Test
+    public void testTable_IsCachedPerTableAndModel() {
+        DynamoDbTable<Product> first = registry.table("Products-test", Product.class);
+        DynamoDbTable<Product> second = registry.table("Products-test", Product.class);
+        DynamoDbTable<Product> other = registry.table("Products-other", Product.class);
+
+        assertSame(first, second);
+        assertNotSame(first, other);
+        assertEquals("Products-test", first.tableName());
+    }
+
+    @Test
+    public void testAsyncTable_RejectedBySynchronousRegistry() {
+        assertThrows(IllegalStateException.class, () -> registry.asyncTable("Products-test", Product.class));
+    }
+
+    @Test
+    public void testTable_UsesSharedSchema() {
+        DynamoDbTable<CartItem> table = registry.table("CartItems-test", CartItem.class);
+
+        assertSame(TableRegistry.schema(CartItem.class), table.tableSchema());
+    }
+
+    @Test
+    public void testSchema_DeclaresDeployedIndexes() {
+        assertEquals("cartId", TableRegistry.schema(CartItem.class).tableMetadata().indexPartitionKey("CartIndex"));
+        assertEquals("orderId", TableRegistry.schema(OrderItem.class).tableMetadata().indexPartitionKey("OrderIndex"));
+        assertEquals("customerId", TableRegistry.schema(Order.class).tableMetadata().indexPartitionKey("CustomerIndex"));
+    }
+}